@@ -17,61 +17,83 @@
  */
 package org.jboss.pnc.auth;
 
+import com.codahale.metrics.MetricRegistry;
+import org.jboss.pnc.common.concurrent.MDCExecutors;
+import org.jboss.pnc.common.concurrent.NamedThreadFactory;
 import org.jboss.pnc.common.json.ConfigurationParseException;
 import org.jboss.pnc.common.json.moduleconfig.KeycloakClientConfig;
 import org.jboss.pnc.common.json.moduleconfig.SystemConfig;
-import org.keycloak.representations.AccessTokenResponse;
+import org.jboss.pnc.common.util.ReadEnvProperty;
+import org.jboss.pnc.pncmetrics.GaugeMetric;
+import org.jboss.pnc.pncmetrics.MetricsConfiguration;
 
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
+ * The service account token is cached and refreshed ahead of the moment it would not be valid for
+ * 'serviceTokenRefreshIfExpiresInSeconds' anymore, see {@link ServiceTokenManager}.
+ *
  * @author <a href="mailto:matejonnet@gmail.com">Matej Lazar</a>
  */
 @ApplicationScoped
 public class DefaultKeycloakServiceClient implements KeycloakServiceClient {
 
-    private KeycloakClientConfig keycloakServiceAccountConfig;
-    private long serviceTokenRefreshIfExpiresInSeconds;
-
-    private AccessTokenResponse keycloakToken;
+    static final String REFRESH_AHEAD_KEY = "service_token_refresh_ahead_seconds";
+    private static final int DEFAULT_REFRESH_AHEAD_SECONDS = 300;
 
-    private Instant expiresAt;
+    private ServiceTokenManager tokenManager;
 
     @Deprecated // CDI workaround
     public DefaultKeycloakServiceClient() {
     }
 
-    @Inject
     public DefaultKeycloakServiceClient(SystemConfig systemConfig) throws ConfigurationParseException {
-        keycloakServiceAccountConfig = systemConfig.getKeycloakServiceAccountConfig();
-        serviceTokenRefreshIfExpiresInSeconds = systemConfig.getServiceTokenRefreshIfExpiresInSeconds();
+        this(systemConfig, null);
     }
 
-    @Override
-    public String getAuthToken() {
-        if (keycloakToken == null || refreshRequired()) {
-            keycloakToken = KeycloakClient.getAuthTokensBySecret(
-                    keycloakServiceAccountConfig.getAuthServerUrl(),
-                    keycloakServiceAccountConfig.getRealm(),
-                    keycloakServiceAccountConfig.getResource(),
-                    keycloakServiceAccountConfig.getSecret(),
-                    keycloakServiceAccountConfig.getSslRequired());
-            expiresAt = Instant.now().plus(keycloakToken.getExpiresIn(), ChronoUnit.SECONDS);
+    @Inject
+    public DefaultKeycloakServiceClient(SystemConfig systemConfig, MetricsConfiguration metricsConfiguration)
+            throws ConfigurationParseException {
+        KeycloakClientConfig config = systemConfig.getKeycloakServiceAccountConfig();
+        // make sure the token is still valid 'serviceTokenRefreshIfExpiresInSeconds' seconds from now, which is the
+        // max 'supported' duration of a build. We need that token to be valid for actions done at the end of the build
+        long requiredValiditySeconds = systemConfig.getServiceTokenRefreshIfExpiresInSeconds();
+        int refreshAheadSeconds = new ReadEnvProperty()
+                .getIntValueFromPropertyOrDefault(REFRESH_AHEAD_KEY, DEFAULT_REFRESH_AHEAD_SECONDS);
+        Optional<GaugeMetric> gaugeMetric = Optional.empty();
+        Optional<MetricRegistry> metricRegistry = Optional.empty();
+        if (metricsConfiguration != null) {
+            gaugeMetric = Optional.of(metricsConfiguration.getGaugeMetric());
+            metricRegistry = Optional.of(metricsConfiguration.getMetricRegistry());
         }
-        return keycloakToken.getToken();
+        tokenManager = new ServiceTokenManager(
+                () -> KeycloakClient.getAuthTokensBySecret(
+                        config.getAuthServerUrl(),
+                        config.getRealm(),
+                        config.getResource(),
+                        config.getSecret(),
+                        config.getSslRequired()),
+                TimeUnit.SECONDS.toMillis(requiredValiditySeconds),
+                TimeUnit.SECONDS.toMillis(refreshAheadSeconds),
+                System::currentTimeMillis,
+                MDCExecutors.newScheduledThreadPool(1, new NamedThreadFactory("auth.service-token-refresh")),
+                gaugeMetric,
+                metricRegistry);
     }
 
-    private boolean refreshRequired() {
+    @Override
+    public String getAuthToken() {
+        return tokenManager.getToken();
+    }
 
-        if (expiresAt == null) {
-            // if we accidentally call this method before expiresAt is set, then we obviously need to get a new token
-            return true;
+    @PreDestroy
+    public void shutdown() {
+        if (tokenManager != null) {
+            tokenManager.shutdown();
         }
-        // make sure the token is still valid 'serviceTokenRefreshIfExpiresInSeconds' seconds from now, which is the
-        // max 'supported' duration of a build. We need that token to be valid for actions done at the end of the build
-        return expiresAt.isBefore(Instant.now().plus(serviceTokenRefreshIfExpiresInSeconds, ChronoUnit.SECONDS));
     }
 }
@@ -0,0 +1,233 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.auth;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.jboss.pnc.pncmetrics.GaugeMetric;
+import org.keycloak.representations.AccessTokenResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches the service account token and refreshes it before it stops being valid long enough.
+ *
+ * The cached token is served from a volatile field without locking. A refresh is scheduled in the background ahead of
+ * the moment the token would no longer be valid for the required time, so callers normally never wait for Keycloak.
+ * When a caller has to refresh the token itself, concurrent refreshes are coalesced into a single request whose result
+ * is shared by all the waiting callers.
+ */
+class ServiceTokenManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServiceTokenManager.class);
+
+    static final long RETRY_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    static final String METRICS_KEY = "auth.service-token.refresh";
+    static final String METRICS_SUCCESS_KEY = METRICS_KEY + ".success";
+    static final String METRICS_FAILED_KEY = METRICS_KEY + ".failed";
+    static final String METRICS_LATENCY_KEY = METRICS_KEY + ".latency";
+
+    /**
+     * Obtains a new token from the authentication server.
+     */
+    interface TokenSource {
+        AccessTokenResponse fetch();
+    }
+
+    private final TokenSource source;
+
+    private final long requiredValidityMillis;
+
+    private final long refreshAheadMillis;
+
+    private final LongSupplier clock;
+
+    private final ScheduledExecutorService scheduler;
+
+    private volatile Token current;
+
+    private final AtomicReference<CompletableFuture<Token>> refreshing = new AtomicReference<>();
+
+    private ScheduledFuture<?> scheduledRefresh;
+
+    private final Optional<GaugeMetric> gaugeMetric;
+
+    /**
+     * Times the requests to the authentication server, both successful and failed.
+     */
+    private final Optional<Timer> latencyTimer;
+
+    /**
+     * @param requiredValidityMillis how long the served token has to stay valid
+     * @param refreshAheadMillis how long before the token stops being valid long enough the background refresh starts
+     */
+    ServiceTokenManager(
+            TokenSource source,
+            long requiredValidityMillis,
+            long refreshAheadMillis,
+            LongSupplier clock,
+            ScheduledExecutorService scheduler,
+            Optional<GaugeMetric> gaugeMetric,
+            Optional<MetricRegistry> metricRegistry) {
+        this.source = source;
+        this.requiredValidityMillis = requiredValidityMillis;
+        this.refreshAheadMillis = refreshAheadMillis;
+        this.clock = clock;
+        this.scheduler = scheduler;
+        this.gaugeMetric = gaugeMetric;
+        this.latencyTimer = metricRegistry.map(registry -> registry.timer(METRICS_LATENCY_KEY));
+    }
+
+    String getToken() {
+        Token token = current;
+        if (isValid(token)) {
+            return token.value;
+        }
+        try {
+            return refresh(false).join().value;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private boolean isValid(Token token) {
+        return token != null && token.expiresAt - requiredValidityMillis > clock.getAsLong();
+    }
+
+    /**
+     * Starts a refresh in the calling thread or joins the one already running.
+     *
+     * @param force refresh even if the cached token is still valid
+     */
+    private CompletableFuture<Token> refresh(boolean force) {
+        while (true) {
+            CompletableFuture<Token> running = refreshing.get();
+            if (running != null) {
+                return running;
+            }
+            CompletableFuture<Token> started = new CompletableFuture<>();
+            if (refreshing.compareAndSet(null, started)) {
+                doRefresh(started, force);
+                return started;
+            }
+        }
+    }
+
+    private void doRefresh(CompletableFuture<Token> result, boolean force) {
+        Token cached = current;
+        if (!force && isValid(cached)) {
+            // refreshed by someone else since the caller checked
+            refreshing.set(null);
+            result.complete(cached);
+            return;
+        }
+        long start = System.nanoTime();
+        Token token;
+        try {
+            AccessTokenResponse response = source.fetch();
+            token = new Token(
+                    response.getToken(),
+                    clock.getAsLong() + TimeUnit.SECONDS.toMillis(response.getExpiresIn()));
+        } catch (RuntimeException e) {
+            gaugeMetric.ifPresent(g -> g.incrementMetric(METRICS_FAILED_KEY));
+            long latency = recordLatency(start);
+            logger.warn("Failed to refresh the service account token in {} ms.", latency, e);
+            refreshing.set(null);
+            result.completeExceptionally(e);
+            return;
+        }
+        current = token;
+        gaugeMetric.ifPresent(g -> g.incrementMetric(METRICS_SUCCESS_KEY));
+        long latency = recordLatency(start);
+        logger.info(
+                "Service account token refreshed in {} ms, expires at {}.",
+                latency,
+                Instant.ofEpochMilli(token.expiresAt));
+        refreshing.set(null);
+        result.complete(token);
+        scheduleRefresh(token.expiresAt - requiredValidityMillis - refreshAheadMillis - clock.getAsLong());
+    }
+
+    /**
+     * @param start {@link System#nanoTime()} when the request started
+     * @return latency in milliseconds
+     */
+    private long recordLatency(long start) {
+        long latencyNanos = System.nanoTime() - start;
+        latencyTimer.ifPresent(timer -> timer.update(latencyNanos, TimeUnit.NANOSECONDS));
+        return TimeUnit.NANOSECONDS.toMillis(latencyNanos);
+    }
+
+    /**
+     * Tokens which are not valid for the required time already when obtained are not refreshed in the background, they
+     * are refreshed by every caller as before.
+     */
+    private synchronized void scheduleRefresh(long delayMillis) {
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+            scheduledRefresh = null;
+        }
+        if (delayMillis > 0) {
+            scheduledRefresh = scheduler.schedule(this::refreshInBackground, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * The refresh may be joined with one started by a caller, which is still running. The retry is scheduled once it
+     * fails, whoever started it. A token which is not usable anymore is retried too, so the background refresh resumes.
+     */
+    private void refreshInBackground() {
+        refresh(true).whenComplete((token, error) -> {
+            if (error != null) {
+                Token cached = current;
+                long usableMillis = cached == null ? 0 : cached.expiresAt - requiredValidityMillis - clock.getAsLong();
+                scheduleRefresh(usableMillis > 0 ? Math.min(RETRY_MILLIS, usableMillis) : RETRY_MILLIS);
+            }
+        });
+    }
+
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private static class Token {
+
+        private final String value;
+
+        private final long expiresAt;
+
+        private Token(String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
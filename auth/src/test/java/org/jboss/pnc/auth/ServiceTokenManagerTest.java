@@ -0,0 +1,207 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.auth;
+
+import com.codahale.metrics.MetricRegistry;
+import org.jboss.pnc.pncmetrics.GaugeMetric;
+import org.junit.Test;
+import org.keycloak.representations.AccessTokenResponse;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+public class ServiceTokenManagerTest {
+
+    private static final long LIFESPAN_SECONDS = 3600;
+    private static final long REQUIRED_VALIDITY_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    private static final long REFRESH_AHEAD_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    private final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+
+    private final GaugeMetric gaugeMetric = mock(GaugeMetric.class);
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+
+    private final ServiceTokenManager.TokenSource stub = () -> token("token-" + fetches.incrementAndGet());
+
+    @Test
+    public void shouldServeCachedToken() {
+        ServiceTokenManager manager = manager(stub);
+
+        assertThat(manager.getToken()).isEqualTo("token-1");
+        now.set(TimeUnit.MINUTES.toMillis(20));
+        assertThat(manager.getToken()).isEqualTo("token-1");
+        assertThat(fetches).hasValue(1);
+        assertThat(metricRegistry.timer(ServiceTokenManager.METRICS_LATENCY_KEY).getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldRefreshTokenNotValidLongEnough() {
+        ServiceTokenManager manager = manager(stub);
+        manager.getToken();
+
+        now.set(TimeUnit.SECONDS.toMillis(LIFESPAN_SECONDS) - REQUIRED_VALIDITY_MILLIS);
+
+        assertThat(manager.getToken()).isEqualTo("token-2");
+        assertThat(fetches).hasValue(2);
+    }
+
+    @Test
+    public void shouldScheduleRefreshAheadOfExpiry() {
+        ServiceTokenManager manager = manager(stub);
+        manager.getToken();
+
+        long delay = TimeUnit.SECONDS.toMillis(LIFESPAN_SECONDS) - REQUIRED_VALIDITY_MILLIS - REFRESH_AHEAD_MILLIS;
+        ArgumentCaptor<Runnable> refresh = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(refresh.capture(), eq(delay), eq(TimeUnit.MILLISECONDS));
+
+        now.set(delay);
+        refresh.getValue().run();
+
+        assertThat(manager.getToken()).isEqualTo("token-2");
+        assertThat(fetches).hasValue(2);
+    }
+
+    @Test
+    public void shouldCoalesceConcurrentRefreshes() throws Exception {
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ServiceTokenManager manager = manager(() -> {
+            fetching.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return token("token-" + fetches.incrementAndGet());
+        });
+
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> tokens = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                tokens.add(executor.submit(manager::getToken));
+            }
+            assertThat(fetching.await(5, TimeUnit.SECONDS)).isTrue();
+            // let the other callers reach the running refresh
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<String> token : tokens) {
+                assertThat(token.get(5, TimeUnit.SECONDS)).isEqualTo("token-1");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(fetches).hasValue(1);
+    }
+
+    @Test
+    public void shouldCountFailedRefresh() {
+        ServiceTokenManager manager = manager(() -> {
+            throw new RuntimeException("Keycloak is down");
+        });
+
+        assertThatThrownBy(manager::getToken).hasMessage("Keycloak is down");
+        verify(gaugeMetric).incrementMetric(ServiceTokenManager.METRICS_FAILED_KEY);
+        verify(gaugeMetric, never()).incrementMetric(ServiceTokenManager.METRICS_SUCCESS_KEY);
+        assertThat(metricRegistry.timer(ServiceTokenManager.METRICS_LATENCY_KEY).getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldRetryWhenJoinedRefreshFails() throws Exception {
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ServiceTokenManager manager = manager(() -> {
+            if (fetches.incrementAndGet() == 1) {
+                return token("token-1");
+            }
+            fetching.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new RuntimeException("Keycloak is down");
+        });
+        manager.getToken();
+        ArgumentCaptor<Runnable> refresh = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(refresh.capture(), any(Long.class), eq(TimeUnit.MILLISECONDS));
+
+        // a caller refreshes the token which is not valid long enough anymore
+        now.set(TimeUnit.SECONDS.toMillis(LIFESPAN_SECONDS) - REQUIRED_VALIDITY_MILLIS);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> caller = executor.submit(manager::getToken);
+            assertThat(fetching.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // the background refresh joins the running one
+            refresh.getValue().run();
+            release.countDown();
+
+            assertThatThrownBy(() -> caller.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("Keycloak is down");
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(scheduler, timeout(5000))
+                .schedule(any(Runnable.class), eq(ServiceTokenManager.RETRY_MILLIS), eq(TimeUnit.MILLISECONDS));
+        assertThat(fetches).hasValue(2);
+    }
+
+    private ServiceTokenManager manager(ServiceTokenManager.TokenSource source) {
+        return new ServiceTokenManager(
+                source,
+                REQUIRED_VALIDITY_MILLIS,
+                REFRESH_AHEAD_MILLIS,
+                now::get,
+                scheduler,
+                Optional.of(gaugeMetric),
+                Optional.of(metricRegistry));
+    }
+
+    private static AccessTokenResponse token(String value) {
+        AccessTokenResponse response = new AccessTokenResponse();
+        response.setToken(value);
+        response.setExpiresIn(LIFESPAN_SECONDS);
+        return response;
+    }
+}
@@ -35,30 +35,43 @@ public enum BpmEventType { // TODO merge with org.jboss.pnc.spi.notifications.mo
     // <T extends BpmNotificationRest>
     DEBUG(BpmStringMapNotificationRest.class),
     BREW_IMPORT(MilestoneReleaseResultRest.class),
-    BUILD_COMPLETE(BuildResultRest.class),
+    BUILD_COMPLETE(BuildResultRest.class, true),
     RC_REPO_CREATION_SUCCESS(BpmStringMapNotificationRest.class),
     RC_REPO_CREATION_ERROR(BpmStringMapNotificationRest.class),
     RC_REPO_CLONE_SUCCESS(RepositoryCloneSuccess.class),
     RC_REPO_CLONE_ERROR(BpmStringMapNotificationRest.class),
 
-    // notification for bpm task completion
+    // notification for bpm task completion, the task is removed later by the cleanup because of NCL-2300
     BCC_CONFIG_SET_ADDITION_SUCCESS(BpmStringMapNotificationRest.class),
     BCC_CONFIG_SET_ADDITION_ERROR(BpmStringMapNotificationRest.class);
 
     private final Class<? extends BpmEvent> type;
 
+    private final boolean completingTask;
+
+    BpmEventType(Class<? extends BpmEvent> type) {
+        this(type, false);
+    }
+
     /**
      * @param type Type of the class containing event data received from the process. Usually named *Rest.
+     * @param completingTask true if the event is the last one sent by the process and the task can be removed once
+     *        the listeners were notified
      */
-    BpmEventType(Class<? extends BpmEvent> type) {
+    BpmEventType(Class<? extends BpmEvent> type, boolean completingTask) {
         requireNonNull(type);
         this.type = type;
+        this.completingTask = completingTask;
     }
 
     public <T extends BpmEvent> Class<T> getType() {
         return (Class<T>) type;
     }
 
+    public boolean isCompletingTask() {
+        return completingTask;
+    }
+
     public static BpmEventType nullableValueOf(String name) {
         try {
             return valueOf(name);
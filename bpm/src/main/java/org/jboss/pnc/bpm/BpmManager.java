@@ -19,8 +19,11 @@ package org.jboss.pnc.bpm;
 
 import org.jboss.pnc.bpm.model.BpmEvent;
 import org.jboss.pnc.bpm.task.BpmBuildTask;
+import org.jboss.pnc.common.concurrent.MDCExecutors;
+import org.jboss.pnc.common.concurrent.NamedThreadFactory;
 import org.jboss.pnc.common.json.GlobalModuleGroup;
 import org.jboss.pnc.common.json.moduleconfig.BpmModuleConfig;
+import org.jboss.pnc.common.util.ReadEnvProperty;
 import org.jboss.pnc.spi.exception.CoreException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,17 +33,19 @@ import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import java.util.Collection;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 
 import static org.jboss.pnc.bpm.BpmEventType.nullableValueOf;
 
@@ -56,10 +61,19 @@ public class BpmManager {
 
     static final int AUTHENTICATION_TIMEOUT_S = 2 * 60;
 
+    static final String CLEANUP_PARALLELISM_KEY = "bpm_cleanup_parallelism";
+    private static final int DEFAULT_CLEANUP_PARALLELISM = 8;
+
     private GlobalModuleGroup globalConfig;
     private BpmModuleConfig bpmConfig;
     private AtomicInteger nextTaskId = new AtomicInteger(1);
     private Map<Integer, BpmTask> tasks = new ConcurrentHashMap<>();
+    /**
+     * Index of active build tasks: build id to BPM task id.
+     */
+    private Map<Integer, Integer> buildTaskIds = new ConcurrentHashMap<>();
+    private AtomicBoolean cleanupRunning = new AtomicBoolean();
+    private ExecutorService cleanupExecutor;
     private KieClientConnector kieConnector;
     private RestConnector restConnector;
 
@@ -81,12 +95,19 @@ public class BpmManager {
     public void init() throws CoreException {
         kieConnector = new KieClientConnector(globalConfig, bpmConfig);
         restConnector = new RestConnector(bpmConfig);
+        int parallelism = new ReadEnvProperty()
+                .getIntValueFromPropertyOrDefault(CLEANUP_PARALLELISM_KEY, DEFAULT_CLEANUP_PARALLELISM);
+        cleanupExecutor = MDCExecutors
+                .newFixedThreadPool(parallelism, new NamedThreadFactory("bpm-manager.cleanup"));
     }
 
     @PreDestroy
     private void dispose() {
         kieConnector.close();
         restConnector.close();
+        if (cleanupExecutor != null) {
+            cleanupExecutor.shutdownNow();
+        }
     }
 
     private int getNextTaskId() {
@@ -109,6 +130,7 @@ public class BpmManager {
             task.setProcessInstanceId(processInstanceId);
             task.setProcessName(processId);
             tasks.put(task.getTaskId(), task);
+            indexTask(task);
 
             log.debug("Notifying new task added {}.", task.getTaskId());
             notifyNewTaskAdded(task);
@@ -160,6 +182,9 @@ public class BpmManager {
                         bpmEventType,
                         notification.toString());
                 task.notify(bpmEventType, notification);
+                if (bpmEventType.isCompletingTask()) {
+                    remove(task.getTaskId());
+                }
             }
         });
 
@@ -167,33 +192,65 @@ public class BpmManager {
     }
 
     /**
-     * Regularly cleans finished BPM tasks asynchronously Immediate cleanup is not usable because of NCL-2300
+     * Regularly cleans finished BPM tasks. Build tasks are removed immediately after their completing notification.
+     * The other tasks are removed only here, immediate cleanup is not usable for them because of NCL-2300. Status of
+     * the process instances is checked in parallel with bounded concurrency. A run is skipped if the previous one is
+     * still in progress.
      */
-    public void cleanup() { // TODO remove tasks immediately after the completion, see:
-                            // BuildTaskEndpoint.buildTaskCompleted
-        log.debug("Bpm manager tasks cleanup started");
-
-        Map<Integer, BpmTask> clonedTaskMap = new HashMap<>(this.tasks);
+    public void cleanup() {
+        if (!cleanupRunning.compareAndSet(false, true)) {
+            log.warn("Previous bpm manager tasks cleanup is still running, skipping.");
+            return;
+        }
+        try {
+            log.debug("Bpm manager tasks cleanup started, {} active tasks.", tasks.size());
 
-        Set<Integer> toBeRemoved = clonedTaskMap.values().stream().filter(bpmTask -> {
-            if (bpmTask == null) {
-                log.warn("Listing invalid entry for removal from the tasks list.");
-                return true;
+            List<CompletableFuture<Void>> checks = new ArrayList<>(tasks.size());
+            for (Map.Entry<Integer, BpmTask> entry : tasks.entrySet()) {
+                Integer taskId = entry.getKey();
+                BpmTask bpmTask = entry.getValue();
+                checks.add(CompletableFuture.runAsync(() -> {
+                    if (isCompleted(bpmTask)) {
+                        remove(taskId);
+                    }
+                }, cleanupExecutor));
             }
-            log.debug("Attempting to fetch process instance for bpmTask: {}.", bpmTask.getTaskId());
-            Long processInstanceId = bpmTask.getProcessInstanceId();
-            return bpmTask.getConnector().get().isProcessInstanceCompleted(processInstanceId);
-        }).map(BpmTask::getTaskId).collect(Collectors.toSet());
-        toBeRemoved.forEach(id -> {
-            BpmTask removed = tasks.remove(id);
-            if (removed != null) {
-                log.debug("Removed bpmTask.id: {}.", removed.getTaskId());
-            } else {
-                log.warn("Unable to remove bpmTask.id: {}.", id);
+            CompletableFuture.allOf(checks.toArray(new CompletableFuture[0])).join();
+
+            log.debug("Bpm manager tasks cleanup finished, {} active tasks.", tasks.size());
+        } finally {
+            cleanupRunning.set(false);
+        }
+    }
+
+    private boolean isCompleted(BpmTask bpmTask) {
+        if (bpmTask == null) {
+            log.warn("Listing invalid entry for removal from the tasks list.");
+            return true;
+        }
+        log.debug("Attempting to fetch process instance for bpmTask: {}.", bpmTask.getTaskId());
+        try {
+            return bpmTask.getConnector().get().isProcessInstanceCompleted(bpmTask.getProcessInstanceId());
+        } catch (RuntimeException e) {
+            log.warn("Cannot check the process instance of bpmTask.id: {}.", bpmTask.getTaskId(), e);
+            return false;
+        }
+    }
+
+    private void indexTask(BpmTask task) {
+        if (task instanceof BpmBuildTask) {
+            int buildId = ((BpmBuildTask) task).getBuildTask().getId();
+            Integer previous = buildTaskIds.put(buildId, task.getTaskId());
+            if (previous != null && tasks.containsKey(previous)) {
+                log.warn("More than one task with the same build id {}: {}, {}.", buildId, previous, task.getTaskId());
             }
-        });
+        }
+    }
 
-        log.debug("Bpm manager tasks cleanup finished");
+    private void unindexTask(BpmTask task) {
+        if (task instanceof BpmBuildTask) {
+            buildTaskIds.remove(((BpmBuildTask) task).getBuildTask().getId(), task.getTaskId());
+        }
     }
 
     /**
@@ -201,16 +258,12 @@ public class BpmManager {
      */
     @Deprecated
     public Integer getTaskIdByBuildId(int buildId) {
-        List<Integer> result = tasks.values()
-                .stream()
-                .filter(t -> t instanceof BpmBuildTask)
-                .filter(t -> ((BpmBuildTask) t).getBuildTask().getId() == buildId)
-                .map(BpmTask::getTaskId)
-                .collect(Collectors.toList());
-        if (result.size() > 1) {
-            throw new IllegalStateException("More that one task with the same build id: " + result);
-        }
-        return result.size() == 1 ? result.get(0) : null;
+        return buildTaskIds.get(buildId);
+    }
+
+    public Optional<BpmTask> getTaskByBuildId(int buildId) {
+        Integer taskId = buildTaskIds.get(buildId);
+        return taskId == null ? Optional.empty() : getTaskById(taskId);
     }
 
     public Collection<BpmTask> getActiveTasks() {
@@ -224,6 +277,7 @@ public class BpmManager {
     public void remove(Integer taskId) {
         BpmTask removed = tasks.remove(taskId);
         if (removed != null) {
+            unindexTask(removed);
             log.debug("Removed task id: {}.", removed.getTaskId());
         } else {
             log.warn(
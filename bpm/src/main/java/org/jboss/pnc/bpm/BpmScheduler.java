@@ -34,7 +34,7 @@ public class BpmScheduler {
     private BpmManager bpmManager;
 
     /**
-     * The finished BPM tasks has to be cleaned up regularly Immediate cleanup is not usable because of NCL-2300
+     * Reconciles the BPM tasks whose process finished without sending the completing notification
      */
     @Schedule(hour = "*")
     public void bpmTasksCleanup() {
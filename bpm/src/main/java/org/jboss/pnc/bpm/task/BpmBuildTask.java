@@ -110,13 +110,6 @@ public class BpmBuildTask extends BpmTask {
     }
 
     public static Optional<BpmTask> getBpmTaskByBuildTaskId(BpmManager bpmManager, Integer buildTaskId) {
-        return bpmManager.getActiveTasks().stream().filter(bpmTask -> {
-            if (bpmTask instanceof BpmBuildTask) {
-                int buildId = ((BpmBuildTask) bpmTask).getBuildTask().getId();
-                return buildId == buildTaskId.intValue();
-            } else {
-                return false;
-            }
-        }).findFirst();
+        return bpmManager.getTaskByBuildId(buildTaskId);
     }
 }
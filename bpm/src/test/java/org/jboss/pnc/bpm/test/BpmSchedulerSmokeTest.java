@@ -39,6 +39,7 @@ import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 
+import static org.jboss.pnc.bpm.BpmEventType.BCC_CONFIG_SET_ADDITION_SUCCESS;
 import static org.jboss.pnc.bpm.BpmEventType.RC_REPO_CREATION_ERROR;
 import static org.jboss.pnc.bpm.BpmEventType.RC_REPO_CREATION_SUCCESS;
 import static org.junit.Assert.assertEquals;
@@ -109,6 +110,31 @@ public class BpmSchedulerSmokeTest {
 
         assertTrue(successNotification);
         assertFalse(errorNotification);
+        assertTrue(bpmManager.getTaskById(1).isPresent());
+    }
+
+    @Test
+    public void shouldKeepConfigSetAdditionTaskUntilCleanup() throws CoreException {
+        // NCL-2300: the task must not be removed immediately after the completion notification
+        BpmTask task = new BpmTask("") {
+            @Override
+            protected String getProcessId() {
+                return "colors";
+            }
+
+            @Override
+            protected Serializable getProcessParameters() throws CoreException {
+                return new SimpleParameters();
+            }
+        };
+        bpmManager.startTask(task);
+        int taskId = task.getTaskId();
+
+        BpmStringMapNotificationRest notification = mock(BpmStringMapNotificationRest.class);
+        when(notification.getEventType()).thenReturn(BCC_CONFIG_SET_ADDITION_SUCCESS.name());
+        bpmManager.notify(taskId, notification);
+
+        assertTrue(bpmManager.getTaskById(taskId).isPresent());
     }
 
     class SimpleParameters implements Serializable {
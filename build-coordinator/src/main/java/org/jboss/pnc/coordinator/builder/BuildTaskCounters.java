@@ -0,0 +1,108 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.coordinator.builder;
+
+import org.jboss.pnc.enums.BuildCoordinationStatus;
+import org.jboss.pnc.spi.coordinator.BuildTask;
+import org.jboss.pnc.spi.coordinator.BuildTaskCounts;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps the numbers of unfinished build tasks up to date on every status update, so they can be read without scanning
+ * the build queue and without taking its lock.
+ *
+ * The status counted for each task is remembered and replaced atomically, so the counters stay consistent even when a
+ * task is updated concurrently or to the same status twice.
+ */
+class BuildTaskCounters {
+
+    private final Map<BuildCoordinationStatus, AtomicInteger> statuses = new EnumMap<>(BuildCoordinationStatus.class);
+
+    private final ConcurrentMap<Integer, BuildCoordinationStatus> countedTasks = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Integer, Integer> users = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Integer, Integer> groupBuilds = new ConcurrentHashMap<>();
+
+    BuildTaskCounters() {
+        for (BuildCoordinationStatus status : BuildCoordinationStatus.values()) {
+            statuses.put(status, new AtomicInteger());
+        }
+    }
+
+    /**
+     * Moves the task to the counter of its new status, or stops counting it when the new status is not counted.
+     */
+    void update(BuildTask task, BuildCoordinationStatus status) {
+        boolean counted = BuildTaskCounts.isCounted(status);
+        countedTasks.compute(task.getId(), (id, previous) -> {
+            if (previous == status) {
+                return previous;
+            }
+            if (previous != null) {
+                statuses.get(previous).decrementAndGet();
+            }
+            if (counted) {
+                statuses.get(status).incrementAndGet();
+                if (previous == null) {
+                    increment(users, userId(task));
+                    increment(groupBuilds, task.getBuildConfigSetRecordId());
+                }
+                return status;
+            }
+            if (previous != null) {
+                decrement(users, userId(task));
+                decrement(groupBuilds, task.getBuildConfigSetRecordId());
+            }
+            return null;
+        });
+    }
+
+    BuildTaskCounts snapshot() {
+        Map<BuildCoordinationStatus, Integer> statusCounts = new EnumMap<>(BuildCoordinationStatus.class);
+        statuses.forEach((status, counter) -> {
+            int count = counter.get();
+            if (count > 0) {
+                statusCounts.put(status, count);
+            }
+        });
+        return new BuildTaskCounts(statusCounts, new HashMap<>(users), new HashMap<>(groupBuilds));
+    }
+
+    private static Integer userId(BuildTask task) {
+        return task.getUser() == null ? null : task.getUser().getId();
+    }
+
+    private static void increment(ConcurrentMap<Integer, Integer> counts, Integer key) {
+        if (key != null) {
+            counts.merge(key, 1, Integer::sum);
+        }
+    }
+
+    private static void decrement(ConcurrentMap<Integer, Integer> counts, Integer key) {
+        if (key != null) {
+            counts.computeIfPresent(key, (k, count) -> count == 1 ? null : count - 1);
+        }
+    }
+}
@@ -39,6 +39,7 @@ import org.slf4j.LoggerFactory;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -345,11 +346,22 @@ public class BuildTasksInitializer {
             buildSetTask.addBuildTask(buildTask);
         }
 
-        // Loop again to set dependencies
+        // Loop again to set dependencies, looking up the tasks of direct config dependencies instead of checking every
+        // pair of tasks
+        Map<BuildConfiguration, List<BuildTask>> tasksByConfig = buildSetTask.getBuildTasks()
+                .stream()
+                .filter(t -> t.getBuildConfigurationAudited().getBuildConfiguration() != null)
+                .collect(Collectors.groupingBy(t -> t.getBuildConfigurationAudited().getBuildConfiguration()));
         for (BuildTask buildTask : buildSetTask.getBuildTasks()) {
-            for (BuildTask checkDepBuildTask : buildSetTask.getBuildTasks()) {
-                if (buildTask.hasDirectConfigDependencyOn(checkDepBuildTask)) {
-                    buildTask.addDependency(checkDepBuildTask);
+            BuildConfiguration buildConfiguration = buildTask.getBuildConfigurationAudited().getBuildConfiguration();
+            if (buildConfiguration == null || buildConfiguration.getDependencies() == null) {
+                continue;
+            }
+            for (BuildConfiguration dependency : buildConfiguration.getDependencies()) {
+                for (BuildTask checkDepBuildTask : tasksByConfig.getOrDefault(dependency, Collections.emptyList())) {
+                    if (buildTask.hasDirectConfigDependencyOn(checkDepBuildTask)) {
+                        buildTask.addDependency(checkDepBuildTask);
+                    }
                 }
             }
         }
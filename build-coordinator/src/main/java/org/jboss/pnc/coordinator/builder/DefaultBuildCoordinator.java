@@ -45,6 +45,7 @@ import org.jboss.pnc.spi.coordinator.BuildCoordinator;
 import org.jboss.pnc.spi.coordinator.BuildSetTask;
 import org.jboss.pnc.spi.coordinator.BuildTask;
 import org.jboss.pnc.spi.coordinator.CompletionStatus;
+import org.jboss.pnc.spi.coordinator.BuildTaskCounts;
 import org.jboss.pnc.spi.coordinator.ProcessException;
 import org.jboss.pnc.spi.coordinator.events.DefaultBuildSetStatusChangedEvent;
 import org.jboss.pnc.spi.coordinator.events.DefaultBuildStatusChangedEvent;
@@ -106,6 +107,8 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
 
     private BuildTasksInitializer buildTasksInitializer;
 
+    private final BuildTaskCounters buildTaskCounters = new BuildTaskCounters();
+
     // Lock so that only one build method is active at any time
     private final Object buildMethodLock = new Object();
     private GroupBuildMapper groupBuildMapper;
@@ -548,6 +551,7 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
             task.setStatus(status);
             task.setStatusDescription(statusDescription);
         }
+        buildTaskCounters.update(task, status);
 
         Build build = buildMapper.fromBuildTask(task);
         BuildStatusChangedEvent buildStatusChanged = new DefaultBuildStatusChangedEvent(
@@ -897,6 +901,11 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
         return buildQueue.getSubmittedBuildTasks();
     }
 
+    @Override
+    public BuildTaskCounts getBuildTaskCounts() {
+        return buildTaskCounters.snapshot();
+    }
+
     @PostConstruct
     public void start() {
         startThreads();
@@ -26,6 +26,7 @@ import org.jboss.pnc.spi.coordinator.Result;
 import org.jboss.pnc.spi.datastore.repositories.ArtifactRepository;
 import org.jboss.pnc.spi.datastore.repositories.BuildConfigSetRecordRepository;
 import org.jboss.pnc.spi.datastore.repositories.BuildRecordRepository;
+import org.jboss.pnc.spi.datastore.repositories.ProductMilestoneArtifactRepository;
 import org.jboss.pnc.spi.exception.ValidationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,9 +35,14 @@ import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.jboss.pnc.spi.datastore.predicates.BuildRecordPredicates.withCausingBuildRecordIds;
+import static org.jboss.pnc.spi.datastore.predicates.BuildRecordPredicates.withIds;
 
 /**
  * Bean providing an interface to delete temporary builds
@@ -53,6 +59,8 @@ public class TemporaryBuildsCleaner {
 
     private ArtifactRepository artifactRepository;
 
+    private ProductMilestoneArtifactRepository productMilestoneArtifactRepository;
+
     private RemoteBuildsCleaner remoteBuildsCleaner;
 
     @Deprecated
@@ -64,10 +72,12 @@ public class TemporaryBuildsCleaner {
             BuildRecordRepository buildRecordRepository,
             BuildConfigSetRecordRepository buildConfigSetRecordRepository,
             ArtifactRepository artifactRepository,
+            ProductMilestoneArtifactRepository productMilestoneArtifactRepository,
             RemoteBuildsCleaner remoteBuildsCleaner) {
         this.buildRecordRepository = buildRecordRepository;
         this.buildConfigSetRecordRepository = buildConfigSetRecordRepository;
         this.artifactRepository = artifactRepository;
+        this.productMilestoneArtifactRepository = productMilestoneArtifactRepository;
         this.remoteBuildsCleaner = remoteBuildsCleaner;
     }
 
@@ -111,6 +121,43 @@ public class TemporaryBuildsCleaner {
         return new Result(buildRecordId.toString(), ResultStatus.SUCCESS);
     }
 
+    /**
+     * Deletes temporary builds, which were already deleted from the remote services, from the datastore in a single
+     * transaction. The relations of all the builds are loaded and updated with one query per relation instead of one
+     * query per build and artifact.
+     *
+     * @param buildRecordIds BuildRecords to be deleted
+     * @return ids of the deleted BuildRecords, the ones that don't exist or aren't temporary are skipped
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public List<Integer> deleteTemporaryBuildsFromDatastore(Collection<Integer> buildRecordIds) {
+        List<Integer> toDelete = new ArrayList<>();
+        for (BuildRecord buildRecord : buildRecordRepository.queryWithPredicates(withIds(buildRecordIds))) {
+            if (buildRecord.isTemporaryBuild()) {
+                toDelete.add(buildRecord.getId());
+            } else {
+                log.error("Skipping deletion of build {}, only temporary builds can be deleted.", buildRecord);
+            }
+        }
+        if (toDelete.isEmpty()) {
+            return toDelete;
+        }
+
+        for (BuildRecord record : buildRecordRepository.queryWithPredicates(withCausingBuildRecordIds(toDelete))) {
+            record.setNoRebuildCause(null);
+            buildRecordRepository.save(record);
+        }
+        removeBuiltArtifacts(artifactRepository.withBuildRecordIdsFetchUsages(toDelete));
+        // not a bulk delete, it would skip the cascades to the attributes, push results and dependency links and leave
+        // the records in the second-level cache; the records are already loaded in the persistence context, so the
+        // deletes issue no queries and their DELETE statements are flushed in JDBC batches at the commit
+        for (Integer id : toDelete) {
+            buildRecordRepository.delete(id);
+        }
+        log.info("Deleted {} temporary builds from the datastore.", toDelete.size());
+        return toDelete;
+    }
+
     private void removeRebuildCauseRelationship(BuildRecord buildRecord) {
         List<BuildRecord> buildByCausingRecord = buildRecordRepository.getBuildByCausingRecord(buildRecord.getId());
         for (BuildRecord record : buildByCausingRecord) {
@@ -163,23 +210,36 @@ public class TemporaryBuildsCleaner {
     }
 
     private void removeBuiltArtifacts(BuildRecord buildRecord) {
-        Set<Artifact> toDelete = new HashSet<>(buildRecord.getBuiltArtifacts());
-        for (Artifact artifact : toDelete) {
-            log.debug(
-                    String.format(
-                            "Deleting relation BR-Artifact. BR=%s, artifact=%s",
-                            buildRecord,
-                            artifact.getDescriptiveString()));
-
-            if (!artifact.getDistributedInProductMilestones().isEmpty()) {
-                log.error(
-                        "Temporary artifact was distributed in milestone! Artifact: " + artifact.toString()
-                                + "\n Milestones: " + artifact.getDistributedInProductMilestones().toString());
-                continue;
-            }
+        removeBuiltArtifacts(new HashSet<>(buildRecord.getBuiltArtifacts()));
+    }
 
-            artifact.setBuildRecord(null);
-            deleteArtifact(artifact);
+    private void removeBuiltArtifacts(Collection<Artifact> artifacts) {
+        // the milestone index references the artifacts, the links of the ones to be deleted go first in one statement
+        productMilestoneArtifactRepository.removeArtifacts(
+                artifacts.stream()
+                        .filter(artifact -> artifact.getDistributedInProductMilestones().isEmpty())
+                        .filter(artifact -> artifact.getDependantBuildRecords().isEmpty())
+                        .collect(Collectors.toList()));
+        for (Artifact artifact : artifacts) {
+            removeBuiltArtifact(artifact.getBuildRecord(), artifact);
         }
     }
+
+    private void removeBuiltArtifact(BuildRecord buildRecord, Artifact artifact) {
+        log.debug(
+                String.format(
+                        "Deleting relation BR-Artifact. BR=%s, artifact=%s",
+                        buildRecord,
+                        artifact.getDescriptiveString()));
+
+        if (!artifact.getDistributedInProductMilestones().isEmpty()) {
+            log.error(
+                    "Temporary artifact was distributed in milestone! Artifact: " + artifact.toString()
+                            + "\n Milestones: " + artifact.getDistributedInProductMilestones().toString());
+            return;
+        }
+
+        artifact.setBuildRecord(null);
+        deleteArtifact(artifact);
+    }
 }
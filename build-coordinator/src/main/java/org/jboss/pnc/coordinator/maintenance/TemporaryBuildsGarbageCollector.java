@@ -0,0 +1,275 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.coordinator.maintenance;
+
+import org.jboss.pnc.auth.KeycloakServiceClient;
+import org.jboss.pnc.common.concurrent.MDCExecutors;
+import org.jboss.pnc.common.concurrent.NamedThreadFactory;
+import org.jboss.pnc.common.util.ReadEnvProperty;
+import org.jboss.pnc.model.BuildRecord;
+import org.jboss.pnc.spi.coordinator.Result;
+import org.jboss.pnc.spi.datastore.repositories.BuildRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Deletes expired temporary builds in bulk.
+ *
+ * The expired builds are selected in batches ordered by id. The remote cleanup (Indy, Causeway) of a batch runs with a
+ * bounded parallelism and the builds which were cleaned successfully are deleted from the datastore in chunks, each
+ * chunk in its own transaction. Builds which failed the remote cleanup are skipped and picked up by the next run, as
+ * are the builds which became independent only after their dependants were deleted.
+ *
+ * Only one collection runs at a time.
+ */
+@ApplicationScoped
+public class TemporaryBuildsGarbageCollector {
+
+    private static final Logger log = LoggerFactory.getLogger(TemporaryBuildsGarbageCollector.class);
+
+    static final String BATCH_SIZE_KEY = "temporary_builds_gc_batch_size";
+    static final String CHUNK_SIZE_KEY = "temporary_builds_gc_chunk_size";
+    static final String PARALLELISM_KEY = "temporary_builds_gc_parallelism";
+
+    private BuildRecordRepository buildRecordRepository;
+
+    private TemporaryBuildsCleaner temporaryBuildsCleaner;
+
+    private RemoteBuildsCleaner remoteBuildsCleaner;
+
+    private KeycloakServiceClient serviceClient;
+
+    private int batchSize;
+
+    private int chunkSize;
+
+    private ExecutorService collectorExecutor;
+
+    private ExecutorService remoteCleanupExecutor;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile Progress progress;
+
+    @Deprecated // CDI workaround
+    public TemporaryBuildsGarbageCollector() {
+    }
+
+    @Inject
+    public TemporaryBuildsGarbageCollector(
+            BuildRecordRepository buildRecordRepository,
+            TemporaryBuildsCleaner temporaryBuildsCleaner,
+            RemoteBuildsCleaner remoteBuildsCleaner,
+            KeycloakServiceClient serviceClient) {
+        this.buildRecordRepository = buildRecordRepository;
+        this.temporaryBuildsCleaner = temporaryBuildsCleaner;
+        this.remoteBuildsCleaner = remoteBuildsCleaner;
+        this.serviceClient = serviceClient;
+
+        ReadEnvProperty env = new ReadEnvProperty();
+        this.batchSize = env.getIntValueFromPropertyOrDefault(BATCH_SIZE_KEY, 500);
+        this.chunkSize = env.getIntValueFromPropertyOrDefault(CHUNK_SIZE_KEY, 50);
+        int parallelism = env.getIntValueFromPropertyOrDefault(PARALLELISM_KEY, 8);
+        collectorExecutor = MDCExecutors
+                .newFixedThreadPool(1, new NamedThreadFactory("build-coordinator.TemporaryBuildsGarbageCollector"));
+        remoteCleanupExecutor = MDCExecutors.newFixedThreadPool(
+                parallelism,
+                new NamedThreadFactory("build-coordinator.TemporaryBuildsGarbageCollector.remote"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        collectorExecutor.shutdownNow();
+        remoteCleanupExecutor.shutdownNow();
+    }
+
+    /**
+     * Starts an asynchronous collection of the temporary builds finished before given date.
+     *
+     * @param expiredBefore builds finished before this date are deleted
+     * @return false if a collection is already running
+     */
+    public boolean start(Date expiredBefore) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Progress started = new Progress(expiredBefore);
+        progress = started;
+        collectorExecutor.submit(() -> {
+            try {
+                collect(started);
+            } catch (RuntimeException e) {
+                log.error("Garbage collection of temporary builds failed.", e);
+            } finally {
+                started.finished = new Date();
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * @return progress of the running or the last finished collection, null if no collection was started yet
+     */
+    public Progress getProgress() {
+        return progress;
+    }
+
+    void collect(Progress progress) {
+        log.info("Starting garbage collection of temporary builds finished before {}.", progress.expiredBefore);
+        Integer lastId = null;
+        while (!Thread.currentThread().isInterrupted()) {
+            List<BuildRecord> batch = buildRecordRepository
+                    .findIndependentTemporaryBuildsOlderThan(progress.expiredBefore, lastId, batchSize);
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+            progress.selected.addAndGet(batch.size());
+
+            // a fresh token for every batch, a long run would outlive it
+            List<Integer> cleaned = cleanRemote(batch, serviceClient.getAuthToken(), progress);
+            for (int i = 0; i < cleaned.size(); i += chunkSize) {
+                List<Integer> chunk = cleaned.subList(i, Math.min(i + chunkSize, cleaned.size()));
+                try {
+                    progress.deleted.addAndGet(temporaryBuildsCleaner.deleteTemporaryBuildsFromDatastore(chunk).size());
+                } catch (RuntimeException e) {
+                    log.error("Failed to delete temporary builds " + chunk + " from the datastore.", e);
+                    progress.failed.addAndGet(chunk.size());
+                }
+            }
+            log.info("Garbage collection of temporary builds: {}", progress);
+        }
+        log.info("Garbage collection of temporary builds finished: {}", progress);
+    }
+
+    private List<Integer> cleanRemote(List<BuildRecord> batch, String authToken, Progress progress) {
+        List<Integer> ids = batch.stream().map(BuildRecord::getId).collect(Collectors.toList());
+        List<CompletableFuture<Integer>> cleanups = new ArrayList<>(ids.size());
+        for (BuildRecord buildRecord : buildRecordRepository.findByIdsFetchProperties(ids)) {
+            cleanups.add(
+                    CompletableFuture.supplyAsync(() -> cleanRemote(buildRecord, authToken), remoteCleanupExecutor));
+        }
+        List<Integer> cleaned = new ArrayList<>(cleanups.size());
+        for (CompletableFuture<Integer> cleanup : cleanups) {
+            Integer id = cleanup.join();
+            if (id != null) {
+                cleaned.add(id);
+            } else {
+                progress.failed.incrementAndGet();
+            }
+        }
+        return cleaned;
+    }
+
+    /**
+     * @return id of the build if the remote builds were deleted, null otherwise
+     */
+    private Integer cleanRemote(BuildRecord buildRecord, String authToken) {
+        try {
+            Result result = remoteBuildsCleaner.deleteRemoteBuilds(buildRecord, authToken);
+            if (result.isSuccess()) {
+                return buildRecord.getId();
+            }
+            log.error("Failed to delete remote temporary builds for BR.id:{}: {}", buildRecord.getId(), result);
+        } catch (RuntimeException e) {
+            log.error("Failed to delete remote temporary builds for BR.id:" + buildRecord.getId() + ".", e);
+        }
+        return null;
+    }
+
+    /**
+     * Progress of a garbage collection run.
+     */
+    public static class Progress {
+
+        private final Date expiredBefore;
+
+        private final Date started = new Date();
+
+        private volatile Date finished;
+
+        private final AtomicInteger selected = new AtomicInteger();
+
+        private final AtomicInteger deleted = new AtomicInteger();
+
+        private final AtomicInteger failed = new AtomicInteger();
+
+        Progress(Date expiredBefore) {
+            this.expiredBefore = expiredBefore;
+        }
+
+        public Date getExpiredBefore() {
+            return expiredBefore;
+        }
+
+        public Date getStarted() {
+            return started;
+        }
+
+        /**
+         * @return null while the collection is running
+         */
+        public Date getFinished() {
+            return finished;
+        }
+
+        public int getSelected() {
+            return selected.get();
+        }
+
+        public int getDeleted() {
+            return deleted.get();
+        }
+
+        public int getFailed() {
+            return failed.get();
+        }
+
+        /**
+         * @return deleted builds per second
+         */
+        public double getThroughput() {
+            Date end = finished == null ? new Date() : finished;
+            long millis = Math.max(1, end.getTime() - started.getTime());
+            return deleted.get() * 1000.0 / millis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "selected %d, deleted %d, failed %d, %.1f builds/s",
+                    getSelected(),
+                    getDeleted(),
+                    getFailed(),
+                    getThroughput());
+        }
+    }
+}
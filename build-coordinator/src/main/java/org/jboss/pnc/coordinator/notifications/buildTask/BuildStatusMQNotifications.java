@@ -17,11 +17,6 @@
  */
 package org.jboss.pnc.coordinator.notifications.buildTask;
 
-import org.jboss.pnc.dto.BuildConfigurationRevisionRef;
-import org.jboss.pnc.enums.BuildStatus;
-import org.jboss.pnc.messaging.spi.BuildStatusChanged;
-import org.jboss.pnc.messaging.spi.Message;
-import org.jboss.pnc.messaging.spi.MessageSender;
 import org.jboss.pnc.spi.events.BuildStatusChangedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,10 +25,6 @@ import javax.enterprise.context.Dependent;
 import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
-
 /**
  * @author <a href="mailto:matejonnet@gmail.com">Matej Lazar</a>
  */
@@ -42,50 +33,27 @@ public class BuildStatusMQNotifications {
 
     private Logger logger = LoggerFactory.getLogger(BuildStatusMQNotifications.class);
 
-    final Optional<MessageSender> messageSender;
+    private final BuildStatusMessageRelay relay;
 
     @Inject
-    public BuildStatusMQNotifications(MessageSenderProvider messageSenderProvider) {
-        this.messageSender = messageSenderProvider.getMessageSender();
+    public BuildStatusMQNotifications(BuildStatusMessageRelay relay) {
+        this.relay = relay;
     }
 
     public void observeEvent(@Observes BuildStatusChangedEvent event) {
         logger.debug("Observed new status changed event {}.", event);
-        messageSender.ifPresent(ms -> send(ms, event));
+        if (relay.isEnabled()) {
+            send(event);
+        }
         logger.debug("Status changed event processed {}.", event);
     }
 
-    private void send(MessageSender ms, BuildStatusChangedEvent event) {
+    /**
+     * The message is only written to the outbox, it is sent to the broker asynchronously by the relay.
+     */
+    private void send(BuildStatusChangedEvent event) {
         if (event.getNewStatus() != null) {
-
-            Message message = BuildStatusChanged.builder()
-                    .oldStatus(toStringStatus(event.getOldStatus()))
-                    .build(event.getBuild())
-                    .buildMe();
-
-            ms.sendToTopic(message, prepareHeaders(event));
-        }
-    }
-
-    private Map<String, String> prepareHeaders(BuildStatusChangedEvent event) {
-        BuildConfigurationRevisionRef buildConfigurationAudited = event.getBuild().getBuildConfigRevision();
-        Map<String, String> headers = new HashMap<>();
-        headers.put("type", "BuildStateChange");
-        headers.put("attribute", "state-change");
-        headers.put("name", buildConfigurationAudited.getName());
-        headers.put("configurationId", buildConfigurationAudited.getId().toString());
-        headers.put("configurationRevision", buildConfigurationAudited.getRev().toString());
-        headers.put("oldStatus", toStringStatus(event.getOldStatus()));
-        headers.put("newStatus", toStringStatus(event.getNewStatus()));
-        return headers;
-    }
-
-    private String toStringStatus(BuildStatus status) {
-
-        if (status == null) {
-            return "";
-        } else {
-            return status.toString();
+            relay.publish(event.getBuild(), event.getOldStatus(), event.getNewStatus());
         }
     }
 }
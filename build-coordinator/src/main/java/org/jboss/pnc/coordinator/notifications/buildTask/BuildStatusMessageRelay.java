@@ -0,0 +1,366 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.coordinator.notifications.buildTask;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import org.jboss.pnc.common.concurrent.MDCExecutors;
+import org.jboss.pnc.common.concurrent.NamedThreadFactory;
+import org.jboss.pnc.common.json.JsonOutputConverterMapper;
+import org.jboss.pnc.common.util.ReadEnvProperty;
+import org.jboss.pnc.dto.Build;
+import org.jboss.pnc.dto.BuildConfigurationRevisionRef;
+import org.jboss.pnc.enums.BuildStatus;
+import org.jboss.pnc.mapper.api.BuildMapper;
+import org.jboss.pnc.messaging.spi.BuildStatusChanged;
+import org.jboss.pnc.messaging.spi.MessageSender;
+import org.jboss.pnc.model.BuildRecord;
+import org.jboss.pnc.model.BuildStatusOutboxMessage;
+import org.jboss.pnc.pncmetrics.GaugeMetric;
+import org.jboss.pnc.pncmetrics.MetricsConfiguration;
+import org.jboss.pnc.spi.datastore.repositories.BuildRecordRepository;
+import org.jboss.pnc.spi.datastore.repositories.BuildStatusOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Relays the build status messages from the outbox table to the message broker.
+ *
+ * The messages are written to the {@link BuildStatusOutboxMessage outbox} by the thread changing the build status, the
+ * final status of a build is written in the transaction storing its build record. A background worker sends the
+ * pending messages in batches, so a slow or unavailable broker does not stall the build, and the messages are not lost
+ * when the server stops. The messages of a build are sent in order. A message that fails to be sent is retried with an
+ * exponential backoff, the later messages of its build wait for it. After {@value #DEFAULT_MAX_ATTEMPTS} failed
+ * attempts by default the message is parked and not sent anymore. Sent and parked messages are deleted after the
+ * retention period. The number of pending messages and the age of the oldest one are reported as gauges, refreshed by
+ * the worker every {@value #STATISTICS_INTERVAL_MILLIS} ms at most.
+ */
+@ApplicationScoped
+public class BuildStatusMessageRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(BuildStatusMessageRelay.class);
+
+    static final String BATCH_SIZE_KEY = "build_status_relay_batch_size";
+    static final String MAX_ATTEMPTS_KEY = "build_status_relay_max_attempts";
+    static final String INTERVAL_KEY = "build_status_relay_interval_millis";
+    static final String RETENTION_KEY = "build_status_relay_retention_hours";
+
+    static final int DEFAULT_MAX_ATTEMPTS = 10;
+
+    private static final long INITIAL_RETRY_DELAY_MILLIS = 1000L;
+    private static final long MAX_RETRY_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    static final long STATISTICS_INTERVAL_MILLIS = 10_000L;
+
+    static final String METRICS_KEY = "build-status-relay";
+    static final String METRICS_PUBLISHED_KEY = METRICS_KEY + ".published";
+    static final String METRICS_RETRIED_KEY = METRICS_KEY + ".retried";
+    static final String METRICS_PARKED_KEY = METRICS_KEY + ".parked";
+    static final String METRICS_PENDING_KEY = METRICS_KEY + ".pending";
+    static final String METRICS_LAG_KEY = METRICS_KEY + ".lag";
+
+    private Optional<MessageSender> messageSender;
+
+    private BuildStatusOutboxRepository outboxRepository;
+
+    private BuildRecordRepository buildRecordRepository;
+
+    private BuildMapper buildMapper;
+
+    private Optional<GaugeMetric> gaugeMetric;
+
+    private LongSupplier clock;
+
+    private final AtomicLong pending = new AtomicLong();
+
+    /**
+     * Age of the oldest pending message in milliseconds.
+     */
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    private long statisticsDueAt;
+
+    private int batchSize;
+
+    private int maxAttempts;
+
+    private long retentionMillis;
+
+    private ScheduledExecutorService executor;
+
+    @Deprecated // CDI workaround
+    public BuildStatusMessageRelay() {
+    }
+
+    @Inject
+    public BuildStatusMessageRelay(
+            MessageSenderProvider messageSenderProvider,
+            BuildStatusOutboxRepository outboxRepository,
+            BuildRecordRepository buildRecordRepository,
+            BuildMapper buildMapper,
+            MetricsConfiguration metricsConfiguration) {
+        this(
+                messageSenderProvider.getMessageSender(),
+                outboxRepository,
+                buildRecordRepository,
+                buildMapper,
+                Optional.ofNullable(metricsConfiguration).map(MetricsConfiguration::getGaugeMetric),
+                Optional.ofNullable(metricsConfiguration).map(MetricsConfiguration::getMetricRegistry),
+                System::currentTimeMillis);
+    }
+
+    BuildStatusMessageRelay(
+            Optional<MessageSender> messageSender,
+            BuildStatusOutboxRepository outboxRepository,
+            BuildRecordRepository buildRecordRepository,
+            BuildMapper buildMapper,
+            Optional<GaugeMetric> gaugeMetric,
+            Optional<MetricRegistry> metricRegistry,
+            LongSupplier clock) {
+        this.messageSender = messageSender;
+        this.outboxRepository = outboxRepository;
+        this.buildRecordRepository = buildRecordRepository;
+        this.buildMapper = buildMapper;
+        this.gaugeMetric = gaugeMetric;
+        this.clock = clock;
+        metricRegistry.ifPresent(registry -> {
+            registry.register(METRICS_PENDING_KEY, (Gauge<Long>) pending::get);
+            registry.register(METRICS_LAG_KEY, (Gauge<Long>) lagMillis::get);
+        });
+    }
+
+    @PostConstruct
+    public void init() {
+        ReadEnvProperty env = new ReadEnvProperty();
+        configure(
+                env.getIntValueFromPropertyOrDefault(BATCH_SIZE_KEY, 100),
+                env.getIntValueFromPropertyOrDefault(MAX_ATTEMPTS_KEY, DEFAULT_MAX_ATTEMPTS),
+                TimeUnit.HOURS.toMillis(env.getIntValueFromPropertyOrDefault(RETENTION_KEY, 24)));
+        long intervalMillis = env.getIntValueFromPropertyOrDefault(INTERVAL_KEY, 500);
+        executor = MDCExecutors
+                .newScheduledThreadPool(1, new NamedThreadFactory("build-coordinator.BuildStatusMessageRelay"));
+        executor.scheduleWithFixedDelay(this::relay, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void configure(int batchSize, int maxAttempts, long retentionMillis) {
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retentionMillis = retentionMillis;
+    }
+
+    public boolean isEnabled() {
+        return messageSender.isPresent();
+    }
+
+    /**
+     * Writes the status change of a build to the outbox, unless it is the final status already written with the build
+     * record.
+     */
+    public void publish(Build build, BuildStatus oldStatus, BuildStatus newStatus) {
+        if (!isEnabled()) {
+            return;
+        }
+        Integer buildId = BuildMapper.idMapper.toEntity(build.getId());
+        if (newStatus.isFinal() && outboxRepository.isStoredWithBuildRecord(buildId)) {
+            return;
+        }
+        outboxRepository.save(
+                new BuildStatusOutboxMessage(
+                        buildId,
+                        oldStatus,
+                        newStatus,
+                        toPayload(build, oldStatus),
+                        JsonOutputConverterMapper.apply(prepareHeaders(build, oldStatus, newStatus)),
+                        new Date(clock.getAsLong())));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Sends the pending messages and deletes the old ones. The pending messages stay in the outbox when the relay is
+     * stopped and are sent once it is started again.
+     */
+    void relay() {
+        try {
+            if (isEnabled()) {
+                sendPending();
+                updateStatistics();
+            }
+            int deleted = outboxRepository
+                    .deleteCreatedBefore(new Date(clock.getAsLong() - retentionMillis), !isEnabled());
+            if (deleted > 0) {
+                log.debug("Deleted {} old build status messages.", deleted);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to relay the build status messages.", e);
+        }
+    }
+
+    private void sendPending() {
+        boolean full = true;
+        while (full && !Thread.currentThread().isInterrupted()) {
+            // the messages waiting for a retry are not queried, every message of the batch is sent or scheduled for a
+            // retry, so the next batch moves on
+            List<BuildStatusOutboxMessage> batch = outboxRepository
+                    .queryPending(batchSize, new Date(clock.getAsLong()));
+            // builds whose earlier message failed in this batch
+            Set<Integer> waitingBuilds = new HashSet<>();
+            for (BuildStatusOutboxMessage message : batch) {
+                if (!waitingBuilds.contains(message.getBuildId()) && !send(message)) {
+                    waitingBuilds.add(message.getBuildId());
+                }
+            }
+            full = batch.size() == batchSize;
+        }
+    }
+
+    private void updateStatistics() {
+        long now = clock.getAsLong();
+        if (now < statisticsDueAt) {
+            return;
+        }
+        statisticsDueAt = now + STATISTICS_INTERVAL_MILLIS;
+        pending.set(outboxRepository.countPending());
+        Date oldest = outboxRepository.queryOldestPendingCreatedAt();
+        lagMillis.set(oldest == null ? 0 : now - oldest.getTime());
+    }
+
+    /**
+     * @return false if the message is going to be retried
+     */
+    private boolean send(BuildStatusOutboxMessage message) {
+        try {
+            if (message.isStoredWithBuildRecord()) {
+                sendFromBuildRecord(message);
+            } else {
+                messageSender.get().sendToTopicSynchronously(message.getPayload(), readHeaders(message));
+            }
+        } catch (RuntimeException e) {
+            return failed(message, e);
+        }
+        message.setState(BuildStatusOutboxMessage.State.SENT);
+        outboxRepository.save(message);
+        gaugeMetric.ifPresent(g -> g.incrementMetric(METRICS_PUBLISHED_KEY));
+        log.debug(
+                "Sent status message {} of build {} in {} ms.",
+                message.getId(),
+                message.getBuildId(),
+                clock.getAsLong() - message.getCreatedAt().getTime());
+        return true;
+    }
+
+    private void sendFromBuildRecord(BuildStatusOutboxMessage message) {
+        BuildRecord buildRecord = buildRecordRepository.findByIdFetchProperties(message.getBuildId());
+        if (buildRecord == null) {
+            throw new IllegalStateException("Build record " + message.getBuildId() + " does not exist.");
+        }
+        Build build = buildMapper.toDTO(buildRecord);
+        BuildStatusOutboxMessage previous = outboxRepository.queryPrevious(message);
+        BuildStatus oldStatus = previous == null ? null : previous.getNewStatus();
+        messageSender.get()
+                .sendToTopicSynchronously(
+                        toPayload(build, oldStatus),
+                        prepareHeaders(build, oldStatus, message.getNewStatus()));
+    }
+
+    private boolean failed(BuildStatusOutboxMessage message, RuntimeException e) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        if (attempts >= maxAttempts) {
+            message.setState(BuildStatusOutboxMessage.State.PARKED);
+            message.setNextAttemptAt(null);
+            outboxRepository.save(message);
+            gaugeMetric.ifPresent(g -> g.incrementMetric(METRICS_PARKED_KEY));
+            log.error(
+                    "Failed to send status message {} of build {} {} times, parking it.",
+                    message.getId(),
+                    message.getBuildId(),
+                    attempts,
+                    e);
+            // the later messages of the build are not held back by a parked one
+            return true;
+        }
+        long retryDelay = Math.min(INITIAL_RETRY_DELAY_MILLIS << Math.min(attempts - 1, 20), MAX_RETRY_DELAY_MILLIS);
+        message.setNextAttemptAt(new Date(clock.getAsLong() + retryDelay));
+        outboxRepository.save(message);
+        gaugeMetric.ifPresent(g -> g.incrementMetric(METRICS_RETRIED_KEY));
+        log.warn(
+                "Failed to send status message {} of build {}, retrying in {} ms.",
+                message.getId(),
+                message.getBuildId(),
+                retryDelay,
+                e);
+        return false;
+    }
+
+    private static String toPayload(Build build, BuildStatus oldStatus) {
+        return BuildStatusChanged.builder().oldStatus(toStringStatus(oldStatus)).build(build).buildMe().toJson();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> readHeaders(BuildStatusOutboxMessage message) {
+        try {
+            return JsonOutputConverterMapper.readValue(message.getHeaders(), Map.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read headers of status message " + message.getId() + ".", e);
+        }
+    }
+
+    private static Map<String, String> prepareHeaders(Build build, BuildStatus oldStatus, BuildStatus newStatus) {
+        BuildConfigurationRevisionRef buildConfigurationAudited = build.getBuildConfigRevision();
+        Map<String, String> headers = new HashMap<>();
+        headers.put("type", "BuildStateChange");
+        headers.put("attribute", "state-change");
+        headers.put("name", buildConfigurationAudited.getName());
+        headers.put("configurationId", buildConfigurationAudited.getId().toString());
+        headers.put("configurationRevision", buildConfigurationAudited.getRev().toString());
+        headers.put("oldStatus", toStringStatus(oldStatus));
+        headers.put("newStatus", toStringStatus(newStatus));
+        return headers;
+    }
+
+    private static String toStringStatus(BuildStatus status) {
+        if (status == null) {
+            return "";
+        } else {
+            return status.toString();
+        }
+    }
+}
@@ -27,17 +27,22 @@ import org.slf4j.LoggerFactory;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
-import java.util.HashSet;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Set;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Subscribers are indexed by the id of the task they wait on, so an event is dispatched only to the subscribers of its
+ * build, regardless of how many tasks are being waited on.
+ */
 @ApplicationScoped
 public class BuildStatusNotifications {
 
     private Logger log = LoggerFactory.getLogger(BuildStatusNotifications.class);
 
-    private final Set<BuildCallBack> subscribers = new HashSet<>();
+    private final ConcurrentMap<Integer, Set<BuildCallBack>> subscribers = new ConcurrentHashMap<>();
 
     /**
      * Subscriber is automatically removed once task reaches completed state.
@@ -46,31 +51,35 @@ public class BuildStatusNotifications {
      */
     public void subscribe(BuildCallBack buildCallBack) {
         log.debug("Subscribing new status update listener {}.", buildCallBack);
-        subscribers.add(buildCallBack);
+        // atomic with the removal of the task's subscribers, so the subscriber is not added to a removed set
+        subscribers.compute(buildCallBack.getBuildTaskId(), (id, callBacks) -> {
+            Set<BuildCallBack> result = callBacks == null ? ConcurrentHashMap.newKeySet() : callBacks;
+            result.add(buildCallBack);
+            return result;
+        });
     }
 
     public void observeEvent(@Observes BuildStatusChangedEvent event) {
         log.debug("Observed new status changed event {}.", event);
         BuildStatusChangedEvent buildStatusChangedEvent = event; // Avoid CDI runtime issue issue NCL-1505
-        Predicate<BuildCallBack> filterSubscribersMatchingTaskId = (callBackUrl) -> callBackUrl.getBuildTaskId()
-                .equals(Integer.valueOf(buildStatusChangedEvent.getBuild().getId()));
+        Integer buildTaskId = Integer.valueOf(buildStatusChangedEvent.getBuild().getId());
 
-        Set<BuildCallBack> matchingTasks = subscribers.stream()
-                .filter(filterSubscribersMatchingTaskId)
-                .collect(Collectors.toSet());
-
-        matchingTasks
-                .forEach((buildCallBack) -> removeListenersOfCompletedTasks(buildCallBack, buildStatusChangedEvent));
+        Collection<BuildCallBack> matchingTasks;
+        if (buildStatusChangedEvent.getNewStatus().isFinal()) {
+            // remove listeners of completed tasks
+            matchingTasks = subscribers.remove(buildTaskId);
+            log.debug("Removed status update listeners {} of completed task.", matchingTasks);
+        } else {
+            matchingTasks = subscribers.get(buildTaskId);
+        }
+        if (matchingTasks == null) {
+            matchingTasks = Collections.emptySet();
+        }
         matchingTasks.forEach((buildCallBack) -> buildCallBack.callback(buildStatusChangedEvent));
         log.debug("Status changed event processed {}.", event);
     }
 
-    private void removeListenersOfCompletedTasks(
-            BuildCallBack buildCallBack,
-            BuildStatusChangedEvent buildStatusChangedEvent) {
-        if (buildStatusChangedEvent.getNewStatus().isFinal()) {
-            log.debug("Subscribing new status update listener {}.", buildCallBack);
-            subscribers.remove(buildCallBack);
-        }
+    int subscribersCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
     }
 }
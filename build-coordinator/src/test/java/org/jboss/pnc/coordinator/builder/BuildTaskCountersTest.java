@@ -0,0 +1,132 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.coordinator.builder;
+
+import org.jboss.pnc.enums.BuildCoordinationStatus;
+import org.jboss.pnc.model.User;
+import org.jboss.pnc.spi.coordinator.BuildTask;
+import org.jboss.pnc.spi.coordinator.BuildTaskCounts;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BuildTaskCountersTest {
+
+    private final BuildTaskCounters counters = new BuildTaskCounters();
+
+    @Test
+    public void shouldCountTasksByStatusUserAndGroupBuild() {
+        BuildTask task1 = task(1, 10, 100);
+        BuildTask task2 = task(2, 10, 100);
+        BuildTask task3 = task(3, 20, null);
+
+        counters.update(task1, BuildCoordinationStatus.ENQUEUED);
+        counters.update(task2, BuildCoordinationStatus.WAITING_FOR_DEPENDENCIES);
+        counters.update(task3, BuildCoordinationStatus.ENQUEUED);
+        counters.update(task1, BuildCoordinationStatus.BUILDING);
+
+        BuildTaskCounts counts = counters.snapshot();
+        assertThat(counts.getCount(BuildCoordinationStatus.BUILDING)).isEqualTo(1);
+        assertThat(counts.getCount(BuildCoordinationStatus.ENQUEUED)).isEqualTo(1);
+        assertThat(counts.getCount(BuildCoordinationStatus.WAITING_FOR_DEPENDENCIES)).isEqualTo(1);
+        assertThat(counts.getUserCount(10)).isEqualTo(2);
+        assertThat(counts.getUserCount(20)).isEqualTo(1);
+        assertThat(counts.getGroupBuildCount(100)).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldStopCountingCompletedTasks() {
+        BuildTask task = task(1, 10, 100);
+        counters.update(task, BuildCoordinationStatus.BUILDING);
+        counters.update(task, BuildCoordinationStatus.DONE);
+        // completing the task the second time must not decrement the counters again
+        counters.update(task, BuildCoordinationStatus.DONE);
+
+        BuildTaskCounts counts = counters.snapshot();
+        assertThat(counts.getCount(BuildCoordinationStatus.BUILDING)).isZero();
+        assertThat(counts.getCount(BuildCoordinationStatus.DONE)).isZero();
+        assertThat(counts.getUserCounts()).isEmpty();
+        assertThat(counts.getGroupBuildCounts()).isEmpty();
+    }
+
+    @Test
+    public void shouldIgnoreTasksRejectedBeforeBeingCounted() {
+        counters.update(task(1, 10, 100), BuildCoordinationStatus.REJECTED);
+
+        assertThat(counters.snapshot().getUserCounts()).isEmpty();
+    }
+
+    @Test
+    public void shouldMatchCountingTheTasks() throws InterruptedException {
+        List<BuildTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            tasks.add(task(i, i % 7, i % 3));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (BuildTask task : tasks) {
+            executor.execute(() -> {
+                counters.update(task, BuildCoordinationStatus.WAITING_FOR_DEPENDENCIES);
+                counters.update(task, BuildCoordinationStatus.ENQUEUED);
+                if (task.getId() % 2 == 0) {
+                    counters.update(task, BuildCoordinationStatus.BUILDING);
+                }
+                if (task.getId() % 5 == 0) {
+                    counters.update(task, BuildCoordinationStatus.DONE);
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        for (BuildTask task : tasks) {
+            when(task.getStatus()).thenReturn(expectedStatus(task.getId()));
+        }
+        BuildTaskCounts expected = BuildTaskCounts.of(tasks);
+        BuildTaskCounts counts = counters.snapshot();
+        for (BuildCoordinationStatus status : BuildCoordinationStatus.values()) {
+            assertThat(counts.getCount(status)).as(status.toString()).isEqualTo(expected.getCount(status));
+        }
+        assertThat(counts.getUserCounts()).isEqualTo(expected.getUserCounts());
+        assertThat(counts.getGroupBuildCounts()).isEqualTo(expected.getGroupBuildCounts());
+    }
+
+    private static BuildCoordinationStatus expectedStatus(int id) {
+        if (id % 5 == 0) {
+            return BuildCoordinationStatus.DONE;
+        }
+        return id % 2 == 0 ? BuildCoordinationStatus.BUILDING : BuildCoordinationStatus.ENQUEUED;
+    }
+
+    private static BuildTask task(int id, int userId, Integer groupBuildId) {
+        User user = mock(User.class);
+        when(user.getId()).thenReturn(userId);
+        BuildTask task = mock(BuildTask.class);
+        when(task.getId()).thenReturn(id);
+        when(task.getUser()).thenReturn(user);
+        when(task.getBuildConfigSetRecordId()).thenReturn(groupBuildId);
+        return task;
+    }
+}
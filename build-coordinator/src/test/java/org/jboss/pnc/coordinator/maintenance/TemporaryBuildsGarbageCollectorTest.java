@@ -0,0 +1,136 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.coordinator.maintenance;
+
+import org.jboss.pnc.auth.KeycloakServiceClient;
+import org.jboss.pnc.enums.ResultStatus;
+import org.jboss.pnc.model.BuildRecord;
+import org.jboss.pnc.spi.coordinator.Result;
+import org.jboss.pnc.spi.datastore.repositories.BuildRecordRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TemporaryBuildsGarbageCollectorTest {
+
+    private final Date expiredBefore = new Date();
+
+    private BuildRecordRepository buildRecordRepository;
+
+    private TemporaryBuildsCleaner temporaryBuildsCleaner;
+
+    private RemoteBuildsCleaner remoteBuildsCleaner;
+
+    private TemporaryBuildsGarbageCollector collector;
+
+    @Before
+    public void setup() {
+        buildRecordRepository = mock(BuildRecordRepository.class);
+        temporaryBuildsCleaner = mock(TemporaryBuildsCleaner.class);
+        remoteBuildsCleaner = mock(RemoteBuildsCleaner.class);
+        KeycloakServiceClient serviceClient = mock(KeycloakServiceClient.class);
+        when(serviceClient.getAuthToken()).thenReturn("token");
+
+        when(buildRecordRepository.findByIdsFetchProperties(anyCollection())).thenAnswer(inv -> {
+            Collection<Integer> ids = inv.getArgument(0);
+            return ids.stream().map(this::buildRecord).collect(Collectors.toList());
+        });
+        when(remoteBuildsCleaner.deleteRemoteBuilds(any(), anyString())).thenAnswer(inv -> {
+            BuildRecord buildRecord = inv.getArgument(0);
+            ResultStatus status = buildRecord.getId() == 2 ? ResultStatus.FAILED : ResultStatus.SUCCESS;
+            return new Result(buildRecord.getId().toString(), status);
+        });
+        when(temporaryBuildsCleaner.deleteTemporaryBuildsFromDatastore(anyCollection()))
+                .thenAnswer(inv -> new ArrayList<>(inv.<Collection<Integer>> getArgument(0)));
+
+        collector = new TemporaryBuildsGarbageCollector(
+                buildRecordRepository,
+                temporaryBuildsCleaner,
+                remoteBuildsCleaner,
+                serviceClient);
+    }
+
+    @After
+    public void tearDown() {
+        collector.shutdown();
+    }
+
+    @Test
+    public void shouldDeleteBuildsInBatches() {
+        when(buildRecordRepository.findIndependentTemporaryBuildsOlderThan(eq(expiredBefore), isNull(), anyInt()))
+                .thenReturn(buildRecords(1, 2, 3));
+        when(buildRecordRepository.findIndependentTemporaryBuildsOlderThan(eq(expiredBefore), eq(3), anyInt()))
+                .thenReturn(buildRecords(4));
+        when(buildRecordRepository.findIndependentTemporaryBuildsOlderThan(eq(expiredBefore), eq(4), anyInt()))
+                .thenReturn(Collections.emptyList());
+
+        TemporaryBuildsGarbageCollector.Progress progress = new TemporaryBuildsGarbageCollector.Progress(
+                expiredBefore);
+        collector.collect(progress);
+
+        verify(temporaryBuildsCleaner).deleteTemporaryBuildsFromDatastore(Arrays.asList(1, 3));
+        verify(temporaryBuildsCleaner).deleteTemporaryBuildsFromDatastore(Collections.singletonList(4));
+        assertThat(progress.getSelected()).isEqualTo(4);
+        assertThat(progress.getDeleted()).isEqualTo(3);
+        assertThat(progress.getFailed()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldCountFailedDatastoreDeletion() {
+        when(buildRecordRepository.findIndependentTemporaryBuildsOlderThan(eq(expiredBefore), isNull(), anyInt()))
+                .thenReturn(buildRecords(1, 3));
+        when(buildRecordRepository.findIndependentTemporaryBuildsOlderThan(eq(expiredBefore), eq(3), anyInt()))
+                .thenReturn(Collections.emptyList());
+        when(temporaryBuildsCleaner.deleteTemporaryBuildsFromDatastore(anyCollection()))
+                .thenThrow(new IllegalStateException("Database is gone"));
+
+        TemporaryBuildsGarbageCollector.Progress progress = new TemporaryBuildsGarbageCollector.Progress(
+                expiredBefore);
+        collector.collect(progress);
+
+        assertThat(progress.getDeleted()).isEqualTo(0);
+        assertThat(progress.getFailed()).isEqualTo(2);
+    }
+
+    private List<BuildRecord> buildRecords(Integer... ids) {
+        return Arrays.stream(ids).map(this::buildRecord).collect(Collectors.toList());
+    }
+
+    private BuildRecord buildRecord(Integer id) {
+        return BuildRecord.Builder.newBuilder().id(id).temporaryBuild(true).build();
+    }
+}
@@ -0,0 +1,320 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.coordinator.notifications.buildTask;
+
+import com.codahale.metrics.MetricRegistry;
+import org.jboss.pnc.dto.Build;
+import org.jboss.pnc.dto.BuildConfigurationRevisionRef;
+import org.jboss.pnc.enums.BuildStatus;
+import org.jboss.pnc.mapper.api.BuildMapper;
+import org.jboss.pnc.messaging.spi.Message;
+import org.jboss.pnc.messaging.spi.MessageSender;
+import org.jboss.pnc.messaging.spi.MessagingRuntimeException;
+import org.jboss.pnc.mock.repository.BuildStatusOutboxRepositoryMock;
+import org.jboss.pnc.model.BuildRecord;
+import org.jboss.pnc.model.BuildStatusOutboxMessage;
+import org.jboss.pnc.pncmetrics.GaugeMetric;
+import org.jboss.pnc.spi.datastore.repositories.BuildRecordRepository;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BuildStatusMessageRelayTest {
+
+    private static final long RETENTION_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.DAYS.toMillis(1));
+
+    private final List<String> sent = new ArrayList<>();
+
+    private final List<String> oldStatuses = new ArrayList<>();
+
+    private final BuildStatusOutboxRepositoryMock outboxRepository = new BuildStatusOutboxRepositoryMock();
+
+    private final BuildRecordRepository buildRecordRepository = mock(BuildRecordRepository.class);
+
+    private final BuildMapper buildMapper = mock(BuildMapper.class);
+
+    private final GaugeMetric gaugeMetric = mock(GaugeMetric.class);
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+
+    @Test
+    public void shouldSendMessagesOfBuildInOrderRetryingFailedSend() {
+        List<String> failing = new ArrayList<>(Collections.singletonList("1:ENQUEUED"));
+        BuildStatusMessageRelay relay = relay(headers -> failing.remove(sentAs(headers)), 3);
+
+        publishRunning(relay, 1);
+        publishRunning(relay, 2);
+        relay.relay();
+
+        assertThat(sent).containsExactly("2:ENQUEUED", "2:WAITING_FOR_DEPENDENCIES", "2:BUILDING");
+
+        // the retry is not due yet
+        relay.relay();
+        assertThat(sent).hasSize(3);
+
+        now.addAndGet(TimeUnit.SECONDS.toMillis(1));
+        relay.relay();
+
+        assertThat(sentOf(1)).containsExactly("1:ENQUEUED", "1:WAITING_FOR_DEPENDENCIES", "1:BUILDING");
+        assertThat(outboxRepository.queryPending(10, new Date(now.get()))).isEmpty();
+        verify(gaugeMetric).incrementMetric(BuildStatusMessageRelay.METRICS_RETRIED_KEY);
+        verify(gaugeMetric, times(6)).incrementMetric(BuildStatusMessageRelay.METRICS_PUBLISHED_KEY);
+    }
+
+    @Test
+    public void shouldParkMessageThatAlwaysFails() {
+        BuildStatusMessageRelay relay = relay(headers -> sentAs(headers).equals("1:ENQUEUED"), 3);
+
+        publishRunning(relay, 1);
+        for (int attempt = 0; attempt < 3; attempt++) {
+            relay.relay();
+            now.addAndGet(TimeUnit.MINUTES.toMillis(5));
+        }
+
+        // the later messages of the build are sent once the failing one is parked
+        assertThat(sent).containsExactly("1:WAITING_FOR_DEPENDENCIES", "1:BUILDING");
+        BuildStatusOutboxMessage parked = outboxRepository.queryAll()
+                .stream()
+                .filter(m -> m.getNewStatus() == BuildStatus.ENQUEUED)
+                .findAny()
+                .get();
+        assertThat(parked.getState()).isEqualTo(BuildStatusOutboxMessage.State.PARKED);
+        assertThat(parked.getAttempts()).isEqualTo(3);
+        verify(gaugeMetric, times(2)).incrementMetric(BuildStatusMessageRelay.METRICS_RETRIED_KEY);
+        verify(gaugeMetric).incrementMetric(BuildStatusMessageRelay.METRICS_PARKED_KEY);
+
+        // parked messages are not retried
+        now.addAndGet(TimeUnit.MINUTES.toMillis(5));
+        relay.relay();
+        assertThat(sent).hasSize(2);
+    }
+
+    @Test
+    public void shouldSendOtherBuildsWhileMessageOfBuildIsFailing() {
+        BuildStatusMessageRelay relay = relay(headers -> sentAs(headers).equals("1:ENQUEUED"), 10);
+        relay.configure(2, 10, RETENTION_MILLIS);
+
+        publishRunning(relay, 1);
+        publishRunning(relay, 2);
+        relay.relay();
+
+        assertThat(sent).containsExactly("2:ENQUEUED", "2:WAITING_FOR_DEPENDENCIES", "2:BUILDING");
+
+        // the waiting messages of build 1 don't fill the batches of the later builds
+        now.addAndGet(500);
+        publishRunning(relay, 3);
+        relay.relay();
+        assertThat(sentOf(3)).containsExactly("3:ENQUEUED", "3:WAITING_FOR_DEPENDENCIES", "3:BUILDING");
+
+        // build 1 is retried and keeps failing, its later messages stay in order behind it
+        now.addAndGet(TimeUnit.SECONDS.toMillis(1));
+        relay.relay();
+        assertThat(sentOf(1)).isEmpty();
+        assertThat(outboxRepository.countPending()).isEqualTo(3);
+        verify(gaugeMetric, times(2)).incrementMetric(BuildStatusMessageRelay.METRICS_RETRIED_KEY);
+    }
+
+    @Test
+    public void shouldReportPendingMessagesAndLag() {
+        List<String> failing = new ArrayList<>(Collections.singletonList("1:ENQUEUED"));
+        BuildStatusMessageRelay relay = relay(headers -> failing.remove(sentAs(headers)), 3);
+
+        publishRunning(relay, 1);
+        now.addAndGet(200);
+        relay.relay();
+
+        // the later messages of the build wait for the failed one
+        assertThat(gauge(BuildStatusMessageRelay.METRICS_PENDING_KEY)).isEqualTo(3L);
+        assertThat(gauge(BuildStatusMessageRelay.METRICS_LAG_KEY)).isEqualTo(200L);
+
+        // the messages are sent, the gauges are refreshed later
+        now.addAndGet(TimeUnit.SECONDS.toMillis(1));
+        relay.relay();
+        assertThat(sent).hasSize(3);
+        assertThat(gauge(BuildStatusMessageRelay.METRICS_PENDING_KEY)).isEqualTo(3L);
+
+        now.addAndGet(BuildStatusMessageRelay.STATISTICS_INTERVAL_MILLIS);
+        relay.relay();
+        assertThat(gauge(BuildStatusMessageRelay.METRICS_PENDING_KEY)).isEqualTo(0L);
+        assertThat(gauge(BuildStatusMessageRelay.METRICS_LAG_KEY)).isEqualTo(0L);
+    }
+
+    @Test
+    public void shouldSendFinalStatusStoredWithBuildRecord() {
+        BuildStatusMessageRelay relay = relay(headers -> false, 3);
+        BuildRecord buildRecord = BuildRecord.Builder.newBuilder().id(1).status(BuildStatus.SUCCESS).build();
+        when(buildRecordRepository.findByIdFetchProperties(1)).thenReturn(buildRecord);
+        when(buildMapper.toDTO(buildRecord)).thenReturn(build(1));
+
+        relay.publish(build(1), BuildStatus.ENQUEUED, BuildStatus.BUILDING);
+        // written by the datastore with the build record
+        outboxRepository.save(
+                new BuildStatusOutboxMessage(1, null, BuildStatus.SUCCESS, null, null, new Date(now.get())));
+        // the event of the final status follows
+        relay.publish(build(1), BuildStatus.BUILDING, BuildStatus.SUCCESS);
+        relay.relay();
+
+        assertThat(sent).containsExactly("1:BUILDING", "1:SUCCESS");
+        assertThat(oldStatuses).containsExactly("ENQUEUED", "BUILDING");
+    }
+
+    @Test
+    public void shouldDeleteOldMessages() {
+        BuildStatusMessageRelay relay = relay(headers -> false, 3);
+        publishRunning(relay, 1);
+        relay.relay();
+        now.addAndGet(RETENTION_MILLIS);
+        publishRunning(relay, 2);
+
+        now.addAndGet(1);
+        relay.relay();
+
+        assertThat(outboxRepository.queryAll()).hasSize(3)
+                .allMatch(m -> m.getBuildId() == 2 && m.getState() == BuildStatusOutboxMessage.State.SENT);
+    }
+
+    @Test
+    public void shouldNotWriteMessagesWithoutSender() {
+        BuildStatusMessageRelay relay = new BuildStatusMessageRelay(
+                Optional.empty(),
+                outboxRepository,
+                buildRecordRepository,
+                buildMapper,
+                Optional.of(gaugeMetric),
+                Optional.empty(),
+                now::get);
+        relay.configure(10, 3, RETENTION_MILLIS);
+        outboxRepository.save(
+                new BuildStatusOutboxMessage(1, null, BuildStatus.SUCCESS, null, null, new Date(now.get())));
+
+        publishRunning(relay, 2);
+        assertThat(relay.isEnabled()).isFalse();
+        assertThat(outboxRepository.queryAll()).hasSize(1);
+
+        // nothing sends the pending messages, they are deleted too
+        now.addAndGet(RETENTION_MILLIS + 1);
+        relay.relay();
+        assertThat(outboxRepository.queryAll()).isEmpty();
+    }
+
+    private BuildStatusMessageRelay relay(Predicate<Map<String, String>> fails, int maxAttempts) {
+        BuildStatusMessageRelay relay = new BuildStatusMessageRelay(
+                Optional.of(new RecordingSender(fails)),
+                outboxRepository,
+                buildRecordRepository,
+                buildMapper,
+                Optional.of(gaugeMetric),
+                Optional.of(metricRegistry),
+                now::get);
+        relay.configure(10, maxAttempts, RETENTION_MILLIS);
+        return relay;
+    }
+
+    private static void publishRunning(BuildStatusMessageRelay relay, int buildId) {
+        relay.publish(build(buildId), BuildStatus.NEW, BuildStatus.ENQUEUED);
+        relay.publish(build(buildId), BuildStatus.ENQUEUED, BuildStatus.WAITING_FOR_DEPENDENCIES);
+        relay.publish(build(buildId), BuildStatus.WAITING_FOR_DEPENDENCIES, BuildStatus.BUILDING);
+    }
+
+    private static Build build(int buildId) {
+        return Build.builder()
+                .id(Integer.toString(buildId))
+                .buildConfigRevision(
+                        BuildConfigurationRevisionRef.refBuilder()
+                                .id("10")
+                                .rev(1)
+                                .name(Integer.toString(buildId))
+                                .build())
+                .build();
+    }
+
+    private Object gauge(String key) {
+        return metricRegistry.getGauges().get(key).getValue();
+    }
+
+    private static String sentAs(Map<String, String> headers) {
+        return headers.get("name") + ":" + headers.get("newStatus");
+    }
+
+    private List<String> sentOf(int buildId) {
+        return sent.stream().filter(m -> m.startsWith(buildId + ":")).collect(Collectors.toList());
+    }
+
+    private class RecordingSender implements MessageSender {
+
+        private final Predicate<Map<String, String>> fails;
+
+        private RecordingSender(Predicate<Map<String, String>> fails) {
+            this.fails = fails;
+        }
+
+        @Override
+        public void init() {
+        }
+
+        @Override
+        public void destroy() {
+        }
+
+        @Override
+        public String getMessageSenderId() {
+            return RecordingSender.class.getName();
+        }
+
+        @Override
+        public void sendToTopic(Message message) {
+            sendToTopic(message.toJson());
+        }
+
+        @Override
+        public void sendToTopic(Message message, Map<String, String> headers) {
+            sendToTopic(message.toJson(), headers);
+        }
+
+        @Override
+        public void sendToTopic(String message) {
+            sendToTopic(message, Collections.emptyMap());
+        }
+
+        @Override
+        public void sendToTopic(String message, Map<String, String> headers) {
+            if (fails.test(headers)) {
+                throw new MessagingRuntimeException("Broker unavailable.");
+            }
+            sent.add(sentAs(headers));
+            oldStatuses.add(headers.get("oldStatus"));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.coordinator.notifications.buildTask;
+
+import org.jboss.pnc.enums.BuildStatus;
+import org.jboss.pnc.spi.events.BuildStatusChangedEvent;
+import org.jboss.pnc.test.category.DebugTest;
+import org.jboss.pnc.test.util.Benchmark;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.jboss.pnc.coordinator.notifications.buildTask.BuildStatusNotificationsTest.event;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Measures dispatching a burst of status events to 10k subscribers, one per task, indexed by task id compared to the
+ * former scan of all the subscribers.
+ */
+@Category(DebugTest.class)
+public class BuildStatusNotificationsBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BuildStatusNotificationsBenchmarkTest.class);
+
+    private static final int SUBSCRIBERS = 10_000;
+
+    private static final BuildStatus[] STATUSES = { BuildStatus.ENQUEUED, BuildStatus.BUILDING, BuildStatus.SUCCESS };
+
+    @Test
+    public void statusEventsBurst() throws Exception {
+        List<BuildStatusChangedEvent> burst = new ArrayList<>();
+        for (BuildStatus status : STATUSES) {
+            for (int i = 0; i < SUBSCRIBERS; i++) {
+                burst.add(event(i, status));
+            }
+        }
+        // warm up, the scan is slow enough to warm up during the measurement
+        BuildStatusNotifications warmUp = new BuildStatusNotifications();
+        measure(warmUp::subscribe, warmUp::observeEvent, burst);
+
+        AtomicInteger callbacks = new AtomicInteger();
+        BuildStatusNotifications indexed = new BuildStatusNotifications();
+        long indexedNanos = measure(indexed::subscribe, indexed::observeEvent, burst, callbacks);
+        int indexedCallbacks = callbacks.getAndSet(0);
+        LegacyBuildStatusNotifications legacy = new LegacyBuildStatusNotifications();
+        long legacyNanos = measure(legacy::subscribe, legacy::observeEvent, burst, callbacks);
+
+        assertEquals(STATUSES.length * SUBSCRIBERS, indexedCallbacks);
+        assertEquals(indexedCallbacks, callbacks.get());
+        assertEquals(0, indexed.subscribersCount());
+        log.info(
+                "{} events to {} subscribers: indexed {} ms, scan {} ms.",
+                burst.size(),
+                SUBSCRIBERS,
+                indexedNanos / 1_000_000,
+                legacyNanos / 1_000_000);
+    }
+
+    private static long measure(
+            Consumer<BuildCallBack> subscribe,
+            Consumer<BuildStatusChangedEvent> observe,
+            List<BuildStatusChangedEvent> burst) throws Exception {
+        return measure(subscribe, observe, burst, new AtomicInteger());
+    }
+
+    private static long measure(
+            Consumer<BuildCallBack> subscribe,
+            Consumer<BuildStatusChangedEvent> observe,
+            List<BuildStatusChangedEvent> burst,
+            AtomicInteger callbacks) throws Exception {
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            subscribe.accept(new BuildCallBack(i, e -> callbacks.incrementAndGet()));
+        }
+        return Benchmark.timeOnce(() -> burst.forEach(observe));
+    }
+
+    /**
+     * The former implementation of {@link BuildStatusNotifications}.
+     */
+    private static class LegacyBuildStatusNotifications {
+
+        private final Set<BuildCallBack> subscribers = new HashSet<>();
+
+        private void subscribe(BuildCallBack buildCallBack) {
+            subscribers.add(buildCallBack);
+        }
+
+        private void observeEvent(BuildStatusChangedEvent event) {
+            Set<BuildCallBack> matchingTasks = subscribers.stream()
+                    .filter(callBack -> callBack.getBuildTaskId().equals(Integer.valueOf(event.getBuild().getId())))
+                    .collect(Collectors.toSet());
+            if (event.getNewStatus().isFinal()) {
+                subscribers.removeAll(matchingTasks);
+            }
+            matchingTasks.forEach(callBack -> callBack.callback(event));
+        }
+    }
+}
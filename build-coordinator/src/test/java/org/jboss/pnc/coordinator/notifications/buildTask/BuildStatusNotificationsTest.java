@@ -0,0 +1,67 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.coordinator.notifications.buildTask;
+
+import org.jboss.pnc.dto.Build;
+import org.jboss.pnc.enums.BuildStatus;
+import org.jboss.pnc.spi.coordinator.events.DefaultBuildStatusChangedEvent;
+import org.jboss.pnc.spi.events.BuildStatusChangedEvent;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BuildStatusNotificationsTest {
+
+    private final BuildStatusNotifications notifications = new BuildStatusNotifications();
+
+    @Test
+    public void shouldNotifyOnlySubscribersOfTheTask() {
+        List<BuildStatusChangedEvent> task1Events = new ArrayList<>();
+        List<BuildStatusChangedEvent> task2Events = new ArrayList<>();
+        notifications.subscribe(new BuildCallBack(1, task1Events::add));
+        notifications.subscribe(new BuildCallBack(2, task2Events::add));
+
+        notifications.observeEvent(event(1, BuildStatus.BUILDING));
+
+        assertThat(task1Events).hasSize(1);
+        assertThat(task2Events).isEmpty();
+    }
+
+    @Test
+    public void shouldRemoveSubscribersOnceTaskCompletes() {
+        List<BuildStatusChangedEvent> events = new ArrayList<>();
+        notifications.subscribe(new BuildCallBack(1, events::add));
+        notifications.subscribe(new BuildCallBack(1, events::add));
+        notifications.subscribe(new BuildCallBack(2, events::add));
+
+        notifications.observeEvent(event(1, BuildStatus.BUILDING));
+        notifications.observeEvent(event(1, BuildStatus.SUCCESS));
+        notifications.observeEvent(event(1, BuildStatus.SUCCESS));
+
+        assertThat(events).hasSize(4);
+        assertThat(notifications.subscribersCount()).isEqualTo(1);
+    }
+
+    static BuildStatusChangedEvent event(int taskId, BuildStatus newStatus) {
+        Build build = Build.builder().id(Integer.toString(taskId)).status(newStatus).build();
+        return new DefaultBuildStatusChangedEvent(build, BuildStatus.NEW, newStatus);
+    }
+}
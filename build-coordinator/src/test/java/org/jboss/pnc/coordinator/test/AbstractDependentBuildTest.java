@@ -38,6 +38,8 @@ import org.jboss.pnc.mock.repository.BuildConfigSetRecordRepositoryMock;
 import org.jboss.pnc.mock.repository.BuildConfigurationAuditedRepositoryMock;
 import org.jboss.pnc.mock.repository.BuildConfigurationRepositoryMock;
 import org.jboss.pnc.mock.repository.BuildRecordRepositoryMock;
+import org.jboss.pnc.mock.repository.BuildStatusOutboxRepositoryMock;
+import org.jboss.pnc.mock.repository.ProductMilestoneArtifactRepositoryMock;
 import org.jboss.pnc.mock.repository.SequenceHandlerRepositoryMock;
 import org.jboss.pnc.mock.repository.TargetRepositoryRepositoryMock;
 import org.jboss.pnc.mock.repository.UserRepositoryMock;
@@ -165,7 +167,9 @@ public abstract class AbstractDependentBuildTest {
                 new BuildConfigSetRecordRepositoryMock(),
                 new UserRepositoryMock(),
                 sequenceHandlerRepositoryMock,
-                targetRepositoryRepository);
+                targetRepositoryRepository,
+                new BuildStatusOutboxRepositoryMock(),
+                new ProductMilestoneArtifactRepositoryMock());
         DatastoreAdapter datastoreAdapter = new DatastoreAdapter(datastore);
 
         if (buildSchedulerFactory == null) {
@@ -29,6 +29,8 @@ import org.jboss.pnc.coordinator.builder.datastore.DatastoreAdapter;
 import org.jboss.pnc.coordinator.notifications.buildSetTask.BuildSetCallBack;
 import org.jboss.pnc.coordinator.notifications.buildSetTask.BuildSetStatusNotifications;
 import org.jboss.pnc.coordinator.notifications.buildTask.BuildCallBack;
+import org.jboss.pnc.coordinator.notifications.buildTask.BuildStatusMQNotifications;
+import org.jboss.pnc.coordinator.notifications.buildTask.BuildStatusMessageRelay;
 import org.jboss.pnc.coordinator.test.event.TestCDIBuildStatusChangedReceiver;
 import org.jboss.pnc.executor.DefaultBuildExecutionSession;
 import org.jboss.pnc.executor.DefaultBuildExecutor;
@@ -102,6 +104,11 @@ public class BuildCoordinatorDeployments {
             if (packageStylePath.equals(DefaultBuildExecutor.class.getName())) {
                 return false;
             }
+            // there is no message broker nor the outbox table in the deployment
+            if (packageStylePath.startsWith(BuildStatusMessageRelay.class.getName())
+                    || packageStylePath.startsWith(BuildStatusMQNotifications.class.getName())) {
+                return false;
+            }
             return true;
         };
 
@@ -21,6 +21,8 @@ import java.net.NetworkInterface;
 import java.security.SecureRandom;
 import java.time.Instant;
 import java.util.Enumeration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
 /**
  * Distributed Sequence Generator. Inspired by Twitter snowflake:
@@ -29,6 +31,10 @@ import java.util.Enumeration;
  * This class should be used as a Singleton. Make sure that you create and reuse a Single instance of SequenceGenerator
  * per node in your distributed system cluster.
  *
+ * The generator is lock-free: the timestamp and the sequence of the last id are kept in a single atomic long, which is
+ * advanced with compare-and-set. Ids of a generator are unique and strictly increasing. If the system clock moves back
+ * by at most {@link #MAX_CLOCK_BACKWARD_MILLIS}, ids are generated from the last timestamp until the clock catches up.
+ *
  * @see <a href=
  *      "https://www.callicoder.com/distributed-unique-id-sequence-number-generator/">distributed-unique-id-sequence-number-generator</a>
  */
@@ -45,48 +51,63 @@ public class SequenceGenerator {
     // Custom Epoch (January 1, 2020 Midnight UTC = 2020-01-01T00:00:00Z)
     private static final long CUSTOM_EPOCH = 1577836800000L;
 
+    static final long MAX_CLOCK_BACKWARD_MILLIS = 5000L;
+
     private final int nodeId;
 
-    private volatile long lastTimestamp = -1L;
-    private volatile long sequence = 0L;
+    private final LongSupplier clock;
+
+    // timestamp of the last id shifted by SEQUENCE_BITS, or-ed with its sequence
+    private final AtomicLong last = new AtomicLong();
 
     // Create SequenceGenerator with a nodeId
     SequenceGenerator(int nodeId) {
+        this(nodeId, SequenceGenerator::timestamp);
+    }
+
+    SequenceGenerator(int nodeId, LongSupplier clock) {
         if (nodeId < 0 || nodeId > maxNodeId) {
             throw new IllegalArgumentException(String.format("NodeId must be between %d and %d", 0, maxNodeId));
         }
         this.nodeId = nodeId;
+        this.clock = clock;
     }
 
     // Let SequenceGenerator generate a nodeId
     SequenceGenerator() {
         this.nodeId = createNodeId();
+        this.clock = SequenceGenerator::timestamp;
     }
 
-    public synchronized long nextId() {
-        long currentTimestamp = timestamp();
-
-        if (currentTimestamp < lastTimestamp) {
-            throw new IllegalStateException("Invalid System Clock!");
-        }
+    public long nextId() {
+        while (true) {
+            long lastState = last.get();
+            long lastTimestamp = lastState >>> SEQUENCE_BITS;
+            long currentTimestamp = clock.getAsLong();
+
+            long nextState;
+            if (currentTimestamp > lastTimestamp) {
+                // reset sequence to start with zero for the next millisecond
+                nextState = currentTimestamp << SEQUENCE_BITS;
+            } else {
+                if (lastTimestamp - currentTimestamp > MAX_CLOCK_BACKWARD_MILLIS) {
+                    throw new IllegalStateException(
+                            "Invalid System Clock! Clock moved back by " + (lastTimestamp - currentTimestamp) + " ms.");
+                }
+                if ((lastState & maxSequence) == maxSequence) {
+                    // Sequence Exhausted, wait till next millisecond.
+                    continue;
+                }
+                nextState = lastState + 1;
+            }
 
-        if (currentTimestamp == lastTimestamp) {
-            sequence = (sequence + 1) & maxSequence;
-            if (sequence == 0) {
-                // Sequence Exhausted, wait till next millisecond.
-                currentTimestamp = waitNextMillis(currentTimestamp);
+            if (last.compareAndSet(lastState, nextState)) {
+                long id = (nextState >>> SEQUENCE_BITS) << (NODE_ID_BITS + SEQUENCE_BITS);
+                id |= (nodeId << SEQUENCE_BITS);
+                id |= nextState & maxSequence;
+                return id;
             }
-        } else {
-            // reset sequence to start with zero for the next millisecond
-            sequence = 0;
         }
-
-        lastTimestamp = currentTimestamp;
-
-        long id = currentTimestamp << (NODE_ID_BITS + SEQUENCE_BITS);
-        id |= (nodeId << SEQUENCE_BITS);
-        id |= sequence;
-        return id;
     }
 
     // Get current timestamp in milliseconds, adjust for the custom epoch.
@@ -94,14 +115,6 @@ public class SequenceGenerator {
         return Instant.now().toEpochMilli() - CUSTOM_EPOCH;
     }
 
-    // Block and wait till next millisecond
-    private long waitNextMillis(long currentTimestamp) {
-        while (currentTimestamp == lastTimestamp) {
-            currentTimestamp = timestamp();
-        }
-        return currentTimestamp;
-    }
-
     private int createNodeId() {
         int nodeId;
         try {
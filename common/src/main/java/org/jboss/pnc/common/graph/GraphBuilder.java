@@ -22,84 +22,165 @@ import org.jboss.util.graph.Vertex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 
 /**
+ * Builds dependency and dependant graphs level by level, loading all the nodes of a level with a single call of the
+ * node supplier.
+ *
+ * The builder keeps an index of vertex names of the graph it was last used with, so repeated calls on the same graph
+ * (eg. building one graph for all the builds in a group) neither scan the graph for visited vertices nor expand a
+ * vertex twice in the same direction. The builder is not thread safe.
+ *
  * @author <a href="mailto:matejonnet@gmail.com">Matej Lazar</a>
  */
 public class GraphBuilder<T, S> {
 
     private final Logger logger = LoggerFactory.getLogger(GraphBuilder.class);
 
-    private Function<S, T> nodeSupplier;
+    private Function<Collection<S>, Map<S, T>> nodesSupplier;
+
+    private final Function<T, Collection<S>> dependencySupplier;
+
+    private final Function<T, Collection<S>> dependantSupplier;
+
+    private Graph<T> indexedGraph;
+
+    private final Map<String, Vertex<T>> vertices = new HashMap<>();
 
-    private Function<T, Collection<S>> dependencySupplier;
+    private final Set<String> expandedDependencies = new HashSet<>();
 
-    private Function<T, Collection<S>> dependantSupplier;
+    private final Set<String> expandedDependants = new HashSet<>();
 
     public GraphBuilder(
             Function<S, T> nodeSupplier,
             Function<T, Collection<S>> dependencySupplier,
             Function<T, Collection<S>> dependantSupplier) {
-        this.nodeSupplier = nodeSupplier;
+        this(dependencySupplier, dependantSupplier);
+        this.nodesSupplier = ids -> {
+            Map<S, T> nodes = new HashMap<>();
+            for (S id : ids) {
+                nodes.put(id, nodeSupplier.apply(id));
+            }
+            return nodes;
+        };
+    }
+
+    private GraphBuilder(Function<T, Collection<S>> dependencySupplier, Function<T, Collection<S>> dependantSupplier) {
         this.dependencySupplier = dependencySupplier;
         this.dependantSupplier = dependantSupplier;
     }
 
-    private T getNode(S id) {
-        return nodeSupplier.apply(id);
+    /**
+     * @param nodesSupplier loads the nodes of given ids at once, ids missing in the result are added as vertices
+     *        without data and are not expanded
+     */
+    public static <T, S> GraphBuilder<T, S> batched(
+            Function<Collection<S>, Map<S, T>> nodesSupplier,
+            Function<T, Collection<S>> dependencySupplier,
+            Function<T, Collection<S>> dependantSupplier) {
+        GraphBuilder<T, S> graphBuilder = new GraphBuilder<>(dependencySupplier, dependantSupplier);
+        graphBuilder.nodesSupplier = nodesSupplier;
+        return graphBuilder;
     }
 
-    private Collection<S> getDependencyIds(T node) {
-        return dependencySupplier.apply(node);
+    public Vertex<T> buildDependencyGraph(Graph<T> graph, S nodeId) {
+        return build(graph, nodeId, dependencySupplier, expandedDependencies, false);
     }
 
-    private Collection<S> getDependantIds(T node) {
-        return dependantSupplier.apply(node);
+    public Vertex<T> buildDependentGraph(Graph<T> graph, S nodeId) {
+        return build(graph, nodeId, dependantSupplier, expandedDependants, true);
     }
 
-    public Vertex<T> buildDependencyGraph(Graph<T> graph, S nodeId) {
-        T node = getNode(nodeId);
-        Vertex<T> vertex = getVisited(nodeId, graph);
-        if (vertex == null) {
-            vertex = new NameUniqueVertex<>(nodeId.toString(), node);
-            graph.addVertex(vertex);
+    private Vertex<T> build(
+            Graph<T> graph,
+            S rootId,
+            Function<T, Collection<S>> neighbourSupplier,
+            Set<String> expanded,
+            boolean reversed) {
+        useGraph(graph);
+        Vertex<T> root = vertices.get(rootId.toString());
+        if (root == null) {
+            addVertices(graph, Collections.singleton(rootId));
+            root = vertices.get(rootId.toString());
         }
-        for (S dependencyId : getDependencyIds(node)) {
-            Vertex<T> dependency = getVisited(dependencyId, graph);
-            if (dependency == null) {
-                dependency = buildDependencyGraph(graph, dependencyId);
+
+        List<Vertex<T>> level = Collections.singletonList(root);
+        while (!level.isEmpty()) {
+            Map<Vertex<T>, Collection<S>> neighbourIds = new LinkedHashMap<>();
+            Set<S> missing = new LinkedHashSet<>();
+            for (Vertex<T> vertex : level) {
+                if (vertex.getData() == null || !expanded.add(vertex.getName())) {
+                    continue;
+                }
+                Collection<S> ids = neighbourSupplier.apply(vertex.getData());
+                neighbourIds.put(vertex, ids);
+                for (S id : ids) {
+                    if (!vertices.containsKey(id.toString())) {
+                        missing.add(id);
+                    }
+                }
             }
-            if (dependency != null) {
-                logger.trace("Creating new dependency edge from {} to {}.", vertex, dependency);
-                graph.addEdge(vertex, dependency, 1);
+            addVertices(graph, missing);
+
+            List<Vertex<T>> nextLevel = new ArrayList<>();
+            for (Map.Entry<Vertex<T>, Collection<S>> entry : neighbourIds.entrySet()) {
+                Vertex<T> vertex = entry.getKey();
+                for (S id : entry.getValue()) {
+                    Vertex<T> neighbour = vertices.get(id.toString());
+                    if (reversed) {
+                        logger.trace("Creating new dependant edge from {} to {}.", neighbour, vertex);
+                        graph.addEdge(neighbour, vertex, 1);
+                    } else {
+                        logger.trace("Creating new dependency edge from {} to {}.", vertex, neighbour);
+                        graph.addEdge(vertex, neighbour, 1);
+                    }
+                    nextLevel.add(neighbour);
+                }
             }
+            level = nextLevel;
         }
-        return vertex;
+        return root;
     }
 
-    public Vertex<T> buildDependentGraph(Graph<T> graph, S nodeId) {
-        T node = getNode(nodeId);
-        Vertex<T> vertex = getVisited(nodeId, graph);
-        if (vertex == null) {
-            vertex = new NameUniqueVertex<>(nodeId.toString(), node);
-            graph.addVertex(vertex);
+    private void addVertices(Graph<T> graph, Collection<S> ids) {
+        if (ids.isEmpty()) {
+            return;
         }
-        for (S dependantId : getDependantIds(node)) {
-            Vertex<T> dependant = getVisited(dependantId, graph);
-            if (dependant == null) {
-                dependant = buildDependentGraph(graph, dependantId);
-            }
-            if (dependant != null) {
-                logger.trace("Creating new dependant edge from {} to {}.", dependant, vertex);
-                graph.addEdge(dependant, vertex, 1);
-            }
+        Map<S, T> nodes = nodesSupplier.apply(ids);
+        for (S id : ids) {
+            Vertex<T> vertex = new NameUniqueVertex<>(id.toString(), nodes.get(id));
+            graph.addVertex(vertex);
+            vertices.put(vertex.getName(), vertex);
         }
-        return vertex;
     }
 
-    private Vertex<T> getVisited(S nodeId, Graph<T> graph) {
-        return graph.findVertexByName(nodeId.toString());
+    /**
+     * Vertices already present in a graph the builder sees for the first time are considered visited and are not
+     * expanded.
+     */
+    private void useGraph(Graph<T> graph) {
+        if (graph == indexedGraph) {
+            return;
+        }
+        indexedGraph = graph;
+        vertices.clear();
+        expandedDependencies.clear();
+        expandedDependants.clear();
+        for (Vertex<T> vertex : graph.getVerticies()) {
+            vertices.put(vertex.getName(), vertex);
+            expandedDependencies.add(vertex.getName());
+            expandedDependants.add(vertex.getName());
+        }
     }
 }
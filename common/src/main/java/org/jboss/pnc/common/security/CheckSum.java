@@ -18,43 +18,25 @@
 package org.jboss.pnc.common.security;
 
 import java.io.IOException;
-import java.io.StringReader;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
 /**
  * @author <a href="mailto:matejonnet@gmail.com">Matej Lazar</a>
  */
 public class CheckSum {
-    static String calculateDigest(String message, String algorithm) throws NoSuchAlgorithmException, IOException {
-        MessageDigest md = MessageDigest.getInstance(algorithm);
-
-        StringReader reader = new StringReader(message);
-        char[] buffer = new char[1024];
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
 
-        while (true) {
-            int read = reader.read(buffer);
-            if (read == -1) {
-                break;
-            }
-            md.update(String.valueOf(buffer, 0, read).getBytes(StandardCharsets.UTF_8));
-        }
-
-        byte[] digest = md.digest();
-        return format(digest);
+    static String calculateDigest(String message, String algorithm) throws NoSuchAlgorithmException, IOException {
+        return new MultiDigest(algorithm).update(message).getDigest(algorithm);
     }
 
     static String format(byte[] digest) {
-        StringBuilder hexString = new StringBuilder();
-        for (byte b : digest) {
-            String hex = Integer.toHexString(0xFF & b);
-            if (hex.length() == 1) {
-                hexString.append('0');
-            }
-            hexString.append(hex);
+        char[] hex = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            hex[i * 2] = HEX[(digest[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX[digest[i] & 0xF];
         }
-        return hexString.toString();
+        return new String(hex);
     }
 
 }
@@ -0,0 +1,191 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.common.security;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Computes several digests and the size of a content in a single pass over it.
+ *
+ * The content is never held in memory as a whole: streams are read through a fixed size buffer and character sequences
+ * are encoded to UTF-8 chunk by chunk into a reused buffer, so digesting a large log does not copy it into a byte
+ * array. The digests are computed the same way as {@link String#getBytes(java.nio.charset.Charset)} with UTF-8 would
+ * encode the content, including the replacement of malformed characters.
+ *
+ * Instances are not thread safe and can't be updated once a digest was read.
+ */
+public class MultiDigest {
+
+    public static final String MD5 = "MD5";
+    public static final String SHA1 = "SHA-1";
+    public static final String SHA256 = "SHA-256";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Map<String, MessageDigest> digests = new LinkedHashMap<>();
+
+    private Map<String, String> results;
+
+    private long size;
+
+    private ByteBuffer buffer;
+
+    /**
+     * Creates a digest computing MD5, SHA-1 and SHA-256.
+     */
+    public MultiDigest() throws NoSuchAlgorithmException {
+        this(MD5, SHA1, SHA256);
+    }
+
+    public MultiDigest(String... algorithms) throws NoSuchAlgorithmException {
+        for (String algorithm : algorithms) {
+            digests.put(algorithm, MessageDigest.getInstance(algorithm));
+        }
+    }
+
+    public MultiDigest update(byte[] bytes, int offset, int length) {
+        checkNotFinished();
+        for (MessageDigest digest : digests.values()) {
+            digest.update(bytes, offset, length);
+        }
+        size += length;
+        return this;
+    }
+
+    public MultiDigest update(byte[] bytes) {
+        return update(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Digests the remaining bytes of the buffer. The position of the buffer is moved to its limit.
+     */
+    public MultiDigest update(ByteBuffer bytes) {
+        checkNotFinished();
+        int position = bytes.position();
+        for (MessageDigest digest : digests.values()) {
+            bytes.position(position);
+            digest.update(bytes);
+        }
+        size += bytes.position() - position;
+        return this;
+    }
+
+    /**
+     * Digests the content of the stream until its end. The stream is not closed.
+     */
+    public MultiDigest update(InputStream stream) throws IOException {
+        byte[] bytes = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = stream.read(bytes)) != -1) {
+            update(bytes, 0, read);
+        }
+        return this;
+    }
+
+    /**
+     * Gets a stream digesting the bytes written to it, eg. for a serializer to write into. Closing the stream doesn't
+     * complete the digests.
+     */
+    public OutputStream asOutputStream() {
+        return new OutputStream() {
+            @Override
+            public void write(int b) {
+                update(new byte[] { (byte) b });
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) {
+                update(bytes, offset, length);
+            }
+        };
+    }
+
+    /**
+     * Digests the characters encoded in UTF-8.
+     */
+    public MultiDigest update(CharSequence chars) {
+        checkNotFinished();
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        if (buffer == null) {
+            buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        }
+        CharBuffer input = CharBuffer.wrap(chars);
+        CoderResult result;
+        do {
+            result = encoder.encode(input, buffer, true);
+            flushBuffer();
+        } while (result.isOverflow());
+        while (encoder.flush(buffer).isOverflow()) {
+            flushBuffer();
+        }
+        flushBuffer();
+        return this;
+    }
+
+    private void flushBuffer() {
+        buffer.flip();
+        update(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * @return number of bytes digested so far
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Completes the digests. No more content can be added afterwards.
+     *
+     * @param algorithm one of the algorithms the instance was created with
+     * @return hex encoded digest
+     */
+    public String getDigest(String algorithm) {
+        if (!digests.containsKey(algorithm)) {
+            throw new IllegalArgumentException("Digest " + algorithm + " is not computed.");
+        }
+        if (results == null) {
+            results = new LinkedHashMap<>();
+            for (Map.Entry<String, MessageDigest> digest : digests.entrySet()) {
+                results.put(digest.getKey(), CheckSum.format(digest.getValue().digest()));
+            }
+        }
+        return results.get(algorithm);
+    }
+
+    private void checkNotFinished() {
+        if (results != null) {
+            throw new IllegalStateException("Digest was already completed.");
+        }
+    }
+}
@@ -24,10 +24,15 @@ import java.net.URI;
 import java.net.URL;
 import java.security.InvalidParameterException;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 public final class UrlUtils {
 
+    private static final Pattern MULTIPLE_SLASHES = Pattern.compile("/{2,}");
+    private static final Pattern TRAILING_SLASHES = Pattern.compile("/+$");
+
     private UrlUtils() {
     }
 
@@ -126,6 +131,31 @@ public final class UrlUtils {
         return host + (path == null ? "" : path);
     }
 
+    /**
+     * Normalizes the url of a SCM repository, so that all the forms of the url of the same repository are equal. Only
+     * the host in lower case and the path are kept; repeated and trailing slashes and the .git extension are removed.
+     * Regular, schema-less and Git SCP-style urls are supported, f.e. https://GitHub.com/project-ncl/pnc.git/ and
+     * git@github.com:project-ncl/pnc are both normalized to github.com/project-ncl/pnc.
+     *
+     * @param url url of the repository
+     * @return normalized url, null if the url is null
+     */
+    public static String normalizeScmUrl(String url) {
+        if (url == null) {
+            return null;
+        }
+        String hostAndPath = keepHostAndPathOnly(url.trim());
+        int pathStart = hostAndPath.indexOf('/');
+        String host = pathStart == -1 ? hostAndPath : hostAndPath.substring(0, pathStart);
+        String path = pathStart == -1 ? "" : hostAndPath.substring(pathStart);
+
+        path = MULTIPLE_SLASHES.matcher(path).replaceAll("/");
+        path = TRAILING_SLASHES.matcher(path).replaceAll("");
+        path = StringUtils.stripSuffix(path, ".git");
+        path = TRAILING_SLASHES.matcher(path).replaceAll("");
+        return host.toLowerCase(Locale.ROOT) + path;
+    }
+
     public static String stripProtocolAndPort(String url) {
         // workaround to properly parse url. Without schema and available port, URI.create fails to parse
         if (!url.contains("://")) {
@@ -0,0 +1,108 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.common.concurrent;
+
+import org.jboss.pnc.test.category.DebugTest;
+import org.jboss.pnc.test.util.Benchmark;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+
+/**
+ * Measures the throughput of the lock-free {@link SequenceGenerator} compared to the former synchronized
+ * implementation at 1 to 64 threads.
+ */
+@Category(DebugTest.class)
+public class SequenceGeneratorBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SequenceGeneratorBenchmarkTest.class);
+
+    private static final long DURATION_MILLIS = 1000;
+
+    @Test
+    public void throughput() throws Exception {
+        for (int threads = 1; threads <= 64; threads *= 2) {
+            SequenceGenerator generator = new SequenceGenerator(1);
+            LegacySequenceGenerator legacy = new LegacySequenceGenerator(1);
+            // warm up
+            Benchmark.throughput(threads, DURATION_MILLIS, generator::nextId);
+            Benchmark.throughput(threads, DURATION_MILLIS, legacy::nextId);
+
+            long lockFree = Benchmark.throughput(threads, DURATION_MILLIS, generator::nextId);
+            long synchronizedIds = Benchmark.throughput(threads, DURATION_MILLIS, legacy::nextId);
+            log.info(
+                    "{} threads: lock-free {} ids/ms, synchronized {} ids/ms.",
+                    threads,
+                    lockFree / DURATION_MILLIS,
+                    synchronizedIds / DURATION_MILLIS);
+        }
+    }
+
+    /**
+     * The former implementation of {@link SequenceGenerator#nextId()}.
+     */
+    private static class LegacySequenceGenerator {
+
+        private static final long CUSTOM_EPOCH = 1577836800000L;
+        private static final int NODE_ID_BITS = 10;
+        private static final int SEQUENCE_BITS = 12;
+        private static final int maxSequence = (1 << SEQUENCE_BITS) - 1;
+
+        private final int nodeId;
+
+        private volatile long lastTimestamp = -1L;
+        private volatile long sequence = 0L;
+
+        private LegacySequenceGenerator(int nodeId) {
+            this.nodeId = nodeId;
+        }
+
+        private synchronized long nextId() {
+            long currentTimestamp = timestamp();
+
+            if (currentTimestamp < lastTimestamp) {
+                throw new IllegalStateException("Invalid System Clock!");
+            }
+
+            if (currentTimestamp == lastTimestamp) {
+                sequence = (sequence + 1) & maxSequence;
+                if (sequence == 0) {
+                    while (currentTimestamp == lastTimestamp) {
+                        currentTimestamp = timestamp();
+                    }
+                }
+            } else {
+                sequence = 0;
+            }
+
+            lastTimestamp = currentTimestamp;
+
+            long id = currentTimestamp << (NODE_ID_BITS + SEQUENCE_BITS);
+            id |= (nodeId << SEQUENCE_BITS);
+            id |= sequence;
+            return id;
+        }
+
+        private static long timestamp() {
+            return Instant.now().toEpochMilli() - CUSTOM_EPOCH;
+        }
+    }
+}
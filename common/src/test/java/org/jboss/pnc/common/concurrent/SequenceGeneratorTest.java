@@ -0,0 +1,119 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.common.concurrent;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SequenceGeneratorTest {
+
+    private static final int SEQUENCE_BITS = 12;
+
+    @Test
+    public void shouldGenerateUniqueIncreasingIdsConcurrently() throws Exception {
+        SequenceGenerator generator = new SequenceGenerator(1);
+        int threads = 8;
+        int idsPerThread = 20_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    long[] ids = new long[idsPerThread];
+                    for (int j = 0; j < idsPerThread; j++) {
+                        ids[j] = generator.nextId();
+                    }
+                    return ids;
+                }));
+            }
+            Set<Long> all = new HashSet<>();
+            for (Future<long[]> result : results) {
+                long[] ids = result.get();
+                for (int j = 0; j < ids.length; j++) {
+                    if (j > 0) {
+                        assertThat(ids[j]).isGreaterThan(ids[j - 1]);
+                    }
+                    all.add(ids[j]);
+                }
+            }
+            assertThat(all).hasSize(threads * idsPerThread);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldContinueFromLastTimestampWhenClockMovesBackSlightly() {
+        AtomicLong clock = new AtomicLong(10_000);
+        SequenceGenerator generator = new SequenceGenerator(1, clock::get);
+
+        long before = generator.nextId();
+        clock.addAndGet(-1000);
+        long after = generator.nextId();
+
+        assertThat(after).isGreaterThan(before);
+        assertThat(timestamp(after)).isEqualTo(10_000);
+    }
+
+    @Test
+    public void shouldRejectLargeClockRegression() {
+        AtomicLong clock = new AtomicLong(100_000);
+        SequenceGenerator generator = new SequenceGenerator(1, clock::get);
+
+        generator.nextId();
+        clock.addAndGet(-SequenceGenerator.MAX_CLOCK_BACKWARD_MILLIS - 1);
+
+        assertThatThrownBy(generator::nextId).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void shouldWaitForNextMillisecondWhenSequenceIsExhausted() {
+        AtomicInteger calls = new AtomicInteger();
+        int sequenceSize = 1 << SEQUENCE_BITS;
+        // the clock advances only after the sequence of the first millisecond is exhausted
+        SequenceGenerator generator = new SequenceGenerator(
+                1,
+                () -> calls.incrementAndGet() <= sequenceSize + 10 ? 1000 : 1001);
+
+        long last = 0;
+        for (int i = 0; i < sequenceSize + 1; i++) {
+            long id = generator.nextId();
+            assertThat(id).isGreaterThan(last);
+            last = id;
+        }
+        assertThat(timestamp(last)).isEqualTo(1001);
+        assertThat(last & ((1 << SEQUENCE_BITS) - 1)).isEqualTo(0);
+    }
+
+    private static long timestamp(long id) {
+        return id >>> (10 + SEQUENCE_BITS);
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.common.graph;
+
+import org.jboss.pnc.test.category.DebugTest;
+import org.jboss.pnc.test.util.Benchmark;
+import org.jboss.util.graph.Graph;
+import org.jboss.util.graph.Vertex;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures building the graph of a whole group of builds on a synthetic random DAG, building and merging a graph per
+ * build (the former way of the group build graph endpoint) compared to building one shared graph with batch loading.
+ * Every node load simulates a database round trip.
+ */
+@Category(DebugTest.class)
+public class GraphBuilderBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(GraphBuilderBenchmarkTest.class);
+
+    private static final int NODES = 300;
+    private static final int DEPENDENCIES_PER_NODE = 3;
+    private static final long ROUND_TRIP_MICROS = 100L;
+
+    private final List<List<Integer>> dependencies = new ArrayList<>();
+
+    private final List<List<Integer>> dependants = new ArrayList<>();
+
+    private final AtomicInteger roundTrips = new AtomicInteger();
+
+    @Test
+    public void groupGraph() throws Exception {
+        Random random = new Random(42);
+        for (int i = 0; i < NODES; i++) {
+            dependencies.add(new ArrayList<>());
+            dependants.add(new ArrayList<>());
+        }
+        for (int i = 1; i < NODES; i++) {
+            for (int j = 0; j < DEPENDENCIES_PER_NODE; j++) {
+                int dependency = random.nextInt(i);
+                if (!dependencies.get(i).contains(dependency)) {
+                    dependencies.get(i).add(dependency);
+                    dependants.get(dependency).add(i);
+                }
+            }
+        }
+
+        // the timed operations run twice, once to warm up
+        long merged = Benchmark.time(1, this::mergedGraphs);
+        int mergedRoundTrips = roundTrips.getAndSet(0);
+        long shared = Benchmark.time(1, this::sharedGraph);
+        int sharedRoundTrips = roundTrips.get();
+
+        Assert.assertEquals(mergedGraphs().getEdges().size(), sharedGraph().getEdges().size());
+        log.info(
+                "Graph of a group of {} builds: merged per build graphs {} ms ({} loads),"
+                        + " shared graph {} ms ({} loads).",
+                NODES,
+                merged / 1_000_000,
+                mergedRoundTrips / 2,
+                shared / 1_000_000,
+                sharedRoundTrips / 2);
+    }
+
+    private Graph<Integer> mergedGraphs() {
+        Graph<Integer> group = new Graph<>();
+        for (int i = 0; i < NODES; i++) {
+            Graph<Integer> graph = new Graph<>();
+            GraphBuilder<Integer, Integer> graphBuilder = new GraphBuilder<>(
+                    this::load,
+                    dependencies::get,
+                    dependants::get);
+            graphBuilder.buildDependencyGraph(graph, i);
+            graphBuilder.buildDependentGraph(graph, i);
+            GraphUtils.merge(group, graph);
+        }
+        return group;
+    }
+
+    private Graph<Integer> sharedGraph() {
+        Graph<Integer> group = new Graph<>();
+        GraphBuilder<Integer, Integer> graphBuilder = GraphBuilder
+                .batched(this::loadAll, dependencies::get, dependants::get);
+        for (int i = 0; i < NODES; i++) {
+            Vertex<Integer> root = graphBuilder.buildDependencyGraph(group, i);
+            graphBuilder.buildDependentGraph(group, root.getData());
+        }
+        return group;
+    }
+
+    private Integer load(Integer id) {
+        roundTrip();
+        return id;
+    }
+
+    private Map<Integer, Integer> loadAll(Collection<Integer> ids) {
+        roundTrip();
+        Map<Integer, Integer> nodes = new HashMap<>();
+        for (Integer id : ids) {
+            nodes.put(id, id);
+        }
+        return nodes;
+    }
+
+    private void roundTrip() {
+        roundTrips.incrementAndGet();
+        Benchmark.roundTrip(ROUND_TRIP_MICROS);
+    }
+}
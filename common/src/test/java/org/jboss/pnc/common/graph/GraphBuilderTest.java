@@ -0,0 +1,158 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.common.graph;
+
+import org.jboss.util.graph.Edge;
+import org.jboss.util.graph.Graph;
+import org.jboss.util.graph.Vertex;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class GraphBuilderTest {
+
+    private final Map<String, Node> nodes = new HashMap<>();
+
+    private final List<Collection<String>> loads = new ArrayList<>();
+
+    @Test
+    public void shouldLoadEachLevelAtOnce() {
+        // a -> b, c; b -> d; c -> d
+        dependency("a", "b");
+        dependency("a", "c");
+        dependency("b", "d");
+        dependency("c", "d");
+
+        Graph<Node> graph = new Graph<>();
+        Vertex<Node> root = graphBuilder().buildDependencyGraph(graph, "a");
+
+        Assert.assertEquals("a", root.getName());
+        Assert.assertEquals(4, graph.getVerticies().size());
+        Assert.assertEquals(edges("a->b", "a->c", "b->d", "c->d"), edges(graph));
+        Assert.assertEquals(3, loads.size());
+        Assert.assertEquals(new HashSet<>(Arrays.asList("b", "c")), new HashSet<>(loads.get(1)));
+    }
+
+    @Test
+    public void shouldBuildDependantGraph() {
+        dependency("a", "b");
+        dependency("b", "c");
+        dependency("x", "b");
+
+        Graph<Node> graph = new Graph<>();
+        GraphBuilder<Node, String> graphBuilder = graphBuilder();
+        graphBuilder.buildDependencyGraph(graph, "b");
+        graphBuilder.buildDependentGraph(graph, "b");
+
+        Assert.assertEquals(4, graph.getVerticies().size());
+        Assert.assertEquals(edges("a->b", "x->b", "b->c"), edges(graph));
+    }
+
+    @Test
+    public void shouldNotLoadVerticesOfSharedGraphTwice() {
+        dependency("a", "c");
+        dependency("b", "c");
+        dependency("c", "d");
+
+        Graph<Node> graph = new Graph<>();
+        GraphBuilder<Node, String> graphBuilder = graphBuilder();
+        graphBuilder.buildDependencyGraph(graph, "a");
+        graphBuilder.buildDependencyGraph(graph, "b");
+
+        Assert.assertEquals(4, graph.getVerticies().size());
+        Assert.assertEquals(edges("a->c", "b->c", "c->d"), edges(graph));
+        Set<String> loaded = new HashSet<>();
+        for (Collection<String> load : loads) {
+            for (String id : load) {
+                Assert.assertTrue("Node " + id + " loaded twice.", loaded.add(id));
+            }
+        }
+    }
+
+    @Test
+    public void shouldNotExpandMissingNodes() {
+        dependency("a", "b");
+        nodes.remove("b");
+
+        Graph<Node> graph = new Graph<>();
+        graphBuilder().buildDependencyGraph(graph, "a");
+
+        Assert.assertEquals(2, graph.getVerticies().size());
+        Assert.assertNull(graph.findVertexByName("b").getData());
+    }
+
+    private GraphBuilder<Node, String> graphBuilder() {
+        return GraphBuilder.batched(ids -> {
+            loads.add(new ArrayList<>(ids));
+            Map<String, Node> loaded = new HashMap<>();
+            for (String id : ids) {
+                if (nodes.containsKey(id)) {
+                    loaded.put(id, nodes.get(id));
+                }
+            }
+            return loaded;
+        }, node -> node.dependencies, node -> node.dependants);
+    }
+
+    private void dependency(String from, String to) {
+        Node fromNode = nodes.computeIfAbsent(from, Node::new);
+        Node toNode = nodes.computeIfAbsent(to, Node::new);
+        fromNode.dependencies.add(to);
+        toNode.dependants.add(from);
+    }
+
+    private static Set<String> edges(String... edges) {
+        return new HashSet<>(Arrays.asList(edges));
+    }
+
+    private static Set<String> edges(Graph<Node> graph) {
+        List<Edge<Node>> edges = graph.getEdges();
+        Set<String> result = edges.stream()
+                .map(e -> e.getFrom().getName() + "->" + e.getTo().getName())
+                .collect(Collectors.toSet());
+        Assert.assertEquals("Duplicate edges.", edges.size(), result.size());
+        return result;
+    }
+
+    private static class Node {
+
+        private final String name;
+
+        private final Set<String> dependencies = new HashSet<>();
+
+        private final Set<String> dependants = new HashSet<>();
+
+        private Node(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
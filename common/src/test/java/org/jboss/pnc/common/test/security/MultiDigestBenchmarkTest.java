@@ -0,0 +1,86 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.common.test.security;
+
+import org.jboss.pnc.common.security.Md5;
+import org.jboss.pnc.common.security.MultiDigest;
+import org.jboss.pnc.common.security.Sha256;
+import org.jboss.pnc.test.category.DebugTest;
+import org.jboss.pnc.test.util.Benchmark;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.jboss.pnc.common.security.MultiDigest.MD5;
+import static org.jboss.pnc.common.security.MultiDigest.SHA256;
+
+/**
+ * Measures the throughput and allocations of computing the size, MD5 and SHA-256 of a large build log in one pass
+ * compared to the former separate passes.
+ */
+@Category(DebugTest.class)
+public class MultiDigestBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(MultiDigestBenchmarkTest.class);
+
+    private static final int LOG_LINES = 1_000_000;
+
+    @Test
+    public void buildLogDigests() throws Exception {
+        String buildLog = buildLog();
+        long bytes = buildLog.getBytes(UTF_8).length;
+
+        Benchmark.Operation onePass = () -> {
+            MultiDigest digest = new MultiDigest(MD5, SHA256).update(buildLog);
+            digest.getDigest(MD5);
+        };
+        Benchmark.Operation separatePasses = () -> {
+            buildLog.getBytes(UTF_8);
+            Md5.digest(buildLog);
+            Sha256.digest(buildLog);
+        };
+        // warm up
+        onePass.run();
+        separatePasses.run();
+
+        report("one pass", bytes, onePass);
+        report("separate passes", bytes, separatePasses);
+    }
+
+    private void report(String name, long bytes, Benchmark.Operation digesting) throws Exception {
+        long duration = Benchmark.timeOnce(digesting);
+        long allocated = Benchmark.allocatedBytes(digesting);
+        log.info(
+                "{}: {} MB in {} ms ({} MB/s), {} KB allocated.",
+                name,
+                bytes / 1_000_000,
+                duration / 1_000_000,
+                bytes * 1_000 / duration,
+                allocated < 0 ? "n/a" : allocated / 1024);
+    }
+
+    private static String buildLog() {
+        StringBuilder log = new StringBuilder();
+        for (int i = 0; i < LOG_LINES; i++) {
+            log.append("[INFO] Downloaded from indy: org/jboss/pnc/artifact-").append(i).append(".jar (12 kB)\n");
+        }
+        return log.toString();
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.common.test.security;
+
+import org.jboss.pnc.common.security.Md5;
+import org.jboss.pnc.common.security.MultiDigest;
+import org.jboss.pnc.common.security.Sha256;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.security.NoSuchAlgorithmException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.jboss.pnc.common.security.MultiDigest.MD5;
+import static org.jboss.pnc.common.security.MultiDigest.SHA1;
+import static org.jboss.pnc.common.security.MultiDigest.SHA256;
+
+public class MultiDigestTest {
+
+    private static final String FOX = "The quick brown fox jumps over the lazy dog.";
+
+    @Test
+    public void shouldComputeAllDigestsInOnePass() throws NoSuchAlgorithmException {
+        MultiDigest digest = new MultiDigest().update(FOX);
+
+        assertThat(digest.getSize()).isEqualTo(44);
+        assertThat(digest.getDigest(MD5)).isEqualTo("e4d909c290d0fb1ca068ffaddf22cbd0");
+        assertThat(digest.getDigest(SHA1)).isEqualTo("408d94384216f890ff7a0c3528e8bed1e0b01621");
+        assertThat(digest.getDigest(SHA256))
+                .isEqualTo("ef537f25c895bfa782526529a9b63d97aa631564d5d789c2b765448c8635fb6c");
+    }
+
+    @Test
+    public void shouldDigestStreamsBuffersAndStringsTheSame() throws NoSuchAlgorithmException, IOException {
+        String content = largeContent();
+        byte[] bytes = content.getBytes(UTF_8);
+
+        MultiDigest fromString = new MultiDigest().update(content);
+        MultiDigest fromStream = new MultiDigest().update(new ByteArrayInputStream(bytes));
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        MultiDigest fromBuffer = new MultiDigest().update(buffer);
+        MultiDigest fromOutputStream = new MultiDigest();
+        try (OutputStream stream = fromOutputStream.asOutputStream()) {
+            stream.write(bytes[0]);
+            stream.write(bytes, 1, bytes.length - 1);
+        }
+
+        assertThat(buffer.hasRemaining()).isFalse();
+        for (MultiDigest digest : new MultiDigest[] { fromString, fromStream, fromBuffer, fromOutputStream }) {
+            assertThat(digest.getSize()).isEqualTo(bytes.length);
+            assertThat(digest.getDigest(MD5)).isEqualTo(fromBytes(MD5, bytes));
+            assertThat(digest.getDigest(SHA1)).isEqualTo(fromBytes(SHA1, bytes));
+            assertThat(digest.getDigest(SHA256)).isEqualTo(fromBytes(SHA256, bytes));
+        }
+    }
+
+    @Test
+    public void shouldEncodeMalformedCharactersLikeGetBytes() throws NoSuchAlgorithmException {
+        String content = "lone surrogate \uD800 in a log";
+        byte[] bytes = content.getBytes(UTF_8);
+
+        MultiDigest digest = new MultiDigest(MD5).update(content);
+
+        assertThat(digest.getSize()).isEqualTo(bytes.length);
+        assertThat(digest.getDigest(MD5)).isEqualTo(fromBytes(MD5, bytes));
+    }
+
+    @Test
+    public void shouldMatchLegacyDigests() throws NoSuchAlgorithmException, IOException {
+        String content = largeContent();
+        MultiDigest digest = new MultiDigest(MD5, SHA256).update(content);
+
+        assertThat(digest.getDigest(MD5)).isEqualTo(Md5.digest(content));
+        assertThat(digest.getDigest(SHA256)).isEqualTo(Sha256.digest(content));
+    }
+
+    @Test
+    public void shouldRejectUpdatesOfCompletedDigest() throws NoSuchAlgorithmException {
+        MultiDigest digest = new MultiDigest(MD5).update(FOX);
+        digest.getDigest(MD5);
+
+        assertThatThrownBy(() -> digest.update(FOX)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> digest.getDigest(SHA256)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Multi-byte characters and surrogate pairs spanning the boundaries of the encoding buffer.
+     */
+    private static String largeContent() {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            content.append("line ").append(i).append(" žluťoučký kůň 🚀\n");
+        }
+        return content.toString();
+    }
+
+    private static String fromBytes(String algorithm, byte[] bytes) throws NoSuchAlgorithmException {
+        return new MultiDigest(algorithm).update(bytes).getDigest(algorithm);
+    }
+}
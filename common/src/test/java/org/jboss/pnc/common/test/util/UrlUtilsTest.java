@@ -68,4 +68,33 @@ public class UrlUtilsTest {
                 "gitserver.host.com/productization/github.com/jboss-modules.git",
                 UrlUtils.keepHostAndPathOnly(url));
     }
+
+    @Test
+    public void shouldNormalizeEquivalentScmUrls() {
+        String[] equivalentUrls = { "https://github.com/project-ncl/pnc.git", "https://github.com/project-ncl/pnc",
+                "http://github.com/project-ncl/pnc/", "https://GitHub.com/project-ncl/pnc.git/",
+                "https://github.com:443/project-ncl/pnc.git", "https://github.com//project-ncl//pnc",
+                "ssh://git@github.com/project-ncl/pnc.git", "git+ssh://git@github.com:22/project-ncl/pnc",
+                "git://github.com/project-ncl/pnc.git", "git@github.com:project-ncl/pnc.git",
+                "git@github.com:project-ncl/pnc", "github.com/project-ncl/pnc.git", " github.com/project-ncl/pnc " };
+
+        for (String url : equivalentUrls) {
+            Assert.assertEquals(url, "github.com/project-ncl/pnc", UrlUtils.normalizeScmUrl(url));
+        }
+    }
+
+    @Test
+    public void shouldKeepDifferentScmUrlsDifferent() {
+        Assert.assertEquals(
+                "github.com/project-ncl/PNC",
+                UrlUtils.normalizeScmUrl("https://github.com/project-ncl/PNC"));
+        Assert.assertEquals(
+                "github.com/project-ncl/pnc.github",
+                UrlUtils.normalizeScmUrl("https://github.com/project-ncl/pnc.github"));
+        Assert.assertEquals(
+                "gitserver.host.com/productization/github.com/jboss-modules",
+                UrlUtils.normalizeScmUrl("gitserver.host.com:80/productization/github.com/jboss-modules.git"));
+        Assert.assertEquals("project-ncl", UrlUtils.normalizeScmUrl("project-ncl"));
+        Assert.assertNull(UrlUtils.normalizeScmUrl(null));
+    }
 }
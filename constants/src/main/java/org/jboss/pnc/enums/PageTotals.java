@@ -0,0 +1,42 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.enums;
+
+/**
+ * Says how the total number of hits of a paged collection is obtained, used both to request a paging mode and to
+ * describe the totals of a returned page.
+ */
+public enum PageTotals {
+
+    /**
+     * The matching entries are counted for every page.
+     */
+    EXACT,
+
+    /**
+     * The count may be reused for a short time, so the totals can be slightly off when the collection changes.
+     */
+    CACHED,
+
+    /**
+     * The matching entries are not counted at all, the page only says whether a following page exists. Total hits and
+     * total pages are -1.
+     */
+    NONE
+
+}
@@ -24,6 +24,7 @@ import org.jboss.pnc.model.BuildConfiguration;
 import org.jboss.pnc.model.BuildConfigurationAudited;
 import org.jboss.pnc.model.BuildConfigurationSet;
 import org.jboss.pnc.model.BuildRecord;
+import org.jboss.pnc.model.BuildStatusOutboxMessage;
 import org.jboss.pnc.model.IdRev;
 import org.jboss.pnc.model.TargetRepository;
 import org.jboss.pnc.model.User;
@@ -34,6 +35,8 @@ import org.jboss.pnc.spi.datastore.repositories.BuildConfigSetRecordRepository;
 import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationAuditedRepository;
 import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationRepository;
 import org.jboss.pnc.spi.datastore.repositories.BuildRecordRepository;
+import org.jboss.pnc.spi.datastore.repositories.BuildStatusOutboxRepository;
+import org.jboss.pnc.spi.datastore.repositories.ProductMilestoneArtifactRepository;
 import org.jboss.pnc.spi.datastore.repositories.SequenceHandlerRepository;
 import org.jboss.pnc.spi.datastore.repositories.TargetRepositoryRepository;
 import org.jboss.pnc.spi.datastore.repositories.UserRepository;
@@ -48,6 +51,7 @@ import javax.inject.Inject;
 import java.lang.invoke.MethodHandles;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -57,7 +61,6 @@ import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static org.jboss.pnc.common.util.CollectionUtils.ofNullableCollection;
-import static org.jboss.pnc.spi.datastore.predicates.ArtifactPredicates.withIdentifierInAndBuilt;
 import static org.jboss.pnc.spi.datastore.predicates.BuildConfigurationPredicates.withBuildConfigurationSetId;
 import static org.jboss.pnc.spi.datastore.predicates.UserPredicates.withUserName;
 
@@ -82,6 +85,10 @@ public class DefaultDatastore implements Datastore {
 
     private TargetRepositoryRepository targetRepositoryRepository;
 
+    private BuildStatusOutboxRepository buildStatusOutboxRepository;
+
+    private ProductMilestoneArtifactRepository productMilestoneArtifactRepository;
+
     public DefaultDatastore() {
     }
 
@@ -94,7 +101,9 @@ public class DefaultDatastore implements Datastore {
             BuildConfigSetRecordRepository buildConfigSetRecordRepository,
             UserRepository userRepository,
             SequenceHandlerRepository sequenceHandlerRepository,
-            TargetRepositoryRepository targetRepositoryRepository) {
+            TargetRepositoryRepository targetRepositoryRepository,
+            BuildStatusOutboxRepository buildStatusOutboxRepository,
+            ProductMilestoneArtifactRepository productMilestoneArtifactRepository) {
         this.artifactRepository = artifactRepository;
         this.buildRecordRepository = buildRecordRepository;
         this.buildConfigurationRepository = buildConfigurationRepository;
@@ -103,6 +112,8 @@ public class DefaultDatastore implements Datastore {
         this.userRepository = userRepository;
         this.sequenceHandlerRepository = sequenceHandlerRepository;
         this.targetRepositoryRepository = targetRepositoryRepository;
+        this.buildStatusOutboxRepository = buildStatusOutboxRepository;
+        this.productMilestoneArtifactRepository = productMilestoneArtifactRepository;
     }
 
     private static final String ARTIFACT_ALREADY_BUILT_CONFLICT_MESSAGE = "This artifact was already built in build #";
@@ -119,17 +130,16 @@ public class DefaultDatastore implements Datastore {
             identifiers.put(artifact.getIdentifier(), artifact);
         }
 
+        Set<String> allIdentifiers = new HashSet<>();
+        repoTypes.values().forEach(artifactsByIdentifier -> allIdentifiers.addAll(artifactsByIdentifier.keySet()));
+
         Map<Artifact, String> conflicts = new HashMap<>();
-        for (RepositoryType repoType : repoTypes.keySet()) {
-            Map<String, Artifact> identifiers = repoTypes.get(repoType);
-            List<Artifact> conflicting = artifactRepository
-                    .queryWithPredicates(withIdentifierInAndBuilt(identifiers.keySet()));
-            for (Artifact conflict : conflicting) {
-                if (conflict.getTargetRepository().getRepositoryType() == repoType) {
-                    Artifact artifact = identifiers.get(conflict.getIdentifier());
-                    conflicts
-                            .put(artifact, ARTIFACT_ALREADY_BUILT_CONFLICT_MESSAGE + conflict.getBuildRecord().getId());
-                }
+        for (Artifact conflict : artifactRepository.withIdentifierInAndBuilt(allIdentifiers)) {
+            Map<String, Artifact> artifactsByIdentifier = repoTypes
+                    .get(conflict.getTargetRepository().getRepositoryType());
+            if (artifactsByIdentifier != null && artifactsByIdentifier.containsKey(conflict.getIdentifier())) {
+                Artifact artifact = artifactsByIdentifier.get(conflict.getIdentifier());
+                conflicts.put(artifact, ARTIFACT_ALREADY_BUILT_CONFLICT_MESSAGE + conflict.getBuildRecord().getId());
             }
         }
         return conflicts;
@@ -169,7 +179,9 @@ public class DefaultDatastore implements Datastore {
         for (Artifact builtArtifact : savedBuiltArtifacts) {
             builtArtifact.setBuildRecord(buildRecord);
         }
+        productMilestoneArtifactRepository.indexBuildRecord(buildRecord, savedBuiltArtifacts);
 
+        storeStatusMessage(buildRecord);
         return buildRecord;
     }
 
@@ -181,9 +193,25 @@ public class DefaultDatastore implements Datastore {
         buildRecord = buildRecordRepository.save(buildRecord);
         logger.debug("Build record {} saved.", buildRecord.getId());
 
+        storeStatusMessage(buildRecord);
         return buildRecord;
     }
 
+    /**
+     * The final status message of the build is written to the outbox in the transaction of the build record, so it is
+     * sent if and only if the record is stored. The message is rendered from the record once it is sent.
+     */
+    private void storeStatusMessage(BuildRecord buildRecord) {
+        buildStatusOutboxRepository.save(
+                new BuildStatusOutboxMessage(
+                        buildRecord.getId(),
+                        null,
+                        buildRecord.getStatus(),
+                        null,
+                        null,
+                        new Date()));
+    }
+
     /**
      * Checks the given list against the existing database and creates a new list containing artifacts which have been
      * saved to or loaded from the database.
@@ -17,7 +17,13 @@
  */
 package org.jboss.pnc.datastore.repositories;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -26,7 +32,11 @@ import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import javax.inject.Inject;
+
+import com.google.common.collect.Lists;
+import org.jboss.pnc.common.util.ReadEnvProperty;
 import org.jboss.pnc.datastore.repositories.internal.AbstractRepository;
+import org.jboss.pnc.datastore.repositories.internal.ArtifactIdentityCache;
 import org.jboss.pnc.datastore.repositories.internal.ArtifactSpringRepository;
 import org.jboss.pnc.model.Artifact;
 import org.jboss.pnc.spi.datastore.predicates.ArtifactPredicates;
@@ -35,27 +45,113 @@ import org.jboss.pnc.spi.datastore.repositories.ArtifactRepository;
 @Stateless
 public class ArtifactRepositoryImpl extends AbstractRepository<Artifact, Integer> implements ArtifactRepository {
 
+    static final String QUERY_CHUNK_SIZE_KEY = "artifact_query_chunk_size";
+    private static final int DEFAULT_QUERY_CHUNK_SIZE = 1000;
+
+    private final int queryChunkSize = new ReadEnvProperty()
+            .getIntValueFromPropertyOrDefault(QUERY_CHUNK_SIZE_KEY, DEFAULT_QUERY_CHUNK_SIZE);
+
+    private ArtifactIdentityCache identityCache;
+
     @Inject
-    public ArtifactRepositoryImpl(ArtifactSpringRepository springArtifactRepository) {
+    public ArtifactRepositoryImpl(
+            ArtifactSpringRepository springArtifactRepository,
+            ArtifactIdentityCache identityCache) {
         super(springArtifactRepository, springArtifactRepository);
+        this.identityCache = identityCache;
     }
 
     @Override
     public Set<Artifact> withIdentifierAndSha256s(Set<Artifact.IdentifierSha256> identifierSha256s) {
-        Set<String> sha256s = identifierSha256s.stream()
-                .map(Artifact.IdentifierSha256::getSha256)
-                .collect(Collectors.toSet());
+        Map<Integer, Artifact> found = new HashMap<>();
+        Set<Artifact.IdentifierSha256> unknown = new HashSet<>();
+        Map<Integer, Artifact.IdentifierSha256> cachedIds = new HashMap<>();
+        for (Artifact.IdentifierSha256 identifierSha256 : identifierSha256s) {
+            Set<Integer> ids = identityCache.getIds(identifierSha256);
+            if (ids == null) {
+                unknown.add(identifierSha256);
+            } else {
+                ids.forEach(id -> cachedIds.put(id, identifierSha256));
+            }
+        }
 
-        List<Artifact> artifacts = queryWithPredicates(ArtifactPredicates.withSha256In(sha256s));
+        for (List<Integer> chunk : Lists.partition(new ArrayList<>(cachedIds.keySet()), queryChunkSize)) {
+            for (Artifact artifact : queryWithPredicates(ArtifactPredicates.withIds(new HashSet<>(chunk)))) {
+                if (artifact.getIdentifierSha256().equals(cachedIds.get(artifact.getId()))) {
+                    cachedIds.remove(artifact.getId());
+                    found.put(artifact.getId(), artifact);
+                }
+            }
+        }
+        // cached artifacts that don't exist anymore (eg. deleted on another node) or don't match are looked up again
+        for (Artifact.IdentifierSha256 stale : new HashSet<>(cachedIds.values())) {
+            identityCache.invalidate(stale);
+            unknown.add(stale);
+        }
 
-        // make sure the identifier matches too
-        Set<Artifact> artifactsMatchingIdentifier = artifacts.stream()
-                .filter(
-                        a -> identifierSha256s
-                                .contains(new Artifact.IdentifierSha256(a.getIdentifier(), a.getSha256())))
-                .collect(Collectors.toSet());
+        Set<String> sha256s = unknown.stream().map(Artifact.IdentifierSha256::getSha256).collect(Collectors.toSet());
+        Map<Artifact.IdentifierSha256, Set<Integer>> loadedIds = new HashMap<>();
+        for (List<String> chunk : Lists.partition(new ArrayList<>(sha256s), queryChunkSize)) {
+            for (Artifact artifact : queryWithPredicates(ArtifactPredicates.withSha256In(new HashSet<>(chunk)))) {
+                // all the artifacts with the sha256 are loaded, so the ids are complete for any identifier
+                loadedIds.computeIfAbsent(artifact.getIdentifierSha256(), k -> new HashSet<>()).add(artifact.getId());
+                // make sure the identifier matches too
+                if (unknown.contains(artifact.getIdentifierSha256())) {
+                    found.put(artifact.getId(), artifact);
+                }
+            }
+        }
+        loadedIds.forEach(identityCache::put);
+        for (Artifact.IdentifierSha256 identifierSha256 : unknown) {
+            if (!loadedIds.containsKey(identifierSha256)) {
+                identityCache.put(identifierSha256, Collections.emptySet());
+            }
+        }
+
+        return new HashSet<>(found.values());
+    }
+
+    @Override
+    public List<Artifact> withIdentifierInAndBuilt(Set<String> identifiers) {
+        List<Artifact> artifacts = new ArrayList<>();
+        for (List<String> chunk : Lists.partition(new ArrayList<>(identifiers), queryChunkSize)) {
+            artifacts.addAll(queryWithPredicates(ArtifactPredicates.withIdentifierInAndBuilt(new HashSet<>(chunk))));
+        }
+        return artifacts;
+    }
 
-        return artifactsMatchingIdentifier;
+    @Override
+    public List<Artifact> withBuildRecordIdsFetchUsages(Collection<Integer> buildRecordIds) {
+        List<Artifact> artifacts = new ArrayList<>();
+        for (List<Integer> chunk : Lists.partition(new ArrayList<>(buildRecordIds), queryChunkSize)) {
+            // the collections are fetched by separate queries, fetching both at once would multiply the rows; the
+            // second query initializes the collection of the artifacts already in the persistence context
+            artifacts.addAll(
+                    entityManager
+                            .createQuery(
+                                    "select distinct a from Artifact a left join fetch a.dependantBuildRecords"
+                                            + " where a.buildRecord.id in :buildRecordIds",
+                                    Artifact.class)
+                            .setParameter("buildRecordIds", chunk)
+                            .getResultList());
+            entityManager
+                    .createQuery(
+                            "select distinct a from Artifact a left join fetch a.distributedInProductMilestones"
+                                    + " where a.buildRecord.id in :buildRecordIds",
+                            Artifact.class)
+                    .setParameter("buildRecordIds", chunk)
+                    .getResultList();
+        }
+        return artifacts;
+    }
+
+    @Override
+    public void delete(Integer id) {
+        Artifact artifact = queryById(id);
+        if (artifact != null) {
+            identityCache.invalidate(artifact.getIdentifierSha256());
+        }
+        super.delete(id);
     }
 
     @Override
@@ -74,7 +170,9 @@ public class ArtifactRepositoryImpl extends AbstractRepository<Artifact, Integer
                 artifact.setCreationTime(persisted.getCreationTime());
             }
         }
-        return springRepository.save(artifact);
+        Artifact saved = springRepository.save(artifact);
+        identityCache.added(saved.getIdentifierSha256(), saved.getId());
+        return saved;
     }
 
     private boolean equalAuditedValues(Artifact persisted, Artifact toUpdate) {
@@ -28,13 +28,29 @@ import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import javax.inject.Inject;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Stateless
 public class BuildConfigurationRepositoryImpl extends AbstractRepository<BuildConfiguration, Integer>
         implements BuildConfigurationRepository {
 
+    /**
+     * Transitive closure of the dependencies. Note that in the join table the dependant build config is stored in the
+     * dependency_id column and its dependency in the dependant_id column. UNION removes duplicates, so the query ends
+     * even if the data contain a cycle.
+     */
+    private static final String DEPENDENCY_CLOSURE_QUERY = "WITH RECURSIVE closure(id) AS ("
+            + " SELECT dep.dependant_id FROM build_configuration_dep_map dep WHERE dep.dependency_id = :id"
+            + " UNION"
+            + " SELECT dep.dependant_id FROM build_configuration_dep_map dep"
+            + " JOIN closure c ON dep.dependency_id = c.id"
+            + ") SELECT id FROM closure";
+
     private AlignmentConfig alignmentConfig;
 
     /**
@@ -78,6 +94,26 @@ public class BuildConfigurationRepositoryImpl extends AbstractRepository<BuildCo
         return springRepository.save(buildConfiguration);
     }
 
+    @Override
+    public Set<Integer> getDependencyIds(Integer buildConfigurationId) {
+        if (isRecursiveQuerySupported()) {
+            List<?> ids = entityManager.createNativeQuery(DEPENDENCY_CLOSURE_QUERY)
+                    .setParameter("id", buildConfigurationId)
+                    .getResultList();
+            return ids.stream().map(id -> ((Number) id).intValue()).collect(Collectors.toSet());
+        }
+
+        // in-memory fallback for databases used in tests
+        BuildConfiguration buildConfiguration = queryById(buildConfigurationId);
+        if (buildConfiguration == null) {
+            return Collections.emptySet();
+        }
+        return buildConfiguration.getAllDependencies()
+                .stream()
+                .map(BuildConfiguration::getId)
+                .collect(Collectors.toSet());
+    }
+
     private boolean equalAuditedValues(BuildConfiguration persisted, BuildConfiguration toUpdate) {
         return Objects.equals(persisted.getName(), toUpdate.getName())
                 && Objects.equals(persisted.getBuildScript(), toUpdate.getBuildScript())
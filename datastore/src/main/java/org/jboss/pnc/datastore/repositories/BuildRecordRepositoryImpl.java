@@ -37,9 +37,18 @@ import org.slf4j.LoggerFactory;
 
 import javax.ejb.Stateless;
 import javax.inject.Inject;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.jboss.pnc.spi.datastore.predicates.BuildRecordPredicates.buildFinishedBefore;
 import static org.jboss.pnc.spi.datastore.predicates.BuildRecordPredicates.includeTemporary;
@@ -47,6 +56,7 @@ import static org.jboss.pnc.spi.datastore.predicates.BuildRecordPredicates.tempo
 import static org.jboss.pnc.spi.datastore.predicates.BuildRecordPredicates.withBuildConfigurationId;
 import static org.jboss.pnc.spi.datastore.predicates.BuildRecordPredicates.withBuildConfigurationIdRev;
 import static org.jboss.pnc.spi.datastore.predicates.BuildRecordPredicates.withCausingBuildRecordId;
+import static org.jboss.pnc.spi.datastore.predicates.BuildRecordPredicates.withIdGreaterThan;
 import static org.jboss.pnc.spi.datastore.predicates.BuildRecordPredicates.withSuccess;
 import static org.jboss.pnc.spi.datastore.predicates.BuildRecordPredicates.withoutImplicitDependants;
 import static org.jboss.pnc.spi.datastore.predicates.BuildRecordPredicates.withoutLinkedNRRRecordOlderThanTimestamp;
@@ -57,6 +67,23 @@ public class BuildRecordRepositoryImpl extends AbstractRepository<BuildRecord, I
 
     private static final Logger logger = LoggerFactory.getLogger(BuildRecordRepositoryImpl.class);
 
+    /**
+     * Transitive closure of the ids stored in one of the build link tables. UNION removes duplicates, so the query ends
+     * even if the data contain a cycle.
+     */
+    private static final String LINK_CLOSURE_QUERY = "WITH RECURSIVE closure(id) AS ("
+            + " SELECT link.%2$s FROM %1$s link WHERE link.buildrecord_id = :id"
+            + " UNION"
+            + " SELECT link.%2$s FROM %1$s link"
+            + " JOIN closure c ON link.buildrecord_id = c.id"
+            + ") SELECT id FROM closure";
+
+    private static final String DEPENDENCY_CLOSURE_QUERY = String
+            .format(LINK_CLOSURE_QUERY, "build_record_dependency", "dependency_id");
+
+    private static final String DEPENDENT_CLOSURE_QUERY = String
+            .format(LINK_CLOSURE_QUERY, "build_record_dependent", "dependent_id");
+
     private BuildRecordSpringRepository repository;
     private BuildConfigurationAuditedRepository buildConfigurationAuditedRepository;
 
@@ -95,6 +122,27 @@ public class BuildRecordRepositoryImpl extends AbstractRepository<BuildRecord, I
         return buildRecord;
     }
 
+    @Override
+    public List<BuildRecord> findByIdsFetchProperties(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<BuildRecord> buildRecords = repository.findByIdsFetchProperties(ids);
+        Set<IdRev> idRevs = buildRecords.stream()
+                .map(BuildRecord::getBuildConfigurationAuditedIdRev)
+                .collect(Collectors.toSet());
+        Map<IdRev, BuildConfigurationAudited> bcas = buildConfigurationAuditedRepository.queryById(idRevs);
+        for (BuildRecord buildRecord : buildRecords) {
+            BuildConfigurationAudited bca = bcas.get(buildRecord.getBuildConfigurationAuditedIdRev());
+            if (bca != null) {
+                buildRecord.setBuildConfigurationAudited(bca);
+            } else {
+                fetchBuildConfigurationAudited(buildRecord);
+            }
+        }
+        return buildRecords;
+    }
+
     private void fetchBuildConfigurationAudited(BuildRecord buildRecord) {
         Integer revision = buildRecord.getBuildConfigurationRev();
         BuildConfigurationAudited buildConfigurationAudited = buildConfigurationAuditedRepository
@@ -144,6 +192,21 @@ public class BuildRecordRepositoryImpl extends AbstractRepository<BuildRecord, I
                 withoutLinkedNRRRecordOlderThanTimestamp(date));
     }
 
+    @Override
+    public List<BuildRecord> findIndependentTemporaryBuildsOlderThan(Date date, Integer afterId, int limit) {
+        PageInfo pageInfo = new DefaultPageInfo(0, limit);
+        SortInfo sortInfo = new DefaultSortInfo(SortInfo.SortingDirection.ASC, BuildRecord_.id.getName());
+        List<Predicate<BuildRecord>> predicates = new ArrayList<>();
+        predicates.add(temporaryBuild());
+        predicates.add(buildFinishedBefore(date));
+        predicates.add(withoutImplicitDependants());
+        predicates.add(withoutLinkedNRRRecordOlderThanTimestamp(date));
+        if (afterId != null) {
+            predicates.add(withIdGreaterThan(afterId));
+        }
+        return queryWithPredicates(pageInfo, sortInfo, predicates.toArray(new Predicate[0]));
+    }
+
     @Override
     public BuildRecord getLatestSuccessfulBuildRecord(IdRev idRev, boolean temporaryBuild) {
         PageInfo pageInfo = new DefaultPageInfo(0, 1);
@@ -172,4 +235,38 @@ public class BuildRecordRepositoryImpl extends AbstractRepository<BuildRecord, I
     public List<BuildRecord> getBuildByCausingRecord(Integer causingRecordId) {
         return queryWithPredicates(withCausingBuildRecordId(causingRecordId));
     }
+
+    @Override
+    public Set<Integer> getDependencyIds(Integer buildRecordId) {
+        return getLinkClosure(buildRecordId, DEPENDENCY_CLOSURE_QUERY, BuildRecord::getDependencyBuildRecordIds);
+    }
+
+    @Override
+    public Set<Integer> getDependentIds(Integer buildRecordId) {
+        return getLinkClosure(buildRecordId, DEPENDENT_CLOSURE_QUERY, BuildRecord::getDependentBuildRecordIds);
+    }
+
+    private Set<Integer> getLinkClosure(Integer buildRecordId, String query, Function<BuildRecord, Integer[]> links) {
+        if (isRecursiveQuerySupported()) {
+            List<?> ids = entityManager.createNativeQuery(query).setParameter("id", buildRecordId).getResultList();
+            return ids.stream().map(id -> ((Number) id).intValue()).collect(Collectors.toSet());
+        }
+
+        // in-memory fallback for databases used in tests
+        Set<Integer> closure = new HashSet<>();
+        Deque<Integer> toVisit = new ArrayDeque<>();
+        toVisit.add(buildRecordId);
+        while (!toVisit.isEmpty()) {
+            BuildRecord buildRecord = queryById(toVisit.poll());
+            if (buildRecord == null) {
+                continue;
+            }
+            for (Integer id : links.apply(buildRecord)) {
+                if (closure.add(id)) {
+                    toVisit.add(id);
+                }
+            }
+        }
+        return closure;
+    }
 }
@@ -0,0 +1,119 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.repositories;
+
+import org.jboss.pnc.datastore.repositories.internal.AbstractRepository;
+import org.jboss.pnc.datastore.repositories.internal.BuildStatusOutboxSpringRepository;
+import org.jboss.pnc.model.BuildStatusOutboxMessage;
+import org.jboss.pnc.spi.datastore.repositories.BuildStatusOutboxRepository;
+
+import javax.ejb.Stateless;
+import javax.inject.Inject;
+import javax.persistence.Query;
+import java.util.Date;
+import java.util.List;
+
+@Stateless
+public class BuildStatusOutboxRepositoryImpl extends AbstractRepository<BuildStatusOutboxMessage, Long>
+        implements BuildStatusOutboxRepository {
+
+    /**
+     * @deprecated Created for CDI.
+     */
+    @Deprecated
+    public BuildStatusOutboxRepositoryImpl() {
+        super(null, null);
+    }
+
+    @Inject
+    public BuildStatusOutboxRepositoryImpl(BuildStatusOutboxSpringRepository springRepository) {
+        super(springRepository, springRepository);
+    }
+
+    @Override
+    public List<BuildStatusOutboxMessage> queryPending(int maxResults, Date now) {
+        return entityManager
+                .createQuery(
+                        "select m from BuildStatusOutboxMessage m where m.state = :state and not exists ("
+                                + "select w.id from BuildStatusOutboxMessage w where w.buildId = m.buildId"
+                                + " and w.state = :state and w.nextAttemptAt > :now and w.id <= m.id)"
+                                + " order by m.id",
+                        BuildStatusOutboxMessage.class)
+                .setParameter("state", BuildStatusOutboxMessage.State.PENDING)
+                .setParameter("now", now)
+                .setMaxResults(maxResults)
+                .getResultList();
+    }
+
+    @Override
+    public long countPending() {
+        return entityManager
+                .createQuery("select count(m) from BuildStatusOutboxMessage m where m.state = :state", Long.class)
+                .setParameter("state", BuildStatusOutboxMessage.State.PENDING)
+                .getSingleResult();
+    }
+
+    @Override
+    public Date queryOldestPendingCreatedAt() {
+        return entityManager
+                .createQuery(
+                        "select min(m.createdAt) from BuildStatusOutboxMessage m where m.state = :state",
+                        Date.class)
+                .setParameter("state", BuildStatusOutboxMessage.State.PENDING)
+                .getSingleResult();
+    }
+
+    @Override
+    public BuildStatusOutboxMessage queryPrevious(BuildStatusOutboxMessage message) {
+        List<BuildStatusOutboxMessage> previous = entityManager
+                .createQuery(
+                        "select m from BuildStatusOutboxMessage m where m.buildId = :buildId and m.id < :id"
+                                + " order by m.id desc",
+                        BuildStatusOutboxMessage.class)
+                .setParameter("buildId", message.getBuildId())
+                .setParameter("id", message.getId())
+                .setMaxResults(1)
+                .getResultList();
+        return previous.isEmpty() ? null : previous.get(0);
+    }
+
+    @Override
+    public boolean isStoredWithBuildRecord(Integer buildId) {
+        return !entityManager
+                .createQuery(
+                        "select m.id from BuildStatusOutboxMessage m where m.buildId = :buildId and m.payload is null",
+                        Long.class)
+                .setParameter("buildId", buildId)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
+    @Override
+    public int deleteCreatedBefore(Date createdBefore, boolean pending) {
+        String query = "delete from BuildStatusOutboxMessage m where m.createdAt < :createdBefore";
+        if (!pending) {
+            query += " and m.state <> :pending";
+        }
+        Query delete = entityManager.createQuery(query).setParameter("createdBefore", createdBefore);
+        if (!pending) {
+            delete.setParameter("pending", BuildStatusOutboxMessage.State.PENDING);
+        }
+        return delete.executeUpdate();
+    }
+}
@@ -21,6 +21,8 @@ import java.util.Map;
 import java.util.SortedMap;
 
 import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
 
@@ -72,6 +74,13 @@ public class CacheHandlerRepositoryImpl implements CacheHandlerRepository {
         return HibernateStatsUtils.getGenericStats(statistics);
     }
 
+    @Override
+    @TransactionAttribute(TransactionAttributeType.SUPPORTS)
+    public long getPrepareStatementCount() {
+        SessionFactory sessionFactory = ((Session) entityManager.getDelegate()).getSessionFactory();
+        return HibernateStatsUtils.getPrepareStatementCount(sessionFactory.getStatistics());
+    }
+
     @Override
     public void clearCache() {
         entityManager.getEntityManagerFactory().getCache().evictAll();
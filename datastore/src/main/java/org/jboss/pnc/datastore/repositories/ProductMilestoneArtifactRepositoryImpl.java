@@ -0,0 +1,112 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.repositories;
+
+import com.google.common.collect.Iterables;
+import org.jboss.pnc.datastore.repositories.internal.AbstractRepository;
+import org.jboss.pnc.datastore.repositories.internal.ProductMilestoneArtifactSpringRepository;
+import org.jboss.pnc.model.Artifact;
+import org.jboss.pnc.model.BuildRecord;
+import org.jboss.pnc.model.ProductMilestone;
+import org.jboss.pnc.model.ProductMilestoneArtifact;
+import org.jboss.pnc.model.ProductMilestoneArtifact.Relation;
+import org.jboss.pnc.spi.datastore.repositories.ProductMilestoneArtifactRepository;
+
+import javax.ejb.Stateless;
+import javax.inject.Inject;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Stateless
+public class ProductMilestoneArtifactRepositoryImpl extends AbstractRepository<ProductMilestoneArtifact, Long>
+        implements ProductMilestoneArtifactRepository {
+
+    private static final int MAX_IDS_IN_QUERY = 1000;
+
+    /**
+     * @deprecated Created for CDI.
+     */
+    @Deprecated
+    public ProductMilestoneArtifactRepositoryImpl() {
+        super(null, null);
+    }
+
+    @Inject
+    public ProductMilestoneArtifactRepositoryImpl(ProductMilestoneArtifactSpringRepository springRepository) {
+        super(springRepository, springRepository);
+    }
+
+    @Override
+    public void indexBuildRecord(BuildRecord buildRecord, Collection<Artifact> builtArtifacts) {
+        ProductMilestone productMilestone = buildRecord.getProductMilestone();
+        if (productMilestone == null || buildRecord.isTemporaryBuild()) {
+            return;
+        }
+        index(productMilestone, builtArtifacts, Relation.BUILT);
+        index(productMilestone, buildRecord.getDependencies(), Relation.DEPENDENCY);
+    }
+
+    @Override
+    public void indexDeliveredArtifacts(ProductMilestone productMilestone, Collection<Artifact> deliveredArtifacts) {
+        index(productMilestone, deliveredArtifacts, Relation.DELIVERED);
+    }
+
+    @Override
+    public void removeArtifacts(Collection<Artifact> artifacts) {
+        Set<Integer> artifactIds = new HashSet<>();
+        artifacts.forEach(artifact -> artifactIds.add(artifact.getId()));
+
+        for (List<Integer> chunk : Iterables.partition(artifactIds, MAX_IDS_IN_QUERY)) {
+            entityManager.createQuery("delete from ProductMilestoneArtifact l where l.artifact.id in :artifactIds")
+                    .setParameter("artifactIds", chunk)
+                    .executeUpdate();
+        }
+    }
+
+    /**
+     * Writes the links of the artifacts which are not in the index yet.
+     */
+    private void index(ProductMilestone productMilestone, Collection<Artifact> artifacts, Relation relation) {
+        Map<Integer, Artifact> artifactsById = new LinkedHashMap<>();
+        artifacts.forEach(artifact -> artifactsById.put(artifact.getId(), artifact));
+
+        for (List<Integer> chunk : Iterables.partition(artifactsById.keySet(), MAX_IDS_IN_QUERY)) {
+            Set<Integer> indexed = new HashSet<>(
+                    entityManager
+                            .createQuery(
+                                    "select l.artifact.id from ProductMilestoneArtifact l"
+                                            + " where l.productMilestone.id = :productMilestoneId"
+                                            + " and l.relation = :relation and l.artifact.id in :artifactIds",
+                                    Integer.class)
+                            .setParameter("productMilestoneId", productMilestone.getId())
+                            .setParameter("relation", relation)
+                            .setParameter("artifactIds", chunk)
+                            .getResultList());
+            for (Integer artifactId : chunk) {
+                if (!indexed.contains(artifactId)) {
+                    entityManager.persist(
+                            new ProductMilestoneArtifact(artifactsById.get(artifactId), productMilestone, relation));
+                }
+            }
+        }
+    }
+}
@@ -17,22 +17,36 @@
  */
 package org.jboss.pnc.datastore.repositories.internal;
 
+import com.google.common.reflect.TypeToken;
 import org.jboss.pnc.model.GenericEntity;
 import org.jboss.pnc.spi.datastore.repositories.api.PageInfo;
 import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
 import org.jboss.pnc.spi.datastore.repositories.api.Repository;
 import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.query.QueryUtils;
 
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 
@@ -48,6 +62,10 @@ public class AbstractRepository<T extends GenericEntity<ID>, ID extends Serializ
 
     protected JpaSpecificationExecutor<T> springSpecificationsExecutor;
 
+    private Class<T> entityClass;
+
+    private Boolean recursiveQuerySupported;
+
     public AbstractRepository() {
     }
 
@@ -118,6 +136,84 @@ public class AbstractRepository<T extends GenericEntity<ID>, ID extends Serializ
                 .getContent();
     }
 
+    /**
+     * Spring Data counts all the matching entities whenever it returns a full page, so the page is queried directly
+     * here, limited to one entity more than the page size.
+     */
+    @Override
+    public List<T> queryWithPredicatesAndLookahead(PageInfo pageInfo, SortInfo sortInfo, Predicate<T>... predicates) {
+        PageRequest pageRequest = PageableMapper.map(pageInfo, sortInfo);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(getEntityClass());
+        Root<T> root = query.from(getEntityClass());
+        query.select(root)
+                .where(SpecificationsMapper.map(predicates).toPredicate(root, query, cb))
+                .orderBy(QueryUtils.toOrders(pageRequest.getSort(), root, cb));
+        return entityManager.createQuery(query)
+                .setFirstResult(pageRequest.getOffset())
+                .setMaxResults(pageRequest.getPageSize() + 1)
+                .getResultList();
+    }
+
+    /**
+     * Relations are joined explicitly, as a path to them in the select clause would be an inner join that drops the
+     * entities without the relation.
+     */
+    @Override
+    public List<Tuple> queryAttributesWithPredicatesAndLookahead(
+            PageInfo pageInfo,
+            SortInfo sortInfo,
+            Collection<String> attributes,
+            Predicate<T>... predicates) {
+        PageRequest pageRequest = PageableMapper.map(pageInfo, sortInfo);
+        EntityType<T> entityType = entityManager.getMetamodel().entity(getEntityClass());
+        Set<String> attributeNames = new LinkedHashSet<>();
+        attributeNames.add(entityType.getId(entityType.getIdType().getJavaType()).getName());
+        attributeNames.addAll(attributes);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(getEntityClass());
+        List<Selection<?>> selections = new ArrayList<>(attributeNames.size());
+        for (String name : attributeNames) {
+            Attribute<? super T, ?> attribute = entityType.getAttribute(name);
+            if (attribute.isCollection()) {
+                throw new IllegalArgumentException("Collection " + name + " can't be selected as an attribute.");
+            }
+            Selection<?> selection = attribute.isAssociation() ? root.join(name, JoinType.LEFT) : root.get(name);
+            selections.add(selection.alias(name));
+        }
+        query.multiselect(selections)
+                .where(SpecificationsMapper.map(predicates).toPredicate(root, query, cb))
+                .orderBy(QueryUtils.toOrders(pageRequest.getSort(), root, cb));
+        return entityManager.createQuery(query)
+                .setFirstResult(pageRequest.getOffset())
+                .setMaxResults(pageRequest.getPageSize() + 1)
+                .getResultList();
+    }
+
+    /**
+     * @return true if the database supports recursive native queries (WITH RECURSIVE), false for the databases used in
+     *         tests
+     */
+    protected boolean isRecursiveQuerySupported() {
+        if (recursiveQuerySupported == null) {
+            Object dialect = entityManager.getEntityManagerFactory().getProperties().get("hibernate.dialect");
+            recursiveQuerySupported = dialect != null && dialect.toString().contains("PostgreSQL");
+        }
+        return recursiveQuerySupported;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Class<T> getEntityClass() {
+        if (entityClass == null) {
+            entityClass = (Class<T>) TypeToken.of(getClass())
+                    .resolveType(AbstractRepository.class.getTypeParameters()[0])
+                    .getRawType();
+        }
+        return entityClass;
+    }
+
     /**
      * @see Repository#cascadeUpdates) for full docs
      * 
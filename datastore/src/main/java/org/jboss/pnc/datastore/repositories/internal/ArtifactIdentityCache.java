@@ -0,0 +1,124 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.repositories.internal;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.jboss.pnc.common.util.ReadEnvProperty;
+import org.jboss.pnc.model.Artifact;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of artifact ids by their identifier and sha256.
+ *
+ * Most of the dependencies of a build are the same artifacts reused across builds, so storing a build result looks up
+ * only the artifacts it has not seen yet. Known ids are kept until evicted or invalidated when the artifact is
+ * deleted. Ids of artifacts deleted by another node are detected when the artifacts are loaded by id and are looked up
+ * again. Identifiers known to have no artifact are cached only shortly, as the artifact can be stored by another node
+ * in the meantime.
+ */
+@ApplicationScoped
+public class ArtifactIdentityCache {
+
+    static final String MAX_SIZE_KEY = "artifact_identity_cache_max_size";
+    private static final int DEFAULT_MAX_SIZE = 100_000;
+
+    static final String NEGATIVE_TTL_KEY = "artifact_identity_cache_negative_ttl_seconds";
+    private static final int DEFAULT_NEGATIVE_TTL_SECONDS = 30;
+
+    private final Cache<Artifact.IdentifierSha256, Set<Integer>> ids;
+
+    private final Cache<Artifact.IdentifierSha256, Boolean> missing;
+
+    public ArtifactIdentityCache() {
+        this(
+                new ReadEnvProperty().getIntValueFromPropertyOrDefault(MAX_SIZE_KEY, DEFAULT_MAX_SIZE),
+                TimeUnit.SECONDS.toMillis(
+                        new ReadEnvProperty()
+                                .getIntValueFromPropertyOrDefault(NEGATIVE_TTL_KEY, DEFAULT_NEGATIVE_TTL_SECONDS)),
+                Ticker.systemTicker());
+    }
+
+    ArtifactIdentityCache(long maxSize, long negativeTtlMillis, Ticker ticker) {
+        ids = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+        missing = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(negativeTtlMillis, TimeUnit.MILLISECONDS)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * @return ids of the artifacts, an empty set when it is known there is no such artifact or null when unknown
+     */
+    public Set<Integer> getIds(Artifact.IdentifierSha256 identifierSha256) {
+        Set<Integer> cached = ids.getIfPresent(identifierSha256);
+        if (cached != null) {
+            return cached;
+        }
+        if (missing.getIfPresent(identifierSha256) != null) {
+            return Collections.emptySet();
+        }
+        return null;
+    }
+
+    /**
+     * Stores the result of a lookup.
+     *
+     * @param artifactIds ids of all the artifacts with the identifier and sha256, empty when there is none
+     */
+    public void put(Artifact.IdentifierSha256 identifierSha256, Collection<Integer> artifactIds) {
+        if (artifactIds.isEmpty()) {
+            ids.invalidate(identifierSha256);
+            missing.put(identifierSha256, Boolean.TRUE);
+        } else {
+            missing.invalidate(identifierSha256);
+            ids.put(identifierSha256, Collections.unmodifiableSet(new HashSet<>(artifactIds)));
+        }
+    }
+
+    /**
+     * Adds a newly stored artifact. The artifact is cached only when the other artifacts with the same identifier and
+     * sha256 are known, otherwise it is left to the next lookup.
+     */
+    public void added(Artifact.IdentifierSha256 identifierSha256, Integer artifactId) {
+        missing.invalidate(identifierSha256);
+        ids.asMap().computeIfPresent(identifierSha256, (key, cached) -> {
+            Set<Integer> updated = new HashSet<>(cached);
+            updated.add(artifactId);
+            return Collections.unmodifiableSet(updated);
+        });
+    }
+
+    public void invalidate(Artifact.IdentifierSha256 identifierSha256) {
+        ids.invalidate(identifierSha256);
+        missing.invalidate(identifierSha256);
+    }
+
+    public void invalidateAll() {
+        ids.invalidateAll();
+        missing.invalidateAll();
+    }
+}
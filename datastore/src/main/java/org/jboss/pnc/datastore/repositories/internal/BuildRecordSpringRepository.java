@@ -22,6 +22,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import javax.enterprise.context.Dependent;
 
@@ -36,6 +38,10 @@ public interface BuildRecordSpringRepository
             + "left join fetch br.buildConfigSetRecord " + "left join fetch br.user " + "where br.id = ?1")
     BuildRecord findByIdFetchProperties(Integer id);
 
+    @Query("select distinct br from BuildRecord br " + "left join fetch br.productMilestone "
+            + "left join fetch br.buildConfigSetRecord " + "left join fetch br.user " + "where br.id in (?1)")
+    List<BuildRecord> findByIdsFetchProperties(Collection<Integer> ids);
+
     @Query("SELECT DISTINCT br FROM BuildRecord br " + "JOIN br.builtArtifacts builtArtifacts "
             + "WHERE builtArtifacts.id IN (?1)")
     Set<BuildRecord> findByBuiltArtifacts(Set<Integer> dependenciesIds);
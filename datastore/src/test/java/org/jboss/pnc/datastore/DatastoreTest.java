@@ -490,4 +490,48 @@ public class DatastoreTest {
         assertThat(deprecatedEnvironments.size()).isEqualTo(1);
         assertThat(deprecatedEnvironments.get(0).isDeprecated()).isTrue();
     }
+
+    /**
+     * The chunk size of the artifact queries is lowered in arquillian.xml, so the lookup spans several chunks.
+     */
+    @Test
+    @InSequence(6)
+    public void testArtifactLookupByIdentifierAndSha256InChunks() {
+        // given
+        TargetRepository targetRepository = targetRepositoryRepository.save(
+                TargetRepository.newBuilder()
+                        .repositoryType(RepositoryType.MAVEN)
+                        .repositoryPath("chunked-lookup")
+                        .identifier("indy-maven")
+                        .temporaryRepo(false)
+                        .build());
+        Set<Artifact.IdentifierSha256> identifiersAndSha = new HashSet<>();
+        Set<Integer> expectedIds = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            Artifact artifact = artifactRepository.save(
+                    Artifact.Builder.newBuilder()
+                            .identifier("org.jboss.test:chunked" + i)
+                            .size(10L)
+                            .md5("md-fake-chunked" + i)
+                            .sha1("sha1-fake-chunked" + i)
+                            .sha256("sha256-fake-chunked" + i)
+                            .targetRepository(targetRepository)
+                            .build());
+            expectedIds.add(artifact.getId());
+            identifiersAndSha.add(artifact.getIdentifierSha256());
+        }
+        // existing identifier with other sha256, existing sha256 with other identifier and unknown artifact
+        identifiersAndSha.add(new Artifact.IdentifierSha256("org.jboss.test:chunked0", "sha256-fake-chunked1"));
+        identifiersAndSha.add(new Artifact.IdentifierSha256("org.jboss.test:other", "sha256-fake-chunked2"));
+        identifiersAndSha.add(new Artifact.IdentifierSha256("org.jboss.test:unknown", "sha256-fake-unknown"));
+
+        // when
+        Set<Artifact> loaded = artifactRepository.withIdentifierAndSha256s(identifiersAndSha);
+        // the second lookup goes through the cached ids
+        Set<Artifact> cached = artifactRepository.withIdentifierAndSha256s(identifiersAndSha);
+
+        // then
+        assertThat(loaded).extracting(Artifact::getId).containsExactlyInAnyOrderElementsOf(expectedIds);
+        assertThat(cached).extracting(Artifact::getId).containsExactlyInAnyOrderElementsOf(expectedIds);
+    }
 }
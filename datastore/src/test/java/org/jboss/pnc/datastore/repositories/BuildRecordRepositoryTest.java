@@ -21,6 +21,7 @@ import org.assertj.core.api.Assertions;
 import org.jboss.arquillian.container.test.api.Deployment;
 import org.jboss.arquillian.junit.Arquillian;
 import org.jboss.arquillian.junit.InSequence;
+import org.jboss.arquillian.transaction.api.annotation.Transactional;
 import org.jboss.pnc.datastore.DeploymentFactory;
 import org.jboss.pnc.enums.BuildStatus;
 import org.jboss.pnc.model.BuildConfiguration;
@@ -43,8 +44,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
 
@@ -147,6 +150,83 @@ public class BuildRecordRepositoryTest {
         Assertions.assertThat(result.size()).isEqualTo(1);
     }
 
+    @InSequence(5)
+    @Test
+    public void shouldGetTransitiveDependenciesAndDependents() {
+        // given 200012 -> 200011 -> 200010, 200013 -> 200010
+        Date now = new Date();
+        buildRecordRepository.save(
+                initBuildRecordBuilder(200010).endTime(now)
+                        .dependentBuildRecordIds(new Integer[] { 200011, 200013 })
+                        .build());
+        buildRecordRepository.save(
+                initBuildRecordBuilder(200011).endTime(now)
+                        .dependencyBuildRecordIds(new Integer[] { 200010 })
+                        .dependentBuildRecordIds(new Integer[] { 200012 })
+                        .build());
+        buildRecordRepository.save(
+                initBuildRecordBuilder(200012).endTime(now)
+                        .dependencyBuildRecordIds(new Integer[] { 200011 })
+                        .build());
+        buildRecordRepository.save(
+                initBuildRecordBuilder(200013).endTime(now)
+                        .dependencyBuildRecordIds(new Integer[] { 200010 })
+                        .build());
+
+        // when
+        Set<Integer> dependencies = buildRecordRepository.getDependencyIds(200012);
+        Set<Integer> dependents = buildRecordRepository.getDependentIds(200010);
+
+        // then
+        Assertions.assertThat(dependencies).containsExactlyInAnyOrder(200011, 200010);
+        Assertions.assertThat(dependents).containsExactlyInAnyOrder(200011, 200012, 200013);
+        Assertions.assertThat(buildRecordRepository.getDependencyIds(200010)).isEmpty();
+    }
+
+    @InSequence(6)
+    @Test
+    @Transactional
+    public void shouldLoadStoredDependencyLinks() {
+        // given the builds stored by shouldGetTransitiveDependenciesAndDependents
+
+        // when
+        BuildRecord buildRecord = buildRecordRepository.queryById(200011);
+
+        // then
+        Assertions.assertThat(buildRecord.getDependencyBuildRecordIds()).containsExactly(200010);
+        Assertions.assertThat(buildRecord.getDependentBuildRecordIds()).containsExactly(200012);
+    }
+
+    @InSequence(7)
+    @Test
+    public void shouldPageExpiredTemporaryBuildsByIdAndFindBuildsByCause() {
+        // given 200020..200024 expired, 200025 with the no rebuild cause 200026
+        for (int id = 200020; id <= 200024; id++) {
+            buildRecordRepository.save(initBuildRecordBuilder(id).endTime(new Date(0)).temporaryBuild(true).build());
+        }
+        BuildRecord cause = buildRecordRepository
+                .save(initBuildRecordBuilder(200026).endTime(new Date()).temporaryBuild(true).build());
+        BuildRecord caused = initBuildRecordBuilder(200025).endTime(new Date()).temporaryBuild(true).build();
+        caused.setNoRebuildCause(cause);
+        buildRecordRepository.save(caused);
+
+        // when
+        List<BuildRecord> firstBatch = buildRecordRepository
+                .findIndependentTemporaryBuildsOlderThan(new Date(1000), 200019, 2);
+        List<BuildRecord> secondBatch = buildRecordRepository
+                .findIndependentTemporaryBuildsOlderThan(new Date(1000), 200021, 2);
+        List<BuildRecord> lastBatch = buildRecordRepository
+                .findIndependentTemporaryBuildsOlderThan(new Date(1000), 200023, 2);
+        List<BuildRecord> causedBuilds = buildRecordRepository.queryWithPredicates(
+                BuildRecordPredicates.withCausingBuildRecordIds(Arrays.asList(200020, 200026)));
+
+        // then
+        Assertions.assertThat(firstBatch).extracting(BuildRecord::getId).containsExactly(200020, 200021);
+        Assertions.assertThat(secondBatch).extracting(BuildRecord::getId).containsExactly(200022, 200023);
+        Assertions.assertThat(lastBatch).extracting(BuildRecord::getId).containsExactly(200024);
+        Assertions.assertThat(causedBuilds).extracting(BuildRecord::getId).containsExactly(200025);
+    }
+
     private BuildRecord.Builder initBuildRecordBuilder(Integer id) {
         if (user == null) {
             List<User> users = userRepository.queryWithPredicates(UserPredicates.withUserName("demo-user"));
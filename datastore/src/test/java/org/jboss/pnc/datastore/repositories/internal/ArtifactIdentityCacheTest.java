@@ -0,0 +1,100 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.repositories.internal;
+
+import com.google.common.base.Ticker;
+import org.jboss.pnc.model.Artifact;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ArtifactIdentityCacheTest {
+
+    private static final long NEGATIVE_TTL_MILLIS = 1000L;
+
+    private static final Artifact.IdentifierSha256 KEY = new Artifact.IdentifierSha256("g:a:jar:1.0", "sha");
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private ArtifactIdentityCache cache;
+
+    @Before
+    public void setup() {
+        cache = new ArtifactIdentityCache(100, NEGATIVE_TTL_MILLIS, new Ticker() {
+            @Override
+            public long read() {
+                return nanos.get();
+            }
+        });
+    }
+
+    @Test
+    public void shouldReturnNullForUnknownArtifact() {
+        Assert.assertNull(cache.getIds(KEY));
+    }
+
+    @Test
+    public void shouldCacheIds() {
+        cache.put(KEY, Arrays.asList(1, 2));
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList(1, 2)), cache.getIds(KEY));
+    }
+
+    @Test
+    public void shouldExpireMissingArtifact() {
+        cache.put(KEY, Collections.emptySet());
+        Assert.assertEquals(Collections.emptySet(), cache.getIds(KEY));
+
+        nanos.set(TimeUnit.MILLISECONDS.toNanos(NEGATIVE_TTL_MILLIS));
+
+        Assert.assertNull(cache.getIds(KEY));
+    }
+
+    @Test
+    public void shouldAddStoredArtifactToKnownIds() {
+        cache.put(KEY, Collections.singleton(1));
+
+        cache.added(KEY, 2);
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList(1, 2)), cache.getIds(KEY));
+    }
+
+    @Test
+    public void shouldForgetMissingArtifactWhenStored() {
+        cache.put(KEY, Collections.emptySet());
+
+        cache.added(KEY, 1);
+
+        Assert.assertNull(cache.getIds(KEY));
+    }
+
+    @Test
+    public void shouldInvalidate() {
+        cache.put(KEY, Collections.singleton(1));
+
+        cache.invalidate(KEY);
+
+        Assert.assertNull(cache.getIds(KEY));
+    }
+}
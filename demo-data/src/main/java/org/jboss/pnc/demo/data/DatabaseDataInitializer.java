@@ -54,6 +54,7 @@ import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationRepository;
 import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationSetRepository;
 import org.jboss.pnc.spi.datastore.repositories.BuildEnvironmentRepository;
 import org.jboss.pnc.spi.datastore.repositories.BuildRecordRepository;
+import org.jboss.pnc.spi.datastore.repositories.ProductMilestoneArtifactRepository;
 import org.jboss.pnc.spi.datastore.repositories.ProductMilestoneReleaseRepository;
 import org.jboss.pnc.spi.datastore.repositories.ProductMilestoneRepository;
 import org.jboss.pnc.spi.datastore.repositories.ProductReleaseRepository;
@@ -74,6 +75,7 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.HashMap;
@@ -144,6 +146,9 @@ public class DatabaseDataInitializer {
     @Inject
     private ProductMilestoneReleaseRepository productMilestoneReleaseRepository;
 
+    @Inject
+    private ProductMilestoneArtifactRepository productMilestoneArtifactRepository;
+
     @Inject
     private ProductReleaseRepository productReleaseRepository;
 
@@ -654,6 +659,8 @@ public class DatabaseDataInitializer {
             BuildRecord savedBuildRecord1 = buildRecordRepository.save(buildRecord1);
             builtArtifact1.setBuildRecord(savedBuildRecord1);
             builtArtifact2.setBuildRecord(savedBuildRecord1);
+            productMilestoneArtifactRepository
+                    .indexBuildRecord(savedBuildRecord1, Arrays.asList(builtArtifact1, builtArtifact2));
 
             log.info(
                     "Saved buildRecord1: " + savedBuildRecord1 + "BuildConfigurationAuditedIdRev: "
@@ -840,6 +847,8 @@ public class DatabaseDataInitializer {
         demoProductMilestone1.addDistributedArtifact(builtArtifact5);
         demoProductMilestone1.addDistributedArtifact(importedArtifact2);
         demoProductMilestone1 = productMilestoneRepository.save(demoProductMilestone1);
+        productMilestoneArtifactRepository
+                .indexDeliveredArtifacts(demoProductMilestone1, demoProductMilestone1.getDistributedArtifacts());
     }
 
     private RepositoryConfiguration createRepositoryConfiguration(String internalScmUrl, String externalUrl) {
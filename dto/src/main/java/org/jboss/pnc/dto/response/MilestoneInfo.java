@@ -79,6 +79,10 @@ public class MilestoneInfo {
      * Whether the queried artifact was built in this milestone or not.
      */
     private final boolean built;
+    /**
+     * Whether the queried artifact was delivered in this milestone or not.
+     */
+    private final boolean delivered;
 
     @JsonPOJOBuilder(withPrefix = "")
     @JsonIgnoreProperties(ignoreUnknown = true)
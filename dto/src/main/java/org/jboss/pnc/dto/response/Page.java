@@ -19,6 +19,7 @@ package org.jboss.pnc.dto.response;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import org.jboss.pnc.enums.PageTotals;
 
 import java.util.Collection;
 import java.util.Collections;
@@ -48,10 +49,20 @@ public class Page<T> {
     private int totalPages;
 
     /**
-     * Number of all hits (not only this page).
+     * Number of all hits (not only this page) or -1 if unknown.
      */
     private int totalHits;
 
+    /**
+     * How the total hits were obtained. Null when the server doesn't say, which means exact totals.
+     */
+    private PageTotals totals;
+
+    /**
+     * Whether there is a page following this one. Null when the server doesn't say, see {@link #hasNextPage()}.
+     */
+    private Boolean hasMore;
+
     /**
      * Embedded collection of data.
      */
@@ -62,10 +73,29 @@ public class Page<T> {
     }
 
     public Page(int pageIndex, int pageSize, int totalHits, Collection<T> content) {
-        this.pageIndex = pageIndex;
-        this.pageSize = pageSize;
-        this.totalPages = (int) Math.ceil((double) totalHits / pageSize);
-        this.totalHits = totalHits;
-        this.content = content;
+        this(pageIndex, pageSize, (int) Math.ceil((double) totalHits / pageSize), totalHits, content);
+    }
+
+    public Page(int pageIndex, int pageSize, int totalPages, int totalHits, Collection<T> content) {
+        this(pageIndex, pageSize, totalPages, totalHits, PageTotals.EXACT, pageIndex < totalPages - 1, content);
+    }
+
+    /**
+     * Creates a page whose entries were not counted.
+     *
+     * @param hasMore whether there is a page following this one
+     */
+    public static <T> Page<T> withoutTotals(int pageIndex, int pageSize, boolean hasMore, Collection<T> content) {
+        return new Page<>(pageIndex, pageSize, -1, -1, PageTotals.NONE, hasMore, content);
+    }
+
+    /**
+     * Whether there is a page following this one, computed from the total pages when the server doesn't say.
+     */
+    public boolean hasNextPage() {
+        if (hasMore != null) {
+            return hasMore;
+        }
+        return pageIndex < totalPages - 1;
     }
 }
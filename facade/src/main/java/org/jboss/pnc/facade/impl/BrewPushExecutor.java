@@ -0,0 +1,60 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.facade.impl;
+
+import org.jboss.pnc.common.concurrent.MDCExecutors;
+import org.jboss.pnc.common.concurrent.NamedThreadFactory;
+import org.jboss.pnc.common.util.ReadEnvProperty;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of workers pushing the builds of a group build to Brew. The number of workers limits the number of
+ * concurrent Causeway requests of all group pushes together.
+ */
+@ApplicationScoped
+public class BrewPushExecutor {
+
+    static final String PARALLELISM_KEY = "brew_push_group_parallelism";
+    private static final int DEFAULT_PARALLELISM = 8;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        init(new ReadEnvProperty().getIntValueFromPropertyOrDefault(PARALLELISM_KEY, DEFAULT_PARALLELISM));
+    }
+
+    void init(int parallelism) {
+        executor = MDCExecutors.newFixedThreadPool(parallelism, new NamedThreadFactory("facade.BrewPushExecutor"));
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> push) {
+        return CompletableFuture.supplyAsync(push, executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
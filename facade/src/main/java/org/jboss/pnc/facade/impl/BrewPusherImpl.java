@@ -54,12 +54,19 @@ import org.slf4j.LoggerFactory;
 
 import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.jboss.pnc.constants.MDCKeys.BUILD_ID_KEY;
 import static org.jboss.pnc.enums.ArtifactQuality.BLACKLISTED;
@@ -94,10 +101,20 @@ public class BrewPusherImpl implements BrewPusher {
     @Inject
     private UserService userService;
 
+    @Inject
+    private BrewPushExecutor brewPushExecutor;
+
     private final static EnumSet<ArtifactQuality> ARTIFACT_BAD_QUALITIES = EnumSet.of(DELETED, BLACKLISTED);
 
+    private static final String BAD_ARTIFACT_QUALITY_MESSAGE = "Build contains artifacts of insufficient quality: "
+            + "BLACKLISTED/DELETED.";
+
     private static final Logger userLog = LoggerFactory.getLogger("org.jboss.pnc._userlog_.brewpush");
 
+    /**
+     * Validates all the builds of the group at once and pushes the valid ones concurrently on the
+     * {@link BrewPushExecutor} workers. The results of all the builds are collected before returning.
+     */
     @Override
     public Set<BuildPushResult> pushGroup(int buildGroupId, String tagPrefix) {
         BuildPushParameters buildPushParameters = BuildPushParameters.builder()
@@ -106,38 +123,112 @@ public class BrewPusherImpl implements BrewPusher {
                 .build();
         List<BuildRecord> buildRecords = buildRecordRepository
                 .queryWithPredicates(BuildRecordPredicates.withBuildConfigSetRecordId(buildGroupId));
+        // request scoped beans are not available on the workers
+        String authToken = userService.currentUserToken();
+        String callbackUrlTemplate = getCompleteCallbackUrlTemplate();
 
         Set<BuildPushResult> results = new HashSet<>();
+        Map<Integer, Integer> toPush = new LinkedHashMap<>(); // id of the group build -> id of the build to push
+        Map<Integer, Long> pushResultIds = new HashMap<>();
         for (BuildRecord buildRecord : buildRecords) {
             Long buildPushResultId = Sequence.nextId();
-            MDCUtils.addProcessContext(buildPushResultId.toString());
-            MDCUtils.addCustomContext(BUILD_ID_KEY, buildRecord.getId().toString());
+            pushResultIds.put(buildRecord.getId(), buildPushResultId);
             try {
-                results.add(doPushBuild(buildRecord.getId(), buildPushParameters, buildPushResultId));
-            } catch (OperationNotAllowedException | AlreadyRunningException e) {
+                toPush.put(buildRecord.getId(), getLatestSuccessfullyExecutedBuildRecord(buildRecord).getId());
+            } catch (OperationNotAllowedException e) {
+                results.add(failedResult(buildRecord.getId(), buildPushResultId, BuildPushStatus.REJECTED, e));
+            } catch (InconsistentDataException e) {
+                results.add(failedResult(buildRecord.getId(), buildPushResultId, BuildPushStatus.SYSTEM_ERROR, e));
+            }
+        }
+        if (toPush.isEmpty()) {
+            return results;
+        }
+
+        Map<Integer, BuildRecord> fetched = buildRecordRepository
+                .findByIdsFetchProperties(new HashSet<>(toPush.values()))
+                .stream()
+                .collect(Collectors.toMap(BuildRecord::getId, Function.identity()));
+        Set<Integer> withBadArtifacts = artifactRepository
+                .queryWithPredicates(ArtifactPredicates.withBuildRecordIds(fetched.keySet()))
+                .stream()
+                .filter(artifact -> ARTIFACT_BAD_QUALITIES.contains(artifact.getArtifactQuality()))
+                .map(artifact -> artifact.getBuildRecord().getId())
+                .collect(Collectors.toSet());
+
+        List<CompletableFuture<BuildPushResult>> pushes = new ArrayList<>(toPush.size());
+        for (Map.Entry<Integer, Integer> entry : toPush.entrySet()) {
+            Integer buildId = entry.getKey();
+            Long buildPushResultId = pushResultIds.get(buildId);
+            BuildRecord buildRecord = fetched.get(entry.getValue());
+            if (buildRecord == null) {
                 results.add(
-                        BuildPushResult.builder()
-                                .status(BuildPushStatus.REJECTED)
-                                .id(buildPushResultId.toString())
-                                .buildId(buildRecord.getId().toString())
-                                .message(e.getMessage())
-                                .build());
-            } catch (InconsistentDataException | ProcessException e) {
+                        failedResult(
+                                buildId,
+                                buildPushResultId,
+                                BuildPushStatus.SYSTEM_ERROR,
+                                new EmptyEntityException("Build record not found.")));
+            } else if (withBadArtifacts.contains(buildRecord.getId())) {
                 results.add(
-                        BuildPushResult.builder()
-                                .status(BuildPushStatus.SYSTEM_ERROR)
-                                .id(buildPushResultId.toString())
-                                .buildId(buildRecord.getId().toString())
-                                .message(e.getMessage())
-                                .build());
-            } finally {
-                MDCUtils.removeProcessContext();
-                MDCUtils.removeCustomContext(BUILD_ID_KEY);
+                        failedResult(
+                                buildId,
+                                buildPushResultId,
+                                BuildPushStatus.REJECTED,
+                                new OperationNotAllowedException(BAD_ARTIFACT_QUALITY_MESSAGE)));
+            } else {
+                pushes.add(
+                        brewPushExecutor.submit(
+                                () -> pushGroupMember(
+                                        buildId,
+                                        buildRecord,
+                                        buildPushParameters,
+                                        buildPushResultId,
+                                        authToken,
+                                        callbackUrlTemplate)));
             }
         }
+        for (CompletableFuture<BuildPushResult> push : pushes) {
+            results.add(push.join());
+        }
         return results;
     }
 
+    private BuildPushResult pushGroupMember(
+            Integer buildId,
+            BuildRecord buildRecord,
+            BuildPushParameters buildPushParameters,
+            Long buildPushResultId,
+            String authToken,
+            String callbackUrlTemplate) {
+        MDCUtils.addProcessContext(buildPushResultId.toString());
+        MDCUtils.addCustomContext(BUILD_ID_KEY, buildId.toString());
+        try {
+            userLog.info("Push started.");
+            return push(buildRecord, buildPushParameters, buildPushResultId, authToken, callbackUrlTemplate);
+        } catch (AlreadyRunningException e) {
+            return failedResult(buildId, buildPushResultId, BuildPushStatus.REJECTED, e);
+        } catch (ProcessException | RuntimeException e) {
+            log.error("Failed to push build " + buildRecord.getId() + ".", e);
+            return failedResult(buildId, buildPushResultId, BuildPushStatus.SYSTEM_ERROR, e);
+        } finally {
+            MDCUtils.removeProcessContext();
+            MDCUtils.removeCustomContext(BUILD_ID_KEY);
+        }
+    }
+
+    private static BuildPushResult failedResult(
+            Integer buildId,
+            Long buildPushResultId,
+            BuildPushStatus status,
+            Exception e) {
+        return BuildPushResult.builder()
+                .status(status)
+                .id(buildPushResultId.toString())
+                .buildId(buildId.toString())
+                .message(e.getMessage())
+                .build();
+    }
+
     @Override
     public BuildPushResult pushBuild(String buildId, BuildPushParameters buildPushParameters) throws ProcessException {
         BuildRecord build = buildRecordRepository.queryById(Integer.valueOf(buildId));
@@ -167,7 +258,7 @@ public class BrewPusherImpl implements BrewPusher {
         List<Artifact> artifacts = artifactRepository
                 .queryWithPredicates(ArtifactPredicates.withBuildRecordId(buildRecord.getId()));
         if (hasBadArtifactQuality(artifacts)) {
-            String message = "Build contains artifacts of insufficient quality: BLACKLISTED/DELETED.";
+            String message = BAD_ARTIFACT_QUALITY_MESSAGE;
             log.debug(message);
             BuildPushResult pushResult = BuildPushResult.builder()
                     .buildId(buildId.toString())
@@ -178,7 +269,20 @@ public class BrewPusherImpl implements BrewPusher {
                     .build();
             throw new OperationNotAllowedException(message, pushResult);
         }
+        return push(
+                buildRecord,
+                buildPushParameters,
+                buildPushResultId,
+                userService.currentUserToken(),
+                getCompleteCallbackUrlTemplate());
+    }
 
+    private BuildPushResult push(
+            BuildRecord buildRecord,
+            BuildPushParameters buildPushParameters,
+            Long buildPushResultId,
+            String authToken,
+            String callbackUrlTemplate) throws ProcessException {
         log.debug("Pushing Build.id {}.", buildRecord.getId());
 
         BuildPushOperation buildPushOperation = new BuildPushOperation(
@@ -186,9 +290,9 @@ public class BrewPusherImpl implements BrewPusher {
                 buildPushResultId,
                 buildPushParameters.getTagPrefix(),
                 buildPushParameters.isReimport(),
-                getCompleteCallbackUrlTemplate());
+                callbackUrlTemplate);
 
-        Result pushResult = buildResultPushManager.push(buildPushOperation, userService.currentUserToken());
+        Result pushResult = buildResultPushManager.push(buildPushOperation, authToken);
         log.info("Push Result {}.", pushResult);
 
         BuildPushResult result = BuildPushResult.builder()
@@ -232,6 +336,10 @@ public class BrewPusherImpl implements BrewPusher {
         if (buildRecord == null) {
             throw new EmptyEntityException("Build record not found.");
         }
+        return getLatestSuccessfullyExecutedBuildRecord(buildRecord);
+    }
+
+    private BuildRecord getLatestSuccessfullyExecutedBuildRecord(BuildRecord buildRecord) {
         if (BuildStatus.SUCCESS.equals(buildRecord.getStatus())) {
             return buildRecord;
         } else if (BuildStatus.NO_REBUILD_REQUIRED.equals(buildRecord.getStatus())) {
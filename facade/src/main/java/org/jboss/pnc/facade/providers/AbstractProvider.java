@@ -23,8 +23,10 @@ import org.jboss.pnc.dto.response.Page;
 import org.jboss.pnc.dto.validation.groups.WhenCreatingNew;
 import org.jboss.pnc.dto.validation.groups.WhenDeleting;
 import org.jboss.pnc.dto.validation.groups.WhenUpdating;
+import org.jboss.pnc.enums.PageTotals;
 import org.jboss.pnc.facade.providers.api.Provider;
 import org.jboss.pnc.facade.rsql.RSQLProducer;
+import org.jboss.pnc.facade.util.PageCountCache;
 import org.jboss.pnc.facade.validation.DTOValidationException;
 import org.jboss.pnc.facade.validation.ValidationBuilder;
 import org.jboss.pnc.mapper.api.EntityMapper;
@@ -39,7 +41,9 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.security.PermitAll;
 import javax.inject.Inject;
+import javax.persistence.Tuple;
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -66,6 +70,9 @@ public abstract class AbstractProvider<ID extends Serializable, DB extends Gener
     @Inject
     protected PageInfoProducer pageInfoProducer;
 
+    @Inject
+    protected PageCountCache pageCountCache;
+
     protected Repository<DB, ID> repository;
 
     protected EntityMapper<ID, DB, DTO, REF> mapper;
@@ -104,6 +111,11 @@ public abstract class AbstractProvider<ID extends Serializable, DB extends Gener
         return queryForCollection(pageIndex, pageSize, sortingRsql, query);
     }
 
+    @Override
+    public Page<DTO> getAll(int pageIndex, int pageSize, String sortingRsql, String query, PageTotals totals) {
+        return queryForCollection(pageIndex, pageSize, sortingRsql, query, totals);
+    }
+
     @Override
     public DTO update(String id, DTO restEntity) {
         validateBeforeUpdating(id, restEntity);
@@ -132,10 +144,135 @@ public abstract class AbstractProvider<ID extends Serializable, DB extends Gener
                 .queryWithPredicates(pageInfo, sortInfo, ObjectArrays.concat(rsqlPredicate, predicates));
         int totalHits = repository.count(ObjectArrays.concat(rsqlPredicate, predicates));
         int totalPages = (totalHits + pageSize - 1) / pageSize;
-        List<DTO> content = nullableStreamOf(collection).map(mapper::toDTO).collect(Collectors.toList());
+        List<DTO> content = toDTOs(collection);
         return new Page<>(pageIndex, pageSize, totalPages, totalHits, content);
     }
 
+    /**
+     * Counts are cached only for queries without additional predicates, as the predicates can't identify a cached
+     * count.
+     */
+    @Override
+    public Page<DTO> queryForCollection(
+            int pageIndex,
+            int pageSize,
+            String sortingRsql,
+            String query,
+            PageTotals totals,
+            Predicate<DB>... predicates) {
+        return queryForCollection(
+                pageIndex,
+                pageSize,
+                sortingRsql,
+                query,
+                totals,
+                predicates.length == 0 ? "" : null,
+                predicates);
+    }
+
+    /**
+     * Queries a page of entities, computing its totals as requested. The page is queried with one entity more to find
+     * out whether there is a next one, unless the totals are exact.
+     *
+     * @param totals how to compute the totals, null means exact totals
+     * @param filterKey identifies the additional predicates in cached counts, so it may be given only for predicates
+     *        that don't vary between calls; counts are never cached when it is null
+     * @param predicates additional predicates the entities must match
+     */
+    protected Page<DTO> queryForCollection(
+            int pageIndex,
+            int pageSize,
+            String sortingRsql,
+            String query,
+            PageTotals totals,
+            String filterKey,
+            Predicate<DB>... predicates) {
+        return queryForCollection(pageIndex, pageSize, sortingRsql, query, totals, filterKey, null, predicates);
+    }
+
+    /**
+     * Queries a page of entities like {@link #queryForCollection(int, int, String, String, PageTotals, String,
+     * Predicate[])}, loading only the given attributes of the entities.
+     *
+     * @param attributes names of the entity attributes to load, null loads whole entities
+     */
+    protected Page<DTO> queryForCollection(
+            int pageIndex,
+            int pageSize,
+            String sortingRsql,
+            String query,
+            PageTotals totals,
+            String filterKey,
+            Collection<String> attributes,
+            Predicate<DB>... predicates) {
+        boolean exact = totals == null || totals == PageTotals.EXACT
+                || (totals == PageTotals.CACHED && filterKey == null);
+        if (exact && attributes == null) {
+            return queryForCollection(pageIndex, pageSize, sortingRsql, query, predicates);
+        }
+        Predicate<DB>[] allPredicates = ObjectArrays
+                .concat(rsqlPredicateProducer.getCriteriaPredicate(type, query), predicates);
+        PageInfo pageInfo = pageInfoProducer.getPageInfo(pageIndex, pageSize);
+        SortInfo sortInfo = rsqlPredicateProducer.getSortInfo(type, sortingRsql);
+        List<DB> collection;
+        if (attributes == null) {
+            collection = repository.queryWithPredicatesAndLookahead(pageInfo, sortInfo, allPredicates);
+        } else {
+            collection = repository
+                    .queryAttributesWithPredicatesAndLookahead(pageInfo, sortInfo, attributes, allPredicates)
+                    .stream()
+                    .map(tuple -> toEntity(tuple, attributes))
+                    .collect(Collectors.toList());
+        }
+        boolean hasMore = collection.size() > pageSize;
+        if (hasMore) {
+            collection = collection.subList(0, pageSize);
+        }
+        List<DTO> content = toDTOs(collection);
+        if (totals == PageTotals.NONE) {
+            return Page.withoutTotals(pageIndex, pageSize, hasMore, content);
+        }
+
+        int totalHits;
+        if (!hasMore && !content.isEmpty()) {
+            // the last page, no need to count
+            totalHits = pageIndex * pageSize + content.size();
+        } else if (exact) {
+            totalHits = repository.count(allPredicates);
+        } else {
+            String countKey = filterKey.isEmpty() ? query : filterKey + ';' + query;
+            totalHits = pageCountCache.getCount(type, countKey, () -> repository.count(allPredicates));
+            // the cached count may be outdated, make it consistent with the page
+            if (hasMore) {
+                totalHits = Math.max(totalHits, (pageIndex + 1) * pageSize + 1);
+            } else {
+                totalHits = Math.min(totalHits, pageIndex * pageSize);
+            }
+        }
+        int totalPages = (totalHits + pageSize - 1) / pageSize;
+        if (exact) {
+            return new Page<>(pageIndex, pageSize, totalPages, totalHits, content);
+        }
+        return new Page<>(pageIndex, pageSize, totalPages, totalHits, PageTotals.CACHED, hasMore, content);
+    }
+
+    /**
+     * Maps a page of entities to DTOs. Providers can override it to prefetch data of the whole page before mapping.
+     */
+    protected List<DTO> toDTOs(List<DB> collection) {
+        return nullableStreamOf(collection).map(mapper::toDTO).collect(Collectors.toList());
+    }
+
+    /**
+     * Builds a detached entity from a tuple of its selected attributes, aliased by the attribute names. Needed only by
+     * the providers querying collections with selected attributes.
+     *
+     * @param attributes names of the selected attributes, besides the id
+     */
+    protected DB toEntity(Tuple tuple, Collection<String> attributes) {
+        throw new UnsupportedOperationException(type.getSimpleName() + " can't be built from selected attributes.");
+    }
+
     protected void validateBeforeUpdating(String id, DTO restEntity) {
         ValidationBuilder.validateObject(restEntity, WhenUpdating.class)
                 .validateNotEmptyArgument()
@@ -26,9 +26,13 @@ import static org.jboss.pnc.spi.datastore.predicates.ArtifactPredicates.withSha1
 import static org.jboss.pnc.spi.datastore.predicates.ArtifactPredicates.withSha256;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
 import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.annotation.security.DenyAll;
@@ -36,6 +40,7 @@ import javax.annotation.security.PermitAll;
 import javax.annotation.security.RolesAllowed;
 import javax.ejb.Stateless;
 import javax.inject.Inject;
+import javax.persistence.Tuple;
 
 import org.commonjava.atlas.npm.ident.ref.NpmPackageRef;
 import org.jboss.pnc.causewayclient.remotespi.NpmBuiltArtifact;
@@ -46,8 +51,10 @@ import org.jboss.pnc.dto.ArtifactRevision;
 import org.jboss.pnc.dto.User;
 import org.jboss.pnc.dto.response.Page;
 import org.jboss.pnc.enums.ArtifactQuality;
+import org.jboss.pnc.enums.PageTotals;
 import org.jboss.pnc.enums.RepositoryType;
 import org.jboss.pnc.facade.providers.api.ArtifactProvider;
+import org.jboss.pnc.facade.util.SparseFields;
 import org.jboss.pnc.facade.util.UserService;
 import org.jboss.pnc.facade.validation.ConflictedEntryException;
 import org.jboss.pnc.facade.validation.DTOValidationException;
@@ -59,7 +66,9 @@ import org.jboss.pnc.mapper.api.ArtifactRevisionMapper;
 import org.jboss.pnc.mapper.api.UserMapper;
 import org.jboss.pnc.model.Artifact;
 import org.jboss.pnc.model.ArtifactAudited;
+import org.jboss.pnc.model.BuildRecord;
 import org.jboss.pnc.model.IdRev;
+import org.jboss.pnc.model.TargetRepository;
 import org.jboss.pnc.spi.datastore.repositories.ArtifactAuditedRepository;
 import org.jboss.pnc.spi.datastore.repositories.ArtifactRepository;
 import org.jboss.pnc.spi.datastore.repositories.BuildRecordRepository;
@@ -140,14 +149,137 @@ public class ArtifactProviderImpl extends AbstractProvider<Integer, Artifact, or
             Optional<String> sha256,
             Optional<String> md5,
             Optional<String> sha1) {
-        return queryForCollection(
+        return getAll(pageIndex, pageSize, sortingRsql, query, sha256, md5, sha1, null);
+    }
+
+    @Override
+    public Page<org.jboss.pnc.dto.Artifact> getAll(
+            int pageIndex,
+            int pageSize,
+            String sortingRsql,
+            String query,
+            Optional<String> sha256,
+            Optional<String> md5,
+            Optional<String> sha1,
+            PageTotals totals) {
+        return getAll(pageIndex, pageSize, sortingRsql, query, sha256, md5, sha1, totals, null);
+    }
+
+    @Override
+    public Page<org.jboss.pnc.dto.Artifact> getAll(
+            int pageIndex,
+            int pageSize,
+            String sortingRsql,
+            String query,
+            Optional<String> sha256,
+            Optional<String> md5,
+            Optional<String> sha1,
+            PageTotals totals,
+            String fields) {
+        SparseFields.Selection<ArtifactRef, org.jboss.pnc.dto.Artifact> selection = SparseFields.ARTIFACT
+                .select(fields);
+        String filterKey = "sha256=" + sha256.orElse("") + ",md5=" + md5.orElse("") + ",sha1=" + sha1.orElse("");
+        Page<org.jboss.pnc.dto.Artifact> page = queryForCollection(
                 pageIndex,
                 pageSize,
                 sortingRsql,
                 query,
+                totals,
+                filterKey,
+                selection.isAll() ? null : toAttributes(selection),
                 withSha256(sha256),
                 withMd5(md5),
                 withSha1(sha1));
+        return selection.applyToPage(page);
+    }
+
+    /**
+     * Artifact entity attributes needed to map the selected fields.
+     */
+    private static Set<String> toAttributes(SparseFields.Selection<ArtifactRef, org.jboss.pnc.dto.Artifact> selection) {
+        Set<String> attributes = new HashSet<>();
+        for (String field : selection.getFields()) {
+            switch (field) {
+                case "build":
+                    attributes.add("buildRecord");
+                    break;
+                case "deployUrl":
+                case "publicUrl":
+                    attributes.add("deployPath");
+                    attributes.add("originUrl");
+                    break;
+                default:
+                    attributes.add(field);
+            }
+        }
+        // the mapper logs an error for artifacts without the target repository, needed by the deploy and public URLs
+        attributes.add("targetRepository");
+        return attributes;
+    }
+
+    @Override
+    protected Artifact toEntity(Tuple tuple, Collection<String> attributes) {
+        Artifact.Builder builder = Artifact.Builder.newBuilder().id(tuple.get("id", Integer.class));
+        for (String attribute : attributes) {
+            switch (attribute) {
+                case "id":
+                    break;
+                case "identifier":
+                    builder.identifier(tuple.get(attribute, String.class));
+                    break;
+                case "artifactQuality":
+                    builder.artifactQuality(tuple.get(attribute, ArtifactQuality.class));
+                    break;
+                case "md5":
+                    builder.md5(tuple.get(attribute, String.class));
+                    break;
+                case "sha1":
+                    builder.sha1(tuple.get(attribute, String.class));
+                    break;
+                case "sha256":
+                    builder.sha256(tuple.get(attribute, String.class));
+                    break;
+                case "filename":
+                    builder.filename(tuple.get(attribute, String.class));
+                    break;
+                case "deployPath":
+                    builder.deployPath(tuple.get(attribute, String.class));
+                    break;
+                case "originUrl":
+                    builder.originUrl(tuple.get(attribute, String.class));
+                    break;
+                case "importDate":
+                    builder.importDate(tuple.get(attribute, Date.class));
+                    break;
+                case "size":
+                    builder.size(tuple.get(attribute, Long.class));
+                    break;
+                case "creationTime":
+                    builder.creationTime(tuple.get(attribute, Date.class));
+                    break;
+                case "modificationTime":
+                    builder.modificationTime(tuple.get(attribute, Date.class));
+                    break;
+                case "qualityLevelReason":
+                    builder.qualityLevelReason(tuple.get(attribute, String.class));
+                    break;
+                case "targetRepository":
+                    builder.targetRepository(tuple.get(attribute, TargetRepository.class));
+                    break;
+                case "buildRecord":
+                    builder.buildRecord(tuple.get(attribute, BuildRecord.class));
+                    break;
+                case "creationUser":
+                    builder.creationUser(tuple.get(attribute, org.jboss.pnc.model.User.class));
+                    break;
+                case "modificationUser":
+                    builder.modificationUser(tuple.get(attribute, org.jboss.pnc.model.User.class));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Artifact attribute " + attribute + " can't be selected.");
+            }
+        }
+        return builder.build();
     }
 
     @Override
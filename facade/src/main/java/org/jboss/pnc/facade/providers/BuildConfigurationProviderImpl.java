@@ -32,6 +32,7 @@ import org.jboss.pnc.dto.response.RepositoryCreationResponse;
 import org.jboss.pnc.dto.validation.groups.WhenCreatingNew;
 import org.jboss.pnc.dto.validation.groups.WhenUpdating;
 import org.jboss.pnc.enums.JobNotificationType;
+import org.jboss.pnc.enums.PageTotals;
 import org.jboss.pnc.facade.providers.api.BuildConfigurationProvider;
 import org.jboss.pnc.facade.providers.api.SCMRepositoryProvider;
 import org.jboss.pnc.facade.providers.api.SCMRepositoryProvider.RepositoryCreated;
@@ -137,9 +138,12 @@ public class BuildConfigurationProviderImpl extends
 
     private static final SCMRepository FAKE_REPOSITORY = SCMRepository.builder().id("-1").build();
 
+    private BuildConfigurationRepository buildConfigurationRepository;
+
     @Inject
     public BuildConfigurationProviderImpl(BuildConfigurationRepository repository, BuildConfigurationMapper mapper) {
         super(repository, mapper, org.jboss.pnc.model.BuildConfiguration.class);
+        this.buildConfigurationRepository = repository;
     }
 
     @Override
@@ -147,6 +151,16 @@ public class BuildConfigurationProviderImpl extends
         return queryForCollection(pageIndex, pageSize, sortingRsql, query, isNotArchived());
     }
 
+    @Override
+    public Page<BuildConfiguration> getAll(
+            int pageIndex,
+            int pageSize,
+            String sortingRsql,
+            String query,
+            PageTotals totals) {
+        return queryForCollection(pageIndex, pageSize, sortingRsql, query, totals, "notArchived", isNotArchived());
+    }
+
     @Override
     public BuildConfiguration store(BuildConfiguration restEntity) throws DTOValidationException {
         validateBeforeSaving(restEntity);
@@ -227,11 +241,9 @@ public class BuildConfigurationProviderImpl extends
                             !buildConfig.getId().equals(dependencyId),
                             "A build configuration cannot depend on itself");
 
-            org.jboss.pnc.model.BuildConfiguration dependency = repository.queryById(dependencyId);
-
             ValidationBuilder.validateObject(buildConfig, WhenUpdating.class)
                     .validateCondition(
-                            !dependency.getAllDependencies().contains(buildConfig),
+                            !buildConfigurationRepository.getDependencyIds(dependencyId).contains(buildConfig.getId()),
                             "Cannot add dependency from : " + buildConfig.getId() + " to: " + dependencyId
                                     + " because it would introduce a cyclic dependency");
         }
@@ -376,14 +388,17 @@ public class BuildConfigurationProviderImpl extends
         ValidationBuilder.validateObject(buildConfig, WhenUpdating.class)
                 .validateCondition(buildConfig != null, "No build config exists with id: " + configId)
                 .validateCondition(dependency != null, "No dependency build config exists with id: " + dependencyId)
-                .validateCondition(!configId.equals(dependencyId), "A build configuration cannot depend on itself")
+                .validateCondition(!configId.equals(dependencyId), "A build configuration cannot depend on itself");
+
+        Set<Integer> dependencyIdsOfDependency = buildConfigurationRepository.getDependencyIds(dependency.getId());
+        ValidationBuilder.validateObject(buildConfig, WhenUpdating.class)
                 .validateCondition(
-                        !dependency.getAllDependencies().contains(buildConfig),
+                        !dependencyIdsOfDependency.contains(buildConfig.getId()),
                         "Cannot add dependency from : " + configId + " to: " + dependencyId
                                 + " because it would introduce a cyclic dependency");
 
         logger.debug("Didn't throw any validation errors");
-        buildConfig.addDependency(dependency);
+        buildConfig.addDependency(dependency, dependencyIdsOfDependency);
         repository.save(buildConfig);
     }
 
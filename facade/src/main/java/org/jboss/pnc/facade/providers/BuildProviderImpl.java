@@ -22,11 +22,11 @@ import lombok.Getter;
 import org.jboss.pnc.common.gerrit.Gerrit;
 import org.jboss.pnc.common.gerrit.GerritException;
 import org.jboss.pnc.common.graph.GraphBuilder;
-import org.jboss.pnc.common.graph.GraphUtils;
 import org.jboss.pnc.common.util.HttpUtils;
 import org.jboss.pnc.common.util.StringUtils;
 import org.jboss.pnc.constants.Attributes;
 import org.jboss.pnc.coordinator.maintenance.TemporaryBuildsCleanerAsyncInvoker;
+import org.jboss.pnc.coordinator.maintenance.TemporaryBuildsGarbageCollector;
 import org.jboss.pnc.dto.Build;
 import org.jboss.pnc.dto.BuildConfigurationRevision;
 import org.jboss.pnc.dto.BuildRef;
@@ -34,11 +34,15 @@ import org.jboss.pnc.dto.response.Graph;
 import org.jboss.pnc.dto.response.Page;
 import org.jboss.pnc.dto.response.RunningBuildCount;
 import org.jboss.pnc.dto.response.SSHCredentials;
+import org.jboss.pnc.enums.BuildCoordinationStatus;
 import org.jboss.pnc.enums.BuildStatus;
+import org.jboss.pnc.enums.PageTotals;
 import org.jboss.pnc.facade.providers.api.BuildPageInfo;
 import org.jboss.pnc.facade.providers.api.BuildProvider;
+import org.jboss.pnc.facade.providers.api.BuildVersion;
 import org.jboss.pnc.facade.util.GraphDtoBuilder;
 import org.jboss.pnc.facade.util.MergeIterator;
+import org.jboss.pnc.facade.util.SparseFields;
 import org.jboss.pnc.facade.util.UserService;
 import org.jboss.pnc.facade.validation.ConflictedEntryException;
 import org.jboss.pnc.facade.validation.CorruptedDataException;
@@ -46,6 +50,7 @@ import org.jboss.pnc.facade.validation.DTOValidationException;
 import org.jboss.pnc.facade.validation.EmptyEntityException;
 import org.jboss.pnc.facade.validation.InvalidEntityException;
 import org.jboss.pnc.facade.validation.RepositoryViolationException;
+import org.jboss.pnc.mapper.BuildBCRevisionFetcher;
 import org.jboss.pnc.mapper.api.BuildConfigurationRevisionMapper;
 import org.jboss.pnc.mapper.api.BuildMapper;
 import org.jboss.pnc.mapper.api.ResultMapper;
@@ -58,6 +63,7 @@ import org.jboss.pnc.model.IdRev;
 import org.jboss.pnc.model.User;
 import org.jboss.pnc.spi.coordinator.BuildCoordinator;
 import org.jboss.pnc.spi.coordinator.BuildTask;
+import org.jboss.pnc.spi.coordinator.BuildTaskCounts;
 import org.jboss.pnc.spi.coordinator.Result;
 import org.jboss.pnc.spi.datastore.predicates.BuildRecordPredicates;
 import org.jboss.pnc.spi.datastore.repositories.ArtifactRepository;
@@ -88,6 +94,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -139,12 +146,14 @@ public class BuildProviderImpl extends AbstractProvider<Integer, BuildRecord, Bu
     private Gerrit gerrit;
     private BuildConfigurationRevisionMapper buildConfigurationRevisionMapper;
     private BuildMapper buildMapper;
+    private BuildBCRevisionFetcher buildBCRevisionFetcher;
 
     private BuildCoordinator buildCoordinator;
     private SortInfoProducer sortInfoProducer;
     private UserService userService;
 
     private TemporaryBuildsCleanerAsyncInvoker temporaryBuildsCleanerAsyncInvoker;
+    private TemporaryBuildsGarbageCollector temporaryBuildsGarbageCollector;
     private ResultMapper resultMapper;
 
     @Inject
@@ -161,7 +170,9 @@ public class BuildProviderImpl extends AbstractProvider<Integer, BuildRecord, Bu
             SortInfoProducer sortInfoProducer,
             UserService userService,
             TemporaryBuildsCleanerAsyncInvoker temporaryBuildsCleanerAsyncInvoker,
-            ResultMapper resultMapper) {
+            TemporaryBuildsGarbageCollector temporaryBuildsGarbageCollector,
+            ResultMapper resultMapper,
+            BuildBCRevisionFetcher buildBCRevisionFetcher) {
         super(repository, mapper, BuildRecord.class);
 
         this.artifactRepository = artifactRepository;
@@ -176,7 +187,9 @@ public class BuildProviderImpl extends AbstractProvider<Integer, BuildRecord, Bu
         this.sortInfoProducer = sortInfoProducer;
         this.userService = userService;
         this.temporaryBuildsCleanerAsyncInvoker = temporaryBuildsCleanerAsyncInvoker;
+        this.temporaryBuildsGarbageCollector = temporaryBuildsGarbageCollector;
         this.resultMapper = resultMapper;
+        this.buildBCRevisionFetcher = buildBCRevisionFetcher;
     }
 
     @Override
@@ -215,6 +228,17 @@ public class BuildProviderImpl extends AbstractProvider<Integer, BuildRecord, Bu
         }
     }
 
+    @RolesAllowed(SYSTEM_USER)
+    @Override
+    public boolean collectTemporaryBuilds(Date expiredBefore) {
+        return temporaryBuildsGarbageCollector.start(expiredBefore);
+    }
+
+    @Override
+    public TemporaryBuildsGarbageCollector.Progress getTemporaryBuildsCollectionProgress() {
+        return temporaryBuildsGarbageCollector.getProgress();
+    }
+
     private Consumer<Result> notifyOnBuildDeletionCompletion(String callback) {
         return (result) -> {
             if (callback != null && !callback.isEmpty()) {
@@ -310,6 +334,15 @@ public class BuildProviderImpl extends AbstractProvider<Integer, BuildRecord, Bu
         return getBuildRecord(buildId).getBuildLog();
     }
 
+    @Override
+    public BuildVersion getFinishedBuildVersion(String buildId) {
+        BuildRecord buildRecord = repository.queryById(BuildMapper.idMapper.toEntity(buildId));
+        if (buildRecord == null || buildRecord.getEndTime() == null || !buildRecord.getStatus().isFinal()) {
+            return null;
+        }
+        return new BuildVersion(Long.toString(buildRecord.getEndTime().getTime()));
+    }
+
     @Override
     public SSHCredentials getSshCredentials(String buildId) {
         BuildRecord buildRecord = getBuildRecord(buildId);
@@ -331,7 +364,13 @@ public class BuildProviderImpl extends AbstractProvider<Integer, BuildRecord, Bu
 
     @Override
     public Page<Build> getAll(int pageIndex, int pageSize, String sort, String query) {
+        return getAll(pageIndex, pageSize, sort, query, null);
+    }
+
+    @Override
+    public Page<Build> getAll(int pageIndex, int pageSize, String sort, String query, PageTotals totals) {
         BuildPageInfo pageInfo = new BuildPageInfo(pageIndex, pageSize, sort, query, false, false, "");
+        pageInfo.setTotals(totals);
         return getBuilds(pageInfo);
     }
 
@@ -430,19 +469,16 @@ public class BuildProviderImpl extends AbstractProvider<Integer, BuildRecord, Bu
             throw new EmptyEntityException("Build group " + groupBuildId + " does not exists.");
         }
         List<String> runningAndStoredIds = getBuildIdsInTheGroup(buildConfigSetRecord);
+        // all the builds share one graph, vertices already expanded by a build are not loaded again
         org.jboss.util.graph.Graph<BuildWithDependencies> buildGraph = new org.jboss.util.graph.Graph<>();
+        GraphBuilder<BuildWithDependencies, String> graphBuilder = createGraphBuilder();
         for (String buildId : runningAndStoredIds) {
-            org.jboss.util.graph.Graph<BuildWithDependencies> dependencyGraph = createBuildDependencyGraph(buildId);
-            GraphUtils.merge(buildGraph, dependencyGraph);
-            logger.trace(
-                    "Merged graph from buildRecordId {} to BuildConfigSetRecordGraph {}; Edges {},",
-                    buildId,
-                    buildGraph,
-                    buildGraph.getEdges());
+            addBuildDependencyGraph(graphBuilder, buildGraph, buildId);
+            logger.trace("Added graph of buildRecordId {} to BuildConfigSetRecordGraph {}.", buildId, buildGraph);
         }
 
-        GraphDtoBuilder<BuildWithDependencies, Build> graphBuilder = new GraphDtoBuilder();
-        Graph<Build> graphDto = graphBuilder.from(buildGraph, Build.class, vertex -> vertex.getData().getBuild());
+        GraphDtoBuilder<BuildWithDependencies, Build> graphDtoBuilder = new GraphDtoBuilder();
+        Graph<Build> graphDto = graphDtoBuilder.from(buildGraph, Build.class, vertex -> vertex.getData().getBuild());
         return graphDto;
     }
 
@@ -482,17 +518,75 @@ public class BuildProviderImpl extends AbstractProvider<Integer, BuildRecord, Bu
 
     private org.jboss.util.graph.Graph<BuildWithDependencies> createBuildDependencyGraph(String buildId) {
         org.jboss.util.graph.Graph<BuildWithDependencies> graph = new org.jboss.util.graph.Graph<>();
-        GraphBuilder<BuildWithDependencies, String> graphBuilder = new GraphBuilder<>(
-                this::getRunningOrCompletedBuild,
-                BuildWithDependencies::getDependencies,
-                BuildWithDependencies::getDependants);
+        addBuildDependencyGraph(createGraphBuilder(getStoredBuildsOfGraph(buildId)), graph, buildId);
+        return graph;
+    }
 
+    private GraphBuilder<BuildWithDependencies, String> createGraphBuilder() {
+        return createGraphBuilder(Collections.emptyMap());
+    }
+
+    /**
+     * @param loadedBuilds builds of the graph that are already loaded, the rest is loaded level by level
+     */
+    private GraphBuilder<BuildWithDependencies, String> createGraphBuilder(
+            Map<String, BuildWithDependencies> loadedBuilds) {
+        return GraphBuilder.batched(ids -> {
+            Map<String, BuildWithDependencies> builds = new HashMap<>();
+            List<String> missingIds = new ArrayList<>();
+            for (String id : ids) {
+                BuildWithDependencies build = loadedBuilds.get(id);
+                if (build != null) {
+                    builds.put(id, build);
+                } else {
+                    missingIds.add(id);
+                }
+            }
+            if (!missingIds.isEmpty()) {
+                builds.putAll(getRunningOrCompletedBuilds(missingIds));
+            }
+            return builds;
+        }, BuildWithDependencies::getDependencies, BuildWithDependencies::getDependants);
+    }
+
+    /**
+     * Loads the completed builds of the dependency graph of a build with one query. Their ids are found by the
+     * recursive queries of the stored dependency links, so the graph doesn't query the database once per level.
+     *
+     * @return completed builds of the graph by build id, running builds are left out
+     */
+    private Map<String, BuildWithDependencies> getStoredBuildsOfGraph(String buildId) {
+        Set<String> runningIds = new HashSet<>();
+        for (BuildTask submittedBuild : buildCoordinator.getSubmittedBuildTasks()) {
+            runningIds.add(Integer.toString(submittedBuild.getId()));
+        }
+        if (runningIds.contains(buildId)) {
+            return Collections.emptyMap();
+        }
+        Integer id = BuildMapper.idMapper.toEntity(buildId);
+        Set<Integer> ids = new HashSet<>(buildRecordRepository.getDependencyIds(id));
+        ids.addAll(buildRecordRepository.getDependentIds(id));
+        ids.add(id);
+
+        Map<String, BuildWithDependencies> builds = new HashMap<>();
+        for (BuildRecord buildRecord : buildRecordRepository.findByIdsFetchProperties(ids)) {
+            String recordId = buildRecord.getId().toString();
+            if (!runningIds.contains(recordId)) {
+                builds.put(recordId, new BuildWithDependencies(buildRecord));
+            }
+        }
+        return builds;
+    }
+
+    private void addBuildDependencyGraph(
+            GraphBuilder<BuildWithDependencies, String> graphBuilder,
+            org.jboss.util.graph.Graph<BuildWithDependencies> graph,
+            String buildId) {
         Vertex<BuildWithDependencies> current = graphBuilder.buildDependencyGraph(graph, buildId);
         if (current != null) {
             BuildWithDependencies currentTask = current.getData();
             graphBuilder.buildDependentGraph(graph, currentTask.getBuild().getId());
         }
-        return graph;
     }
 
     @Override
@@ -533,25 +627,39 @@ public class BuildProviderImpl extends AbstractProvider<Integer, BuildRecord, Bu
     }
 
     /**
+     * Loads running builds from the coordinator and the rest of the builds from the database with a single query.
      *
-     * @param id
-     * @return BuildWithDependencies
-     * @throws CorruptedDataException when there is no running nor completed build for a given id
+     * @param ids
+     * @return BuildWithDependencies by build id
+     * @throws CorruptedDataException when there is no running nor completed build for any of the ids
      */
-    private BuildWithDependencies getRunningOrCompletedBuild(String id) {
-        Optional<BuildTask> buildTask = buildCoordinator.getSubmittedBuildTasks()
-                .stream()
-                .filter(submittedBuild -> Integer.toString(submittedBuild.getId()).equals(id))
-                .findFirst();
-        if (buildTask.isPresent()) {
-            return new BuildWithDependencies(buildTask.get());
-        } else {
-            BuildRecord buildRecord = buildRecordRepository.findByIdFetchProperties(Integer.parseInt(id));
-            if (buildRecord == null) {
+    private Map<String, BuildWithDependencies> getRunningOrCompletedBuilds(Collection<String> ids) {
+        Map<String, BuildTask> submittedBuilds = new HashMap<>();
+        for (BuildTask submittedBuild : buildCoordinator.getSubmittedBuildTasks()) {
+            submittedBuilds.putIfAbsent(Integer.toString(submittedBuild.getId()), submittedBuild);
+        }
+
+        Map<String, BuildWithDependencies> builds = new HashMap<>();
+        List<Integer> completedIds = new ArrayList<>();
+        for (String id : ids) {
+            BuildTask buildTask = submittedBuilds.get(id);
+            if (buildTask != null) {
+                builds.put(id, new BuildWithDependencies(buildTask));
+            } else {
+                completedIds.add(Integer.parseInt(id));
+            }
+        }
+        if (!completedIds.isEmpty()) {
+            for (BuildRecord buildRecord : buildRecordRepository.findByIdsFetchProperties(completedIds)) {
+                builds.put(buildRecord.getId().toString(), new BuildWithDependencies(buildRecord));
+            }
+        }
+        for (String id : ids) {
+            if (!builds.containsKey(id)) {
                 throw new CorruptedDataException("Missing build with id:" + id);
             }
-            return new BuildWithDependencies(buildRecord);
         }
+        return builds;
     }
 
     @Override
@@ -638,27 +746,11 @@ public class BuildProviderImpl extends AbstractProvider<Integer, BuildRecord, Bu
 
     @Override
     public RunningBuildCount getRunningCount() {
-
-        List<BuildTask> x = buildCoordinator.getSubmittedBuildTasks();
-
-        int waitingForDependencies = 0;
-        int running = 0;
-        int enqueued = 0;
-
-        for (BuildTask task : x) {
-            switch (task.getStatus()) {
-                case ENQUEUED:
-                    enqueued++;
-                    continue;
-                case BUILDING:
-                    running++;
-                    continue;
-                case WAITING_FOR_DEPENDENCIES:
-                    waitingForDependencies++;
-                    continue;
-            }
-        }
-        return new RunningBuildCount(running, enqueued, waitingForDependencies);
+        BuildTaskCounts counts = buildCoordinator.getBuildTaskCounts();
+        return new RunningBuildCount(
+                counts.getCount(BuildCoordinationStatus.BUILDING),
+                counts.getCount(BuildCoordinationStatus.ENQUEUED),
+                counts.getCount(BuildCoordinationStatus.WAITING_FOR_DEPENDENCIES));
     }
 
     public Page<Build> getByAttribute(BuildPageInfo buildPageInfo, Map<String, String> attributeConstraints) {
@@ -690,7 +782,28 @@ public class BuildProviderImpl extends AbstractProvider<Integer, BuildRecord, Bu
                 buildPageInfo.getPageIndex(),
                 buildPageInfo.getPageSize(),
                 hits,
-                resultList.stream().map(b -> mapper.toDTO(b)).collect(Collectors.toList()));
+                toDTOs(resultList, SparseFields.BUILD.select(buildPageInfo.getFields())));
+    }
+
+    @Override
+    protected List<Build> toDTOs(List<BuildRecord> collection) {
+        if (collection != null) {
+            buildBCRevisionFetcher.prefetch(collection);
+        }
+        return super.toDTOs(collection);
+    }
+
+    /**
+     * Maps a page of builds to DTOs with only the selected fields. When no relation is selected, the builds are mapped
+     * from their references, so their audited Build Configs are not loaded.
+     */
+    private List<Build> toDTOs(List<BuildRecord> collection, SparseFields.Selection<BuildRef, Build> selection) {
+        if (selection.includesRelations()) {
+            return toDTOs(collection).stream().map(selection::apply).collect(Collectors.toList());
+        }
+        return nullableStreamOf(collection).map(mapper::toRef)
+                .map(selection::applyToRef)
+                .collect(Collectors.toList());
     }
 
     private DefaultPageInfo toPageInfo(BuildPageInfo buildPageInfo) {
@@ -706,20 +819,23 @@ public class BuildProviderImpl extends AbstractProvider<Integer, BuildRecord, Bu
             BuildPageInfo pageInfo,
             java.util.function.Predicate<BuildTask> predicate,
             Predicate<BuildRecord> dbPredicate) {
+        SparseFields.Selection<BuildRef, Build> selection = SparseFields.BUILD.select(pageInfo.getFields());
 
+        Page<Build> page;
         if (pageInfo.isRunning()) {
             if (pageInfo.isLatest()) {
-                return getLatestRunningBuild(predicate);
+                page = getLatestRunningBuild(predicate);
             } else {
-                return getRunningBuilds(pageInfo, predicate);
+                page = getRunningBuilds(pageInfo, predicate);
             }
         } else {
             if (pageInfo.isLatest()) {
-                return getLatestBuild(predicate, dbPredicate);
+                page = getLatestBuild(predicate, dbPredicate);
             } else {
-                return getBuilds(pageInfo, predicate, dbPredicate);
+                page = getBuilds(pageInfo, predicate, dbPredicate, selection);
             }
         }
+        return selection.applyToPage(page);
     }
 
     /**
@@ -771,11 +887,14 @@ public class BuildProviderImpl extends AbstractProvider<Integer, BuildRecord, Bu
     private Page<Build> getBuilds(
             BuildPageInfo pageInfo,
             java.util.function.Predicate<BuildTask> predicate,
-            Predicate<BuildRecord> dbPredicate) {
+            Predicate<BuildRecord> dbPredicate,
+            SparseFields.Selection<BuildRef, Build> selection) {
         List<Build> runningBuilds = readRunningBuilds(pageInfo, predicate);
+        // without totals one more build is read to find out whether there is a next page
+        int lookahead = pageInfo.getTotals() == PageTotals.NONE ? 1 : 0;
 
         int firstPossibleDBIndex = pageInfo.getPageIndex() * pageInfo.getPageSize() - runningBuilds.size();
-        int lastPossibleDBIndex = (pageInfo.getPageIndex() + 1) * pageInfo.getPageSize() - 1;
+        int lastPossibleDBIndex = (pageInfo.getPageIndex() + 1) * pageInfo.getPageSize() - 1 + lookahead;
         int toSkip = min(runningBuilds.size(), pageInfo.getPageIndex() * pageInfo.getPageSize());
 
         Predicate<BuildRecord>[] predicates = preparePredicates(
@@ -788,6 +907,9 @@ public class BuildProviderImpl extends AbstractProvider<Integer, BuildRecord, Bu
         }
 
         SortInfo sortInfo = rsqlPredicateProducer.getSortInfo(type, pageInfo.getSort());
+        // the builds are merged by the comparator, which may need relations when sorting by nested fields
+        boolean withRelations = selection.includesRelations()
+                || (!StringUtils.isEmpty(pageInfo.getSort()) && pageInfo.getSort().contains("."));
         MergeIterator<Build> builds = new MergeIterator(
                 runningBuilds.iterator(),
                 new BuildIterator(
@@ -795,14 +917,23 @@ public class BuildProviderImpl extends AbstractProvider<Integer, BuildRecord, Bu
                         lastPossibleDBIndex,
                         pageInfo.getPageSize(),
                         sortInfo,
+                        withRelations,
                         predicates),
                 comparing);
         List<Build> resultList = StreamSupport
                 .stream(Spliterators.spliteratorUnknownSize(builds, Spliterator.ORDERED | Spliterator.SORTED), false)
                 .skip(toSkip)
-                .limit(pageInfo.getPageSize())
+                .limit(pageInfo.getPageSize() + lookahead)
                 .collect(Collectors.toList());
 
+        if (lookahead > 0) {
+            boolean hasMore = resultList.size() > pageInfo.getPageSize();
+            if (hasMore) {
+                resultList = resultList.subList(0, pageInfo.getPageSize());
+            }
+            return Page.withoutTotals(pageInfo.getPageIndex(), pageInfo.getPageSize(), hasMore, resultList);
+        }
+
         int hits = repository.count(predicates) + runningBuilds.size();
 
         return new Page<>(
@@ -890,6 +1021,7 @@ public class BuildProviderImpl extends AbstractProvider<Integer, BuildRecord, Bu
         private int firstIndex;
         private final int lastIndex;
         private final SortInfo sortInfo;
+        private final boolean withRelations;
         private final Predicate<BuildRecord>[] predicates;
 
         public BuildIterator(
@@ -898,11 +1030,25 @@ public class BuildProviderImpl extends AbstractProvider<Integer, BuildRecord, Bu
                 int pageSize,
                 SortInfo sortInfo,
                 Predicate<BuildRecord>... predicate) {
+            this(firstIndex, lastIndex, pageSize, sortInfo, true, predicate);
+        }
+
+        /**
+         * @param withRelations whether to map the relations of the builds, only their references are mapped otherwise
+         */
+        public BuildIterator(
+                int firstIndex,
+                int lastIndex,
+                int pageSize,
+                SortInfo sortInfo,
+                boolean withRelations,
+                Predicate<BuildRecord>... predicate) {
             this.maxPageSize = pageSize > 10 ? pageSize : 10;
             this.firstIndex = firstIndex > 0 ? firstIndex : 0;
             this.lastIndex = lastIndex;
             this.predicates = predicate;
             this.sortInfo = sortInfo;
+            this.withRelations = withRelations;
             nextPage();
         }
 
@@ -923,7 +1069,11 @@ public class BuildProviderImpl extends AbstractProvider<Integer, BuildRecord, Bu
             if (!hasNext()) {
                 throw new NoSuchElementException();
             }
-            return mapper.toDTO(it.next());
+            BuildRecord build = it.next();
+            if (withRelations) {
+                return mapper.toDTO(build);
+            }
+            return SparseFields.BUILD.fromRef(mapper.toRef(build));
         }
 
         private void nextPage() {
@@ -934,6 +1084,9 @@ public class BuildProviderImpl extends AbstractProvider<Integer, BuildRecord, Bu
             PageInfo pageInfo = new DefaultPageInfo(firstIndex, size);
             builds = ((BuildRecordRepository) BuildProviderImpl.this.repository)
                     .queryWithPredicatesUsingCursor(pageInfo, sortInfo, predicates);
+            if (withRelations) {
+                buildBCRevisionFetcher.prefetch(builds);
+            }
             it = builds.iterator();
             if (builds.size() < size) {
                 firstIndex = lastIndex + 1;
@@ -22,9 +22,12 @@ import java.util.SortedMap;
 
 import javax.annotation.security.PermitAll;
 import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
 import javax.inject.Inject;
 
 import org.jboss.pnc.facade.providers.api.CacheProvider;
+import org.jboss.pnc.facade.util.UserCache;
 import org.jboss.pnc.model.utils.HibernateMetric;
 import org.jboss.pnc.spi.datastore.repositories.CacheHandlerRepository;
 import org.slf4j.Logger;
@@ -38,9 +41,12 @@ public class CacheProviderImpl implements CacheProvider {
 
     private CacheHandlerRepository cacheHandlerRepository;
 
+    private UserCache userCache;
+
     @Inject
-    public CacheProviderImpl(CacheHandlerRepository cacheHandlerRepository) {
+    public CacheProviderImpl(CacheHandlerRepository cacheHandlerRepository, UserCache userCache) {
         this.cacheHandlerRepository = cacheHandlerRepository;
+        this.userCache = userCache;
     }
 
     @Override
@@ -67,10 +73,17 @@ public class CacheProviderImpl implements CacheProvider {
         return cacheHandlerRepository.getGenericStats();
     }
 
+    @Override
+    @TransactionAttribute(TransactionAttributeType.SUPPORTS)
+    public long getPrepareStatementCount() {
+        return cacheHandlerRepository.getPrepareStatementCount();
+    }
+
     @Override
     public void clearAllCache() {
         logger.info("Evicting all content from second level cache...");
         cacheHandlerRepository.clearCache();
+        userCache.invalidateAll();
         logger.info("Second level cache evicted");
     }
 
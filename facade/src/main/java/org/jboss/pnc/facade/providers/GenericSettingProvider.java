@@ -19,6 +19,8 @@ package org.jboss.pnc.facade.providers;
 
 import lombok.extern.slf4j.Slf4j;
 import org.jboss.pnc.dto.notification.GenericSettingNotification;
+import org.jboss.pnc.facade.util.GenericSettingCache;
+import org.jboss.pnc.facade.util.GenericSettingChangedEvent;
 import org.jboss.pnc.facade.util.UserService;
 import org.jboss.pnc.model.GenericSetting;
 import org.jboss.pnc.spi.datastore.repositories.GenericSettingRepository;
@@ -30,6 +32,7 @@ import static org.jboss.pnc.facade.providers.api.UserRoles.SYSTEM_USER;
 import javax.annotation.security.PermitAll;
 import javax.annotation.security.RolesAllowed;
 import javax.ejb.Stateless;
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
 
 @PermitAll
@@ -49,6 +52,12 @@ public class GenericSettingProvider {
     @Inject
     private Notifier notifier;
 
+    @Inject
+    private GenericSettingCache genericSettingCache;
+
+    @Inject
+    private Event<GenericSettingChangedEvent> genericSettingChangedEvent;
+
     @Deprecated
     public GenericSettingProvider() {
     }
@@ -60,7 +69,7 @@ public class GenericSettingProvider {
         GenericSetting maintenanceMode = createGenericParameterIfNotFound(MAINTENANCE_MODE);
 
         maintenanceMode.setValue(Boolean.TRUE.toString());
-        genericSettingRepository.save(maintenanceMode);
+        save(maintenanceMode);
         notifier.sendMessage(GenericSettingNotification.maintenanceModeChanged(true));
 
         setAnnouncementBanner(reason);
@@ -83,19 +92,14 @@ public class GenericSettingProvider {
         }
 
         maintenanceMode.setValue(Boolean.FALSE.toString());
-        genericSettingRepository.save(maintenanceMode);
+        save(maintenanceMode);
         notifier.sendMessage(GenericSettingNotification.maintenanceModeChanged(false));
     }
 
     public boolean isInMaintenanceMode() {
 
-        GenericSetting maintenanceMode = genericSettingRepository.queryByKey(MAINTENANCE_MODE);
-
-        if (maintenanceMode == null) {
-            return false;
-        } else {
-            return Boolean.parseBoolean(maintenanceMode.getValue());
-        }
+        String maintenanceMode = genericSettingCache.getValue(MAINTENANCE_MODE, genericSettingRepository::queryByKey);
+        return Boolean.parseBoolean(maintenanceMode);
     }
 
     public boolean isCurrentUserAllowedToTriggerBuilds() {
@@ -115,21 +119,28 @@ public class GenericSettingProvider {
         log.info("Announcement banner set to: '{}'", banner);
         GenericSetting announcementBanner = createGenericParameterIfNotFound(ANNOUNCEMENT_BANNER);
         announcementBanner.setValue(banner);
-        genericSettingRepository.save(announcementBanner);
+        save(announcementBanner);
         notifier.sendMessage(GenericSettingNotification.newAnnoucement(banner));
     }
 
     public String getAnnouncementBanner() {
 
-        GenericSetting announcementBanner = genericSettingRepository.queryByKey(ANNOUNCEMENT_BANNER);
+        String announcementBanner = genericSettingCache
+                .getValue(ANNOUNCEMENT_BANNER, genericSettingRepository::queryByKey);
 
         if (announcementBanner == null) {
             return Strings.EMPTY;
         } else {
-            return announcementBanner.getValue();
+            return announcementBanner;
         }
     }
 
+    private void save(GenericSetting genericSetting) {
+        genericSettingRepository.save(genericSetting);
+        genericSettingChangedEvent
+                .fire(new GenericSettingChangedEvent(genericSetting.getKey(), genericSetting.getValue()));
+    }
+
     private GenericSetting createGenericParameterIfNotFound(String key) {
 
         GenericSetting genericSetting = genericSettingRepository.queryByKey(key);
@@ -17,6 +17,7 @@
  */
 package org.jboss.pnc.facade.providers;
 
+import com.google.common.collect.Iterables;
 import org.jboss.pnc.bpm.causeway.ProductMilestoneReleaseManager;
 import org.jboss.pnc.common.concurrent.Sequence;
 import org.jboss.pnc.common.logging.MDCUtils;
@@ -38,12 +39,12 @@ import org.jboss.pnc.facade.validation.RepositoryViolationException;
 import org.jboss.pnc.facade.validation.ValidationBuilder;
 import org.jboss.pnc.mapper.api.ProductMilestoneCloseResultMapper;
 import org.jboss.pnc.mapper.api.ProductMilestoneMapper;
-import org.jboss.pnc.model.Artifact;
 import org.jboss.pnc.model.Artifact_;
-import org.jboss.pnc.model.BuildRecord;
-import org.jboss.pnc.model.BuildRecord_;
 import org.jboss.pnc.model.Product;
 import org.jboss.pnc.model.ProductMilestoneRelease;
+import org.jboss.pnc.model.ProductMilestoneArtifact;
+import org.jboss.pnc.model.ProductMilestoneArtifact.Relation;
+import org.jboss.pnc.model.ProductMilestoneArtifact_;
 import org.jboss.pnc.model.ProductMilestone_;
 import org.jboss.pnc.model.ProductRelease;
 import org.jboss.pnc.model.ProductRelease_;
@@ -62,13 +63,20 @@ import javax.persistence.Tuple;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
-import javax.persistence.criteria.SetJoin;
+import javax.persistence.criteria.Subquery;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.regex.Pattern;
@@ -88,6 +96,12 @@ public class ProductMilestoneProviderImpl
     private static final Logger log = LoggerFactory.getLogger(ProductMilestoneProviderImpl.class);
     private static final Logger userLog = LoggerFactory.getLogger("org.jboss.pnc._userlog_.milestone");
 
+    private static final int MAX_IDS_IN_QUERY = 1000;
+
+    private static final Comparator<MilestoneInfo> LATEST_MILESTONES_FIRST = Comparator
+            .comparing(MilestoneInfo::getMilestoneEndDate, Comparator.nullsFirst(Comparator.<Instant>reverseOrder()))
+            .thenComparing(m -> Integer.valueOf(m.getMilestoneId()), Comparator.<Integer>reverseOrder());
+
     private ProductMilestoneReleaseManager releaseManager;
     private final ProductMilestoneCloseResultMapper milestoneReleaseMapper;
 
@@ -250,28 +264,84 @@ public class ProductMilestoneProviderImpl
     @Override
     public Page<MilestoneInfo> getMilestonesOfArtifact(String id, int pageIndex, int pageSize) {
         CriteriaBuilder cb = em.getCriteriaBuilder();
-
-        Optional<Integer> builtIn = getBuildInMilestone(cb, id);
-        List<Integer> dependencyOf = getDependentMilestoneIds(cb, id);
-
-        Set<Integer> milestoneIds = new HashSet<>(dependencyOf);
-        builtIn.ifPresent(milestoneIds::add);
-        milestoneIds.remove(null); // some builds are not in a milestone and so it gives us null
-        if (milestoneIds.isEmpty()) {
+        Integer artifactId = Integer.valueOf(id);
+
+        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        Root<org.jboss.pnc.model.ProductMilestone> countedMilestone = countQuery
+                .from(org.jboss.pnc.model.ProductMilestone.class);
+        Root<ProductRelease> countedRelease = countQuery.from(ProductRelease.class);
+        countQuery.select(cb.count(countedMilestone));
+        countQuery.where(
+                cb.equal(countedRelease.get(ProductRelease_.productMilestone), countedMilestone),
+                countedMilestone.get(ProductMilestone_.id).in(linkedMilestoneIds(cb, countQuery, artifactId)));
+        int totalHits = em.createQuery(countQuery).getSingleResult().intValue();
+        if (totalHits == 0) {
             return new Page<>();
         }
 
-        CriteriaQuery<Tuple> query = milestoneInfoQuery(cb, milestoneIds);
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<org.jboss.pnc.model.ProductMilestone> milestone = query.from(org.jboss.pnc.model.ProductMilestone.class);
+        milestoneInfoQuery(
+                cb,
+                query,
+                milestone,
+                milestone.get(ProductMilestone_.id).in(linkedMilestoneIds(cb, query, artifactId)));
         int offset = pageIndex * pageSize;
-        List<MilestoneInfo> milestones = em.createQuery(query)
-                .setMaxResults(pageSize)
-                .setFirstResult(offset)
-                .getResultList()
-                .stream()
-                .map(m -> mapTupleToMilestoneInfo(m, builtIn))
+        List<Tuple> tuples = em.createQuery(query).setMaxResults(pageSize).setFirstResult(offset).getResultList();
+
+        Set<Integer> milestoneIds = tuples.stream().map(t -> (Integer) t.get(4)).collect(Collectors.toSet());
+        Map<Integer, Set<Relation>> relations = milestoneIds.isEmpty() ? Collections.emptyMap()
+                : getRelations(cb, Collections.singleton(artifactId), milestoneIds)
+                        .getOrDefault(artifactId, Collections.emptyMap());
+        List<MilestoneInfo> milestones = tuples.stream()
+                .map(t -> mapTupleToMilestoneInfo(t, relations.get((Integer) t.get(4))))
                 .collect(Collectors.toList());
 
-        return new Page<>(pageIndex, pageSize, milestoneIds.size(), milestones);
+        return new Page<>(pageIndex, pageSize, totalHits, milestones);
+    }
+
+    /**
+     * Looks the milestones up in the index of the milestone artifacts. It takes one query for the links of every
+     * {@value MAX_IDS_IN_QUERY} artifacts and one query for the details of every {@value MAX_IDS_IN_QUERY} of their
+     * milestones. The milestones of each artifact are sorted like the pages of a single artifact, open milestones
+     * first.
+     */
+    @Override
+    public Map<String, List<MilestoneInfo>> getMilestonesOfArtifacts(Collection<String> ids) {
+        Set<Integer> artifactIds = ids.stream().map(Integer::valueOf).collect(Collectors.toSet());
+        Map<String, List<MilestoneInfo>> milestonesOfArtifacts = new HashMap<>();
+        artifactIds.forEach(id -> milestonesOfArtifacts.put(id.toString(), new ArrayList<>()));
+        if (artifactIds.isEmpty()) {
+            return milestonesOfArtifacts;
+        }
+
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        Map<Integer, Map<Integer, Set<Relation>>> relations = getRelations(cb, artifactIds, null);
+
+        Map<Integer, Set<Integer>> artifactsOfMilestones = new HashMap<>();
+        relations.forEach(
+                (artifactId, milestones) -> milestones.keySet()
+                        .forEach(
+                                milestoneId -> artifactsOfMilestones
+                                        .computeIfAbsent(milestoneId, m -> new HashSet<>())
+                                        .add(artifactId)));
+
+        for (List<Integer> chunk : Iterables.partition(artifactsOfMilestones.keySet(), MAX_IDS_IN_QUERY)) {
+            CriteriaQuery<Tuple> query = cb.createTupleQuery();
+            Root<org.jboss.pnc.model.ProductMilestone> milestone = query
+                    .from(org.jboss.pnc.model.ProductMilestone.class);
+            milestoneInfoQuery(cb, query, milestone, milestone.get(ProductMilestone_.id).in(chunk));
+
+            for (Tuple tuple : em.createQuery(query).getResultList()) {
+                Integer milestoneId = (Integer) tuple.get(4);
+                for (Integer artifactId : artifactsOfMilestones.get(milestoneId)) {
+                    milestonesOfArtifacts.get(artifactId.toString())
+                            .add(mapTupleToMilestoneInfo(tuple, relations.get(artifactId).get(milestoneId)));
+                }
+            }
+        }
+        milestonesOfArtifacts.values().forEach(milestones -> milestones.sort(LATEST_MILESTONES_FIRST));
+        return milestonesOfArtifacts;
     }
 
     @Override
@@ -300,10 +370,14 @@ public class ProductMilestoneProviderImpl
         return builder.isValid(matches).build();
     }
 
-    private CriteriaQuery<Tuple> milestoneInfoQuery(CriteriaBuilder cb, Set<Integer> milestoneIds) {
-        CriteriaQuery<Tuple> query = cb.createTupleQuery();
-
-        Root<org.jboss.pnc.model.ProductMilestone> milestone = query.from(org.jboss.pnc.model.ProductMilestone.class);
+    /**
+     * Selects the details of the milestones which have a release and pass the filter, latest milestones first.
+     */
+    private void milestoneInfoQuery(
+            CriteriaBuilder cb,
+            CriteriaQuery<Tuple> query,
+            Root<org.jboss.pnc.model.ProductMilestone> milestone,
+            Predicate milestoneFilter) {
         Root<ProductRelease> release = query.from(ProductRelease.class);
         Path<ProductVersion> version = milestone.get(ProductMilestone_.productVersion);
         Path<Product> product = version.get(ProductVersion_.product);
@@ -318,27 +392,35 @@ public class ProductMilestoneProviderImpl
                 release.get(ProductRelease_.id),
                 release.get(ProductRelease_.version),
                 release.get(ProductRelease_.releaseDate));
-        query.where(
-                cb.and(cb.equal(release.get(ProductRelease_.productMilestone), milestone)),
-                milestone.get(ProductMilestone_.id).in(milestoneIds));
+        query.where(cb.equal(release.get(ProductRelease_.productMilestone), milestone), milestoneFilter);
         query.orderBy(cb.desc(milestone.get(ProductMilestone_.endDate)), cb.desc(milestone.get(ProductMilestone_.id)));
-        return query;
     }
 
-    private MilestoneInfo mapTupleToMilestoneInfo(Tuple tuple, Optional<Integer> buildIn) {
-        final Integer milestoneId = (Integer) tuple.get(4);
+    /**
+     * @return ids of the milestones linked with the artifact in the index of the milestone artifacts
+     */
+    private Subquery<Integer> linkedMilestoneIds(CriteriaBuilder cb, CriteriaQuery<?> query, Integer artifactId) {
+        Subquery<Integer> milestoneIds = query.subquery(Integer.class);
+        Root<ProductMilestoneArtifact> link = milestoneIds.from(ProductMilestoneArtifact.class);
+        milestoneIds.select(link.get(ProductMilestoneArtifact_.productMilestone).get(ProductMilestone_.id));
+        milestoneIds.where(cb.equal(link.get(ProductMilestoneArtifact_.artifact).get(Artifact_.id), artifactId));
+        return milestoneIds;
+    }
+
+    private MilestoneInfo mapTupleToMilestoneInfo(Tuple tuple, Set<Relation> relations) {
         return MilestoneInfo.builder()
                 .productId(tuple.get(0).toString())
                 .productName(tuple.get(1).toString())
                 .productVersionId(tuple.get(2).toString())
                 .productVersionVersion(tuple.get(3).toString())
-                .milestoneId(milestoneId.toString())
+                .milestoneId(tuple.get(4).toString())
                 .milestoneVersion(tuple.get(5).toString())
                 .milestoneEndDate(toInstant(tuple.get(6)))
                 .releaseId(tuple.get(7).toString())
                 .releaseVersion(tuple.get(8).toString())
                 .releaseReleaseDate(toInstant(tuple.get(9)))
-                .built(buildIn.map(milestoneId::equals).orElse(false))
+                .built(relations != null && relations.contains(Relation.BUILT))
+                .delivered(relations != null && relations.contains(Relation.DELIVERED))
                 .build();
     }
 
@@ -348,30 +430,36 @@ public class ProductMilestoneProviderImpl
         return ((Date) object).toInstant();
     }
 
-    private Optional<Integer> getBuildInMilestone(CriteriaBuilder cb, String id) {
-        CriteriaQuery<Integer> buildQuery = cb.createQuery(Integer.class);
-
-        Root<Artifact> artifact = buildQuery.from(Artifact.class);
-        buildQuery.where(cb.equal(artifact.get(Artifact_.id), Integer.valueOf(id)));
-        buildQuery.select(
-                artifact.get(Artifact_.buildRecord).get(BuildRecord_.productMilestone).get(ProductMilestone_.id));
-        buildQuery.distinct(true);
-
-        List<Integer> resultList = em.createQuery(buildQuery).getResultList();
-
-        return resultList.stream().findFirst();
-    }
-
-    private List<Integer> getDependentMilestoneIds(CriteriaBuilder cb, String id) {
-        CriteriaQuery<Integer> buildQuery = cb.createQuery(Integer.class);
-
-        Root<Artifact> artifact = buildQuery.from(Artifact.class);
-        SetJoin<Artifact, BuildRecord> build = artifact.join(Artifact_.dependantBuildRecords);
-        buildQuery.where(cb.equal(artifact.get(Artifact_.id), Integer.valueOf(id)));
-        buildQuery.select(build.get(BuildRecord_.productMilestone).get(ProductMilestone_.id));
-        buildQuery.distinct(true);
+    /**
+     * @param milestoneIds milestones to look the artifacts up in, null for all of them
+     * @return relations of the artifacts to their milestones, by artifact id and milestone id
+     */
+    private Map<Integer, Map<Integer, Set<Relation>>> getRelations(
+            CriteriaBuilder cb,
+            Set<Integer> artifactIds,
+            Set<Integer> milestoneIds) {
+        Map<Integer, Map<Integer, Set<Relation>>> relations = new HashMap<>();
+        for (List<Integer> chunk : Iterables.partition(artifactIds, MAX_IDS_IN_QUERY)) {
+            CriteriaQuery<Tuple> query = cb.createTupleQuery();
+
+            Root<ProductMilestoneArtifact> link = query.from(ProductMilestoneArtifact.class);
+            Path<Integer> artifactId = link.get(ProductMilestoneArtifact_.artifact).get(Artifact_.id);
+            Path<Integer> milestoneId = link.get(ProductMilestoneArtifact_.productMilestone)
+                    .get(ProductMilestone_.id);
+            if (milestoneIds == null) {
+                query.where(artifactId.in(chunk));
+            } else {
+                query.where(artifactId.in(chunk), milestoneId.in(milestoneIds));
+            }
+            query.multiselect(artifactId, milestoneId, link.get(ProductMilestoneArtifact_.relation));
+            query.distinct(true);
 
-        List<Integer> resultList = em.createQuery(buildQuery).getResultList();
-        return resultList;
+            for (Tuple tuple : em.createQuery(query).getResultList()) {
+                relations.computeIfAbsent((Integer) tuple.get(0), a -> new HashMap<>())
+                        .computeIfAbsent((Integer) tuple.get(1), m -> EnumSet.noneOf(Relation.class))
+                        .add((Relation) tuple.get(2));
+            }
+        }
+        return relations;
     }
 }
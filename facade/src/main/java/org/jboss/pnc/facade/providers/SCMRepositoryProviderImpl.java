@@ -65,7 +65,6 @@ import static org.jboss.pnc.constants.Patterns.INTERNAL_REPOSITORY_NAME;
 import static org.jboss.pnc.enums.JobNotificationType.SCM_REPOSITORY_CREATION;
 import static org.jboss.pnc.spi.datastore.predicates.RepositoryConfigurationPredicates.matchByScmUrl;
 import static org.jboss.pnc.spi.datastore.predicates.RepositoryConfigurationPredicates.searchByScmUrl;
-import static org.jboss.pnc.spi.datastore.predicates.RepositoryConfigurationPredicates.withExactInternalScmRepoUrl;
 
 @PermitAll
 @Stateless
@@ -319,7 +318,7 @@ public class SCMRepositoryProviderImpl
         final String internalScmUrl = event.getData().getInternalUrl();
         final Integer taskId = repositoryCreationTask.getTaskId();
 
-        RepositoryConfiguration existing = repository.queryByPredicates(withExactInternalScmRepoUrl(internalScmUrl));
+        RepositoryConfiguration existing = repositoryConfigurationRepository.queryByInternalScm(internalScmUrl);
         if (existing != null) {
             RepositoryCreationFailure error = new RepositoryCreationFailure(
                     jobType,
@@ -19,6 +19,7 @@ package org.jboss.pnc.facade.providers;
 
 import org.jboss.pnc.dto.User;
 import org.jboss.pnc.facade.providers.api.UserProvider;
+import org.jboss.pnc.facade.util.UserCache;
 import org.jboss.pnc.facade.util.UserService;
 import org.jboss.pnc.mapper.api.UserMapper;
 import org.jboss.pnc.spi.datastore.repositories.UserRepository;
@@ -38,10 +39,17 @@ public class UserProviderImpl extends AbstractProvider<Integer, org.jboss.pnc.mo
 
     private final UserService userService;
 
+    private final UserCache userCache;
+
     @Inject
-    public UserProviderImpl(UserRepository repository, UserMapper mapper, UserService userService) {
+    public UserProviderImpl(
+            UserRepository repository,
+            UserMapper mapper,
+            UserService userService,
+            UserCache userCache) {
         super(repository, mapper, org.jboss.pnc.model.User.class);
         this.userService = userService;
+        this.userCache = userCache;
     }
 
     @Override
@@ -49,6 +57,13 @@ public class UserProviderImpl extends AbstractProvider<Integer, org.jboss.pnc.mo
         return mapper.toDTO(userService.currentUser());
     }
 
+    @Override
+    public User store(User restEntity) {
+        User stored = super.store(restEntity);
+        userCache.invalidate(stored.getUsername());
+        return stored;
+    }
+
     /**
      * Not allowed
      * 
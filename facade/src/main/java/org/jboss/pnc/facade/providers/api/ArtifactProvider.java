@@ -21,6 +21,7 @@ import org.jboss.pnc.dto.Artifact;
 import org.jboss.pnc.dto.ArtifactRef;
 import org.jboss.pnc.dto.ArtifactRevision;
 import org.jboss.pnc.dto.response.Page;
+import org.jboss.pnc.enums.PageTotals;
 import org.jboss.pnc.facade.validation.DTOValidationException;
 
 import java.util.Optional;
@@ -36,6 +37,30 @@ public interface ArtifactProvider
             Optional<String> md5,
             Optional<String> sha1);
 
+    Page<Artifact> getAll(
+            int pageIndex,
+            int pageSize,
+            String sortingRsql,
+            String query,
+            Optional<String> sha256,
+            Optional<String> md5,
+            Optional<String> sha1,
+            PageTotals totals);
+
+    /**
+     * @param fields comma separated fields of the artifacts to return, null or empty returns all the fields
+     */
+    Page<Artifact> getAll(
+            int pageIndex,
+            int pageSize,
+            String sortingRsql,
+            String query,
+            Optional<String> sha256,
+            Optional<String> md5,
+            Optional<String> sha1,
+            PageTotals totals,
+            String fields);
+
     Page<Artifact> getBuiltArtifactsForBuild(
             int pageIndex,
             int pageSize,
@@ -18,6 +18,7 @@
 package org.jboss.pnc.facade.providers.api;
 
 import lombok.Data;
+import org.jboss.pnc.enums.PageTotals;
 
 /**
  *
@@ -34,4 +35,15 @@ public class BuildPageInfo {
     private final boolean running;
     private final String buildConfigName;
 
+    /**
+     * How to compute the totals of the page, null means exact totals. Only {@link PageTotals#NONE} avoids counting the
+     * builds, cached counts are not supported for builds.
+     */
+    private PageTotals totals;
+
+    /**
+     * Comma separated fields of the builds to return, null or empty returns all the fields.
+     */
+    private String fields;
+
 }
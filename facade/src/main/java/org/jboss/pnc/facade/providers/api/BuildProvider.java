@@ -17,6 +17,7 @@
  */
 package org.jboss.pnc.facade.providers.api;
 
+import org.jboss.pnc.coordinator.maintenance.TemporaryBuildsGarbageCollector;
 import org.jboss.pnc.dto.Build;
 import org.jboss.pnc.dto.BuildConfigurationRevision;
 import org.jboss.pnc.dto.BuildRef;
@@ -28,6 +29,7 @@ import org.jboss.pnc.enums.BuildStatus;
 import org.jboss.pnc.facade.validation.EmptyEntityException;
 
 import java.net.URI;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -54,8 +56,30 @@ public interface BuildProvider extends Provider<Integer, org.jboss.pnc.model.Bui
 
     String getBuildLog(String id);
 
+    /**
+     * Gets the version of a finished build, which identifies its logs.
+     *
+     * @param id build id
+     * @return the version or null if the build doesn't exist or is not finished yet
+     */
+    BuildVersion getFinishedBuildVersion(String id);
+
     boolean delete(String id, String callback);
 
+    /**
+     * Starts an asynchronous deletion of all the independent temporary builds finished before given date.
+     *
+     * @param expiredBefore builds finished before this date are deleted
+     * @return false if a deletion is already running
+     */
+    boolean collectTemporaryBuilds(Date expiredBefore);
+
+    /**
+     * @return progress of the running or the last deletion started by {@link #collectTemporaryBuilds(Date)}, null if
+     *         there was none
+     */
+    TemporaryBuildsGarbageCollector.Progress getTemporaryBuildsCollectionProgress();
+
     SSHCredentials getSshCredentials(String id);
 
     Page<Build> getAllIndependentTemporaryOlderThanTimestamp(
@@ -32,5 +32,10 @@ public interface CacheProvider {
 
     SortedMap<String, HibernateMetric> getGenericStats();
 
+    /**
+     * @return global number of prepared statements acquired so far, -1 when the statistics are disabled
+     */
+    long getPrepareStatementCount();
+
     void clearAllCache();
 }
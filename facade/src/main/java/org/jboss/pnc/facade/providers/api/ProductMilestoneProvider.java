@@ -26,6 +26,10 @@ import org.jboss.pnc.dto.response.ValidationResponse;
 import org.jboss.pnc.facade.validation.EmptyEntityException;
 import org.jboss.pnc.facade.validation.RepositoryViolationException;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 public interface ProductMilestoneProvider
         extends Provider<Integer, org.jboss.pnc.model.ProductMilestone, ProductMilestone, ProductMilestoneRef> {
 
@@ -42,5 +46,14 @@ public interface ProductMilestoneProvider
 
     Page<MilestoneInfo> getMilestonesOfArtifact(String id, int pageIndex, int pageSize);
 
+    /**
+     * Gets the milestones that produced, consumed or delivered each of the artifacts.
+     *
+     * @param ids ids of the artifacts
+     * @return milestones by artifact id, open ones first and then from the latest closed one; empty for unknown
+     *         artifacts
+     */
+    Map<String, List<MilestoneInfo>> getMilestonesOfArtifacts(Collection<String> ids);
+
     ValidationResponse validateVersion(String productVersionId, String version);
 }
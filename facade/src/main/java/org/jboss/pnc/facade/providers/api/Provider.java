@@ -19,6 +19,7 @@ package org.jboss.pnc.facade.providers.api;
 
 import org.jboss.pnc.dto.DTOEntity;
 import org.jboss.pnc.dto.response.Page;
+import org.jboss.pnc.enums.PageTotals;
 import org.jboss.pnc.facade.validation.DTOValidationException;
 import org.jboss.pnc.model.GenericEntity;
 import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
@@ -40,6 +41,8 @@ public interface Provider<ID extends Serializable, DB extends GenericEntity<ID>,
 
     Page<DTO> getAll(int pageIndex, int pageSize, String sortingRsql, String query);
 
+    Page<DTO> getAll(int pageIndex, int pageSize, String sortingRsql, String query, PageTotals totals);
+
     DTO update(String id, DTO restEntity) throws DTOValidationException;
 
     void delete(String id) throws DTOValidationException;
@@ -51,4 +54,12 @@ public interface Provider<ID extends Serializable, DB extends GenericEntity<ID>,
             String query,
             Predicate<DB>... predicates);
 
+    Page<DTO> queryForCollection(
+            int pageIndex,
+            int pageSize,
+            String sortingRsql,
+            String query,
+            PageTotals totals,
+            Predicate<DB>... predicates);
+
 }
@@ -0,0 +1,178 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.facade.util;
+
+import org.jboss.pnc.common.util.ReadEnvProperty;
+import org.jboss.pnc.coordinator.notifications.buildTask.MessageSenderProvider;
+import org.jboss.pnc.messaging.spi.MessageSender;
+import org.jboss.pnc.model.GenericSetting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.inject.Inject;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Read-through cache of {@link GenericSetting} values.
+ *
+ * Values are written through once the transaction changing them succeeds and the change is announced on the pnc JMS
+ * topic so that other nodes drop their copy (see {@link GenericSettingChangedListener}). Entries also expire after a
+ * configurable time to live in case an invalidation message gets lost.
+ */
+@ApplicationScoped
+public class GenericSettingCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(GenericSettingCache.class);
+
+    static final String GENERIC_SETTING_CACHE_TTL_KEY = "generic_setting_cache_ttl_seconds";
+    private static final int DEFAULT_TTL_SECONDS = 60;
+
+    public static final String MESSAGE_TYPE = "GenericSettingChanged";
+    public static final String TYPE_HEADER = "type";
+    public static final String KEY_HEADER = "key";
+    public static final String ORIGIN_HEADER = "origin";
+
+    private final ConcurrentMap<String, CachedValue> values = new ConcurrentHashMap<>();
+
+    /**
+     * Incremented on every invalidation, so that a value loaded concurrently with an invalidation is not cached.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private long ttlMillis;
+
+    private LongSupplier clock;
+
+    private Optional<MessageSender> messageSender = Optional.empty();
+
+    @Deprecated // CDI workaround
+    public GenericSettingCache() {
+    }
+
+    @Inject
+    public GenericSettingCache(MessageSenderProvider messageSenderProvider) {
+        this(
+                TimeUnit.SECONDS.toMillis(
+                        new ReadEnvProperty()
+                                .getIntValueFromPropertyOrDefault(GENERIC_SETTING_CACHE_TTL_KEY, DEFAULT_TTL_SECONDS)),
+                System::currentTimeMillis,
+                messageSenderProvider.getMessageSender());
+    }
+
+    GenericSettingCache(long ttlMillis, LongSupplier clock, Optional<MessageSender> messageSender) {
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.messageSender = messageSender;
+    }
+
+    /**
+     * Returns the cached value of the setting, loading it using the loader when it is not cached yet.
+     *
+     * @param key key of the setting
+     * @param loader loads the setting from the database, may return null when the setting doesn't exist
+     * @return value of the setting or null when the setting doesn't exist
+     */
+    public String getValue(String key, Function<String, GenericSetting> loader) {
+        CachedValue cached = values.get(key);
+        if (cached != null && !cached.isExpired(clock.getAsLong())) {
+            return cached.value;
+        }
+
+        long loadedInGeneration = generation.get();
+        GenericSetting setting = loader.apply(key);
+        String value = setting == null ? null : setting.getValue();
+        if (generation.get() == loadedInGeneration) {
+            values.put(key, new CachedValue(value, clock.getAsLong() + ttlMillis));
+        }
+        return value;
+    }
+
+    public void invalidate(String key) {
+        generation.incrementAndGet();
+        values.remove(key);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        values.clear();
+    }
+
+    void onSettingChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) GenericSettingChangedEvent event) {
+        logger.debug("Generic setting changed: {}.", event);
+        generation.incrementAndGet();
+        values.put(event.getKey(), new CachedValue(event.getValue(), clock.getAsLong() + ttlMillis));
+        messageSender.ifPresent(ms -> announceChange(ms, event.getKey()));
+    }
+
+    /**
+     * Called when a change of the setting is announced on the JMS topic. Changes originating from this node are
+     * ignored as they were already written through.
+     */
+    public void onRemoteChange(String origin, String key) {
+        if (nodeId.equals(origin)) {
+            return;
+        }
+        logger.debug("Generic setting {} changed on node {}, invalidating.", key, origin);
+        if (key == null) {
+            invalidateAll();
+        } else {
+            invalidate(key);
+        }
+    }
+
+    private void announceChange(MessageSender ms, String key) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put(TYPE_HEADER, MESSAGE_TYPE);
+        headers.put(KEY_HEADER, key);
+        headers.put(ORIGIN_HEADER, nodeId);
+        try {
+            ms.sendToTopic(key, headers);
+        } catch (RuntimeException e) {
+            logger.warn("Cannot announce change of generic setting {} to other nodes.", key, e);
+        }
+    }
+
+    private static class CachedValue {
+
+        private final String value;
+        private final long expiresAt;
+
+        private CachedValue(String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.facade.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ejb.ActivationConfigProperty;
+import javax.ejb.MessageDriven;
+import javax.inject.Inject;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageListener;
+
+/**
+ * Invalidates {@link GenericSettingCache} entries when other nodes announce a change of a generic setting.
+ */
+@MessageDriven(
+        name = "GenericSettingChangedMDB",
+        activationConfig = {
+                @ActivationConfigProperty(propertyName = "destinationType", propertyValue = "javax.jms.Topic"),
+                @ActivationConfigProperty(propertyName = "destination", propertyValue = "java:/jms/queue/pncTopic"),
+                @ActivationConfigProperty(
+                        propertyName = "messageSelector",
+                        propertyValue = GenericSettingCache.TYPE_HEADER + " = '" + GenericSettingCache.MESSAGE_TYPE
+                                + "'"),
+                @ActivationConfigProperty(propertyName = "acknowledgeMode", propertyValue = "Auto-acknowledge") })
+public class GenericSettingChangedListener implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(GenericSettingChangedListener.class);
+
+    @Inject
+    GenericSettingCache genericSettingCache;
+
+    @Override
+    public void onMessage(Message message) {
+        try {
+            genericSettingCache.onRemoteChange(
+                    message.getStringProperty(GenericSettingCache.ORIGIN_HEADER),
+                    message.getStringProperty(GenericSettingCache.KEY_HEADER));
+        } catch (JMSException e) {
+            logger.warn("Cannot read generic setting change message, invalidating all cached settings.", e);
+            genericSettingCache.invalidateAll();
+        }
+    }
+}
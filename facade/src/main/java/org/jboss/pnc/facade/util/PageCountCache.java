@@ -0,0 +1,97 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.facade.util;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.jboss.pnc.common.util.ReadEnvProperty;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Short lived cache of the number of entities matching a RSQL query, used for paging in {@link
+ * org.jboss.pnc.enums.PageTotals#CACHED} mode.
+ *
+ * Counts are not invalidated when entities change, they only expire after a configurable time to live, so the totals
+ * of a page can be off by the entities created or deleted in the meantime. Concurrent requests for the same count
+ * wait for a single query.
+ */
+@ApplicationScoped
+public class PageCountCache {
+
+    static final String TTL_KEY = "page_count_cache_ttl_seconds";
+    private static final int DEFAULT_TTL_SECONDS = 10;
+
+    static final String MAX_SIZE_KEY = "page_count_cache_max_size";
+    private static final int DEFAULT_MAX_SIZE = 10_000;
+
+    private final Cache<String, Integer> counts;
+
+    public PageCountCache() {
+        this(
+                TimeUnit.SECONDS.toMillis(
+                        new ReadEnvProperty().getIntValueFromPropertyOrDefault(TTL_KEY, DEFAULT_TTL_SECONDS)),
+                new ReadEnvProperty().getIntValueFromPropertyOrDefault(MAX_SIZE_KEY, DEFAULT_MAX_SIZE),
+                Ticker.systemTicker());
+    }
+
+    PageCountCache(long ttlMillis, long maxSize, Ticker ticker) {
+        counts = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlMillis, TimeUnit.MILLISECONDS)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Returns the cached number of entities matching the query, counting them when the count is not cached.
+     *
+     * @param type the database entity type
+     * @param query RSQL query, null or empty matches all entities
+     * @param counter counts the matching entities in the database
+     * @return number of the matching entities
+     */
+    public int getCount(Class<?> type, String query, IntSupplier counter) {
+        try {
+            return counts.get(key(type, query), counter::getAsInt);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Cannot count " + type.getSimpleName() + " entities.", e.getCause());
+        }
+    }
+
+    public void invalidate(Class<?> type) {
+        String prefix = type.getName() + ':';
+        counts.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    public void invalidateAll() {
+        counts.invalidateAll();
+    }
+
+    private static String key(Class<?> type, String query) {
+        return type.getName() + ':' + (query == null ? "" : query);
+    }
+}
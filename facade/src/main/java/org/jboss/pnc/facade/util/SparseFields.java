@@ -0,0 +1,290 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.facade.util;
+
+import org.jboss.pnc.dto.Artifact;
+import org.jboss.pnc.dto.ArtifactRef;
+import org.jboss.pnc.dto.Build;
+import org.jboss.pnc.dto.BuildRef;
+import org.jboss.pnc.dto.response.Page;
+import org.jboss.pnc.facade.validation.InvalidEntityException;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Top level fields of a DTO that can be selected by clients of list endpoints, so that they don't receive (and the
+ * server doesn't load) the fields they are not interested in. DTOs are rebuilt with only the selected fields set, the
+ * other fields are null. The {@code id} is always selected.
+ *
+ * Fields are either fields of the reference type of the DTO, or relations that exist only in the full DTO. When no
+ * relation is selected, the DTO can be built from its reference, which is cheaper to map.
+ *
+ * @param <R> reference type of the DTO
+ * @param <T> type of the DTO
+ * @param <B> type of the DTO builder
+ */
+public class SparseFields<R, T extends R, B> {
+
+    public static final String ID = "id";
+
+    /**
+     * Fields of the {@link Build} DTO.
+     */
+    public static final SparseFields<BuildRef, Build, Build.Builder> BUILD = buildFields();
+
+    /**
+     * Fields of the {@link Artifact} DTO.
+     */
+    public static final SparseFields<ArtifactRef, Artifact, Artifact.Builder> ARTIFACT = artifactFields();
+
+    private final Supplier<B> builderFactory;
+
+    private final Function<B, T> build;
+
+    private final Map<String, BiConsumer<B, R>> refFields = new LinkedHashMap<>();
+
+    private final Map<String, BiConsumer<B, T>> relations = new LinkedHashMap<>();
+
+    public SparseFields(Supplier<B> builderFactory, Function<B, T> build) {
+        this.builderFactory = builderFactory;
+        this.build = build;
+    }
+
+    private static SparseFields<BuildRef, Build, Build.Builder> buildFields() {
+        SparseFields<BuildRef, Build, Build.Builder> fields = new SparseFields<>(Build::builder, Build.Builder::build);
+        return fields.refField(ID, BuildRef::getId, Build.Builder::id)
+                .refField("submitTime", BuildRef::getSubmitTime, Build.Builder::submitTime)
+                .refField("startTime", BuildRef::getStartTime, Build.Builder::startTime)
+                .refField("endTime", BuildRef::getEndTime, Build.Builder::endTime)
+                .refField("progress", BuildRef::getProgress, Build.Builder::progress)
+                .refField("status", BuildRef::getStatus, Build.Builder::status)
+                .refField("buildContentId", BuildRef::getBuildContentId, Build.Builder::buildContentId)
+                .refField("temporaryBuild", BuildRef::getTemporaryBuild, Build.Builder::temporaryBuild)
+                .refField("scmUrl", BuildRef::getScmUrl, Build.Builder::scmUrl)
+                .refField("scmRevision", BuildRef::getScmRevision, Build.Builder::scmRevision)
+                .refField("scmTag", BuildRef::getScmTag, Build.Builder::scmTag)
+                .refField("buildOutputChecksum", BuildRef::getBuildOutputChecksum, Build.Builder::buildOutputChecksum)
+                .relation("project", Build::getProject, Build.Builder::project)
+                .relation("scmRepository", Build::getScmRepository, Build.Builder::scmRepository)
+                .relation("environment", Build::getEnvironment, Build.Builder::environment)
+                .relation("attributes", Build::getAttributes, Build.Builder::attributes)
+                .relation("user", Build::getUser, Build.Builder::user)
+                .relation("buildConfigRevision", Build::getBuildConfigRevision, Build.Builder::buildConfigRevision)
+                .relation("productMilestone", Build::getProductMilestone, Build.Builder::productMilestone)
+                .relation("groupBuild", Build::getGroupBuild, Build.Builder::groupBuild)
+                .relation("noRebuildCause", Build::getNoRebuildCause, Build.Builder::noRebuildCause);
+    }
+
+    private static SparseFields<ArtifactRef, Artifact, Artifact.Builder> artifactFields() {
+        SparseFields<ArtifactRef, Artifact, Artifact.Builder> fields = new SparseFields<>(
+                Artifact::builder,
+                Artifact.Builder::build);
+        return fields.refField(ID, ArtifactRef::getId, Artifact.Builder::id)
+                .refField("identifier", ArtifactRef::getIdentifier, Artifact.Builder::identifier)
+                .refField("artifactQuality", ArtifactRef::getArtifactQuality, Artifact.Builder::artifactQuality)
+                .refField("md5", ArtifactRef::getMd5, Artifact.Builder::md5)
+                .refField("sha1", ArtifactRef::getSha1, Artifact.Builder::sha1)
+                .refField("sha256", ArtifactRef::getSha256, Artifact.Builder::sha256)
+                .refField("filename", ArtifactRef::getFilename, Artifact.Builder::filename)
+                .refField("deployPath", ArtifactRef::getDeployPath, Artifact.Builder::deployPath)
+                .refField("importDate", ArtifactRef::getImportDate, Artifact.Builder::importDate)
+                .refField("originUrl", ArtifactRef::getOriginUrl, Artifact.Builder::originUrl)
+                .refField("size", ArtifactRef::getSize, Artifact.Builder::size)
+                .refField("deployUrl", ArtifactRef::getDeployUrl, Artifact.Builder::deployUrl)
+                .refField("publicUrl", ArtifactRef::getPublicUrl, Artifact.Builder::publicUrl)
+                .refField("creationTime", ArtifactRef::getCreationTime, Artifact.Builder::creationTime)
+                .refField("modificationTime", ArtifactRef::getModificationTime, Artifact.Builder::modificationTime)
+                .refField(
+                        "qualityLevelReason",
+                        ArtifactRef::getQualityLevelReason,
+                        Artifact.Builder::qualityLevelReason)
+                .relation("targetRepository", Artifact::getTargetRepository, Artifact.Builder::targetRepository)
+                .relation("build", Artifact::getBuild, Artifact.Builder::build)
+                .relation("creationUser", Artifact::getCreationUser, Artifact.Builder::creationUser)
+                .relation("modificationUser", Artifact::getModificationUser, Artifact.Builder::modificationUser);
+    }
+
+    /**
+     * Registers a field of the reference type.
+     */
+    public <V> SparseFields<R, T, B> refField(String name, Function<R, V> getter, BiConsumer<B, V> setter) {
+        refFields.put(name, (builder, dto) -> setter.accept(builder, getter.apply(dto)));
+        return this;
+    }
+
+    /**
+     * Registers a relation, a field present only in the full DTO.
+     */
+    public <V> SparseFields<R, T, B> relation(String name, Function<T, V> getter, BiConsumer<B, V> setter) {
+        relations.put(name, (builder, dto) -> setter.accept(builder, getter.apply(dto)));
+        return this;
+    }
+
+    /**
+     * Parses the fields requested by a client.
+     *
+     * @param fields comma separated names of the fields, null or empty selects all the fields
+     * @throws InvalidEntityException when a field is not known
+     */
+    public Selection<R, T> select(String fields) {
+        if (fields == null || fields.trim().isEmpty()) {
+            return new Selection<>(this, null);
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add(ID);
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!refFields.containsKey(name) && !relations.containsKey(name)) {
+                throw new InvalidEntityException(
+                        "Unknown field '" + name + "', the fields that can be selected are: "
+                                + String.join(", ", allFields()));
+            }
+            selected.add(name);
+        }
+        return new Selection<>(this, selected);
+    }
+
+    private Set<String> allFields() {
+        Set<String> all = new LinkedHashSet<>(refFields.keySet());
+        all.addAll(relations.keySet());
+        return all;
+    }
+
+    private T copy(Set<String> fields, T dto) {
+        B builder = builderFactory.get();
+        for (String field : fields) {
+            BiConsumer<B, R> refField = refFields.get(field);
+            if (refField != null) {
+                refField.accept(builder, dto);
+            } else {
+                relations.get(field).accept(builder, dto);
+            }
+        }
+        return build.apply(builder);
+    }
+
+    private T copyRef(Set<String> fields, R ref) {
+        B builder = builderFactory.get();
+        for (String field : fields) {
+            refFields.get(field).accept(builder, ref);
+        }
+        return build.apply(builder);
+    }
+
+    /**
+     * Builds the DTO with all the fields of its reference, leaving the relations null.
+     */
+    public T fromRef(R ref) {
+        return ref == null ? null : copyRef(refFields.keySet(), ref);
+    }
+
+    /**
+     * Fields selected by a client.
+     */
+    public static class Selection<R, T extends R> {
+
+        private final SparseFields<R, T, ?> sparseFields;
+
+        /**
+         * Selected fields, null when all the fields are selected.
+         */
+        private final Set<String> fields;
+
+        private Selection(SparseFields<R, T, ?> sparseFields, Set<String> fields) {
+            this.sparseFields = sparseFields;
+            this.fields = fields == null ? null : Collections.unmodifiableSet(fields);
+        }
+
+        public boolean isAll() {
+            return fields == null;
+        }
+
+        public boolean includes(String field) {
+            return fields == null || fields.contains(field);
+        }
+
+        public boolean includesAny(String... names) {
+            for (String name : names) {
+                if (includes(name)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Whether any of the fields present only in the full DTO is selected.
+         */
+        public boolean includesRelations() {
+            return fields == null || fields.stream().anyMatch(sparseFields.relations::containsKey);
+        }
+
+        /**
+         * @return names of the selected fields, all the known fields when all of them are selected
+         */
+        public Set<String> getFields() {
+            return fields == null ? sparseFields.allFields() : fields;
+        }
+
+        /**
+         * Rebuilds the DTO with only the selected fields.
+         */
+        public T apply(T dto) {
+            if (fields == null || dto == null) {
+                return dto;
+            }
+            return sparseFields.copy(fields, dto);
+        }
+
+        /**
+         * Builds the DTO from its reference, which is possible only when no relation is selected.
+         *
+         * @throws IllegalStateException when a relation is selected
+         */
+        public T applyToRef(R ref) {
+            if (includesRelations()) {
+                throw new IllegalStateException("Can't build a DTO with relations " + fields + " from a reference.");
+            }
+            if (ref == null) {
+                return null;
+            }
+            return sparseFields.copyRef(fields, ref);
+        }
+
+        /**
+         * Rebuilds the content of the page with only the selected fields.
+         */
+        public Page<T> applyToPage(Page<T> page) {
+            if (fields != null) {
+                page.setContent(page.getContent().stream().map(this::apply).collect(Collectors.toList()));
+            }
+            return page;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.facade.util;
+
+import com.google.common.util.concurrent.Striped;
+import org.jboss.pnc.common.util.ReadEnvProperty;
+import org.jboss.pnc.model.User;
+import org.jboss.pnc.pncmetrics.GaugeMetric;
+import org.jboss.pnc.pncmetrics.MetricsConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.function.LongSupplier;
+
+/**
+ * Application wide username to {@link User} cache used by {@link UserService} to avoid querying the database on every
+ * authenticated request. Entries expire after a configurable time to live and can be invalidated explicitly when a
+ * user is stored or changed.
+ *
+ * The cache keeps its own immutable snapshot of the user and hands out a fresh detached copy on every hit, so request
+ * specific state (eg. login token) never leaks between requests.
+ */
+@ApplicationScoped
+public class UserCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserCache.class);
+
+    static final String USER_CACHE_TTL_KEY = "user_cache_ttl_seconds";
+    private static final int DEFAULT_TTL_SECONDS = 300;
+
+    private static final int LOCK_STRIPES = 64;
+
+    private static final String METRICS_KEY = "user-cache";
+    private static final String METRICS_HIT_KEY = METRICS_KEY + ".hit";
+    private static final String METRICS_MISS_KEY = METRICS_KEY + ".miss";
+    private static final String METRICS_INVALIDATE_KEY = METRICS_KEY + ".invalidate";
+
+    private final ConcurrentMap<String, CachedUser> users = new ConcurrentHashMap<>();
+
+    private final Striped<Lock> creationLocks = Striped.lock(LOCK_STRIPES);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private long ttlMillis;
+
+    private LongSupplier clock;
+
+    private Optional<GaugeMetric> gaugeMetric = Optional.empty();
+
+    @Deprecated // CDI workaround
+    public UserCache() {
+        this(null);
+    }
+
+    @Inject
+    public UserCache(MetricsConfiguration metricsConfiguration) {
+        this(
+                TimeUnit.SECONDS.toMillis(
+                        new ReadEnvProperty().getIntValueFromPropertyOrDefault(USER_CACHE_TTL_KEY, DEFAULT_TTL_SECONDS)),
+                System::currentTimeMillis);
+        if (metricsConfiguration != null) {
+            this.gaugeMetric = Optional.of(metricsConfiguration.getGaugeMetric());
+        }
+    }
+
+    UserCache(long ttlMillis, LongSupplier clock) {
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns a copy of the cached user or null when the user is not cached or the entry has expired.
+     *
+     * @param username name of the user
+     * @return detached copy of the cached user or null
+     */
+    public User get(String username) {
+        CachedUser cached = users.get(username);
+        if (cached == null || cached.isExpired(clock.getAsLong())) {
+            if (cached != null) {
+                users.remove(username, cached);
+            }
+            misses.incrementAndGet();
+            gaugeMetric.ifPresent(g -> g.incrementMetric(METRICS_MISS_KEY));
+            return null;
+        }
+        hits.incrementAndGet();
+        gaugeMetric.ifPresent(g -> g.incrementMetric(METRICS_HIT_KEY));
+        return cached.toUser();
+    }
+
+    /**
+     * Returns id of the cached user without copying the user nor counting a hit or a miss.
+     *
+     * @param username name of the user
+     * @return id of the user or null when the user is not cached or the entry has expired
+     */
+    public Integer getId(String username) {
+        CachedUser cached = users.get(username);
+        if (cached == null || cached.isExpired(clock.getAsLong())) {
+            return null;
+        }
+        return cached.id;
+    }
+
+    public void put(User user) {
+        if (user == null || user.getId() == null || user.getUsername() == null) {
+            return;
+        }
+        users.put(user.getUsername(), new CachedUser(user, clock.getAsLong() + ttlMillis));
+    }
+
+    public void invalidate(String username) {
+        if (username != null && users.remove(username) != null) {
+            logger.debug("Invalidated cached user {}.", username);
+            gaugeMetric.ifPresent(g -> g.incrementMetric(METRICS_INVALIDATE_KEY));
+        }
+    }
+
+    public void invalidateAll() {
+        logger.debug("Invalidating all {} cached users.", users.size());
+        users.clear();
+    }
+
+    /**
+     * Lock guarding creation of the user with given username. Locks are striped so that concurrent creation of
+     * different users doesn't serialize on a single monitor, without relying on interned strings.
+     */
+    public Lock creationLock(String username) {
+        return creationLocks.get(username);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public int size() {
+        return users.size();
+    }
+
+    private static class CachedUser {
+
+        private final Integer id;
+        private final String username;
+        private final String firstName;
+        private final String lastName;
+        private final String email;
+        private final long expiresAt;
+
+        private CachedUser(User user, long expiresAt) {
+            this.id = user.getId();
+            this.username = user.getUsername();
+            this.firstName = user.getFirstName();
+            this.lastName = user.getLastName();
+            this.email = user.getEmail();
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+
+        private User toUser() {
+            return User.Builder.newBuilder()
+                    .id(id)
+                    .username(username)
+                    .firstName(firstName)
+                    .lastName(lastName)
+                    .email(email)
+                    .build();
+        }
+    }
+}
@@ -21,8 +21,12 @@ import static org.jboss.pnc.spi.datastore.predicates.UserPredicates.withUserName
 import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
+
+import java.util.concurrent.locks.Lock;
+
 import org.jboss.pnc.auth.AuthenticationProvider;
 import org.jboss.pnc.auth.LoggedInUser;
+import org.jboss.pnc.common.logging.MDCUtils;
 import org.jboss.pnc.common.util.StringUtils;
 import org.jboss.pnc.model.User;
 import org.jboss.pnc.spi.datastore.repositories.UserRepository;
@@ -47,6 +51,9 @@ public class UserService {
     @Inject
     private UserRepository repository;
 
+    @Inject
+    private UserCache userCache;
+
     public String currentUserToken() {
         logger.trace("Getting current user token using authenticationProvider: {}.", authenticationProvider.getId());
         LoggedInUser currentUser = authenticationProvider.getLoggedInUser(httpServletRequest);
@@ -73,10 +80,32 @@ public class UserService {
 
         User user = getOrCreate(currentUser, username);
         user.setLoginToken(currentUser.getTokenString());
+        if (user.getId() != null) {
+            // the request logging filter adds the id only when the user was cached already
+            MDCUtils.addUserId(Integer.toString(user.getId()));
+        }
         logger.trace("Returning user: {}.", user);
         return user;
     }
 
+    /**
+     * Returns id of the current user when it is known without accessing the database. Anonymous requests are
+     * recognized by missing user principal, so they don't need to go through the authentication provider at all.
+     *
+     * @return id of the current user or null when the request is anonymous or the user is not cached
+     */
+    public Integer cachedCurrentUserId() {
+        if (httpServletRequest.getUserPrincipal() == null) {
+            return null;
+        }
+        LoggedInUser currentUser = authenticationProvider.getLoggedInUser(httpServletRequest);
+        String username = currentUser.getUserName();
+        if (StringUtils.isEmpty(username)) {
+            return null;
+        }
+        return userCache.getId(username);
+    }
+
     public boolean hasLoggedInUserRole(String role) {
         logger.trace("Getting current user using authenticationProvider: {}.", authenticationProvider.getId());
         LoggedInUser currentUser = authenticationProvider.getLoggedInUser(httpServletRequest);
@@ -85,11 +114,16 @@ public class UserService {
     }
 
     private User getOrCreate(LoggedInUser loggedInUser, String username) {
-        User user = repository.queryByPredicates(withUserName(username));
+        User user = userCache.get(username);
+        if (user != null) {
+            return user;
+        }
+        user = repository.queryByPredicates(withUserName(username));
         if (user == null) {
             logger.debug("User not in database yet, creating new user: {}.", loggedInUser);
-            String syncObject = username.intern();
-            synchronized (syncObject) {
+            Lock lock = userCache.creationLock(username);
+            lock.lock();
+            try {
                 user = repository.queryByPredicates(withUserName(username));
                 if (user == null) {
                     user = User.Builder.newBuilder()
@@ -98,10 +132,13 @@ public class UserService {
                             .lastName(loggedInUser.getLastName())
                             .email(loggedInUser.getEmail())
                             .build();
-                    repository.save(user);
+                    user = repository.save(user);
                 }
+            } finally {
+                lock.unlock();
             }
         }
+        userCache.put(user);
         return user;
     }
 }
@@ -0,0 +1,150 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.facade.impl;
+
+import org.jboss.pnc.bpm.causeway.BuildPushOperation;
+import org.jboss.pnc.bpm.causeway.BuildResultPushManager;
+import org.jboss.pnc.bpm.causeway.Result;
+import org.jboss.pnc.common.json.GlobalModuleGroup;
+import org.jboss.pnc.dto.BuildPushResult;
+import org.jboss.pnc.enums.ArtifactQuality;
+import org.jboss.pnc.enums.BuildPushStatus;
+import org.jboss.pnc.enums.BuildStatus;
+import org.jboss.pnc.facade.util.UserService;
+import org.jboss.pnc.model.Artifact;
+import org.jboss.pnc.model.BuildRecord;
+import org.jboss.pnc.model.IdRev;
+import org.jboss.pnc.spi.datastore.repositories.ArtifactRepository;
+import org.jboss.pnc.spi.datastore.repositories.BuildRecordRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class BrewPusherImplTest {
+
+    private static final int GROUP_BUILD_ID = 100;
+
+    @Mock
+    private BuildRecordRepository buildRecordRepository;
+
+    @Mock
+    private ArtifactRepository artifactRepository;
+
+    @Mock
+    private BuildResultPushManager buildResultPushManager;
+
+    @Mock
+    private GlobalModuleGroup globalModuleGroup;
+
+    @Mock
+    private UserService userService;
+
+    @Spy
+    private BrewPushExecutor brewPushExecutor = new BrewPushExecutor();
+
+    @InjectMocks
+    private BrewPusherImpl brewPusher = new BrewPusherImpl();
+
+    private final Map<Integer, BuildRecord> buildRecords = new HashMap<>();
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        brewPushExecutor.init(2);
+
+        BuildRecord success = buildRecord(1, BuildStatus.SUCCESS);
+        BuildRecord failed = buildRecord(2, BuildStatus.FAILED);
+        BuildRecord blacklisted = buildRecord(3, BuildStatus.SUCCESS);
+        BuildRecord noRebuild = buildRecord(4, BuildStatus.NO_REBUILD_REQUIRED);
+        BuildRecord latestSuccess = buildRecord(5, BuildStatus.SUCCESS);
+
+        when(globalModuleGroup.getPncUrl()).thenReturn("http://localhost/");
+        when(userService.currentUserToken()).thenReturn("token");
+        when(buildRecordRepository.queryWithPredicates(any()))
+                .thenReturn(Arrays.asList(success, failed, blacklisted, noRebuild));
+        when(buildRecordRepository.getLatestSuccessfulBuildRecord(any(IdRev.class), anyBoolean()))
+                .thenReturn(latestSuccess);
+        when(buildRecordRepository.findByIdsFetchProperties(anyCollection())).thenAnswer(inv -> {
+            Collection<Integer> ids = inv.getArgument(0);
+            return ids.stream().map(buildRecords::get).collect(Collectors.toList());
+        });
+        Artifact blacklistedArtifact = Artifact.builder()
+                .artifactQuality(ArtifactQuality.BLACKLISTED)
+                .buildRecord(blacklisted)
+                .build();
+        when(artifactRepository.queryWithPredicates(any())).thenReturn(Collections.singletonList(blacklistedArtifact));
+        when(buildResultPushManager.push(any(), anyString())).thenAnswer(inv -> {
+            BuildPushOperation operation = inv.getArgument(0);
+            Integer id = operation.getBuildRecord().getId();
+            BuildPushStatus status = id == 5 ? BuildPushStatus.SYSTEM_ERROR : BuildPushStatus.ACCEPTED;
+            return new Result(operation.getPushResultId().toString(), id.toString(), status, "");
+        });
+    }
+
+    @After
+    public void tearDown() {
+        brewPushExecutor.shutdown();
+    }
+
+    @Test
+    public void shouldAggregateResultsOfAllBuilds() {
+        Set<BuildPushResult> results = brewPusher.pushGroup(GROUP_BUILD_ID, "tag");
+
+        Map<String, BuildPushStatus> statuses = results.stream()
+                .collect(Collectors.toMap(BuildPushResult::getBuildId, BuildPushResult::getStatus));
+        assertThat(statuses).containsEntry("1", BuildPushStatus.ACCEPTED)
+                .containsEntry("2", BuildPushStatus.REJECTED)
+                .containsEntry("3", BuildPushStatus.REJECTED)
+                .containsEntry("4", BuildPushStatus.SYSTEM_ERROR)
+                .hasSize(4);
+        verify(buildRecordRepository, times(1)).findByIdsFetchProperties(anyCollection());
+        verify(buildResultPushManager, times(2)).push(any(), anyString());
+    }
+
+    private BuildRecord buildRecord(Integer id, BuildStatus status) {
+        BuildRecord buildRecord = BuildRecord.Builder.newBuilder()
+                .id(id)
+                .status(status)
+                .buildConfigurationAuditedId(id)
+                .buildConfigurationAuditedRev(1)
+                .build();
+        buildRecords.put(id, buildRecord);
+        return buildRecord;
+    }
+}
@@ -22,6 +22,7 @@ import org.jboss.pnc.common.json.ConfigurationParseException;
 import org.jboss.pnc.common.json.GlobalModuleGroup;
 import org.jboss.pnc.common.json.moduleconfig.IndyRepoDriverModuleConfig;
 import org.jboss.pnc.facade.rsql.RSQLProducer;
+import org.jboss.pnc.facade.util.PageCountCache;
 import org.jboss.pnc.mapper.AbstractArtifactMapper;
 import org.jboss.pnc.mapper.AbstractArtifactMapperImpl;
 import org.jboss.pnc.mapper.ArtifactRevisionMapperImpl;
@@ -281,6 +282,7 @@ public abstract class AbstractProviderTest<ID extends Serializable, T extends Ge
 
         injectMethod("pageInfoProducer", provider(), pageInfoProducer, AbstractProvider.class);
         injectMethod("rsqlPredicateProducer", provider(), rsqlPredicateProducer, AbstractProvider.class);
+        injectMethod("pageCountCache", provider(), new PageCountCache(), AbstractProvider.class);
     }
 
     protected abstract AbstractProvider provider();
@@ -23,9 +23,11 @@ import org.jboss.pnc.dto.ArtifactRevision;
 import org.jboss.pnc.dto.TargetRepository;
 import org.jboss.pnc.dto.response.Page;
 import org.jboss.pnc.enums.ArtifactQuality;
+import org.jboss.pnc.enums.PageTotals;
 import org.jboss.pnc.enums.RepositoryType;
 import org.jboss.pnc.facade.util.UserService;
 import org.jboss.pnc.facade.validation.DTOValidationException;
+import org.jboss.pnc.facade.validation.InvalidEntityException;
 import org.jboss.pnc.model.ArtifactAudited;
 import org.jboss.pnc.model.IdRev;
 import org.jboss.pnc.model.User;
@@ -46,16 +48,23 @@ import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import javax.persistence.Tuple;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -179,6 +188,57 @@ public class ArtifactProviderTest extends AbstractIntIdProviderTest<org.jboss.pn
                         new Condition<>(a -> artifact1.getIdentifier().equals(a.getIdentifier()), "Artifact present"));
     }
 
+    @Test
+    public void testGetAllWithSelectedFields() {
+        // given
+        List<Tuple> tuples = Arrays.asList(toTuple(artifacts.get(0)), toTuple(artifacts.get(1)));
+        when(repository.queryAttributesWithPredicatesAndLookahead(any(), any(), any(), any())).thenReturn(tuples);
+
+        // when
+        Page<Artifact> page = provider.getAll(
+                0,
+                10,
+                null,
+                null,
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                PageTotals.EXACT,
+                "identifier, sha256");
+
+        // then
+        assertThat(page.getContent()).hasSize(2).allSatisfy(artifact -> {
+            assertThat(artifact.getId()).isNotNull();
+            assertThat(artifact.getIdentifier()).isNotNull();
+            assertThat(artifact.getSha256()).isNotNull();
+            assertThat(artifact.getMd5()).isNull();
+            assertThat(artifact.getArtifactQuality()).isNull();
+        });
+        assertThat(page.getTotalHits()).isEqualTo(2);
+        verify(repository).queryAttributesWithPredicatesAndLookahead(
+                any(),
+                any(),
+                argThat(attributes -> attributes.containsAll(Arrays.asList("identifier", "sha256"))
+                        && !attributes.contains("md5")),
+                any());
+        verify(repository, never()).count(any());
+    }
+
+    @Test
+    public void testGetAllWithUnknownField() {
+        assertThatThrownBy(
+                () -> provider.getAll(
+                        0,
+                        10,
+                        null,
+                        null,
+                        Optional.empty(),
+                        Optional.empty(),
+                        Optional.empty(),
+                        PageTotals.EXACT,
+                        "identifier,unknown")).isInstanceOf(InvalidEntityException.class);
+    }
+
     @Test
     public void testUpdate() {
         fillRepository(artifacts);
@@ -259,6 +319,16 @@ public class ArtifactProviderTest extends AbstractIntIdProviderTest<org.jboss.pn
         assertThat(aRev2.getRev()).isEqualTo(revision + 1);
     }
 
+    private Tuple toTuple(org.jboss.pnc.model.Artifact artifact) {
+        Tuple tuple = mock(Tuple.class);
+        when(tuple.get("id", Integer.class)).thenReturn(artifact.getId());
+        when(tuple.get("identifier", String.class)).thenReturn(artifact.getIdentifier());
+        when(tuple.get("sha256", String.class)).thenReturn(artifact.getSha256());
+        when(tuple.get("targetRepository", org.jboss.pnc.model.TargetRepository.class))
+                .thenReturn(artifact.getTargetRepository());
+        return tuple;
+    }
+
     private org.jboss.pnc.model.Artifact prepareArtifact(String identifier, String checksum) {
         return org.jboss.pnc.model.Artifact.builder()
                 .id(entityId.getAndIncrement())
@@ -0,0 +1,153 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.facade.providers;
+
+import org.jboss.pnc.dto.Build;
+import org.jboss.pnc.mapper.BuildBCRevisionFetcher;
+import org.jboss.pnc.mapper.api.BuildConfigurationRevisionMapper;
+import org.jboss.pnc.mapper.api.EnvironmentMapper;
+import org.jboss.pnc.mapper.api.ProjectMapper;
+import org.jboss.pnc.mapper.api.SCMRepositoryMapper;
+import org.jboss.pnc.model.BuildConfiguration;
+import org.jboss.pnc.model.BuildConfigurationAudited;
+import org.jboss.pnc.model.BuildRecord;
+import org.jboss.pnc.model.IdRev;
+import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationAuditedRepository;
+import org.jboss.pnc.test.category.DebugTest;
+import org.jboss.pnc.test.util.Benchmark;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures the time needed to render a page of builds whose audited Build Configs are not loaded yet, fetching them
+ * one by one compared to prefetching them for the whole page. Every repository call simulates a database round trip.
+ */
+@Category(DebugTest.class)
+@RunWith(MockitoJUnitRunner.class)
+public class BuildPageMappingBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BuildPageMappingBenchmarkTest.class);
+
+    private static final int PAGE_SIZE = 100;
+    private static final int PAGES = 20;
+    private static final long ROUND_TRIP_MICROS = 1_000L;
+
+    @Mock
+    private BuildConfigurationRevisionMapper bcRevisionMapper;
+
+    @Mock
+    private ProjectMapper projectMapper;
+
+    @Mock
+    private EnvironmentMapper environmentMapper;
+
+    @Mock
+    private SCMRepositoryMapper scmRepositoryMapper;
+
+    @Mock
+    private BuildConfigurationAuditedRepository bcAuditedRepository;
+
+    @InjectMocks
+    private BuildBCRevisionFetcher fetcher;
+
+    private final AtomicInteger queries = new AtomicInteger();
+
+    @Before
+    public void setup() {
+        when(bcAuditedRepository.queryById(any(IdRev.class))).thenAnswer(inv -> {
+            roundTrip();
+            return bca(inv.getArgument(0));
+        });
+        when(bcAuditedRepository.queryById(anySet())).thenAnswer(inv -> {
+            roundTrip();
+            Set<IdRev> idRevs = inv.getArgument(0);
+            return idRevs.stream().collect(Collectors.toMap(Function.identity(), this::bca));
+        });
+    }
+
+    @Test
+    public void pageRenderLatency() throws Exception {
+        long oneByOne = Benchmark.time(PAGES, () -> renderPage(false));
+        long prefetched = Benchmark.time(PAGES, () -> renderPage(true));
+
+        queries.set(0);
+        renderPage(false);
+        int oneByOneQueries = queries.getAndSet(0);
+        renderPage(true);
+        int prefetchedQueries = queries.get();
+
+        assertEquals(PAGE_SIZE, oneByOneQueries);
+        assertEquals(1, prefetchedQueries);
+        log.info(
+                "Rendering a page of {} builds: one by one {} ms ({} queries), prefetched {} ms ({} queries).",
+                PAGE_SIZE,
+                oneByOne / 1_000_000,
+                oneByOneQueries,
+                prefetched / 1_000_000,
+                prefetchedQueries);
+    }
+
+    private void renderPage(boolean prefetch) {
+        List<BuildRecord> page = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            page.add(
+                    BuildRecord.Builder.newBuilder()
+                            .id(i)
+                            .buildConfigurationAuditedId(i)
+                            .buildConfigurationAuditedRev(i)
+                            .build());
+        }
+        if (prefetch) {
+            fetcher.prefetch(page);
+        }
+        for (BuildRecord build : page) {
+            fetcher.mockBrewAttributes(build, Build.builder());
+        }
+    }
+
+    private BuildConfigurationAudited bca(IdRev idRev) {
+        return BuildConfigurationAudited.Builder.newBuilder()
+                .rev(idRev.getRev())
+                .buildConfiguration(BuildConfiguration.Builder.newBuilder().id(idRev.getId()).build())
+                .build();
+    }
+
+    private void roundTrip() {
+        queries.incrementAndGet();
+        Benchmark.roundTrip(ROUND_TRIP_MICROS);
+    }
+}
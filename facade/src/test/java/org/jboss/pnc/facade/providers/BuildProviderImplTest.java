@@ -25,8 +25,10 @@ import org.jboss.pnc.dto.response.Edge;
 import org.jboss.pnc.dto.response.Graph;
 import org.jboss.pnc.dto.response.Page;
 import org.jboss.pnc.dto.response.Vertex;
+import org.jboss.pnc.enums.BuildStatus;
 import org.jboss.pnc.enums.ResultStatus;
 import org.jboss.pnc.facade.providers.api.BuildPageInfo;
+import org.jboss.pnc.facade.providers.api.BuildVersion;
 import org.jboss.pnc.facade.util.UserService;
 import org.jboss.pnc.facade.validation.CorruptedDataException;
 import org.jboss.pnc.facade.validation.EmptyEntityException;
@@ -60,6 +62,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
@@ -84,6 +87,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
@@ -150,6 +154,10 @@ public class BuildProviderImplTest extends AbstractIntIdProviderTest<BuildRecord
             Integer id = inv.getArgument(0);
             return repositoryList.stream().filter(a -> id.equals(a.getId())).findFirst().orElse(null);
         });
+        when(repository.findByIdsFetchProperties(anyCollection())).thenAnswer(inv -> {
+            Collection<Integer> ids = inv.getArgument(0);
+            return repositoryList.stream().filter(a -> ids.contains(a.getId())).collect(Collectors.toList());
+        });
 
         when(buildCoordinator.getSubmittedBuildTasks()).thenReturn(runningBuilds);
         when(sortInfoProducer.getSortInfo(any(), any())).thenAnswer(i -> mock(SortInfo.class));
@@ -446,6 +454,25 @@ public class BuildProviderImplTest extends AbstractIntIdProviderTest<BuildRecord
         assertThat(specific.getSubmitTime()).isEqualTo(task.getSubmitTime().toInstant());
     }
 
+    @Test
+    public void testGetFinishedBuildVersion() {
+        BuildRecord record = mockBuildRecord();
+        String id = BuildMapper.idMapper.toDto(record.getId());
+        record.setStatus(BuildStatus.BUILDING);
+        assertThat(provider.getFinishedBuildVersion(id)).isNull();
+
+        record.setStatus(BuildStatus.SUCCESS);
+        record.setEndTime(new Date());
+        BuildVersion version = provider.getFinishedBuildVersion(id);
+        assertThat(version).isNotNull();
+        assertThat(provider.getFinishedBuildVersion(id)).isEqualTo(version);
+    }
+
+    @Test
+    public void testGetNotExistingBuildVersion() {
+        assertThat(provider.getFinishedBuildVersion("123456789")).isNull();
+    }
+
     @Test
     public void testGetAll() throws InterruptedException {
         BuildRecord buildRecord1 = mockBuildRecord();
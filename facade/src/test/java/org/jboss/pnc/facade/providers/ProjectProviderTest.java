@@ -18,6 +18,7 @@
 package org.jboss.pnc.facade.providers;
 
 import org.jboss.pnc.dto.response.Page;
+import org.jboss.pnc.enums.PageTotals;
 import org.jboss.pnc.facade.validation.ConflictedEntryException;
 import org.jboss.pnc.facade.validation.InvalidEntityException;
 import org.jboss.pnc.model.Project;
@@ -37,6 +38,9 @@ import java.util.List;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -168,6 +172,57 @@ public class ProjectProviderTest extends AbstractIntIdProviderTest<Project> {
         assertThat(all.getContent()).hasSize(5);
     }
 
+    @Test
+    public void testGetAllWithoutTotals() {
+        // given
+        when(repository.queryWithPredicatesAndLookahead(any(), any(), any()))
+                .thenAnswer(inv -> repositoryList.subList(0, 3));
+
+        // when
+        Page<org.jboss.pnc.dto.Project> page = provider.getAll(0, 2, null, null, PageTotals.NONE);
+
+        // then
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.hasNextPage()).isTrue();
+        assertThat(page.getTotals()).isEqualTo(PageTotals.NONE);
+        assertThat(page.getTotalHits()).isEqualTo(-1);
+        assertThat(page.getTotalPages()).isEqualTo(-1);
+        verify(repository, never()).count(any());
+    }
+
+    @Test
+    public void testGetLastPageWithoutTotals() {
+        // given
+        when(repository.queryWithPredicatesAndLookahead(any(), any(), any()))
+                .thenAnswer(inv -> repositoryList.subList(4, 5));
+
+        // when
+        Page<org.jboss.pnc.dto.Project> page = provider.getAll(2, 2, null, null, PageTotals.NONE);
+
+        // then
+        assertThat(page.getContent()).hasSize(1);
+        assertThat(page.hasNextPage()).isFalse();
+    }
+
+    @Test
+    public void testGetAllWithCachedTotals() {
+        // given
+        when(repository.queryWithPredicatesAndLookahead(any(), any(), any()))
+                .thenAnswer(inv -> repositoryList.subList(0, 3));
+
+        // when
+        provider.getAll(0, 2, null, null, PageTotals.CACHED);
+        Page<org.jboss.pnc.dto.Project> page = provider.getAll(0, 2, null, null, PageTotals.CACHED);
+
+        // then
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.getTotals()).isEqualTo(PageTotals.CACHED);
+        assertThat(page.getTotalHits()).isEqualTo(5);
+        assertThat(page.getTotalPages()).isEqualTo(3);
+        assertThat(page.hasNextPage()).isTrue();
+        verify(repository, times(1)).count(any());
+    }
+
     @Test
     public void testGetSpecific() {
 
@@ -18,6 +18,7 @@
 package org.jboss.pnc.facade.providers;
 
 import org.jboss.pnc.dto.response.Page;
+import org.jboss.pnc.facade.util.UserCache;
 import org.jboss.pnc.facade.util.UserService;
 import org.jboss.pnc.facade.validation.InvalidEntityException;
 import org.jboss.pnc.model.User;
@@ -46,6 +47,9 @@ public class UserProviderImplTest extends AbstractIntIdProviderTest<User> {
     @Mock
     private UserService service;
 
+    @Mock
+    private UserCache userCache;
+
     @InjectMocks
     private UserProviderImpl provider;
 
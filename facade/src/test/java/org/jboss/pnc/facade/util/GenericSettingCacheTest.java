@@ -0,0 +1,120 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.facade.util;
+
+import org.jboss.pnc.messaging.spi.MessageSender;
+import org.jboss.pnc.model.GenericSetting;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class GenericSettingCacheTest {
+
+    private static final long TTL = 1000L;
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final Map<String, String> database = new HashMap<>();
+
+    private final Function<String, GenericSetting> loader = key -> {
+        loads.incrementAndGet();
+        if (!database.containsKey(key)) {
+            return null;
+        }
+        GenericSetting setting = new GenericSetting();
+        setting.setKey(key);
+        setting.setValue(database.get(key));
+        return setting;
+    };
+
+    private MessageSender messageSender;
+
+    private GenericSettingCache cache;
+
+    @Before
+    public void setup() {
+        messageSender = mock(MessageSender.class);
+        cache = new GenericSettingCache(TTL, now::get, Optional.of(messageSender));
+    }
+
+    @Test
+    public void shouldLoadValueOnlyOnce() {
+        database.put("KEY", "value");
+
+        assertThat(cache.getValue("KEY", loader)).isEqualTo("value");
+        assertThat(cache.getValue("KEY", loader)).isEqualTo("value");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    public void shouldCacheMissingSetting() {
+        assertThat(cache.getValue("KEY", loader)).isNull();
+        assertThat(cache.getValue("KEY", loader)).isNull();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    public void shouldReloadExpiredValue() {
+        database.put("KEY", "old");
+        cache.getValue("KEY", loader);
+
+        database.put("KEY", "new");
+        now.set(TTL);
+
+        assertThat(cache.getValue("KEY", loader)).isEqualTo("new");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    public void shouldWriteThroughAndAnnounceChange() {
+        database.put("KEY", "old");
+        cache.getValue("KEY", loader);
+
+        cache.onSettingChanged(new GenericSettingChangedEvent("KEY", "new"));
+
+        assertThat(cache.getValue("KEY", loader)).isEqualTo("new");
+        assertThat(loads).hasValue(1);
+        verify(messageSender).sendToTopic(eq("KEY"), anyMap());
+    }
+
+    @Test
+    public void shouldInvalidateOnRemoteChange() {
+        database.put("KEY", "old");
+        cache.getValue("KEY", loader);
+        database.put("KEY", "new");
+
+        cache.onRemoteChange("other-node", "KEY");
+
+        assertThat(cache.getValue("KEY", loader)).isEqualTo("new");
+        assertThat(loads).hasValue(2);
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.facade.util;
+
+import com.google.common.base.Ticker;
+import org.jboss.pnc.model.Artifact;
+import org.jboss.pnc.model.Project;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PageCountCacheTest {
+
+    private static final long TTL = 1000L;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final AtomicInteger counts = new AtomicInteger();
+
+    private final PageCountCache cache = new PageCountCache(TTL, 100, new Ticker() {
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+    });
+
+    @Test
+    public void shouldCountOnlyOnce() {
+        assertThat(cache.getCount(Project.class, "name==foo", this::count)).isEqualTo(42);
+        assertThat(cache.getCount(Project.class, "name==foo", this::count)).isEqualTo(42);
+        assertThat(counts).hasValue(1);
+    }
+
+    @Test
+    public void shouldCountDifferentQueriesAndTypesSeparately() {
+        cache.getCount(Project.class, "name==foo", this::count);
+        cache.getCount(Project.class, "name==bar", this::count);
+        cache.getCount(Project.class, null, this::count);
+        cache.getCount(Artifact.class, "name==foo", this::count);
+
+        assertThat(counts).hasValue(4);
+    }
+
+    @Test
+    public void shouldCountAgainWhenExpired() {
+        cache.getCount(Project.class, null, this::count);
+        nanos.set(TimeUnit.MILLISECONDS.toNanos(TTL));
+
+        cache.getCount(Project.class, null, this::count);
+
+        assertThat(counts).hasValue(2);
+    }
+
+    @Test
+    public void shouldInvalidateCountsOfType() {
+        cache.getCount(Project.class, "name==foo", this::count);
+        cache.getCount(Artifact.class, "name==foo", this::count);
+
+        cache.invalidate(Project.class);
+        cache.getCount(Project.class, "name==foo", this::count);
+        cache.getCount(Artifact.class, "name==foo", this::count);
+
+        assertThat(counts).hasValue(3);
+    }
+
+    @Test
+    public void shouldNotCacheFailure() {
+        assertThatThrownBy(() -> cache.getCount(Project.class, null, () -> {
+            throw new IllegalArgumentException("boom");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(cache.getCount(Project.class, null, this::count)).isEqualTo(42);
+    }
+
+    private int count() {
+        counts.incrementAndGet();
+        return 42;
+    }
+}
@@ -0,0 +1,157 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.facade.util;
+
+import org.jboss.pnc.auth.AuthenticationException;
+import org.jboss.pnc.auth.AuthenticationProvider;
+import org.jboss.pnc.auth.LoggedInUser;
+import org.jboss.pnc.model.User;
+import org.jboss.pnc.spi.datastore.repositories.UserRepository;
+import org.jboss.pnc.test.category.DebugTest;
+import org.jboss.pnc.test.util.Benchmark;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.http.HttpServletRequest;
+import java.security.Principal;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures the per request overhead of putting the current user into the logging context, resolving the user entity
+ * on every request (the former way of the request logging filter) compared to using only the cached user id. Every
+ * user lookup in the database simulates a round trip.
+ */
+@Category(DebugTest.class)
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class RequestUserResolutionBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestUserResolutionBenchmarkTest.class);
+
+    private static final int REQUESTS = 10_000;
+    private static final int COLD_REQUESTS = 200;
+    private static final long ROUND_TRIP_MICROS = 1_000L;
+
+    @Mock
+    private AuthenticationProvider authenticationProvider;
+
+    @Mock
+    private HttpServletRequest httpServletRequest;
+
+    @Mock
+    private UserRepository repository;
+
+    @Spy
+    private UserCache userCache = new UserCache(60_000L, System::currentTimeMillis);
+
+    @InjectMocks
+    private UserService userService;
+
+    private LoggedInUser loggedInUser;
+
+    @Before
+    public void setup() {
+        loggedInUser = mock(LoggedInUser.class);
+        when(loggedInUser.getUserName()).thenReturn("boris");
+        when(loggedInUser.getTokenString()).thenReturn("token");
+        when(repository.queryByPredicates(any())).thenAnswer(inv -> {
+            Benchmark.roundTrip(ROUND_TRIP_MICROS);
+            return User.Builder.newBuilder().id(1).username("boris").build();
+        });
+    }
+
+    @Test
+    public void anonymousRequests() throws Exception {
+        when(httpServletRequest.getUserPrincipal()).thenReturn(null);
+        when(authenticationProvider.getLoggedInUser(httpServletRequest))
+                .thenThrow(new AuthenticationException("KeycloakSecurityContext not available"));
+
+        long before = measure(REQUESTS, false, false);
+        long after = measure(REQUESTS, true, false);
+
+        report("anonymous", REQUESTS, before, after);
+    }
+
+    @Test
+    public void authenticatedRequestsOfCachedUser() throws Exception {
+        authenticated();
+
+        long before = measure(REQUESTS, false, false);
+        long after = measure(REQUESTS, true, false);
+
+        report("cached user", REQUESTS, before, after);
+    }
+
+    @Test
+    public void authenticatedRequestsOfExpiredUser() throws Exception {
+        authenticated();
+
+        long before = measure(COLD_REQUESTS, false, true);
+        long after = measure(COLD_REQUESTS, true, true);
+
+        report("expired user", COLD_REQUESTS, before, after);
+    }
+
+    private void authenticated() {
+        when(httpServletRequest.getUserPrincipal()).thenReturn(mock(Principal.class));
+        when(authenticationProvider.getLoggedInUser(httpServletRequest)).thenReturn(loggedInUser);
+    }
+
+    /**
+     * @return nanoseconds per request
+     */
+    private long measure(int requests, boolean lazy, boolean expireUser) throws Exception {
+        return Benchmark.time(requests, () -> {
+            if (expireUser) {
+                userCache.invalidateAll();
+            }
+            resolve(lazy);
+        });
+    }
+
+    private void resolve(boolean lazy) {
+        try {
+            if (lazy) {
+                userService.cachedCurrentUserId();
+            } else {
+                userService.currentUser();
+            }
+        } catch (Exception e) {
+            // user not found, continue ...
+        }
+    }
+
+    private void report(String scenario, int requests, long before, long after) {
+        log.info(
+                "Resolving the user of {} requests ({}): entity {} us per request, cached id {} us per request.",
+                requests,
+                scenario,
+                before / 1_000,
+                after / 1_000);
+    }
+}
@@ -0,0 +1,190 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.facade.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.jboss.pnc.dto.Artifact;
+import org.jboss.pnc.dto.Build;
+import org.jboss.pnc.dto.Environment;
+import org.jboss.pnc.dto.ProjectRef;
+import org.jboss.pnc.dto.SCMRepository;
+import org.jboss.pnc.dto.TargetRepository;
+import org.jboss.pnc.dto.User;
+import org.jboss.pnc.dto.response.Page;
+import org.jboss.pnc.enums.ArtifactQuality;
+import org.jboss.pnc.enums.BuildStatus;
+import org.jboss.pnc.enums.RepositoryType;
+import org.jboss.pnc.test.category.DebugTest;
+import org.jboss.pnc.test.util.Benchmark;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares the JSON payload size and the time needed to render pages of 1000 fully populated builds and artifacts,
+ * returning all their fields compared to a few selected ones. The time saved by not loading the unselected relations
+ * from the database is not included.
+ */
+@Category(DebugTest.class)
+public class SparseFieldsBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SparseFieldsBenchmarkTest.class);
+
+    private static final int PAGE_SIZE = 1000;
+    private static final int PAGES = 50;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+            .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+
+    @Test
+    public void buildPage() throws Exception {
+        measure("builds", SparseFields.BUILD, "status,submitTime,endTime,temporaryBuild", this::builds);
+    }
+
+    @Test
+    public void artifactPage() throws Exception {
+        measure("artifacts", SparseFields.ARTIFACT, "identifier,sha256,artifactQuality", this::artifacts);
+    }
+
+    private <T> void measure(
+            String entities,
+            SparseFields<?, T, ?> sparseFields,
+            String fields,
+            Supplier<List<T>> page) throws Exception {
+        int fullSize = render(sparseFields.select(null), page);
+        int sparseSize = render(sparseFields.select(fields), page);
+        long full = Benchmark.time(PAGES, () -> render(sparseFields.select(null), page));
+        long sparse = Benchmark.time(PAGES, () -> render(sparseFields.select(fields), page));
+
+        assertTrue(sparseSize < fullSize);
+        log.info(
+                "Page of {} {}: all fields {} kB in {} ms, fields {} {} kB in {} ms.",
+                PAGE_SIZE,
+                entities,
+                fullSize / 1024,
+                full / 1_000_000,
+                fields,
+                sparseSize / 1024,
+                sparse / 1_000_000);
+    }
+
+    private <T> int render(SparseFields.Selection<?, T> selection, Supplier<List<T>> content) {
+        Page<T> page = new Page<>(0, PAGE_SIZE, PAGE_SIZE, content.get());
+        try {
+            return objectMapper.writeValueAsBytes(selection.applyToPage(page)).length;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<Build> builds() {
+        User user = User.builder().id("1").username("builder").email("builder@example.com").build();
+        ProjectRef project = ProjectRef.refBuilder()
+                .id("2")
+                .name("project")
+                .description("Project with a reasonably long description of what it is about.")
+                .projectUrl("https://example.com/project")
+                .issueTrackerUrl("https://example.com/project/issues")
+                .build();
+        SCMRepository scmRepository = SCMRepository.builder()
+                .id("3")
+                .internalUrl("git+ssh://internal.example.com/project.git")
+                .externalUrl("https://example.com/project.git")
+                .preBuildSyncEnabled(true)
+                .build();
+        Environment environment = Environment.builder()
+                .id("4")
+                .name("OpenJDK 11.0; Mvn 3.6.3")
+                .description("OpenJDK 11.0; Mvn 3.6.3")
+                .systemImageRepositoryUrl("quay.example.com/builders")
+                .systemImageId("builder-rhel-7-j11-mvn3.6.3:1.0.0")
+                .attributes(Collections.singletonMap("JDK", "11.0"))
+                .build();
+
+        List<Build> builds = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            builds.add(
+                    Build.builder()
+                            .id(Integer.toString(i))
+                            .submitTime(Instant.now())
+                            .startTime(Instant.now())
+                            .endTime(Instant.now())
+                            .status(BuildStatus.SUCCESS)
+                            .buildContentId("build-" + i)
+                            .temporaryBuild(false)
+                            .scmUrl("https://example.com/project.git")
+                            .scmRevision("4a5b8f0c6d1e2f3a4b5c6d7e8f9a0b1c2d3e4f5a")
+                            .scmTag("project-1.0.0-" + i)
+                            .user(user)
+                            .project(project)
+                            .scmRepository(scmRepository)
+                            .environment(environment)
+                            .attributes(Collections.singletonMap("BREW_BUILD_VERSION", "1.0.0"))
+                            .build());
+        }
+        return builds;
+    }
+
+    private List<Artifact> artifacts() {
+        User user = User.builder().id("1").username("builder").email("builder@example.com").build();
+        TargetRepository targetRepository = TargetRepository.refBuilder()
+                .id("2")
+                .identifier("indy-maven")
+                .repositoryPath("/api/content/maven/hosted/pnc-builds/")
+                .repositoryType(RepositoryType.MAVEN)
+                .temporaryRepo(false)
+                .build();
+
+        List<Artifact> artifacts = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            String path = "org/example/project/1.0." + i + "/project-1.0." + i + ".jar";
+            artifacts.add(
+                    Artifact.builder()
+                            .id(Integer.toString(i))
+                            .identifier("org.example:project:jar:1.0." + i)
+                            .artifactQuality(ArtifactQuality.NEW)
+                            .md5("d41d8cd98f00b204e9800998ecf8427e")
+                            .sha1("da39a3ee5e6b4b0d3255bfef95601890afd80709")
+                            .sha256("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855")
+                            .filename("project-1.0." + i + ".jar")
+                            .deployPath(path)
+                            .size(1024L * i)
+                            .deployUrl("http://indy.internal.example.com/api/content/maven/hosted/" + path)
+                            .publicUrl("https://indy.example.com/api/content/maven/hosted/" + path)
+                            .creationTime(Instant.now())
+                            .modificationTime(Instant.now())
+                            .targetRepository(targetRepository)
+                            .creationUser(user)
+                            .modificationUser(user)
+                            .build());
+        }
+        return artifacts;
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.facade.util;
+
+import org.jboss.pnc.dto.Build;
+import org.jboss.pnc.dto.BuildRef;
+import org.jboss.pnc.dto.User;
+import org.jboss.pnc.dto.response.Page;
+import org.jboss.pnc.enums.BuildStatus;
+import org.jboss.pnc.facade.validation.InvalidEntityException;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SparseFieldsTest {
+
+    private final Build build = Build.builder()
+            .id("1")
+            .status(BuildStatus.SUCCESS)
+            .submitTime(Instant.now())
+            .temporaryBuild(true)
+            .user(User.builder().id("2").username("user").build())
+            .build();
+
+    @Test
+    public void shouldSelectAllFieldsByDefault() {
+        SparseFields.Selection<BuildRef, Build> selection = SparseFields.BUILD.select(" ");
+
+        assertThat(selection.isAll()).isTrue();
+        assertThat(selection.includesRelations()).isTrue();
+        assertThat(selection.apply(build)).isSameAs(build);
+    }
+
+    @Test
+    public void shouldKeepOnlySelectedFieldsAndId() {
+        SparseFields.Selection<BuildRef, Build> selection = SparseFields.BUILD.select("status,user");
+
+        Build sparse = selection.apply(build);
+
+        assertThat(selection.includesRelations()).isTrue();
+        assertThat(sparse.getId()).isEqualTo("1");
+        assertThat(sparse.getStatus()).isEqualTo(BuildStatus.SUCCESS);
+        assertThat(sparse.getUser()).isEqualTo(build.getUser());
+        assertThat(sparse.getSubmitTime()).isNull();
+        assertThat(sparse.getTemporaryBuild()).isNull();
+    }
+
+    @Test
+    public void shouldBuildFromReferenceWithoutRelations() {
+        SparseFields.Selection<BuildRef, Build> selection = SparseFields.BUILD.select("status, temporaryBuild");
+        BuildRef ref = BuildRef.refBuilder()
+                .id("1")
+                .status(BuildStatus.SUCCESS)
+                .temporaryBuild(true)
+                .scmTag("tag")
+                .build();
+
+        Build sparse = selection.applyToRef(ref);
+
+        assertThat(selection.includesRelations()).isFalse();
+        assertThat(sparse.getId()).isEqualTo("1");
+        assertThat(sparse.getStatus()).isEqualTo(BuildStatus.SUCCESS);
+        assertThat(sparse.getTemporaryBuild()).isTrue();
+        assertThat(sparse.getScmTag()).isNull();
+        assertThatThrownBy(() -> SparseFields.BUILD.select("user").applyToRef(ref))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void shouldRebuildPageContent() {
+        Page<Build> page = new Page<>(0, 10, 1, Collections.singletonList(build));
+
+        SparseFields.BUILD.select("status").applyToPage(page);
+
+        assertThat(page.getContent()).hasSize(1);
+        assertThat(page.getContent().iterator().next().getUser()).isNull();
+        assertThat(page.getTotalHits()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldRejectUnknownField() {
+        assertThatThrownBy(() -> SparseFields.ARTIFACT.select("identifier,buildRecord"))
+                .isInstanceOf(InvalidEntityException.class)
+                .hasMessageContaining("buildRecord");
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.facade.util;
+
+import org.jboss.pnc.model.User;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UserCacheTest {
+
+    private static final long TTL = 1000L;
+
+    private final AtomicLong now = new AtomicLong();
+
+    private UserCache cache;
+
+    @Before
+    public void setup() {
+        now.set(0L);
+        cache = new UserCache(TTL, now::get);
+    }
+
+    @Test
+    public void shouldReturnCopyOfCachedUser() {
+        cache.put(user(1, "boris"));
+
+        User first = cache.get("boris");
+        first.setLoginToken("secret");
+        User second = cache.get("boris");
+
+        assertThat(first.getId()).isEqualTo(1);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getLoginToken()).isNull();
+        assertThat(cache.getHits()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldReturnIdWithoutCountingHits() {
+        cache.put(user(1, "boris"));
+
+        assertThat(cache.getId("boris")).isEqualTo(1);
+        assertThat(cache.getId("theresa")).isNull();
+        assertThat(cache.getHits()).isZero();
+        assertThat(cache.getMisses()).isZero();
+
+        now.set(TTL);
+
+        assertThat(cache.getId("boris")).isNull();
+    }
+
+    @Test
+    public void shouldExpireEntries() {
+        cache.put(user(1, "boris"));
+
+        now.set(TTL);
+
+        assertThat(cache.get("boris")).isNull();
+        assertThat(cache.getMisses()).isEqualTo(1);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void shouldInvalidateEntries() {
+        cache.put(user(1, "boris"));
+        cache.put(user(2, "theresa"));
+
+        cache.invalidate("boris");
+        assertThat(cache.get("boris")).isNull();
+        assertThat(cache.get("theresa")).isNotNull();
+
+        cache.invalidateAll();
+        assertThat(cache.get("theresa")).isNull();
+    }
+
+    @Test
+    public void shouldNotCacheUnsavedUser() {
+        cache.put(user(null, "boris"));
+
+        assertThat(cache.get("boris")).isNull();
+    }
+
+    private User user(Integer id, String username) {
+        return User.Builder.newBuilder().id(id).username(username).email(username + "@example.com").build();
+    }
+}
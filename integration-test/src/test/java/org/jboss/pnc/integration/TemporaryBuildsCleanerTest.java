@@ -34,15 +34,20 @@ import org.jboss.pnc.model.BuildConfiguration;
 import org.jboss.pnc.model.BuildConfigurationAudited;
 import org.jboss.pnc.model.BuildConfigurationSet;
 import org.jboss.pnc.model.BuildRecord;
+import org.jboss.pnc.model.ProductMilestone;
+import org.jboss.pnc.model.ProductMilestoneArtifact;
 import org.jboss.pnc.model.TargetRepository;
 import org.jboss.pnc.model.User;
 import org.jboss.pnc.spi.datastore.Datastore;
+import org.jboss.pnc.spi.datastore.DatastoreException;
 import org.jboss.pnc.spi.datastore.repositories.ArtifactRepository;
 import org.jboss.pnc.spi.datastore.repositories.BuildConfigSetRecordRepository;
 import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationAuditedRepository;
 import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationRepository;
 import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationSetRepository;
 import org.jboss.pnc.spi.datastore.repositories.BuildRecordRepository;
+import org.jboss.pnc.spi.datastore.repositories.ProductMilestoneArtifactRepository;
+import org.jboss.pnc.spi.datastore.repositories.ProductMilestoneRepository;
 import org.jboss.pnc.spi.datastore.repositories.ProductVersionRepository;
 import org.jboss.pnc.spi.datastore.repositories.TargetRepositoryRepository;
 import org.jboss.pnc.spi.datastore.repositories.UserRepository;
@@ -69,6 +74,8 @@ import javax.transaction.UserTransaction;
 import java.lang.invoke.MethodHandles;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
@@ -78,6 +85,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.jboss.pnc.integration.setup.Deployments.addBuildExecutorMock;
+import static org.jboss.pnc.spi.datastore.predicates.ArtifactPredicates.withBuildRecordIds;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
@@ -118,6 +126,12 @@ public class TemporaryBuildsCleanerTest {
     @Inject
     private ArtifactRepository artifactRepository;
 
+    @Inject
+    private ProductMilestoneRepository productMilestoneRepository;
+
+    @Inject
+    private ProductMilestoneArtifactRepository productMilestoneArtifactRepository;
+
     @Inject
     private TargetRepositoryRepository targetRepositoryRepository;
 
@@ -254,6 +268,75 @@ public class TemporaryBuildsCleanerTest {
         assertNotNull(artifactRepository.queryById(artifact4.getId()));
     }
 
+    @Test
+    public void shouldDeleteTemporaryBuildsFromDatastoreTest() {
+        // given
+        BuildRecord tempBr1 = buildRecordRepository.save(initBuildRecordBuilder().temporaryBuild(true).build());
+        BuildRecord tempBr2 = buildRecordRepository.save(initBuildRecordBuilder().temporaryBuild(true).build());
+        BuildRecord nonTempBr = buildRecordRepository.save(initBuildRecordBuilder().temporaryBuild(false).build());
+
+        Artifact builtArtifact = initArtifactBuilder().artifactQuality(ArtifactQuality.TEMPORARY)
+                .buildRecord(tempBr1)
+                .build();
+        artifactRepository.save(builtArtifact);
+        Artifact usedArtifact = initArtifactBuilder().artifactQuality(ArtifactQuality.TEMPORARY)
+                .buildRecord(tempBr2)
+                .build();
+        artifactRepository.save(usedArtifact);
+        BuildRecord dependantBr = initBuildRecordBuilder().temporaryBuild(true).build();
+        dependantBr.setDependencies(new HashSet<>(Collections.singletonList(usedArtifact)));
+        buildRecordRepository.save(dependantBr);
+
+        BuildRecord causedBr = initBuildRecordBuilder().temporaryBuild(true).build();
+        causedBr.setNoRebuildCause(tempBr2);
+        causedBr = buildRecordRepository.save(causedBr);
+
+        // when
+        List<Integer> deleted = temporaryBuildsCleaner.deleteTemporaryBuildsFromDatastore(
+                Arrays.asList(tempBr1.getId(), tempBr2.getId(), nonTempBr.getId()));
+
+        // then
+        assertThat(deleted).containsExactlyInAnyOrder(tempBr1.getId(), tempBr2.getId());
+        assertNull(buildRecordRepository.queryById(tempBr1.getId()));
+        assertNull(buildRecordRepository.queryById(tempBr2.getId()));
+        assertNull(artifactRepository.queryById(builtArtifact.getId()));
+        // still used by another build
+        assertEquals(ArtifactQuality.DELETED, artifactRepository.queryById(usedArtifact.getId()).getArtifactQuality());
+        assertNotNull(buildRecordRepository.queryById(nonTempBr.getId()));
+        assertNull(buildRecordRepository.queryById(causedBr.getId()).getNoRebuildCause());
+    }
+
+    @Test
+    public void shouldDeleteTemporaryBuildFromMilestoneTest() throws DatastoreException, ValidationException {
+        // given
+        ProductMilestone milestone = productMilestoneRepository.queryAll().get(0);
+        Artifact builtArtifact = initArtifactBuilder().artifactQuality(ArtifactQuality.TEMPORARY).build();
+        Artifact dependency = storeAndGetArtifact();
+
+        BuildRecord tempBr = datastore.storeCompletedBuild(
+                initBuildRecordBuilder().temporaryBuild(true).productMilestone(milestone),
+                Collections.singletonList(builtArtifact),
+                Collections.singletonList(dependency));
+        Artifact savedArtifact = artifactRepository
+                .queryWithPredicates(withBuildRecordIds(Collections.singleton(tempBr.getId())))
+                .get(0);
+        assertEquals(0, countMilestoneLinks(savedArtifact));
+        assertEquals(0, countMilestoneLinks(dependency));
+
+        // link written before temporary builds were left out of the index
+        productMilestoneArtifactRepository
+                .save(new ProductMilestoneArtifact(savedArtifact, milestone, ProductMilestoneArtifact.Relation.BUILT));
+
+        // when
+        temporaryBuildsCleaner.deleteTemporaryBuild(tempBr.getId(), "");
+
+        // then
+        assertNull(buildRecordRepository.queryById(tempBr.getId()));
+        assertNull(artifactRepository.queryById(savedArtifact.getId()));
+        assertNotNull(artifactRepository.queryById(dependency.getId()));
+        assertEquals(0, countMilestoneLinks(savedArtifact));
+    }
+
     @Test
     public void shouldNotDeleteNonTemporaryArtifacts() {
         // given
@@ -442,6 +525,15 @@ public class TemporaryBuildsCleanerTest {
                 .doesNotContain(tempBr.getId().toString(), tempNRRBr.getId().toString());
     }
 
+    private long countMilestoneLinks(Artifact artifact) {
+        return entityManager
+                .createQuery(
+                        "select count(l) from ProductMilestoneArtifact l where l.artifact.id = :artifactId",
+                        Long.class)
+                .setParameter("artifactId", artifact.getId())
+                .getSingleResult();
+    }
+
     private Artifact storeAndGetArtifact() {
         Artifact artifact = initArtifactBuilder().artifactQuality(ArtifactQuality.TEMPORARY).build();
         return artifactRepository.save(artifact);
@@ -45,14 +45,19 @@ import org.slf4j.LoggerFactory;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import javax.ws.rs.BadRequestException;
 import javax.ws.rs.ClientErrorException;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.jboss.pnc.rest.configuration.Constants.MAX_IDS_IN_REQUEST;
 
 /**
  * @author <a href="mailto:matejonnet@gmail.com">Matej Lazar</a>
@@ -269,6 +274,37 @@ public class ArtifactEndpointTest {
         milestone.extracting(MilestoneInfo::getMilestoneVersion).isEqualTo("1.0.0.Build1");
     }
 
+    @Test
+    public void shouldGetMilestonesInfoOfArtifacts() throws RemoteResourceException {
+        ArtifactClient client = new ArtifactClient(RestClientConfiguration.asUser());
+
+        Map<String, List<MilestoneInfo>> milestonesInfo = client.getMilestonesInfoOfArtifacts(
+                Arrays.asList(artifactRest1.getId(), artifactRest3.getId(), "999999"));
+
+        assertThat(milestonesInfo).containsOnlyKeys(artifactRest1.getId(), artifactRest3.getId(), "999999");
+        assertThat(milestonesInfo.get(artifactRest1.getId())).hasSize(1)
+                .first()
+                .extracting(MilestoneInfo::isBuilt, MilestoneInfo::isDelivered)
+                .containsExactly(true, true);
+        assertThat(milestonesInfo.get(artifactRest3.getId())).hasSize(1)
+                .first()
+                .extracting(MilestoneInfo::isBuilt, MilestoneInfo::isDelivered)
+                .containsExactly(false, false);
+        assertThat(milestonesInfo.get("999999")).isEmpty();
+    }
+
+    @Test
+    public void shouldFailGetMilestonesInfoOfTooManyArtifacts() {
+        ArtifactClient client = new ArtifactClient(RestClientConfiguration.asUser());
+
+        List<String> ids = IntStream.rangeClosed(1, MAX_IDS_IN_REQUEST + 1)
+                .mapToObj(String::valueOf)
+                .collect(Collectors.toList());
+
+        assertThatThrownBy(() -> client.getMilestonesInfoOfArtifacts(ids))
+                .hasCauseInstanceOf(BadRequestException.class);
+    }
+
     @Test
     public void shouldCreateArtifactRevision() throws ClientException {
 
@@ -40,6 +40,7 @@ import org.jboss.pnc.dto.BuildConfigurationRevision;
 import org.jboss.pnc.dto.DTOEntity;
 import org.jboss.pnc.dto.Environment;
 import org.jboss.pnc.dto.GroupConfiguration;
+import org.jboss.pnc.dto.Project;
 import org.jboss.pnc.dto.ProjectRef;
 import org.jboss.pnc.dto.SCMRepository;
 import org.jboss.pnc.dto.requests.BuildConfigWithSCMRequest;
@@ -73,8 +74,10 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import static io.restassured.RestAssured.given;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.jboss.pnc.integration.setup.RestClientConfiguration.BASE_REST_PATH;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 
@@ -489,6 +492,34 @@ public class BuildConfigurationEndpointTest {
         assertThat(revision.getId()).isEqualTo(configurationId);
     }
 
+    @Test
+    public void shouldSendBuildConfigurationRevisionWithChangedEmbeddedProject() throws ClientException {
+        // given
+        String path = BASE_REST_PATH + "/build-configs/" + configurationId + "/revisions/1";
+        String entityTag = given().port(8080).when().get(path).then().statusCode(200).extract().header("ETag");
+        given().port(8080).header("If-None-Match", entityTag).when().get(path).then().statusCode(304);
+        BuildConfigurationClient client = new BuildConfigurationClient(RestClientConfiguration.asAnonymous());
+        ProjectClient projectClient = new ProjectClient(RestClientConfiguration.asUser());
+        Project project = projectClient.getSpecific(client.getRevision(configurationId, 1).getProject().getId());
+        String newDescription = "Changed for the entity tag " + UUID.randomUUID();
+
+        // when
+        projectClient.update(project.getId(), project.toBuilder().description(newDescription).build());
+        try {
+            io.restassured.response.Response response = given().port(8080)
+                    .header("If-None-Match", entityTag)
+                    .when()
+                    .get(path);
+
+            // then
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(response.header("ETag")).isNotEqualTo(entityTag);
+            assertThat(response.jsonPath().getString("project.description")).isEqualTo(newDescription);
+        } finally {
+            projectClient.update(project.getId(), project);
+        }
+    }
+
     @Test
     @InSequence(50)
     public void shouldRestoreBuildConfigurationRevision() throws Exception {
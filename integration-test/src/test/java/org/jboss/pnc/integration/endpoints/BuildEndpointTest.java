@@ -27,6 +27,7 @@ import org.jboss.pnc.client.BuildClient;
 import org.jboss.pnc.client.ClientBase;
 import org.jboss.pnc.client.ClientException;
 import org.jboss.pnc.client.Configuration;
+import org.jboss.pnc.client.ProjectClient;
 import org.jboss.pnc.client.RemoteCollection;
 import org.jboss.pnc.client.RemoteResourceException;
 import org.jboss.pnc.common.util.IoUtils;
@@ -37,6 +38,7 @@ import org.jboss.pnc.dto.Build;
 import org.jboss.pnc.dto.BuildConfigurationRevision;
 import org.jboss.pnc.dto.BuildConfigurationRevisionRef;
 import org.jboss.pnc.dto.BuildRef;
+import org.jboss.pnc.dto.Project;
 import org.jboss.pnc.dto.User;
 import org.jboss.pnc.dto.requests.BuildPushParameters;
 import org.jboss.pnc.enums.ArtifactQuality;
@@ -70,6 +72,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 import static io.restassured.RestAssured.given;
@@ -441,6 +444,44 @@ public class BuildEndpointTest {
         assertThat(withRemovedAttribute.getAttributes()).doesNotContainKey(key);
     }
 
+    @Test
+    public void shouldAnswerConditionalGetOfFinishedBuild() {
+        // given
+        String path = BASE_REST_PATH + "/builds/" + buildId;
+        String entityTag = given().port(8080).when().get(path).then().statusCode(200).extract().header("ETag");
+        assertThat(entityTag).isNotEmpty();
+
+        // when then
+        given().port(8080).header("If-None-Match", entityTag).when().get(path).then().statusCode(304);
+    }
+
+    @Test
+    public void shouldSendFinishedBuildWithChangedEmbeddedProject() throws ClientException {
+        // given
+        String path = BASE_REST_PATH + "/builds/" + buildId;
+        String entityTag = given().port(8080).when().get(path).then().statusCode(200).extract().header("ETag");
+        BuildClient buildClient = new BuildClient(RestClientConfiguration.asAnonymous());
+        ProjectClient projectClient = new ProjectClient(RestClientConfiguration.asUser());
+        Project project = projectClient.getSpecific(buildClient.getSpecific(buildId).getProject().getId());
+        String newDescription = "Changed for the entity tag " + UUID.randomUUID();
+
+        // when
+        projectClient.update(project.getId(), project.toBuilder().description(newDescription).build());
+        try {
+            io.restassured.response.Response response = given().port(8080)
+                    .header("If-None-Match", entityTag)
+                    .when()
+                    .get(path);
+
+            // then
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(response.header("ETag")).isNotEqualTo(entityTag);
+            assertThat(response.jsonPath().getString("project.description")).isEqualTo(newDescription);
+        } finally {
+            projectClient.update(project.getId(), project);
+        }
+    }
+
     @Test
     public void shouldGetBuildConfigurationRevision() throws ClientException {
         // when
@@ -111,6 +111,35 @@ public class RestTest {
                 .body(JsonMatcher.containsJsonAttribute(FIRST_CONTENT_ID, value -> productVersionId = value));
     }
 
+    @Test
+    @InSequence(2)
+    public void shouldRejectPageTotalsNotSupportedByEndpoint() {
+        givenCommonSettingAnd().queryParam("totals", "NONE")
+                .when()
+                .get(PRODUCT_REST_ENDPOINT + productId + "/versions")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    public void shouldGetAllProjectsWithoutTotals() {
+        givenCommonSettingAnd().queryParam("totals", "NONE")
+                .when()
+                .get(PROJECT_REST_ENDPOINT)
+                .then()
+                .statusCode(200)
+                .body("totalHits", equalTo(-1));
+    }
+
+    @Test
+    public void shouldRejectFieldsNotSupportedByEndpoint() {
+        givenCommonSettingAnd().queryParam("fields", "name")
+                .when()
+                .get(PROJECT_REST_ENDPOINT)
+                .then()
+                .statusCode(400);
+    }
+
     @Test
     @InSequence(3)
     public void shouldGetSpecificProductsVersions() {
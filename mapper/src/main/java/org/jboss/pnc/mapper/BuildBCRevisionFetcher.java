@@ -35,11 +35,19 @@ import org.mapstruct.MappingTarget;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Workaround for NCL-4889 and NCL-5257. This class will fetch the audited Build Config from DB if it is missing from
  * the transient filed in BuildRecord entity and will map it to appropriate fields in the Build DTO.
  *
+ * When mapping a collection of builds, call {@link #prefetch(Collection)} first so that the audited Build Configs of
+ * the whole collection are fetched in one query instead of one query per build.
+ *
  * @author jbrazdil
  */
 @ApplicationScoped
@@ -60,6 +68,34 @@ public class BuildBCRevisionFetcher {
     @Inject
     private BuildConfigurationAuditedRepository bcAuditedRepository;
 
+    /**
+     * Fetches the audited Build Configs missing from the given builds in a single bulk query and sets them to the
+     * transient field of the builds, so that the following mapping of the builds doesn't query them one by one.
+     *
+     * @param builds builds that are going to be mapped
+     */
+    public void prefetch(Collection<BuildRecord> builds) {
+        Set<IdRev> idRevs = builds.stream()
+                .filter(Objects::nonNull)
+                .filter(build -> build.getBuildConfigurationAudited() == null)
+                .map(BuildRecord::getBuildConfigurationAuditedIdRev)
+                .filter(idRev -> idRev.getId() != null && idRev.getRev() != null)
+                .collect(Collectors.toSet());
+        if (idRevs.isEmpty()) {
+            return;
+        }
+
+        Map<IdRev, BuildConfigurationAudited> bcas = bcAuditedRepository.queryById(idRevs);
+        for (BuildRecord build : builds) {
+            if (build != null && build.getBuildConfigurationAudited() == null) {
+                BuildConfigurationAudited bca = bcas.get(build.getBuildConfigurationAuditedIdRev());
+                if (bca != null) {
+                    build.setBuildConfigurationAudited(bca);
+                }
+            }
+        }
+    }
+
     @BeforeMapping
     public void mockBrewAttributes(BuildRecord build, @MappingTarget Build.Builder dtoBuilder) {
         Integer id = build.getBuildConfigurationId();
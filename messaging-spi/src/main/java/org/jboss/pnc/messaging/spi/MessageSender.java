@@ -37,4 +37,13 @@ public interface MessageSender {
     void sendToTopic(String message);
 
     void sendToTopic(String message, Map<String, String> headers);
+
+    /**
+     * Sends the message before returning, also when the sender otherwise sends the messages asynchronously.
+     *
+     * @throws MessagingRuntimeException when the message is not sent
+     */
+    default void sendToTopicSynchronously(String message, Map<String, String> headers) {
+        sendToTopic(message, headers);
+    }
 }
@@ -110,6 +110,14 @@ public class UnreliableMessageSender extends DefaultMessageSender implements Mes
         executor.execute(new SendTask(message, headers));
     }
 
+    /**
+     * Bypasses the queue, so the caller learns about the failure and can retry.
+     */
+    @Override
+    public void sendToTopicSynchronously(String message, Map<String, String> headers) {
+        doSendMessage(message, headers);
+    }
+
     private class SendTask implements Runnable {
 
         private final String message;
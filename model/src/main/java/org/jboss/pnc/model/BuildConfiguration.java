@@ -20,9 +20,12 @@ package org.jboss.pnc.model;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -374,20 +377,43 @@ public class BuildConfiguration implements GenericEntity<Integer>, Cloneable {
     }
 
     public boolean addDependency(BuildConfiguration dependency) {
+        checkNotSelfDependency(dependency);
+        // Verify that we are not creating a circular dependency
+        if (dependency.dependsOn(this)) {
+            throwCircularDependency(dependency);
+        }
+        return linkDependency(dependency);
+    }
+
+    /**
+     * Adds the dependency, verifying that no circular dependency is created using already known ids of all the
+     * dependencies of the added dependency, so the dependency graph doesn't have to be loaded.
+     *
+     * @param dependency the build config upon which this build depends
+     * @param dependencyIdsOfDependency ids of all direct and indirect dependencies of the added dependency
+     */
+    public boolean addDependency(BuildConfiguration dependency, Set<Integer> dependencyIdsOfDependency) {
+        checkNotSelfDependency(dependency);
+        if (dependencyIdsOfDependency.contains(this.getId())) {
+            throwCircularDependency(dependency);
+        }
+        return linkDependency(dependency);
+    }
+
+    private void checkNotSelfDependency(BuildConfiguration dependency) {
         // Don't allow a build config to depend on itself
         if (dependency.getId().equals(this.getId())) {
             throw new PersistenceException("A build configuration cannot depend on itself");
         }
-        // Verify that we are not creating a circular dependency
-        if (dependency.getAllDependencies().contains(this)) {
-            List<BuildConfiguration> depPath = dependency.dependencyDepthFirstSearch(this);
-            String depPathString = depPath.stream()
-                    .map(BuildConfiguration::getName)
-                    .collect(Collectors.joining(" -> "));
-            throw new PersistenceException(
-                    "Unable to add dependency, would create a circular reference: " + depPathString);
-        }
+    }
 
+    private void throwCircularDependency(BuildConfiguration dependency) {
+        List<BuildConfiguration> depPath = dependency.dependencyDepthFirstSearch(this);
+        String depPathString = depPath.stream().map(BuildConfiguration::getName).collect(Collectors.joining(" -> "));
+        throw new PersistenceException("Unable to add dependency, would create a circular reference: " + depPathString);
+    }
+
+    private boolean linkDependency(BuildConfiguration dependency) {
         boolean result = dependencies.add(dependency);
         if (!dependency.getDependants().contains(this)) {
             dependency.addDependant(this);
@@ -411,21 +437,17 @@ public class BuildConfiguration implements GenericEntity<Integer>, Cloneable {
      */
     public Set<BuildConfiguration> getIndirectDependencies() {
         Set<BuildConfiguration> indirectDependencies = new HashSet<>();
-        List<BuildConfiguration> configsToCheck = new ArrayList<>();
-        configsToCheck.addAll(getDependencies());
+        // Do not check a config multiple times
+        Set<BuildConfiguration> checkedConfigs = new HashSet<>(getDependencies());
+        Deque<BuildConfiguration> configsToCheck = new ArrayDeque<>(getDependencies());
         while (!configsToCheck.isEmpty()) {
-            BuildConfiguration nextConfig = configsToCheck.get(0);
+            BuildConfiguration nextConfig = configsToCheck.poll();
             for (BuildConfiguration nextDep : nextConfig.getDependencies()) {
-                if (!indirectDependencies.contains(nextDep)) {
-                    // Do not add an indirect dependency multiple times
-                    indirectDependencies.add(nextDep);
-                    // Do not check a config multiple times
-                    if (!configsToCheck.contains(nextDep)) {
-                        configsToCheck.add(nextDep);
-                    }
+                indirectDependencies.add(nextDep);
+                if (checkedConfigs.add(nextDep)) {
+                    configsToCheck.add(nextDep);
                 }
             }
-            configsToCheck.remove(nextConfig);
         }
         return indirectDependencies;
     }
@@ -741,12 +763,37 @@ public class BuildConfiguration implements GenericEntity<Integer>, Cloneable {
 
     }
 
+    /**
+     * Check if the given build config is a direct or indirect dependency of this build config. The dependency graph is
+     * traversed only until the build config is found.
+     */
     public boolean dependsOn(BuildConfiguration other) {
-        return getAllDependencies().contains(other);
+        return dependsOnAny(Collections.singleton(other));
     }
 
+    /**
+     * Check if any of the given build configs is a direct or indirect dependency of this build config. The dependency
+     * graph is traversed only once for all the build configs.
+     */
     public boolean dependsOnAny(Collection<BuildConfiguration> otherList) {
-        return otherList.stream().anyMatch(this::dependsOn);
+        if (otherList.isEmpty()) {
+            return false;
+        }
+        Set<BuildConfiguration> others = new HashSet<>(otherList);
+        Set<BuildConfiguration> checkedConfigs = new HashSet<>();
+        Deque<BuildConfiguration> configsToCheck = new ArrayDeque<>();
+        configsToCheck.add(this);
+        while (!configsToCheck.isEmpty()) {
+            for (BuildConfiguration dependency : configsToCheck.poll().getDependencies()) {
+                if (others.contains(dependency)) {
+                    return true;
+                }
+                if (checkedConfigs.add(dependency)) {
+                    configsToCheck.add(dependency);
+                }
+            }
+        }
+        return false;
     }
 
     public static class Builder {
@@ -17,13 +17,12 @@
  */
 package org.jboss.pnc.model;
 
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.LazyGroup;
 import org.hibernate.annotations.Type;
-import org.jboss.pnc.common.security.Md5;
-import org.jboss.pnc.common.security.Sha256;
-import org.jboss.pnc.common.util.StringUtils;
+import org.jboss.pnc.common.security.MultiDigest;
 import org.jboss.pnc.enums.BuildStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,7 +30,9 @@ import org.slf4j.LoggerFactory;
 import javax.persistence.Basic;
 import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
+import javax.persistence.CollectionTable;
 import javax.persistence.Column;
+import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
@@ -53,8 +54,8 @@ import javax.persistence.Transient;
 import javax.persistence.UniqueConstraint;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
-import java.io.IOException;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -64,7 +65,8 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.jboss.pnc.common.security.MultiDigest.MD5;
+import static org.jboss.pnc.common.security.MultiDigest.SHA256;
 
 /**
  * Created by <a href="mailto:matejonnet@gmail.com">Matej Lazar</a> on 2014-11-23.
@@ -303,20 +305,37 @@ public class BuildRecord implements GenericEntity<Integer> {
     private Set<BuildRecordPushResult> buildRecordPushResults;
 
     /**
-     * A collection of buildRecords that depends on this at time this is stored. Dependents are defined based on
-     * scheduled state.
+     * Ids of the buildRecords that depends on this at time this is stored. Dependents are defined based on scheduled
+     * state. The ids are not foreign keys, as the dependents are stored after this record. The links of the records of
+     * a dependency graph are loaded in batches when the graph is rendered.
      */
-    @Lob
-    @Type(type = "org.hibernate.type.TextType")
-    private String dependentBuildRecordIds;
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @ElementCollection
+    @BatchSize(size = 100)
+    @CollectionTable(
+            name = "build_record_dependent",
+            joinColumns = @JoinColumn(
+                    name = "buildrecord_id",
+                    foreignKey = @ForeignKey(name = "fk_build_record_dependent_br")),
+            indexes = @Index(name = "idx_build_record_dependent_dependent", columnList = "dependent_id"))
+    @Column(name = "dependent_id", nullable = false, updatable = false)
+    private Set<Integer> dependentBuildRecordIds = new HashSet<>();
 
     /**
-     * A collection of buildRecords that this depends on at time this is stored. Dependencies are defined based on
-     * scheduled state.
+     * Ids of the buildRecords that this depends on at time this is stored. Dependencies are defined based on scheduled
+     * state.
      */
-    @Lob
-    @Type(type = "org.hibernate.type.TextType")
-    private String dependencyBuildRecordIds;
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @ElementCollection
+    @BatchSize(size = 100)
+    @CollectionTable(
+            name = "build_record_dependency",
+            joinColumns = @JoinColumn(
+                    name = "buildrecord_id",
+                    foreignKey = @ForeignKey(name = "fk_build_record_dependency_br")),
+            indexes = @Index(name = "idx_build_record_dependency_dependency", columnList = "dependency_id"))
+    @Column(name = "dependency_id", nullable = false, updatable = false)
+    private Set<Integer> dependencyBuildRecordIds = new HashSet<>();
 
     /**
      * In case of status NO_REBUILD_REQUIRED, this field references the BuildRecord that caused the decision of not
@@ -787,26 +806,34 @@ public class BuildRecord implements GenericEntity<Integer> {
     }
 
     public void setDependentBuildRecordIds(Integer[] dependentBuildRecordIds) {
-        if (dependentBuildRecordIds != null) {
-            this.dependentBuildRecordIds = StringUtils.serializeInt(dependentBuildRecordIds);
-        } else {
-            this.dependentBuildRecordIds = "";
-        }
+        replaceIds(this.dependentBuildRecordIds, dependentBuildRecordIds);
     }
 
+    /**
+     * @return the ids in no particular order, the order in which they were set is not stored
+     */
     public Integer[] getDependentBuildRecordIds() {
-        return StringUtils.deserializeInt(dependentBuildRecordIds);
+        return dependentBuildRecordIds.toArray(new Integer[0]);
     }
 
+    /**
+     * @return the ids in no particular order, the order in which they were set is not stored
+     */
     public Integer[] getDependencyBuildRecordIds() {
-        return StringUtils.deserializeInt(dependencyBuildRecordIds);
+        return dependencyBuildRecordIds.toArray(new Integer[0]);
     }
 
     public void setDependencyBuildRecordIds(Integer[] dependencyBuildRecordIds) {
-        if (dependencyBuildRecordIds != null) {
-            this.dependencyBuildRecordIds = StringUtils.serializeInt(dependencyBuildRecordIds);
-        } else {
-            this.dependencyBuildRecordIds = "";
+        replaceIds(this.dependencyBuildRecordIds, dependencyBuildRecordIds);
+    }
+
+    /**
+     * Updates the collection in place, so that Hibernate keeps tracking it instead of recreating it.
+     */
+    private static void replaceIds(Set<Integer> current, Integer[] ids) {
+        current.clear();
+        if (ids != null) {
+            current.addAll(Arrays.asList(ids));
         }
     }
 
@@ -982,9 +1009,10 @@ public class BuildRecord implements GenericEntity<Integer> {
                     } else {
                         buildRecord.setRepourLog(repourLog);
                     }
-                    buildRecord.setRepourLogSize(buildRecord.repourLog.getBytes(UTF_8).length);
-                    buildRecord.setRepourLogMd5(Md5.digest(buildRecord.repourLog));
-                    buildRecord.setRepourLogSha256(Sha256.digest(buildRecord.repourLog));
+                    MultiDigest digest = new MultiDigest(MD5, SHA256).update(buildRecord.repourLog);
+                    buildRecord.setRepourLogSize((int) digest.getSize());
+                    buildRecord.setRepourLogMd5(digest.getDigest(MD5));
+                    buildRecord.setRepourLogSha256(digest.getDigest(SHA256));
                 }
                 if (buildLog != null) {
                     if (sanitizeLogs) {
@@ -992,11 +1020,12 @@ public class BuildRecord implements GenericEntity<Integer> {
                     } else {
                         buildRecord.setBuildLog(buildLog);
                     }
-                    buildRecord.setBuildLogSize(buildRecord.buildLog.getBytes(UTF_8).length);
-                    buildRecord.setBuildLogMd5(Md5.digest(buildRecord.buildLog));
-                    buildRecord.setBuildLogSha256(Sha256.digest(buildRecord.buildLog));
+                    MultiDigest digest = new MultiDigest(MD5, SHA256).update(buildRecord.buildLog);
+                    buildRecord.setBuildLogSize((int) digest.getSize());
+                    buildRecord.setBuildLogMd5(digest.getDigest(MD5));
+                    buildRecord.setBuildLogSha256(digest.getDigest(SHA256));
                 }
-            } catch (NoSuchAlgorithmException | IOException e) {
+            } catch (NoSuchAlgorithmException e) {
                 logger.error("Cannot compute log checksum.", e);
                 throw new RuntimeException("Cannot compute log checksum.", e);
             }
@@ -0,0 +1,226 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.model;
+
+import org.hibernate.annotations.Type;
+import org.jboss.pnc.enums.BuildStatus;
+
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Lob;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import javax.validation.constraints.NotNull;
+import java.util.Date;
+
+/**
+ * Build status change waiting in the outbox to be sent to the message broker.
+ *
+ * The status of a completed build is written in the same transaction as its {@link BuildRecord}, without the payload,
+ * which is rendered from the stored record when the message is sent. The statuses of running builds exist only in
+ * memory, they are written with the rendered payload and headers. Messages of a build are sent in the order of their
+ * ids.
+ */
+@Entity
+@Table(
+        indexes = { @Index(name = "idx_buildstatusoutboxmessage_state", columnList = "state"),
+                @Index(name = "idx_buildstatusoutboxmessage_buildid", columnList = "buildId") })
+public class BuildStatusOutboxMessage implements GenericEntity<Long> {
+
+    private static final long serialVersionUID = -3218547034912765027L;
+
+    public static final String SEQUENCE_NAME = "build_status_outbox_message_id_seq";
+
+    public enum State {
+        /**
+         * Waiting to be sent, possibly after a failed attempt.
+         */
+        PENDING,
+        /**
+         * Sent to the broker.
+         */
+        SENT,
+        /**
+         * Failed too many times, it is not sent anymore.
+         */
+        PARKED
+    }
+
+    @Id
+    @SequenceGenerator(name = SEQUENCE_NAME, sequenceName = SEQUENCE_NAME, allocationSize = 1)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = SEQUENCE_NAME)
+    private Long id;
+
+    @NotNull
+    private Integer buildId;
+
+    @Enumerated(EnumType.STRING)
+    private BuildStatus oldStatus;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    private BuildStatus newStatus;
+
+    /**
+     * Null for the status stored with the build record.
+     */
+    @Lob
+    @Type(type = "org.hibernate.type.TextType")
+    private String payload;
+
+    /**
+     * Headers of the message as JSON object, null for the status stored with the build record.
+     */
+    @Lob
+    @Type(type = "org.hibernate.type.TextType")
+    private String headers;
+
+    @NotNull
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date createdAt;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    private State state;
+
+    private int attempts;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date nextAttemptAt;
+
+    public BuildStatusOutboxMessage() {
+    }
+
+    public BuildStatusOutboxMessage(
+            Integer buildId,
+            BuildStatus oldStatus,
+            BuildStatus newStatus,
+            String payload,
+            String headers,
+            Date createdAt) {
+        this.buildId = buildId;
+        this.oldStatus = oldStatus;
+        this.newStatus = newStatus;
+        this.payload = payload;
+        this.headers = headers;
+        this.createdAt = createdAt;
+        this.state = State.PENDING;
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getBuildId() {
+        return buildId;
+    }
+
+    public void setBuildId(Integer buildId) {
+        this.buildId = buildId;
+    }
+
+    public BuildStatus getOldStatus() {
+        return oldStatus;
+    }
+
+    public void setOldStatus(BuildStatus oldStatus) {
+        this.oldStatus = oldStatus;
+    }
+
+    public BuildStatus getNewStatus() {
+        return newStatus;
+    }
+
+    public void setNewStatus(BuildStatus newStatus) {
+        this.newStatus = newStatus;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public String getHeaders() {
+        return headers;
+    }
+
+    public void setHeaders(String headers) {
+        this.headers = headers;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Date getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(Date nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    /**
+     * @return true if the message is the status stored with the build record, its payload is rendered from the record
+     */
+    public boolean isStoredWithBuildRecord() {
+        return payload == null;
+    }
+
+    @Override
+    public String toString() {
+        return "BuildStatusOutboxMessage{id=" + id + ", buildId=" + buildId + ", oldStatus=" + oldStatus
+                + ", newStatus=" + newStatus + ", state=" + state + ", attempts=" + attempts + '}';
+    }
+}
@@ -0,0 +1,135 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.model;
+
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.ForeignKey;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Index of the product milestones an artifact was built in, consumed by or delivered in, so they are looked up by the
+ * artifact without joining its builds.
+ *
+ * The index is written when a build of a milestone is stored and when artifacts are delivered in a milestone. A link
+ * is written once per milestone, artifact and relation, but it is not enforced by a constraint, so that concurrent
+ * builds of a milestone don't fail on a shared dependency. Readers must not count on the links being unique.
+ */
+@Entity
+@Table(
+        indexes = { @Index(name = "idx_productmilestoneartifact_artifact", columnList = "artifact_id"),
+                @Index(name = "idx_productmilestoneartifact_productmilestone", columnList = "productMilestone_id") })
+public class ProductMilestoneArtifact implements GenericEntity<Long> {
+
+    private static final long serialVersionUID = 6023495718822947313L;
+
+    public static final String SEQUENCE_NAME = "product_milestone_artifact_id_seq";
+
+    public enum Relation {
+        /**
+         * The artifact was built by a build of the milestone.
+         */
+        BUILT,
+        /**
+         * The artifact is a dependency of a build of the milestone.
+         */
+        DEPENDENCY,
+        /**
+         * The artifact was delivered in the milestone, see {@link ProductMilestone#getDistributedArtifacts()}.
+         */
+        DELIVERED
+    }
+
+    @Id
+    @SequenceGenerator(name = SEQUENCE_NAME, sequenceName = SEQUENCE_NAME, allocationSize = 1)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = SEQUENCE_NAME)
+    private Long id;
+
+    @NotNull
+    @ManyToOne
+    @JoinColumn(foreignKey = @ForeignKey(name = "fk_productmilestoneartifact_artifact"), updatable = false)
+    private Artifact artifact;
+
+    @NotNull
+    @ManyToOne
+    @JoinColumn(foreignKey = @ForeignKey(name = "fk_productmilestoneartifact_productmilestone"), updatable = false)
+    private ProductMilestone productMilestone;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    private Relation relation;
+
+    public ProductMilestoneArtifact() {
+    }
+
+    public ProductMilestoneArtifact(Artifact artifact, ProductMilestone productMilestone, Relation relation) {
+        this.artifact = artifact;
+        this.productMilestone = productMilestone;
+        this.relation = relation;
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Artifact getArtifact() {
+        return artifact;
+    }
+
+    public void setArtifact(Artifact artifact) {
+        this.artifact = artifact;
+    }
+
+    public ProductMilestone getProductMilestone() {
+        return productMilestone;
+    }
+
+    public void setProductMilestone(ProductMilestone productMilestone) {
+        this.productMilestone = productMilestone;
+    }
+
+    public Relation getRelation() {
+        return relation;
+    }
+
+    public void setRelation(Relation relation) {
+        this.relation = relation;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductMilestoneArtifact{id=" + id + ", artifact=" + (artifact == null ? null : artifact.getId())
+                + ", productMilestone=" + (productMilestone == null ? null : productMilestone.getId()) + ", relation="
+                + relation + '}';
+    }
+}
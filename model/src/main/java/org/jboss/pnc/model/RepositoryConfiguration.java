@@ -36,7 +36,6 @@ import javax.validation.constraints.Size;
 
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
-import org.jboss.pnc.common.util.StringUtils;
 import org.jboss.pnc.common.util.UrlUtils;
 
 /**
@@ -74,9 +73,8 @@ public class RepositoryConfiguration implements GenericEntity<Integer> {
     }
 
     private void setNormalizedUrls() {
-        internalUrlNormalized = StringUtils.stripSuffix(UrlUtils.keepHostAndPathOnly(internalUrl), ".git");
-        externalUrlNormalized = externalUrl == null ? null
-                : StringUtils.stripSuffix(UrlUtils.keepHostAndPathOnly(externalUrl), ".git");
+        internalUrlNormalized = UrlUtils.normalizeScmUrl(internalUrl);
+        externalUrlNormalized = UrlUtils.normalizeScmUrl(externalUrl);
     }
 
     @Id
@@ -93,7 +91,7 @@ public class RepositoryConfiguration implements GenericEntity<Integer> {
     private String internalUrl;
 
     /**
-     * Normalized version of scm url to query against. Normalized version is without the protocol and .git extension.
+     * Normalized version of scm url to query against, see {@link UrlUtils#normalizeScmUrl(String)}.
      */
     @Size(max = 255)
     @Column(unique = true, updatable = false)
@@ -107,7 +105,7 @@ public class RepositoryConfiguration implements GenericEntity<Integer> {
     private String externalUrl;
 
     /**
-     * Normalized version of scm url to query against. Normalized version is without the protocol and .git extension.
+     * Normalized version of scm url to query against, see {@link UrlUtils#normalizeScmUrl(String)}.
      */
     @Size(max = 255)
     @Column(unique = true)
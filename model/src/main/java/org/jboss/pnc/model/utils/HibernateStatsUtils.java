@@ -321,6 +321,17 @@ public class HibernateStatsUtils {
         return collectionsStatMap;
     }
 
+    /**
+     * Get the global number of prepared statements acquired so far, used to estimate the number of statements run by
+     * a request
+     *
+     * @param statistics
+     * @return the number of prepared statements or -1 when the statistics are disabled
+     */
+    public static long getPrepareStatementCount(Statistics statistics) {
+        return statistics.isStatisticsEnabled() ? statistics.getPrepareStatementCount() : -1;
+    }
+
     /**
      * Get all the Hibernate generic statistics aggregated in a sorted Map
      * 
@@ -0,0 +1,156 @@
+--
+-- JBoss, Home of Professional Open Source.
+-- Copyright 2014-2020 Red Hat, Inc., and individual contributors
+-- as indicated by the @author tags.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+-- Normalize the SCM repository urls the same way as UrlUtils.normalizeScmUrl: the host in lower case, no repeated or
+-- trailing slashes and no .git extension. The normalized columns already contain only the host and the path.
+BEGIN transaction;
+
+    CREATE FUNCTION pg_temp.normalize_scm_url(url text) RETURNS text AS $$
+        SELECT lower(split_part(url, '/', 1)) || regexp_replace(
+            regexp_replace(
+                regexp_replace(
+                    regexp_replace(coalesce(substring(url from '/.*$'), ''), '/{2,}', '/', 'g'),
+                    '/+$', ''),
+                '\.git$', ''),
+            '/+$', '');
+    $$ LANGUAGE sql IMMUTABLE;
+
+    -- Verify that normalization does not make two repositories equal
+    do $$
+    declare
+        total_dupes integer;
+    begin
+        SELECT count(*)
+        INTO total_dupes
+        FROM (SELECT pg_temp.normalize_scm_url(internalurlnormalized) FROM repositoryconfiguration
+              GROUP BY 1 HAVING count(*) > 1) AS agg;
+        assert total_dupes = 0;
+
+        SELECT count(*)
+        INTO total_dupes
+        FROM (SELECT pg_temp.normalize_scm_url(externalurlnormalized) FROM repositoryconfiguration
+              WHERE externalurlnormalized IS NOT NULL
+              GROUP BY 1 HAVING count(*) > 1) AS agg;
+        assert total_dupes = 0;
+    end$$;
+
+    UPDATE repositoryconfiguration
+        SET internalurlnormalized = pg_temp.normalize_scm_url(internalurlnormalized),
+            externalurlnormalized = pg_temp.normalize_scm_url(externalurlnormalized);
+
+COMMIT;
+
+-- Move the dependency and dependent ids of the build records from the comma-separated text columns to link tables
+BEGIN transaction;
+
+    CREATE TABLE build_record_dependency (
+        buildrecord_id integer not null,
+        dependency_id integer not null,
+        primary key (buildrecord_id, dependency_id)
+    );
+
+    CREATE TABLE build_record_dependent (
+        buildrecord_id integer not null,
+        dependent_id integer not null,
+        primary key (buildrecord_id, dependent_id)
+    );
+
+    CREATE INDEX idx_build_record_dependency_dependency ON build_record_dependency (dependency_id);
+    CREATE INDEX idx_build_record_dependent_dependent ON build_record_dependent (dependent_id);
+
+    ALTER TABLE build_record_dependency ADD CONSTRAINT fk_build_record_dependency_br
+    FOREIGN KEY (buildrecord_id) REFERENCES buildrecord(id);
+    ALTER TABLE build_record_dependent ADD CONSTRAINT fk_build_record_dependent_br
+    FOREIGN KEY (buildrecord_id) REFERENCES buildrecord(id);
+
+    INSERT INTO build_record_dependency (buildrecord_id, dependency_id)
+        SELECT DISTINCT br.id, CAST(dep.id AS integer)
+        FROM buildrecord br, unnest(string_to_array(br.dependencybuildrecordids, ',')) AS dep(id)
+        WHERE dep.id <> '';
+
+    INSERT INTO build_record_dependent (buildrecord_id, dependent_id)
+        SELECT DISTINCT br.id, CAST(dep.id AS integer)
+        FROM buildrecord br, unnest(string_to_array(br.dependentbuildrecordids, ',')) AS dep(id)
+        WHERE dep.id <> '';
+
+    ALTER TABLE buildrecord DROP COLUMN dependencybuildrecordids;
+    ALTER TABLE buildrecord DROP COLUMN dependentbuildrecordids;
+
+COMMIT;
+
+-- Outbox of the build status messages sent to the message broker
+BEGIN transaction;
+
+    CREATE SEQUENCE build_status_outbox_message_id_seq START WITH 1 INCREMENT BY 1;
+
+    CREATE TABLE buildstatusoutboxmessage (
+        id bigint not null,
+        buildid integer not null,
+        oldstatus varchar(255),
+        newstatus varchar(255) not null,
+        payload text,
+        headers text,
+        createdat timestamp not null,
+        state varchar(255) not null,
+        attempts integer not null,
+        nextattemptat timestamp,
+        primary key (id)
+    );
+
+    CREATE INDEX idx_buildstatusoutboxmessage_state ON buildstatusoutboxmessage (state);
+    CREATE INDEX idx_buildstatusoutboxmessage_buildid ON buildstatusoutboxmessage (buildid);
+
+COMMIT;
+
+-- Index of the milestones an artifact was built in, consumed by or delivered in
+BEGIN transaction;
+
+    CREATE SEQUENCE product_milestone_artifact_id_seq START WITH 1 INCREMENT BY 1;
+
+    CREATE TABLE productmilestoneartifact (
+        id bigint not null,
+        artifact_id integer not null,
+        productmilestone_id integer not null,
+        relation varchar(255) not null,
+        primary key (id)
+    );
+
+    ALTER TABLE productmilestoneartifact ADD CONSTRAINT fk_productmilestoneartifact_artifact
+        FOREIGN KEY (artifact_id) REFERENCES artifact(id);
+    ALTER TABLE productmilestoneartifact ADD CONSTRAINT fk_productmilestoneartifact_productmilestone
+        FOREIGN KEY (productmilestone_id) REFERENCES productmilestone(id);
+
+    INSERT INTO productmilestoneartifact (id, artifact_id, productmilestone_id, relation)
+        SELECT nextval('product_milestone_artifact_id_seq'), link.artifact_id, link.productmilestone_id, link.relation
+        FROM (
+            SELECT DISTINCT a.id AS artifact_id, br.productmilestone_id, 'BUILT' AS relation
+                FROM artifact a JOIN buildrecord br ON a.buildrecord_id = br.id
+                WHERE br.productmilestone_id IS NOT NULL AND br.temporarybuild = false
+            UNION
+            SELECT DISTINCT dep.dependency_artifact_id, br.productmilestone_id, 'DEPENDENCY'
+                FROM build_record_artifact_dependencies_map dep JOIN buildrecord br ON dep.build_record_id = br.id
+                WHERE br.productmilestone_id IS NOT NULL AND br.temporarybuild = false
+            UNION
+            SELECT DISTINCT artifact_id, product_milestone_id, 'DELIVERED'
+                FROM product_milestone_distributed_artifacts_map
+        ) link;
+
+    CREATE INDEX idx_productmilestoneartifact_artifact ON productmilestoneartifact (artifact_id);
+    CREATE INDEX idx_productmilestoneartifact_productmilestone ON productmilestoneartifact (productmilestone_id);
+
+COMMIT;
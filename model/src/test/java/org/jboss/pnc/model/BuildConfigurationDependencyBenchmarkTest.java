@@ -0,0 +1,125 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.model;
+
+import org.jboss.pnc.test.category.DebugTest;
+import org.jboss.pnc.test.util.Benchmark;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Measures dependency closure computation and cycle checks on synthetic deep (single chain) and wide (random DAG)
+ * build config graphs, compared to the former work-list implementation.
+ */
+@Category(DebugTest.class)
+public class BuildConfigurationDependencyBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BuildConfigurationDependencyBenchmarkTest.class);
+
+    private static final int NODES = 2000;
+    private static final int WIDE_DEPENDENCIES_PER_NODE = 5;
+
+    @Test
+    public void deepGraph() throws Exception {
+        List<BuildConfiguration> configs = createConfigs();
+        long build = Benchmark.timeOnce(() -> {
+            for (int i = 1; i < NODES; i++) {
+                configs.get(i).addDependency(configs.get(i - 1));
+            }
+        });
+
+        measure("deep", configs, build);
+    }
+
+    @Test
+    public void wideGraph() throws Exception {
+        List<BuildConfiguration> configs = createConfigs();
+        Random random = new Random(42);
+        long build = Benchmark.timeOnce(() -> {
+            for (int i = 1; i < NODES; i++) {
+                for (int j = 0; j < WIDE_DEPENDENCIES_PER_NODE; j++) {
+                    configs.get(i).addDependency(configs.get(random.nextInt(i)));
+                }
+            }
+        });
+
+        measure("wide", configs, build);
+    }
+
+    private void measure(String graph, List<BuildConfiguration> configs, long build) throws Exception {
+        BuildConfiguration root = configs.get(NODES - 1);
+        BuildConfiguration leaf = configs.get(0);
+
+        long closure = Benchmark.time(1, root::getAllDependencies);
+        long legacyClosure = Benchmark.time(1, () -> legacyAllDependencies(root));
+        long dependsOn = Benchmark.time(1, () -> root.dependsOn(leaf));
+        long legacyDependsOn = Benchmark.time(1, () -> legacyAllDependencies(root).contains(leaf));
+
+        Assert.assertEquals(legacyAllDependencies(root), root.getAllDependencies());
+        log.info(
+                "{} graph of {} configs: adding edges with cycle checks {} ms, closure {} ms (legacy {} ms),"
+                        + " dependsOn {} ms (legacy {} ms).",
+                graph,
+                NODES,
+                build / 1_000_000,
+                closure / 1_000_000,
+                legacyClosure / 1_000_000,
+                dependsOn / 1_000_000,
+                legacyDependsOn / 1_000_000);
+    }
+
+    private List<BuildConfiguration> createConfigs() {
+        List<BuildConfiguration> configs = new ArrayList<>(NODES);
+        for (int i = 0; i < NODES; i++) {
+            configs.add(BuildConfiguration.Builder.newBuilder().id(i).name("config-" + i).build());
+        }
+        return configs;
+    }
+
+    /**
+     * The former implementation of {@link BuildConfiguration#getAllDependencies()}.
+     */
+    private static Set<BuildConfiguration> legacyAllDependencies(BuildConfiguration config) {
+        Set<BuildConfiguration> indirectDependencies = new HashSet<>();
+        List<BuildConfiguration> configsToCheck = new ArrayList<>(config.getDependencies());
+        while (!configsToCheck.isEmpty()) {
+            BuildConfiguration nextConfig = configsToCheck.get(0);
+            for (BuildConfiguration nextDep : nextConfig.getDependencies()) {
+                if (!indirectDependencies.contains(nextDep)) {
+                    indirectDependencies.add(nextDep);
+                    if (!configsToCheck.contains(nextDep)) {
+                        configsToCheck.add(nextDep);
+                    }
+                }
+            }
+            configsToCheck.remove(nextConfig);
+        }
+        Set<BuildConfiguration> allDependencies = new HashSet<>(config.getDependencies());
+        allDependencies.addAll(indirectDependencies);
+        return allDependencies;
+    }
+}
@@ -19,6 +19,9 @@ package org.jboss.pnc.model;
 
 import org.jboss.pnc.enums.SystemImageType;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 
 import javax.persistence.EntityManager;
@@ -103,6 +106,37 @@ public class BuildConfigurationDependencyTest extends AbstractModelTest {
         Assert.assertEquals(7, buildConfig1.getAllDependencies().size());
     }
 
+    @Test
+    public void testDependsOn() {
+        BuildConfiguration buildConfig1 = getBuildConfigBuilder().id(1).build();
+        BuildConfiguration buildConfig2 = getBuildConfigBuilder().id(2).build();
+        BuildConfiguration buildConfig3 = getBuildConfigBuilder().id(3).build();
+        BuildConfiguration buildConfig4 = getBuildConfigBuilder().id(4).build();
+
+        buildConfig1.addDependency(buildConfig2);
+        buildConfig2.addDependency(buildConfig3);
+
+        Assert.assertTrue(buildConfig1.dependsOn(buildConfig2));
+        Assert.assertTrue(buildConfig1.dependsOn(buildConfig3));
+        Assert.assertFalse(buildConfig1.dependsOn(buildConfig1));
+        Assert.assertFalse(buildConfig3.dependsOn(buildConfig1));
+        Assert.assertTrue(buildConfig1.dependsOnAny(Arrays.asList(buildConfig4, buildConfig3)));
+        Assert.assertFalse(buildConfig1.dependsOnAny(Collections.singletonList(buildConfig4)));
+        Assert.assertFalse(buildConfig1.dependsOnAny(Collections.emptyList()));
+    }
+
+    @Test(expected = PersistenceException.class)
+    public void testCircularDependencyDetectedFromDependencyIds() {
+        BuildConfiguration buildConfig1 = getBuildConfigBuilder().id(1).build();
+        BuildConfiguration buildConfig2 = getBuildConfigBuilder().id(2).build();
+        BuildConfiguration buildConfig3 = getBuildConfigBuilder().id(3).build();
+
+        buildConfig1.addDependency(buildConfig2);
+        buildConfig2.addDependency(buildConfig3);
+
+        buildConfig3.addDependency(buildConfig1, new HashSet<>(Arrays.asList(2, 3)));
+    }
+
     @Test(expected = PersistenceException.class)
     public void testBuildConfigurationDependenciesInDatabase() throws Exception {
 
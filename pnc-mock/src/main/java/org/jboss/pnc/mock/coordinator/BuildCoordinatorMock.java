@@ -29,6 +29,7 @@ import org.jboss.pnc.spi.BuildResult;
 import org.jboss.pnc.spi.coordinator.BuildCoordinator;
 import org.jboss.pnc.spi.coordinator.BuildSetTask;
 import org.jboss.pnc.spi.coordinator.BuildTask;
+import org.jboss.pnc.spi.coordinator.BuildTaskCounts;
 import org.jboss.pnc.spi.exception.CoreException;
 import org.mockito.Mockito;
 import org.slf4j.Logger;
@@ -88,6 +89,11 @@ public class BuildCoordinatorMock implements BuildCoordinator {
         return activeTasks;
     }
 
+    @Override
+    public BuildTaskCounts getBuildTaskCounts() {
+        return BuildTaskCounts.of(activeTasks);
+    }
+
     @Override
     public void completeBuild(BuildTask buildTask, BuildResult buildResult) {
 
@@ -18,9 +18,13 @@
 package org.jboss.pnc.mock.repository;
 
 import org.jboss.pnc.model.Artifact;
+import org.jboss.pnc.spi.datastore.predicates.ArtifactPredicates;
 import org.jboss.pnc.spi.datastore.repositories.ArtifactRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Author: Michal Szynkiewicz, michal.l.szynkiewicz@gmail.com Date: 9/22/16 Time: 12:05 PM
@@ -31,4 +35,16 @@ public class ArtifactRepositoryMock extends IntIdRepositoryMock<Artifact> implem
     public Set<Artifact> withIdentifierAndSha256s(Set<Artifact.IdentifierSha256> identifierSha256s) {
         throw new UnsupportedOperationException();
     }
+
+    @Override
+    public List<Artifact> withIdentifierInAndBuilt(Set<String> identifiers) {
+        return queryWithPredicates(ArtifactPredicates.withIdentifierInAndBuilt(identifiers));
+    }
+
+    @Override
+    public List<Artifact> withBuildRecordIdsFetchUsages(Collection<Integer> buildRecordIds) {
+        return data.stream()
+                .filter(a -> a.getBuildRecord() != null && buildRecordIds.contains(a.getBuildRecord().getId()))
+                .collect(Collectors.toList());
+    }
 }
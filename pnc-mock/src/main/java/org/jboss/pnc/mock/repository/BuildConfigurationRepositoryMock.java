@@ -20,9 +20,25 @@ package org.jboss.pnc.mock.repository;
 import org.jboss.pnc.model.BuildConfiguration;
 import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationRepository;
 
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 /**
  * Author: Michal Szynkiewicz, michal.l.szynkiewicz@gmail.com Date: 9/22/16 Time: 12:06 PM
  */
 public class BuildConfigurationRepositoryMock extends IntIdRepositoryMock<BuildConfiguration>
         implements BuildConfigurationRepository {
+
+    @Override
+    public Set<Integer> getDependencyIds(Integer buildConfigurationId) {
+        BuildConfiguration buildConfiguration = queryById(buildConfigurationId);
+        if (buildConfiguration == null) {
+            return Collections.emptySet();
+        }
+        return buildConfiguration.getAllDependencies()
+                .stream()
+                .map(BuildConfiguration::getId)
+                .collect(Collectors.toSet());
+    }
 }
@@ -26,12 +26,18 @@ import org.jboss.pnc.spi.datastore.repositories.api.PageInfo;
 import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
 import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
 
+import java.util.ArrayDeque;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static org.jboss.pnc.common.util.CollectionUtils.ofNullableCollection;
@@ -50,6 +56,11 @@ public class BuildRecordRepositoryMock extends IntIdRepositoryMock<BuildRecord>
         return queryById(id);
     }
 
+    @Override
+    public List<BuildRecord> findByIdsFetchProperties(Collection<Integer> ids) {
+        return ids.stream().map(this::queryById).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public List<BuildRecord> queryWithPredicatesUsingCursor(
@@ -93,9 +104,23 @@ public class BuildRecordRepositoryMock extends IntIdRepositoryMock<BuildRecord>
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Doesn't check the dependants and the no rebuild cause links of the builds.
+     */
     @Override
     public List<BuildRecord> findIndependentTemporaryBuildsOlderThan(Date date) {
-        return null;
+        return findIndependentTemporaryBuildsOlderThan(date, null, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<BuildRecord> findIndependentTemporaryBuildsOlderThan(Date date, Integer afterId, int limit) {
+        return data.stream()
+                .filter(BuildRecord::isTemporaryBuild)
+                .filter(buildRecord -> buildRecord.getEndTime() != null && buildRecord.getEndTime().before(date))
+                .filter(buildRecord -> afterId == null || buildRecord.getId() > afterId)
+                .sorted(Comparator.comparing(BuildRecord::getId))
+                .limit(limit)
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -142,4 +167,32 @@ public class BuildRecordRepositoryMock extends IntIdRepositoryMock<BuildRecord>
     public List<BuildRecord> getBuildByCausingRecord(Integer causingRecordId) {
         return null;
     }
+
+    @Override
+    public Set<Integer> getDependencyIds(Integer buildRecordId) {
+        return getLinkClosure(buildRecordId, BuildRecord::getDependencyBuildRecordIds);
+    }
+
+    @Override
+    public Set<Integer> getDependentIds(Integer buildRecordId) {
+        return getLinkClosure(buildRecordId, BuildRecord::getDependentBuildRecordIds);
+    }
+
+    private Set<Integer> getLinkClosure(Integer buildRecordId, Function<BuildRecord, Integer[]> links) {
+        Set<Integer> closure = new HashSet<>();
+        Deque<Integer> toVisit = new ArrayDeque<>();
+        toVisit.add(buildRecordId);
+        while (!toVisit.isEmpty()) {
+            BuildRecord buildRecord = queryById(toVisit.poll());
+            if (buildRecord == null) {
+                continue;
+            }
+            for (Integer id : links.apply(buildRecord)) {
+                if (closure.add(id)) {
+                    toVisit.add(id);
+                }
+            }
+        }
+        return closure;
+    }
 }
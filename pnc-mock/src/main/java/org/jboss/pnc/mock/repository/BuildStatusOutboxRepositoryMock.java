@@ -0,0 +1,87 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mock.repository;
+
+import org.jboss.pnc.model.BuildStatusOutboxMessage;
+import org.jboss.pnc.spi.datastore.repositories.BuildStatusOutboxRepository;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class BuildStatusOutboxRepositoryMock extends LongIdRepositoryMock<BuildStatusOutboxMessage>
+        implements BuildStatusOutboxRepository {
+
+    @Override
+    public List<BuildStatusOutboxMessage> queryPending(int maxResults, Date now) {
+        return data.stream()
+                .filter(m -> m.getState() == BuildStatusOutboxMessage.State.PENDING)
+                .filter(m -> data.stream().noneMatch(w -> isWaitingBefore(w, m, now)))
+                .sorted(Comparator.comparing(BuildStatusOutboxMessage::getId))
+                .limit(maxResults)
+                .collect(Collectors.toList());
+    }
+
+    private static boolean isWaitingBefore(
+            BuildStatusOutboxMessage waiting,
+            BuildStatusOutboxMessage message,
+            Date now) {
+        return waiting.getBuildId().equals(message.getBuildId())
+                && waiting.getState() == BuildStatusOutboxMessage.State.PENDING
+                && waiting.getNextAttemptAt() != null && waiting.getNextAttemptAt().after(now)
+                && waiting.getId() <= message.getId();
+    }
+
+    @Override
+    public long countPending() {
+        return data.stream().filter(m -> m.getState() == BuildStatusOutboxMessage.State.PENDING).count();
+    }
+
+    @Override
+    public Date queryOldestPendingCreatedAt() {
+        return data.stream()
+                .filter(m -> m.getState() == BuildStatusOutboxMessage.State.PENDING)
+                .map(BuildStatusOutboxMessage::getCreatedAt)
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+    }
+
+    @Override
+    public BuildStatusOutboxMessage queryPrevious(BuildStatusOutboxMessage message) {
+        return data.stream()
+                .filter(m -> m.getBuildId().equals(message.getBuildId()) && m.getId() < message.getId())
+                .max(Comparator.comparing(BuildStatusOutboxMessage::getId))
+                .orElse(null);
+    }
+
+    @Override
+    public boolean isStoredWithBuildRecord(Integer buildId) {
+        return data.stream().anyMatch(m -> m.getBuildId().equals(buildId) && m.isStoredWithBuildRecord());
+    }
+
+    @Override
+    public int deleteCreatedBefore(Date createdBefore, boolean pending) {
+        List<BuildStatusOutboxMessage> deleted = data.stream()
+                .filter(m -> m.getCreatedAt().before(createdBefore))
+                .filter(m -> pending || m.getState() != BuildStatusOutboxMessage.State.PENDING)
+                .collect(Collectors.toList());
+        data.removeAll(deleted);
+        return deleted.size();
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mock.repository;
+
+import org.jboss.pnc.model.Artifact;
+import org.jboss.pnc.model.BuildRecord;
+import org.jboss.pnc.model.ProductMilestone;
+import org.jboss.pnc.model.ProductMilestoneArtifact;
+import org.jboss.pnc.model.ProductMilestoneArtifact.Relation;
+import org.jboss.pnc.spi.datastore.repositories.ProductMilestoneArtifactRepository;
+
+import java.util.Collection;
+import java.util.Objects;
+
+public class ProductMilestoneArtifactRepositoryMock extends LongIdRepositoryMock<ProductMilestoneArtifact>
+        implements ProductMilestoneArtifactRepository {
+
+    @Override
+    public void indexBuildRecord(BuildRecord buildRecord, Collection<Artifact> builtArtifacts) {
+        if (buildRecord.getProductMilestone() != null && !buildRecord.isTemporaryBuild()) {
+            index(buildRecord.getProductMilestone(), builtArtifacts, Relation.BUILT);
+            index(buildRecord.getProductMilestone(), buildRecord.getDependencies(), Relation.DEPENDENCY);
+        }
+    }
+
+    @Override
+    public void indexDeliveredArtifacts(ProductMilestone productMilestone, Collection<Artifact> deliveredArtifacts) {
+        index(productMilestone, deliveredArtifacts, Relation.DELIVERED);
+    }
+
+    @Override
+    public void removeArtifacts(Collection<Artifact> artifacts) {
+        for (Artifact artifact : artifacts) {
+            data.removeIf(l -> Objects.equals(l.getArtifact().getId(), artifact.getId()));
+        }
+    }
+
+    private void index(ProductMilestone productMilestone, Collection<Artifact> artifacts, Relation relation) {
+        for (Artifact artifact : artifacts) {
+            boolean indexed = data.stream()
+                    .anyMatch(
+                            l -> Objects.equals(l.getProductMilestone().getId(), productMilestone.getId())
+                                    && Objects.equals(l.getArtifact().getId(), artifact.getId())
+                                    && l.getRelation() == relation);
+            if (!indexed) {
+                save(new ProductMilestoneArtifact(artifact, productMilestone, relation));
+            }
+        }
+    }
+}
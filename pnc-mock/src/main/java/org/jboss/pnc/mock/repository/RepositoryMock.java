@@ -23,6 +23,8 @@ import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
 import org.jboss.pnc.spi.datastore.repositories.api.Repository;
 import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
 
+import javax.persistence.Tuple;
+
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.Collections;
@@ -72,6 +74,23 @@ public abstract class RepositoryMock<ID extends Serializable, EntityType extends
         return Collections.emptyList();
     }
 
+    @Override
+    public List<EntityType> queryWithPredicatesAndLookahead(
+            PageInfo pageInfo,
+            SortInfo sortInfo,
+            Predicate<EntityType>... predicates) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<Tuple> queryAttributesWithPredicatesAndLookahead(
+            PageInfo pageInfo,
+            SortInfo sortInfo,
+            Collection<String> attributes,
+            Predicate<EntityType>... predicates) {
+        return Collections.emptyList();
+    }
+
     @Override
     public List<EntityType> queryWithPredicates(Predicate<EntityType>... predicates) {
         return Collections.emptyList();
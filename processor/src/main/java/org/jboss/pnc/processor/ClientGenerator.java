@@ -164,7 +164,8 @@ public class ClientGenerator extends AbstractProcessor {
 
                         String coreStatement1 = "PageReader pageLoader = new PageReader<>((pageParameters) -> { "
                                 + setSortAndQuery + " return getEndpoint()." + restApiMethod.getSimpleName() + "("
-                                + endpointInvokeParameters + ");}, getRemoteCollectionConfig())";
+                                + endpointInvokeParameters + ");}, getRemoteCollectionConfig("
+                                + isPageTotalsSupported(restApiMethod) + "))";
                         String coreStatement2 = "return pageLoader.getCollection()";
                         defaultMethod.returns(ParameterizedTypeName.get(returnClass, TypeName.get(returnGeneric)))
                                 .addStatement(coreStatement1)
@@ -353,6 +354,18 @@ public class ClientGenerator extends AbstractProcessor {
         }
     }
 
+    /**
+     * The annotation is matched by name as the processor doesn't depend on the REST API it generates the client for.
+     */
+    private boolean isPageTotalsSupported(ExecutableElement restApiMethod) {
+        return restApiMethod.getAnnotationMirrors()
+                .stream()
+                .anyMatch(
+                        annotation -> annotation.getAnnotationType()
+                                .toString()
+                                .equals("org.jboss.pnc.rest.annotation.PageTotalsSupported"));
+    }
+
     private String getParameters(ExecutableElement restApiMethod) {
         List<String> parameters = new ArrayList<>();
         for (VariableElement parameter : restApiMethod.getParameters()) {
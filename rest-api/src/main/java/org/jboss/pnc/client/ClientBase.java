@@ -20,6 +20,7 @@ package org.jboss.pnc.client;
 import org.jboss.pnc.client.patch.PatchBase;
 import org.jboss.pnc.client.patch.PatchBuilderException;
 import org.jboss.pnc.dto.response.ErrorResponse;
+import org.jboss.pnc.enums.PageTotals;
 import org.jboss.pnc.rest.api.parameters.PageParameters;
 import org.jboss.resteasy.client.jaxrs.ProxyBuilder;
 import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
@@ -106,11 +107,29 @@ public abstract class ClientBase<T> implements Closeable {
     }
 
     RemoteCollectionConfig getRemoteCollectionConfig() {
+        return getRemoteCollectionConfig(true);
+    }
+
+    /**
+     * @param pageTotalsSupported whether the endpoint computes the totals as configured, EXACT totals are requested
+     *        from the other endpoints as they reject any other
+     */
+    RemoteCollectionConfig getRemoteCollectionConfig(boolean pageTotalsSupported) {
+        PageTotals totals = configuration.getPageTotals();
+        if (totals == null || !pageTotalsSupported) {
+            totals = PageTotals.EXACT;
+        }
         int pageSize = configuration.getPageSize();
         if (pageSize < 1) {
             pageSize = 100;
         }
-        return new RemoteCollectionConfig(pageSize);
+        int maxConcurrentRequests = Math.max(1, configuration.getMaxConcurrentRequests());
+        return RemoteCollectionConfig.builder()
+                .pageSize(pageSize)
+                .prefetchPages(Math.max(0, configuration.getPrefetchPages()))
+                .maxConcurrentRequests(maxConcurrentRequests)
+                .totals(totals)
+                .build();
     }
 
     protected void setSortAndQuery(PageParameters pageParameters, Optional<String> sort, Optional<String> q) {
@@ -22,6 +22,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.Getter;
 import org.jboss.pnc.common.logging.MDCUtils;
+import org.jboss.pnc.enums.PageTotals;
 
 import java.util.Base64;
 import java.util.HashMap;
@@ -61,6 +62,24 @@ public class Configuration {
      */
     private final int pageSize;
 
+    /**
+     * Number of pages of remote collections fetched in the background ahead of the iteration. Defaults to 0, which
+     * disables prefetching.
+     */
+    private final int prefetchPages;
+
+    /**
+     * Maximal number of pages of one remote collection fetched in parallel when prefetching. Defaults to 1.
+     */
+    private final int maxConcurrentRequests;
+
+    /**
+     * How the server computes the totals of remote collections. Defaults to {@link PageTotals#EXACT}, use
+     * {@link PageTotals#NONE} when the size of the collections is not needed. Applies only to the collections whose
+     * endpoints support it, the others always use exact totals.
+     */
+    private final PageTotals pageTotals;
+
     /**
      * Define which values from the logging MDC are added as headers to the request. A key is a MDC key. A value is a
      * header name
@@ -37,9 +37,9 @@ public class DefaultRemoteCollection<T> implements RemoteCollection<T> {
 
     private final Logger logger = LoggerFactory.getLogger(DefaultRemoteCollection.class);
 
-    private Function<PageParameters, Page<T>> endpoint;
+    protected Function<PageParameters, Page<T>> endpoint;
 
-    private RemoteCollectionConfig config;
+    protected RemoteCollectionConfig config;
 
     protected Page<T> currentPage;
 
@@ -49,6 +49,7 @@ public class DefaultRemoteCollection<T> implements RemoteCollection<T> {
         PageParameters intialPageParameters = new PageParameters();
         intialPageParameters.setPageIndex(0);
         intialPageParameters.setPageSize(config.getPageSize());
+        intialPageParameters.setTotals(config.getTotals());
         logger.debug("Loading first page.");
         currentPage = endpoint.apply(intialPageParameters);
     }
@@ -84,6 +85,7 @@ public class DefaultRemoteCollection<T> implements RemoteCollection<T> {
         PageParameters pageParametersNext = new PageParameters();
         pageParametersNext.setPageSize(currentPage.getPageSize());
         pageParametersNext.setPageIndex(newPageIndex);
+        pageParametersNext.setTotals(config.getTotals());
         return endpoint.apply(pageParametersNext);
     }
 
@@ -99,7 +101,7 @@ public class DefaultRemoteCollection<T> implements RemoteCollection<T> {
         public boolean hasNext() {
             if (iterator.hasNext()) {
                 return true;
-            } else if (currentPage.getPageIndex() < currentPage.getTotalPages() - 1) {
+            } else if (currentPage.hasNextPage()) {
                 currentPage = loadNextPage(endpoint, currentPage);
                 iterator = currentPage.getContent().iterator();
                 return iterator.hasNext();
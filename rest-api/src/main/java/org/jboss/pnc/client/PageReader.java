@@ -37,6 +37,9 @@ public class PageReader<T> {
     }
 
     public RemoteCollection<T> getCollection() {
+        if (config.getPrefetchPages() > 0) {
+            return new PrefetchingRemoteCollection<>(endpoint, config);
+        }
         return new DefaultRemoteCollection<>(endpoint, config);
     }
 
@@ -0,0 +1,175 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.client;
+
+import org.jboss.pnc.dto.response.Page;
+import org.jboss.pnc.rest.api.parameters.PageParameters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Remote collection that loads the following pages in the background while the current one is being iterated.
+ *
+ * Up to {@link RemoteCollectionConfig#getPrefetchPages()} pages are requested ahead of the iteration and at most
+ * {@link RemoteCollectionConfig#getMaxConcurrentRequests()} of them are loaded in parallel. Pages are handed over in
+ * order and released once iterated, so at most prefetchPages + 1 pages are held in memory.
+ */
+public class PrefetchingRemoteCollection<T> extends DefaultRemoteCollection<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrefetchingRemoteCollection.class);
+
+    private static final AtomicInteger threadNumber = new AtomicInteger();
+
+    private static final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "remote-collection-prefetch-" + threadNumber.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Page<T> firstPage;
+
+    private final Semaphore concurrentRequests;
+
+    public PrefetchingRemoteCollection(Function<PageParameters, Page<T>> endpoint, RemoteCollectionConfig config) {
+        super(endpoint, config);
+        this.firstPage = currentPage;
+        this.concurrentRequests = new Semaphore(Math.max(1, config.getMaxConcurrentRequests()));
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new PrefetchingIterator();
+    }
+
+    private Page<T> loadPage(int pageIndex, Map<String, String> mdc) {
+        if (mdc != null) {
+            MDC.setContextMap(mdc);
+        }
+        try {
+            concurrentRequests.acquire();
+            try {
+                logger.debug("Prefetching page. Index {}", pageIndex);
+                PageParameters pageParameters = new PageParameters();
+                pageParameters.setPageSize(firstPage.getPageSize());
+                pageParameters.setPageIndex(pageIndex);
+                pageParameters.setTotals(config.getTotals());
+                return endpoint.apply(pageParameters);
+            } finally {
+                concurrentRequests.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting to load page " + pageIndex + ".", e);
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    private class PrefetchingIterator implements Iterator<T> {
+
+        private final Deque<CompletableFuture<Page<T>>> prefetched = new ArrayDeque<>();
+
+        private final Map<String, String> mdc = MDC.getCopyOfContextMap();
+
+        private Iterator<T> iterator = firstPage.getContent().iterator();
+
+        private int nextPageIndex = firstPage.getPageIndex() + 1;
+
+        /**
+         * Set once a page without a following page is loaded, when the total pages are unknown.
+         */
+        private boolean lastPageLoaded = !firstPage.hasNextPage();
+
+        private PrefetchingIterator() {
+            prefetch();
+        }
+
+        private void prefetch() {
+            while (prefetched.size() < config.getPrefetchPages() && hasPageToPrefetch()) {
+                final int pageIndex = nextPageIndex++;
+                prefetched.add(CompletableFuture.supplyAsync(() -> loadPage(pageIndex, mdc), executor));
+            }
+        }
+
+        private boolean hasPageToPrefetch() {
+            if (firstPage.getTotalPages() < 0) {
+                // totals are not counted, pages are requested ahead until one says it is the last one
+                return !lastPageLoaded;
+            }
+            return nextPageIndex < firstPage.getTotalPages();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!iterator.hasNext()) {
+                CompletableFuture<Page<T>> next = prefetched.poll();
+                if (next == null) {
+                    return false;
+                }
+                Page<T> page = join(next);
+                if (!page.hasNextPage()) {
+                    lastPageLoaded = true;
+                    if (firstPage.getTotalPages() < 0) {
+                        // pages requested past the last one are empty
+                        prefetched.forEach(f -> f.cancel(false));
+                        prefetched.clear();
+                    }
+                }
+                prefetch();
+                iterator = page.getContent().iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (hasNext()) {
+                return iterator.next();
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        private Page<T> join(CompletableFuture<Page<T>> future) {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                prefetched.forEach(f -> f.cancel(false));
+                prefetched.clear();
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+}
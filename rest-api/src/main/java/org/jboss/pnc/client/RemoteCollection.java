@@ -21,11 +21,17 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @author <a href="mailto:matejonnet@gmail.com">Matej Lazar</a>
  */
 public interface RemoteCollection<T> extends Iterable<T> {
+
+    /**
+     * Number of all elements, -1 when the server doesn't count them (see {@link RemoteCollectionConfig#getTotals()}).
+     */
     int size();
 
     /**
@@ -33,6 +39,14 @@ public interface RemoteCollection<T> extends Iterable<T> {
      */
     Collection<T> getAll();
 
+    /**
+     * Sequential stream of all elements. Pages are loaded as the stream is consumed and are not retained, so unlike
+     * {@link #getAll()} it doesn't hold all the elements in memory.
+     */
+    default Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
     static <T> RemoteCollection<T> empty() {
         return new RemoteCollection<T>() {
             @Override
@@ -19,6 +19,7 @@ package org.jboss.pnc.client;
 
 import lombok.Builder;
 import lombok.Getter;
+import org.jboss.pnc.enums.PageTotals;
 
 /**
  * @author <a href="mailto:matejonnet@gmail.com">Matej Lazar</a>
@@ -29,4 +30,24 @@ public class RemoteCollectionConfig {
 
     private int pageSize;
 
+    /**
+     * Number of pages loaded in the background ahead of the page being iterated. 0 disables prefetching and pages are
+     * loaded one by one as the iterator drains them.
+     */
+    private int prefetchPages;
+
+    /**
+     * Maximal number of pages of one collection loaded in parallel when prefetching. Note that the requests share the
+     * HTTP connection pool of the client.
+     */
+    @Builder.Default
+    private int maxConcurrentRequests = 1;
+
+    /**
+     * How the server computes the totals of the pages. With {@link PageTotals#NONE} the server doesn't count the
+     * entries at all and {@link RemoteCollection#size()} is unknown.
+     */
+    @Builder.Default
+    private PageTotals totals = PageTotals.EXACT;
+
 }
@@ -30,13 +30,16 @@ import org.jboss.pnc.dto.response.ErrorResponse;
 import org.jboss.pnc.dto.response.MilestoneInfo;
 import org.jboss.pnc.dto.response.Page;
 import org.jboss.pnc.processor.annotation.Client;
+import org.jboss.pnc.rest.annotation.PageTotalsSupported;
 import org.jboss.pnc.rest.annotation.RespondWithStatus;
+import org.jboss.pnc.rest.annotation.SparseFieldsSupported;
 import org.jboss.pnc.rest.api.parameters.PageParameters;
 import org.jboss.pnc.rest.api.swagger.response.SwaggerPages.ArtifactPage;
 import org.jboss.pnc.rest.api.swagger.response.SwaggerPages.ArtifactRevisionPage;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
 import javax.ws.rs.BeanParam;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
@@ -48,10 +51,14 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+
+import java.util.List;
+import java.util.Map;
 import org.jboss.pnc.dto.Build;
 import org.jboss.pnc.rest.api.parameters.PaginationParameters;
 import org.jboss.pnc.rest.api.swagger.response.SwaggerPages;
 
+import org.jboss.pnc.rest.configuration.Constants;
 import org.jboss.pnc.rest.configuration.SwaggerConstants;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.CONFLICTED_CODE;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.CONFLICTED_DESCRIPTION;
@@ -107,6 +114,8 @@ public interface ArtifactEndpoint {
                             description = SERVER_ERROR_DESCRIPTION,
                             content = @Content(schema = @Schema(implementation = ErrorResponse.class))) })
     @GET
+    @PageTotalsSupported
+    @SparseFieldsSupported
     Page<Artifact> getAll(
             @Valid @BeanParam PageParameters pageParams,
             @Parameter(description = FILTER_SHA256_DESC) @QueryParam("sha256") String sha256,
@@ -265,7 +274,8 @@ public interface ArtifactEndpoint {
             @Parameter(description = A_ID) @PathParam("id") String id,
             @BeanParam PageParameters pageParams);
 
-    static final String GET_MILESTONES_INFO_DESC = "Gets the milestones that produced or consumed this artifact.";
+    static final String GET_MILESTONES_INFO_DESC = "Gets the milestones that produced, consumed or delivered this "
+            + "artifact.";
 
     /**
      * {@value GET_MILESTONES_INFO_DESC}
@@ -293,6 +303,33 @@ public interface ArtifactEndpoint {
             @Parameter(description = A_ID) @PathParam("id") String id,
             @BeanParam PaginationParameters pageParams);
 
+    static final String GET_MILESTONES_INFO_OF_ARTIFACTS_DESC = "Gets the milestones that produced, consumed or "
+            + "delivered each of the artifacts.";
+    static final String A_IDS = "IDs of the artifacts, at most " + Constants.MAX_IDS_IN_REQUEST + " of them";
+
+    /**
+     * {@value GET_MILESTONES_INFO_OF_ARTIFACTS_DESC}
+     *
+     * @param ids {@value A_IDS}
+     * @return milestones by artifact id
+     */
+    @Operation(
+            summary = GET_MILESTONES_INFO_OF_ARTIFACTS_DESC,
+            responses = {
+                    @ApiResponse(responseCode = SUCCESS_CODE, description = SUCCESS_DESCRIPTION),
+                    @ApiResponse(
+                            responseCode = INVALID_CODE,
+                            description = INVALID_DESCRIPTION,
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+                    @ApiResponse(
+                            responseCode = SERVER_ERROR_CODE,
+                            description = SERVER_ERROR_DESCRIPTION,
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))) })
+    @POST
+    @Path("/milestones")
+    Map<String, List<MilestoneInfo>> getMilestonesInfoOfArtifacts(
+            @Parameter(description = A_IDS) @NotNull @Size(max = Constants.MAX_IDS_IN_REQUEST) List<String> ids);
+
     static final String GET_ARTIFACT_REVISIONS_DESC = "Gets audited revisions of this artifact.";
 
     /**
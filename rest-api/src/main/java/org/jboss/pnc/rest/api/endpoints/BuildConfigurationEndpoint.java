@@ -35,7 +35,9 @@ import org.jboss.pnc.dto.response.BuildConfigCreationResponse;
 import org.jboss.pnc.dto.response.ErrorResponse;
 import org.jboss.pnc.dto.response.Page;
 import org.jboss.pnc.processor.annotation.Client;
+import org.jboss.pnc.rest.annotation.PageTotalsSupported;
 import org.jboss.pnc.rest.annotation.RespondWithStatus;
+import org.jboss.pnc.rest.annotation.SparseFieldsSupported;
 import org.jboss.pnc.rest.api.parameters.BuildParameters;
 import org.jboss.pnc.rest.api.parameters.BuildsFilterParameters;
 import org.jboss.pnc.rest.api.parameters.PageParameters;
@@ -115,6 +117,7 @@ public interface BuildConfigurationEndpoint {
                             description = SERVER_ERROR_DESCRIPTION,
                             content = @Content(schema = @Schema(implementation = ErrorResponse.class))) })
     @GET
+    @PageTotalsSupported
     Page<BuildConfiguration> getAll(@Valid @BeanParam PageParameters pageParams);
 
     static final String CREATE_NEW_DESC = "Creates a new build config.";
@@ -292,6 +295,8 @@ public interface BuildConfigurationEndpoint {
                             content = @Content(schema = @Schema(implementation = ErrorResponse.class))) })
     @GET
     @Path("/{id}/builds")
+    @PageTotalsSupported
+    @SparseFieldsSupported
     Page<Build> getBuilds(
             @Parameter(description = BC_ID) @PathParam("id") String id,
             @Valid @BeanParam PageParameters pageParams,
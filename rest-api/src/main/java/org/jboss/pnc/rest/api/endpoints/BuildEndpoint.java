@@ -36,7 +36,9 @@ import org.jboss.pnc.dto.response.SSHCredentials;
 import org.jboss.pnc.enums.BuildStatus;
 import org.jboss.pnc.pncmetrics.rest.TimedMetric;
 import org.jboss.pnc.processor.annotation.Client;
+import org.jboss.pnc.rest.annotation.PageTotalsSupported;
 import org.jboss.pnc.rest.annotation.RespondWithStatus;
+import org.jboss.pnc.rest.annotation.SparseFieldsSupported;
 import org.jboss.pnc.rest.api.parameters.BuildsFilterParameters;
 import org.jboss.pnc.rest.api.parameters.PageParameters;
 import org.jboss.pnc.rest.api.swagger.response.SwaggerGraphs.BuildsGraph;
@@ -130,6 +132,8 @@ public interface BuildEndpoint {
                             content = @Content(schema = @Schema(implementation = ErrorResponse.class))) })
     @GET
     @TimedMetric
+    @PageTotalsSupported
+    @SparseFieldsSupported
     Page<Build> getAll(
             @Valid @BeanParam PageParameters pageParams,
             @BeanParam BuildsFilterParameters filterParams,
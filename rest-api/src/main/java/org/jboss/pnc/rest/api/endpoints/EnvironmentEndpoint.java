@@ -28,6 +28,7 @@ import org.jboss.pnc.dto.Environment;
 import org.jboss.pnc.dto.response.ErrorResponse;
 import org.jboss.pnc.dto.response.Page;
 import org.jboss.pnc.processor.annotation.Client;
+import org.jboss.pnc.rest.annotation.PageTotalsSupported;
 import org.jboss.pnc.rest.api.parameters.PageParameters;
 import org.jboss.pnc.rest.api.swagger.response.SwaggerPages.BuildEnvironmentPage;
 
@@ -81,6 +82,7 @@ public interface EnvironmentEndpoint {
                             description = SERVER_ERROR_DESCRIPTION,
                             content = @Content(schema = @Schema(implementation = ErrorResponse.class))) })
     @GET
+    @PageTotalsSupported
     Page<Environment> getAll(@Valid @BeanParam PageParameters pageParameters);
 
     static final String GET_SPECIFIC_DESC = "Gets a specific environment.";
@@ -32,7 +32,9 @@ import org.jboss.pnc.dto.response.Graph;
 import org.jboss.pnc.dto.response.Page;
 import org.jboss.pnc.pncmetrics.rest.TimedMetric;
 import org.jboss.pnc.processor.annotation.Client;
+import org.jboss.pnc.rest.annotation.PageTotalsSupported;
 import org.jboss.pnc.rest.annotation.RespondWithStatus;
+import org.jboss.pnc.rest.annotation.SparseFieldsSupported;
 import org.jboss.pnc.rest.api.parameters.BuildsFilterParameters;
 import org.jboss.pnc.rest.api.parameters.PageParameters;
 import org.jboss.pnc.rest.api.swagger.response.SwaggerGraphs.BuildsGraph;
@@ -100,6 +102,7 @@ public interface GroupBuildEndpoint {
                             content = @Content(schema = @Schema(implementation = ErrorResponse.class))) })
     @GET
     @TimedMetric
+    @PageTotalsSupported
     Page<GroupBuild> getAll(@Valid @BeanParam PageParameters pageParams);
 
     static final String GET_SPECIFIC_DESC = "Gets specific group build.";
@@ -181,6 +184,8 @@ public interface GroupBuildEndpoint {
     @GET
     @Path("/{id}/builds")
     @TimedMetric
+    @PageTotalsSupported
+    @SparseFieldsSupported
     Page<Build> getBuilds(
             @Parameter(description = GB_ID) @PathParam("id") String id,
             @Valid @BeanParam PageParameters pageParams,
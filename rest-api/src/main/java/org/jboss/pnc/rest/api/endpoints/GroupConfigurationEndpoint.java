@@ -33,7 +33,9 @@ import org.jboss.pnc.dto.requests.GroupBuildRequest;
 import org.jboss.pnc.dto.response.ErrorResponse;
 import org.jboss.pnc.dto.response.Page;
 import org.jboss.pnc.processor.annotation.Client;
+import org.jboss.pnc.rest.annotation.PageTotalsSupported;
 import org.jboss.pnc.rest.annotation.RespondWithStatus;
+import org.jboss.pnc.rest.annotation.SparseFieldsSupported;
 import org.jboss.pnc.rest.api.parameters.BuildsFilterParameters;
 import org.jboss.pnc.rest.api.parameters.GroupBuildParameters;
 import org.jboss.pnc.rest.api.parameters.PageParameters;
@@ -108,6 +110,7 @@ public interface GroupConfigurationEndpoint {
                             description = SERVER_ERROR_DESCRIPTION,
                             content = @Content(schema = @Schema(implementation = ErrorResponse.class))) })
     @GET
+    @PageTotalsSupported
     Page<GroupConfiguration> getAll(@Valid @BeanParam PageParameters pageParams);
 
     static final String CREATE_NEW_DESC = "Creates a new group config.";
@@ -369,6 +372,8 @@ public interface GroupConfigurationEndpoint {
                             content = @Content(schema = @Schema(implementation = ErrorResponse.class))) })
     @GET
     @Path("/{id}/builds")
+    @PageTotalsSupported
+    @SparseFieldsSupported
     Page<Build> getBuilds(
             @Parameter(description = GC_ID) @PathParam("id") String id,
             @Valid @BeanParam PageParameters pageParams,
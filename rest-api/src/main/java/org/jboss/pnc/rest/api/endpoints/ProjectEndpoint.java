@@ -30,7 +30,9 @@ import org.jboss.pnc.dto.Project;
 import org.jboss.pnc.dto.response.ErrorResponse;
 import org.jboss.pnc.dto.response.Page;
 import org.jboss.pnc.processor.annotation.Client;
+import org.jboss.pnc.rest.annotation.PageTotalsSupported;
 import org.jboss.pnc.rest.annotation.RespondWithStatus;
+import org.jboss.pnc.rest.annotation.SparseFieldsSupported;
 import org.jboss.pnc.rest.api.parameters.BuildsFilterParameters;
 import org.jboss.pnc.rest.api.parameters.PageParameters;
 import org.jboss.pnc.rest.api.swagger.response.SwaggerPages.BuildConfigPage;
@@ -99,6 +101,7 @@ public interface ProjectEndpoint {
                             description = SERVER_ERROR_DESCRIPTION,
                             content = @Content(schema = @Schema(implementation = ErrorResponse.class))) })
     @GET
+    @PageTotalsSupported
     Page<Project> getAll(@Valid @BeanParam PageParameters pageParameters);
 
     static final String CREATE_NEW_DESC = "Creates a new project.";
@@ -271,6 +274,8 @@ public interface ProjectEndpoint {
                             content = @Content(schema = @Schema(implementation = ErrorResponse.class))) })
     @GET
     @Path("/{id}/builds")
+    @PageTotalsSupported
+    @SparseFieldsSupported
     Page<Build> getBuilds(
             @Parameter(description = BC_ID) @PathParam("id") String id,
             @Valid @BeanParam PageParameters pageParams,
@@ -17,11 +17,13 @@
  */
 package org.jboss.pnc.rest.api.parameters;
 
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.QueryParam;
 
 import io.swagger.v3.oas.annotations.Parameter;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.jboss.pnc.enums.PageTotals;
 import org.jboss.pnc.rest.configuration.SwaggerConstants;
 
 /**
@@ -47,4 +49,19 @@ public class PageParameters extends PaginationParameters {
     @QueryParam(SwaggerConstants.QUERY_QUERY_PARAM)
     private String q;
 
+    /**
+     * {@value SwaggerConstants#PAGE_TOTALS_DESCRIPTION}
+     */
+    @Parameter(description = SwaggerConstants.PAGE_TOTALS_DESCRIPTION)
+    @QueryParam(SwaggerConstants.PAGE_TOTALS_QUERY_PARAM)
+    @DefaultValue(SwaggerConstants.PAGE_TOTALS_DEFAULT_VALUE)
+    private PageTotals totals;
+
+    /**
+     * {@value SwaggerConstants#FIELDS_DESCRIPTION}
+     */
+    @Parameter(description = SwaggerConstants.FIELDS_DESCRIPTION)
+    @QueryParam(SwaggerConstants.FIELDS_QUERY_PARAM)
+    private String fields;
+
 }
@@ -24,4 +24,6 @@ package org.jboss.pnc.rest.configuration;
 public class Constants {
 
     public static final int MAX_PAGE_SIZE = 200;
+
+    public static final int MAX_IDS_IN_REQUEST = 1000;
 }
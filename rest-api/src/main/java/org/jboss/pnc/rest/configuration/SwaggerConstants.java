@@ -58,6 +58,16 @@ public interface SwaggerConstants {
             + MAX_PAGE_SIZE + ".";
     public static final String PAGE_SIZE_QUERY_PARAM = "pageSize";
     public static final String PAGE_SIZE_DEFAULT_VALUE = "50";
+    public static final String PAGE_TOTALS_DESCRIPTION = "How to compute total hits of the collection. EXACT counts them "
+            + "for every page, CACHED may reuse a recent count and NONE doesn't count them at all (total hits and "
+            + "pages are -1 and 'hasMore' tells whether there is a next page). Endpoints not supporting it reject "
+            + "values other than EXACT.";
+    public static final String PAGE_TOTALS_QUERY_PARAM = "totals";
+    public static final String PAGE_TOTALS_DEFAULT_VALUE = "EXACT";
+    public static final String FIELDS_DESCRIPTION = "Comma separated list of the fields of the returned entities, "
+            + "the other fields are null. The id is always returned. Supported only by the lists of builds and "
+            + "artifacts, the other endpoints reject it. All fields are returned when empty.";
+    public static final String FIELDS_QUERY_PARAM = "fields";
     public static final String SORTING_DESCRIPTION = "Sorting RSQL. Format: sort=asc=path.to.field (or =desc=).";
     public static final String SORTING_QUERY_PARAM = "sort";
     public static final String QUERY_DESCRIPTION = "RSQL Query.";
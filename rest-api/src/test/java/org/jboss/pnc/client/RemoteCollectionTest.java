@@ -18,6 +18,7 @@
 package org.jboss.pnc.client;
 
 import org.jboss.pnc.dto.response.Page;
+import org.jboss.pnc.enums.PageTotals;
 import org.jboss.pnc.rest.api.parameters.PageParameters;
 import org.junit.Assert;
 import org.junit.Test;
@@ -28,6 +29,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * @author <a href="mailto:matejonnet@gmail.com">Matej Lazar</a>
@@ -61,6 +63,85 @@ public class RemoteCollectionTest {
         Assert.assertEquals(5, collected.get(5).id);
     }
 
+    @Test
+    public void shouldPrefetchPagesInOrder() {
+        AtomicInteger loadedPages = new AtomicInteger();
+        Function<PageParameters, Page<Entity>> endpoint = (parameters) -> {
+            loadedPages.incrementAndGet();
+            Collection<Entity> collection = new ArrayList<>();
+            int first = parameters.getPageIndex() * parameters.getPageSize();
+            for (int i = first; i < Math.min(first + parameters.getPageSize(), 25); i++) {
+                collection.add(new Entity(i));
+            }
+            return new Page<>(parameters.getPageIndex(), parameters.getPageSize(), 9, 25, collection);
+        };
+        RemoteCollectionConfig config = RemoteCollectionConfig.builder()
+                .pageSize(3)
+                .prefetchPages(4)
+                .maxConcurrentRequests(2)
+                .build();
+        RemoteCollection<Entity> collection = new PageReader<>(endpoint, config).getCollection();
+
+        List<Integer> collected = collection.stream().map(e -> e.id).collect(Collectors.toList());
+
+        Assert.assertTrue(collection instanceof PrefetchingRemoteCollection);
+        Assert.assertEquals(25, collected.size());
+        for (int i = 0; i < collected.size(); i++) {
+            Assert.assertEquals(i, collected.get(i).intValue());
+        }
+        Assert.assertEquals(9, loadedPages.get());
+    }
+
+    @Test
+    public void shouldIterateOverPagesWithoutTotals() {
+        AtomicInteger loadedPages = new AtomicInteger();
+        Function<PageParameters, Page<Entity>> endpoint = pagesWithoutTotals(loadedPages, 10);
+        RemoteCollectionConfig config = RemoteCollectionConfig.builder().pageSize(3).totals(PageTotals.NONE).build();
+        RemoteCollection<Entity> collection = new PageReader<>(endpoint, config).getCollection();
+
+        List<Integer> collected = collection.stream().map(e -> e.id).collect(Collectors.toList());
+
+        Assert.assertEquals(-1, collection.size());
+        Assert.assertEquals(10, collected.size());
+        Assert.assertEquals(9, collected.get(9).intValue());
+        Assert.assertEquals(4, loadedPages.get());
+    }
+
+    @Test
+    public void shouldPrefetchPagesWithoutTotals() {
+        AtomicInteger loadedPages = new AtomicInteger();
+        Function<PageParameters, Page<Entity>> endpoint = pagesWithoutTotals(loadedPages, 25);
+        RemoteCollectionConfig config = RemoteCollectionConfig.builder()
+                .pageSize(3)
+                .prefetchPages(2)
+                .totals(PageTotals.NONE)
+                .build();
+        RemoteCollection<Entity> collection = new PageReader<>(endpoint, config).getCollection();
+
+        List<Integer> collected = collection.stream().map(e -> e.id).collect(Collectors.toList());
+
+        Assert.assertEquals(25, collected.size());
+        for (int i = 0; i < collected.size(); i++) {
+            Assert.assertEquals(i, collected.get(i).intValue());
+        }
+        // at most the prefetched pages past the last one are requested
+        Assert.assertTrue(loadedPages.get() <= 9 + 2);
+    }
+
+    private Function<PageParameters, Page<Entity>> pagesWithoutTotals(AtomicInteger loadedPages, int entities) {
+        return (parameters) -> {
+            Assert.assertEquals(PageTotals.NONE, parameters.getTotals());
+            loadedPages.incrementAndGet();
+            Collection<Entity> collection = new ArrayList<>();
+            int first = parameters.getPageIndex() * parameters.getPageSize();
+            for (int i = first; i < Math.min(first + parameters.getPageSize(), entities); i++) {
+                collection.add(new Entity(i));
+            }
+            boolean hasMore = first + parameters.getPageSize() < entities;
+            return Page.withoutTotals(parameters.getPageIndex(), parameters.getPageSize(), hasMore, collection);
+        };
+    }
+
     class Entity {
         int id;
 
@@ -22,6 +22,8 @@ import java.util.function.Consumer;
 /**
  * Dispatchers are labeled Consumers of generic String WebSocket messages.
  *
+ * The WebSocket client hands the messages to a single {@link NotificationRouter}, which routes them to the listeners.
+ *
  * @author <a href="mailto:jmichalo@redhat.com">Jan Michalov</a>
  */
 public interface Dispatcher extends Consumer<String> {
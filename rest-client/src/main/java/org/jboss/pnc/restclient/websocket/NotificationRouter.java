@@ -0,0 +1,283 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.restclient.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jboss.pnc.dto.notification.BuildChangedNotification;
+import org.jboss.pnc.dto.notification.BuildConfigurationCreation;
+import org.jboss.pnc.dto.notification.BuildPushResultNotification;
+import org.jboss.pnc.dto.notification.GenericSettingNotification;
+import org.jboss.pnc.dto.notification.GroupBuildChangedNotification;
+import org.jboss.pnc.dto.notification.Notification;
+import org.jboss.pnc.dto.notification.RepositoryCreationFailure;
+import org.jboss.pnc.dto.notification.SCMRepositoryCreationSuccess;
+import org.jboss.pnc.enums.JobNotificationType;
+import org.jboss.pnc.restclient.websocket.predicates.IndexedPredicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Routes raw WebSocket messages to registered listeners.
+ *
+ * Every message is parsed only once into a JSON tree. Its {@code job} and {@code notificationType} decide which of the
+ * known notification classes can be created from it and the tree is converted at most once per notification class.
+ * Listeners whose filters contain an {@link IndexedPredicate} are kept in a hash index and looked up by the key
+ * extracted from the notification, so a message is not tested against every listener waiting for a different build.
+ *
+ * Notification classes unknown to the router receive every message and silently ignore the ones that can't be mapped.
+ *
+ * @author <a href="mailto:jmichalo@redhat.com">Jan Michalov</a>
+ */
+class NotificationRouter implements Dispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationRouter.class);
+
+    /**
+     * Notification classes that can be created from a message of given job, with the notification types they accept.
+     * An empty set of notification types accepts any type.
+     */
+    private static final Map<JobNotificationType, Map<Class<?>, Set<String>>> ROUTES = new EnumMap<>(
+            JobNotificationType.class);
+
+    private static final Set<Class<?>> ROUTED_CLASSES = new HashSet<>();
+
+    static {
+        route(JobNotificationType.BUILD, BuildChangedNotification.class, "BUILD_STATUS_CHANGED");
+        route(JobNotificationType.GROUP_BUILD, GroupBuildChangedNotification.class, "GROUP_BUILD_STATUS_CHANGED");
+        route(JobNotificationType.BREW_PUSH, BuildPushResultNotification.class, "BREW_PUSH_RESULT");
+        route(
+                JobNotificationType.SCM_REPOSITORY_CREATION,
+                SCMRepositoryCreationSuccess.class,
+                SCMRepositoryCreationSuccess.BC_CREATION_SUCCESS);
+        route(JobNotificationType.SCM_REPOSITORY_CREATION, RepositoryCreationFailure.class);
+        route(
+                JobNotificationType.BUILD_CONFIG_CREATION,
+                BuildConfigurationCreation.class,
+                "BC_CREATION_SUCCESS",
+                "BC_CREATION_ERROR");
+        route(JobNotificationType.BUILD_CONFIG_CREATION, RepositoryCreationFailure.class);
+        route(JobNotificationType.GENERIC_SETTING, GenericSettingNotification.class);
+    }
+
+    private static void route(JobNotificationType job, Class<?> notificationClass, String... notificationTypes) {
+        ROUTES.computeIfAbsent(job, j -> new HashMap<>())
+                .put(notificationClass, new HashSet<>(Arrays.asList(notificationTypes)));
+        ROUTED_CLASSES.add(notificationClass);
+    }
+
+    private final ObjectMapper objectMapper;
+
+    private final ConcurrentMap<Class<?>, TypeListeners<?>> listeners = new ConcurrentHashMap<>();
+
+    NotificationRouter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    <T extends Notification> ListenerUnsubscriber subscribe(
+            Class<T> notificationClass,
+            Consumer<T> listener,
+            Predicate<T>[] filters) {
+        @SuppressWarnings("unchecked")
+        TypeListeners<T> typeListeners = (TypeListeners<T>) listeners
+                .computeIfAbsent(notificationClass, c -> new TypeListeners<>(notificationClass));
+        return typeListeners.add(new Subscription<>(listener, filters));
+    }
+
+    @Override
+    public void accept(String message) {
+        JsonNode tree;
+        try {
+            tree = objectMapper.readTree(message);
+        } catch (IOException e) {
+            log.warn("Ignoring WebSocket message that is not a valid JSON: {}", message);
+            return;
+        }
+        Map<Class<?>, Set<String>> routes = routesFor(tree.path("job").asText(null));
+        String notificationType = tree.path("notificationType").asText(null);
+
+        for (TypeListeners<?> typeListeners : listeners.values()) {
+            if (accepts(routes, typeListeners.notificationClass, notificationType)) {
+                typeListeners.dispatch(tree);
+            }
+        }
+    }
+
+    private static Map<Class<?>, Set<String>> routesFor(String job) {
+        if (job == null) {
+            return Collections.emptyMap();
+        }
+        try {
+            return ROUTES.getOrDefault(JobNotificationType.valueOf(job), Collections.emptyMap());
+        } catch (IllegalArgumentException e) {
+            return Collections.emptyMap();
+        }
+    }
+
+    private static boolean accepts(
+            Map<Class<?>, Set<String>> routes,
+            Class<?> notificationClass,
+            String notificationType) {
+        if (!ROUTED_CLASSES.contains(notificationClass)) {
+            return true;
+        }
+        Set<String> notificationTypes = routes.get(notificationClass);
+        if (notificationTypes == null) {
+            return false;
+        }
+        return notificationTypes.isEmpty() || notificationTypes.contains(notificationType);
+    }
+
+    private class TypeListeners<T extends Notification> {
+
+        private final Class<T> notificationClass;
+
+        private final Set<Subscription<T>> unindexed = ConcurrentHashMap.newKeySet();
+
+        private final ConcurrentMap<String, Index<T>> indexes = new ConcurrentHashMap<>();
+
+        private TypeListeners(Class<T> notificationClass) {
+            this.notificationClass = notificationClass;
+        }
+
+        private ListenerUnsubscriber add(Subscription<T> subscription) {
+            IndexedPredicate<T> indexedFilter = subscription.indexedFilter();
+            if (indexedFilter == null) {
+                unindexed.add(subscription);
+                return () -> unindexed.remove(subscription);
+            }
+            Index<T> index = indexes
+                    .computeIfAbsent(indexedFilter.getIndex(), name -> new Index<>(indexedFilter.getKeyExtractor()));
+            Object key = indexedFilter.getKey();
+            index.add(key, subscription);
+            return () -> index.remove(key, subscription);
+        }
+
+        private void dispatch(JsonNode tree) {
+            if (unindexed.isEmpty() && indexes.values().stream().allMatch(Index::isEmpty)) {
+                return;
+            }
+            T notification;
+            try {
+                notification = objectMapper.treeToValue(tree, notificationClass);
+            } catch (JsonProcessingException e) {
+                // could not parse to particular class of notification, unknown or different type of notification
+                // ignoring the message
+                return;
+            }
+            for (Subscription<T> subscription : unindexed) {
+                subscription.offer(notification);
+            }
+            for (Index<T> index : indexes.values()) {
+                index.dispatch(notification);
+            }
+        }
+    }
+
+    private static class Index<T> {
+
+        private final Function<T, Object> keyExtractor;
+
+        private final ConcurrentMap<Object, Set<Subscription<T>>> subscriptions = new ConcurrentHashMap<>();
+
+        private Index(Function<T, Object> keyExtractor) {
+            this.keyExtractor = keyExtractor;
+        }
+
+        private void add(Object key, Subscription<T> subscription) {
+            subscriptions.compute(key, (k, set) -> {
+                Set<Subscription<T>> result = set == null ? ConcurrentHashMap.newKeySet() : set;
+                result.add(subscription);
+                return result;
+            });
+        }
+
+        private void remove(Object key, Subscription<T> subscription) {
+            subscriptions.computeIfPresent(key, (k, set) -> {
+                set.remove(subscription);
+                return set.isEmpty() ? null : set;
+            });
+        }
+
+        private boolean isEmpty() {
+            return subscriptions.isEmpty();
+        }
+
+        private void dispatch(T notification) {
+            Object key = keyExtractor.apply(notification);
+            if (key == null) {
+                return;
+            }
+            Set<Subscription<T>> matching = subscriptions.get(key);
+            if (matching != null) {
+                for (Subscription<T> subscription : matching) {
+                    subscription.offer(notification);
+                }
+            }
+        }
+    }
+
+    private static class Subscription<T> {
+
+        private final Consumer<T> listener;
+
+        private final Predicate<T>[] filters;
+
+        private Subscription(Consumer<T> listener, Predicate<T>[] filters) {
+            this.listener = listener;
+            this.filters = filters;
+        }
+
+        /**
+         * @return the first indexed filter with a key, null if there is none
+         */
+        private IndexedPredicate<T> indexedFilter() {
+            for (Predicate<T> filter : filters) {
+                if (filter instanceof IndexedPredicate && ((IndexedPredicate<T>) filter).getKey() != null) {
+                    return (IndexedPredicate<T>) filter;
+                }
+            }
+            return null;
+        }
+
+        private void offer(T notification) {
+            for (Predicate<T> filter : filters) {
+                if (filter != null && !filter.test(notification)) {
+                    // does not satisfy a predicate
+                    return;
+                }
+            }
+            listener.accept(notification);
+        }
+    }
+}
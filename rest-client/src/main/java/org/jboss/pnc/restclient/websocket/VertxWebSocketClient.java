@@ -17,7 +17,6 @@
  */
 package org.jboss.pnc.restclient.websocket;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpClient;
@@ -56,8 +55,7 @@ public class VertxWebSocketClient implements WebSocketClient, AutoCloseable {
 
     private WebSocket webSocketConnection;
 
-    // use concurrent version since we may modify that list concurrently
-    private Set<Dispatcher> dispatchers = ConcurrentHashMap.newKeySet();
+    private final NotificationRouter router = new NotificationRouter(objectMapper);
 
     private Set<CompletableFuture<Notification>> singleNotificationFutures = ConcurrentHashMap.newKeySet();
 
@@ -134,7 +132,7 @@ public class VertxWebSocketClient implements WebSocketClient, AutoCloseable {
     }
 
     private void dispatch(String message) {
-        dispatchers.forEach((dispatcher) -> dispatcher.accept(message));
+        router.accept(message);
     }
 
     private void retryConnection(String webSocketServerUrl) {
@@ -192,26 +190,7 @@ public class VertxWebSocketClient implements WebSocketClient, AutoCloseable {
         if (webSocketConnection == null || webSocketConnection.isClosed()) {
             throw new ConnectionClosedException("Connection to WebSocket is closed.");
         }
-        // add JSON message mapping before executing the listener
-        Dispatcher dispatcher = (stringMessage) -> {
-            T notification;
-            try {
-                notification = objectMapper.readValue(stringMessage, notificationClass);
-                for (Predicate<T> filter : filters) {
-                    if (filter != null && !filter.test(notification)) {
-                        // does not satisfy a predicate
-                        return;
-                    }
-                }
-            } catch (JsonProcessingException e) {
-                // could not parse to particular class of notification, unknown or different type of notification
-                // ignoring the message
-                return;
-            }
-            listener.accept(notification);
-        };
-        dispatchers.add(dispatcher);
-        return () -> dispatchers.remove(dispatcher);
+        return router.subscribe(notificationClass, listener, filters);
     }
 
     @Override
@@ -28,7 +28,7 @@ public final class BuildChangedNotificationPredicates {
     }
 
     public static Predicate<BuildChangedNotification> withBuildId(String buildId) {
-        return (notification) -> notification.getBuild().getId().equals(buildId);
+        return IndexedPredicate.keyEquals("build.id", BuildChangedNotificationPredicates::buildId, buildId);
     }
 
     public static Predicate<BuildChangedNotification> withBuildStatus(BuildStatus status) {
@@ -44,6 +44,20 @@ public final class BuildChangedNotificationPredicates {
     }
 
     public static Predicate<BuildChangedNotification> withBuildConfiguration(String buildConfigId) {
-        return (notification) -> notification.getBuild().getBuildConfigRevision().getId().equals(buildConfigId);
+        return IndexedPredicate.keyEquals(
+                "build.buildConfigRevision.id",
+                BuildChangedNotificationPredicates::buildConfigId,
+                buildConfigId);
+    }
+
+    private static Object buildId(BuildChangedNotification notification) {
+        return notification.getBuild() == null ? null : notification.getBuild().getId();
+    }
+
+    private static Object buildConfigId(BuildChangedNotification notification) {
+        if (notification.getBuild() == null || notification.getBuild().getBuildConfigRevision() == null) {
+            return null;
+        }
+        return notification.getBuild().getBuildConfigRevision().getId();
     }
 }
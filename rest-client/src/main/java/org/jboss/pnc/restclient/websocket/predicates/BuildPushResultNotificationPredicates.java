@@ -33,13 +33,19 @@ public final class BuildPushResultNotificationPredicates {
     }
 
     public static Predicate<BuildPushResultNotification> withBuildId(String buildId) {
-        return (notification) -> notification.getBuildPushResult() == null ? false
-                : notification.getBuildPushResult().getBuildId().equals(buildId);
+        return IndexedPredicate.keyEquals(
+                "buildPushResult.buildId",
+                (BuildPushResultNotification notification) -> notification.getBuildPushResult() == null ? null
+                        : notification.getBuildPushResult().getBuildId(),
+                buildId);
     }
 
     public static Predicate<BuildPushResultNotification> withPushId(String pushId) {
-        return (notification) -> notification.getBuildPushResult() == null ? false
-                : notification.getBuildPushResult().getId().equals(pushId);
+        return IndexedPredicate.keyEquals(
+                "buildPushResult.id",
+                (BuildPushResultNotification notification) -> notification.getBuildPushResult() == null ? null
+                        : notification.getBuildPushResult().getId(),
+                pushId);
     }
 
 }
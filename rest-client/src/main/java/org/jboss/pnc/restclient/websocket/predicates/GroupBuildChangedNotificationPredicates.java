@@ -28,11 +28,15 @@ public final class GroupBuildChangedNotificationPredicates {
     }
 
     public static Predicate<GroupBuildChangedNotification> withGConfigId(String groupConfigId) {
-        return (notification) -> notification.getGroupBuild().getGroupConfig().getId().equals(groupConfigId);
+        return IndexedPredicate.keyEquals(
+                "groupBuild.groupConfig.id",
+                GroupBuildChangedNotificationPredicates::groupConfigId,
+                groupConfigId);
     }
 
     public static Predicate<GroupBuildChangedNotification> withGBuildId(String groupBuildId) {
-        return (notification) -> notification.getGroupBuild().getId().equals(groupBuildId);
+        return IndexedPredicate
+                .keyEquals("groupBuild.id", GroupBuildChangedNotificationPredicates::groupBuildId, groupBuildId);
     }
 
     public static Predicate<GroupBuildChangedNotification> withGBuildStatus(BuildStatus groupBuildId) {
@@ -46,4 +50,15 @@ public final class GroupBuildChangedNotificationPredicates {
     public static Predicate<GroupBuildChangedNotification> withGBuildCompleted() {
         return (notification) -> notification.getGroupBuild().getStatus().isFinal();
     }
+
+    private static Object groupBuildId(GroupBuildChangedNotification notification) {
+        return notification.getGroupBuild() == null ? null : notification.getGroupBuild().getId();
+    }
+
+    private static Object groupConfigId(GroupBuildChangedNotification notification) {
+        if (notification.getGroupBuild() == null || notification.getGroupBuild().getGroupConfig() == null) {
+            return null;
+        }
+        return notification.getGroupBuild().getGroupConfig().getId();
+    }
 }
@@ -0,0 +1,71 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.restclient.websocket.predicates;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Predicate matching notifications whose extracted key equals the expected value. The WebSocket client uses the index
+ * name and the key to look the listeners up in a hash index instead of evaluating the predicate of every listener.
+ *
+ * Predicates sharing the same index name must use the same key extractor.
+ *
+ * @param <T> notification type
+ */
+public final class IndexedPredicate<T> implements Predicate<T> {
+
+    private final String index;
+
+    private final Function<T, Object> keyExtractor;
+
+    private final Object key;
+
+    private IndexedPredicate(String index, Function<T, Object> keyExtractor, Object key) {
+        this.index = Objects.requireNonNull(index);
+        this.keyExtractor = Objects.requireNonNull(keyExtractor);
+        this.key = key;
+    }
+
+    /**
+     * @param index name of the index, unique per notification type and key extractor
+     * @param keyExtractor extracts the key from the notification, must be null-safe and may return null
+     * @param key expected value of the key, null never matches
+     */
+    public static <T> IndexedPredicate<T> keyEquals(String index, Function<T, Object> keyExtractor, Object key) {
+        return new IndexedPredicate<>(index, keyExtractor, key);
+    }
+
+    public String getIndex() {
+        return index;
+    }
+
+    public Function<T, Object> getKeyExtractor() {
+        return keyExtractor;
+    }
+
+    public Object getKey() {
+        return key;
+    }
+
+    @Override
+    public boolean test(T notification) {
+        return key != null && key.equals(keyExtractor.apply(notification));
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.restclient.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jboss.pnc.common.json.JsonOutputConverterMapper;
+import org.jboss.pnc.dto.notification.BuildChangedNotification;
+import org.jboss.pnc.enums.BuildStatus;
+import org.jboss.pnc.test.category.DebugTest;
+import org.jboss.pnc.test.util.Benchmark;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static org.jboss.pnc.restclient.websocket.predicates.BuildChangedNotificationPredicates.withBuildCompleted;
+import static org.jboss.pnc.restclient.websocket.predicates.BuildChangedNotificationPredicates.withBuildConfiguration;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Measures message throughput of the WebSocket client dispatch with many listeners waiting for different builds, as
+ * when a CI tool executes hundreds of builds through one client. Compares the routed dispatch with parsing the message
+ * once per listener.
+ */
+@Category(DebugTest.class)
+public class NotificationRouterBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationRouterBenchmarkTest.class);
+
+    private static final ObjectMapper objectMapper = JsonOutputConverterMapper.getMapper();
+
+    private static final int LISTENERS = 500;
+    private static final int MESSAGES = 20_000;
+
+    @Test
+    public void messageThroughput() throws Exception {
+        List<String> messages = new ArrayList<>(MESSAGES);
+        for (int i = 0; i < MESSAGES; i++) {
+            BuildStatus status = i % 10 == 0 ? BuildStatus.SUCCESS : BuildStatus.BUILDING;
+            String buildConfigId = Integer.toString(i % LISTENERS);
+            messages.add(NotificationRouterTest.buildChanged(Integer.toString(i), buildConfigId, status));
+        }
+
+        AtomicLong routedHits = new AtomicLong();
+        NotificationRouter router = new NotificationRouter(objectMapper);
+        List<Consumer<String>> perListenerParsing = new ArrayList<>();
+        AtomicLong perListenerHits = new AtomicLong();
+        for (int i = 0; i < LISTENERS; i++) {
+            Predicate<BuildChangedNotification>[] filters = filters(Integer.toString(i));
+            router.subscribe(BuildChangedNotification.class, n -> routedHits.incrementAndGet(), filters);
+            perListenerParsing.add(parsingDispatcher(filters, perListenerHits));
+        }
+
+        // warm up
+        messages.subList(0, 1000).forEach(router::accept);
+        routedHits.set(0);
+
+        long routed = Benchmark.timeOnce(() -> messages.forEach(router::accept));
+        long perListener = Benchmark.timeOnce(
+                () -> messages.subList(0, MESSAGES / 10)
+                        .forEach(message -> perListenerParsing.forEach(dispatcher -> dispatcher.accept(message))));
+
+        log.info(
+                "Routed dispatch: {} msg/s, parsing per listener: {} msg/s ({} listeners).",
+                MESSAGES * 1_000_000_000L / routed,
+                (MESSAGES / 10) * 1_000_000_000L / perListener,
+                LISTENERS);
+        assertEquals(MESSAGES / 10, routedHits.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Predicate<BuildChangedNotification>[] filters(String buildConfigId) {
+        return new Predicate[] { withBuildConfiguration(buildConfigId), withBuildCompleted() };
+    }
+
+    /**
+     * The dispatch as done before messages were routed: every listener parses the message on its own.
+     */
+    private static Consumer<String> parsingDispatcher(
+            Predicate<BuildChangedNotification>[] filters,
+            AtomicLong hits) {
+        return message -> {
+            try {
+                BuildChangedNotification notification = objectMapper.readValue(message, BuildChangedNotification.class);
+                for (Predicate<BuildChangedNotification> filter : filters) {
+                    if (!filter.test(notification)) {
+                        return;
+                    }
+                }
+                hits.incrementAndGet();
+            } catch (JsonProcessingException e) {
+                // ignore
+            }
+        };
+    }
+}
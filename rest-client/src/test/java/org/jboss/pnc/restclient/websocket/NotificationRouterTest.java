@@ -0,0 +1,111 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.restclient.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jboss.pnc.common.json.JsonOutputConverterMapper;
+import org.jboss.pnc.dto.Build;
+import org.jboss.pnc.dto.BuildConfigurationRevisionRef;
+import org.jboss.pnc.dto.notification.BuildChangedNotification;
+import org.jboss.pnc.dto.notification.BuildPushResultNotification;
+import org.jboss.pnc.dto.notification.Notification;
+import org.jboss.pnc.enums.BuildStatus;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static org.jboss.pnc.restclient.websocket.predicates.BuildChangedNotificationPredicates.withBuildCompleted;
+import static org.jboss.pnc.restclient.websocket.predicates.BuildChangedNotificationPredicates.withBuildConfiguration;
+import static org.jboss.pnc.restclient.websocket.predicates.BuildChangedNotificationPredicates.withBuildId;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NotificationRouterTest {
+
+    private static final ObjectMapper objectMapper = JsonOutputConverterMapper.getMapper();
+
+    private final NotificationRouter router = new NotificationRouter(objectMapper);
+
+    @Test
+    public void shouldDeliverToMatchingIndexedListenerOnly() throws Exception {
+        List<BuildChangedNotification> first = new ArrayList<>();
+        List<BuildChangedNotification> second = new ArrayList<>();
+        subscribe(BuildChangedNotification.class, first::add, withBuildId("1"));
+        subscribe(BuildChangedNotification.class, second::add, withBuildId("2"));
+
+        router.accept(buildChanged("1", "10", BuildStatus.BUILDING));
+
+        assertEquals(1, first.size());
+        assertEquals("1", first.get(0).getBuild().getId());
+        assertTrue(second.isEmpty());
+    }
+
+    @Test
+    public void shouldEvaluateRemainingFilters() throws Exception {
+        List<BuildChangedNotification> received = new ArrayList<>();
+        subscribe(BuildChangedNotification.class, received::add, withBuildConfiguration("10"), withBuildCompleted());
+
+        router.accept(buildChanged("1", "10", BuildStatus.BUILDING));
+        router.accept(buildChanged("1", "10", BuildStatus.SUCCESS));
+
+        assertEquals(1, received.size());
+        assertEquals(BuildStatus.SUCCESS, received.get(0).getBuild().getStatus());
+    }
+
+    @Test
+    public void shouldNotDeliverAfterUnsubscribing() throws Exception {
+        List<BuildChangedNotification> received = new ArrayList<>();
+        ListenerUnsubscriber unsubscriber = subscribe(BuildChangedNotification.class, received::add, withBuildId("1"));
+
+        unsubscriber.run();
+        router.accept(buildChanged("1", "10", BuildStatus.BUILDING));
+
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    public void shouldNotDeliverOtherNotificationTypes() throws Exception {
+        List<BuildPushResultNotification> received = new ArrayList<>();
+        subscribe(BuildPushResultNotification.class, received::add);
+
+        router.accept(buildChanged("1", "10", BuildStatus.BUILDING));
+        router.accept("not a json");
+
+        assertTrue(received.isEmpty());
+    }
+
+    @SafeVarargs
+    private final <T extends Notification> ListenerUnsubscriber subscribe(
+            Class<T> notificationClass,
+            Consumer<T> listener,
+            Predicate<T>... filters) {
+        return router.subscribe(notificationClass, listener, filters);
+    }
+
+    static String buildChanged(String buildId, String buildConfigId, BuildStatus status) throws Exception {
+        Build build = Build.builder()
+                .id(buildId)
+                .status(status)
+                .buildConfigRevision(BuildConfigurationRevisionRef.refBuilder().id(buildConfigId).rev(1).build())
+                .build();
+        return objectMapper.writeValueAsString(new BuildChangedNotification(BuildStatus.NEW, build));
+    }
+}
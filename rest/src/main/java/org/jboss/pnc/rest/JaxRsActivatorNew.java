@@ -56,6 +56,7 @@ import org.jboss.pnc.rest.endpoints.internal.CacheEndpointImpl;
 import org.jboss.pnc.rest.endpoints.internal.DebugEndpointImpl;
 import org.jboss.pnc.rest.endpoints.internal.GenericSettingEndpointImpl;
 import org.jboss.pnc.rest.endpoints.internal.HealthCheckEndpointImpl;
+import org.jboss.pnc.rest.endpoints.internal.RequestMetricsEndpointImpl;
 import org.jboss.pnc.rest.jackson.JacksonProvider;
 import org.jboss.pnc.rest.provider.AllOtherExceptionsMapper;
 import org.jboss.pnc.rest.provider.AlreadyRunningExceptionsMapper;
@@ -64,6 +65,7 @@ import org.jboss.pnc.rest.provider.BuildConflictExceptionMapper;
 import org.jboss.pnc.rest.provider.ConstraintViolationExceptionMapper;
 import org.jboss.pnc.rest.provider.EJBExceptionMapper;
 import org.jboss.pnc.rest.provider.OperationNotAllowedExceptionsMapper;
+import org.jboss.pnc.rest.provider.PageParametersFilter;
 import org.jboss.pnc.rest.provider.RSQLExceptionMapper;
 import org.jboss.pnc.rest.provider.RespondWithStatusFilter;
 import org.jboss.pnc.rest.provider.UnauthorizedExceptionMapper;
@@ -217,6 +219,7 @@ public class JaxRsActivatorNew extends Application {
         resources.add(GenericSettingEndpointImpl.class);
         resources.add(CacheEndpointImpl.class);
         resources.add(DebugEndpointImpl.class);
+        resources.add(RequestMetricsEndpointImpl.class);
     }
 
     private void addExceptionMappers(Set<Class<?>> resources) {
@@ -248,6 +251,7 @@ public class JaxRsActivatorNew extends Application {
 
     private void addProviders(Set<Class<?>> resources) {
         resources.add(JacksonProvider.class);
+        resources.add(PageParametersFilter.class);
     }
 
 }
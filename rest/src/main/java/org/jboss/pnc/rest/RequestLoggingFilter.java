@@ -22,7 +22,9 @@ import org.jboss.pnc.common.logging.MDCUtils;
 import org.jboss.pnc.common.util.MapUtils;
 import org.jboss.pnc.common.util.RandomUtils;
 import org.jboss.pnc.facade.util.UserService;
-import org.jboss.pnc.model.User;
+import org.jboss.pnc.rest.configuration.SwaggerConstants;
+import org.jboss.pnc.rest.endpoints.internal.dto.SlowRequest;
+import org.jboss.pnc.rest.metrics.RequestMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
@@ -33,6 +35,8 @@ import javax.ws.rs.container.ContainerRequestFilter;
 import javax.ws.rs.container.ContainerResponseContext;
 import javax.ws.rs.container.ContainerResponseFilter;
 import javax.ws.rs.container.PreMatching;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Request;
 import javax.ws.rs.core.SecurityContext;
@@ -43,6 +47,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.Principal;
+import java.time.Instant;
 
 /**
  * @author <a href="mailto:matejonnet@gmail.com">Matej Lazar</a>
@@ -53,14 +58,22 @@ public class RequestLoggingFilter implements ContainerRequestFilter, ContainerRe
 
     private Logger logger = LoggerFactory.getLogger(RequestLoggingFilter.class);
     private static final String REQUEST_EXECUTION_START = "request-execution-start";
+    private static final String REQUEST_STATEMENTS_START = "request-statements-start";
 
     @Inject
     UserService userService;
 
+    @Inject
+    RequestMetrics requestMetrics;
+
+    @Context
+    ResourceInfo resourceInfo;
+
     @Override
     public void filter(ContainerRequestContext requestContext) throws IOException {
         MDCUtils.clear();
         requestContext.setProperty(REQUEST_EXECUTION_START, System.currentTimeMillis());
+        requestContext.setProperty(REQUEST_STATEMENTS_START, requestMetrics.getStatementCount());
 
         String logRequestContext = requestContext.getHeaderString("log-request-context");
         if (logRequestContext == null) {
@@ -73,14 +86,11 @@ public class RequestLoggingFilter implements ContainerRequestFilter, ContainerRe
             MDCUtils.addProcessContext(logProcessContext);
         }
 
-        User user = null;
+        // the user entity is resolved lazily when an endpoint needs it, see UserService#currentUser
         try {
-            user = userService.currentUser();
-            if (user != null) {
-                Integer userId = user.getId();
-                if (userId != null) {
-                    MDCUtils.addUserId(Integer.toString(userId));
-                }
+            Integer userId = userService.cachedCurrentUserId();
+            if (userId != null) {
+                MDCUtils.addUserId(Integer.toString(userId));
             }
         } catch (Exception e) {
             // user not found, continue ...
@@ -103,21 +113,67 @@ public class RequestLoggingFilter implements ContainerRequestFilter, ContainerRe
             ContainerRequestContext containerRequestContext,
             ContainerResponseContext containerResponseContext) throws IOException {
         Long startTime = (Long) containerRequestContext.getProperty(REQUEST_EXECUTION_START);
+        int status = containerResponseContext.getStatus();
 
         String took;
         if (startTime == null) {
             took = "-1";
         } else {
-            took = Long.toString(System.currentTimeMillis() - startTime);
+            long tookMillis = System.currentTimeMillis() - startTime;
+            took = Long.toString(tookMillis);
+            recordMetrics(containerRequestContext, tookMillis, status);
         }
 
         try (MDC.MDCCloseable mdcTook = MDC.putCloseable("request.took", took);
-                MDC.MDCCloseable mdcStatus = MDC
-                        .putCloseable("response.status", Integer.toString(containerResponseContext.getStatus()));) {
+                MDC.MDCCloseable mdcStatus = MDC.putCloseable("response.status", Integer.toString(status));) {
             logger.debug("Completed {}.", containerRequestContext.getUriInfo().getPath());
         }
     }
 
+    private void recordMetrics(ContainerRequestContext requestContext, long tookMillis, int status) {
+        try {
+            String route = requestMetrics.getRoute(requestContext.getMethod(), resourceInfo);
+            requestMetrics.record(route, tookMillis, status);
+            if (requestMetrics.isSlow(tookMillis)) {
+                requestMetrics.sample(toSlowRequest(requestContext, route, tookMillis, status));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Cannot record request metrics.", e);
+        }
+    }
+
+    private SlowRequest toSlowRequest(
+            ContainerRequestContext requestContext,
+            String route,
+            long tookMillis,
+            int status) {
+        UriInfo uriInfo = requestContext.getUriInfo();
+        MultivaluedMap<String, String> queryParameters = uriInfo.getQueryParameters();
+
+        long statements = -1;
+        Long statementsStart = (Long) requestContext.getProperty(REQUEST_STATEMENTS_START);
+        if (statementsStart != null && statementsStart >= 0) {
+            long statementsEnd = requestMetrics.getStatementCount();
+            if (statementsEnd >= 0) {
+                statements = statementsEnd - statementsStart;
+            }
+        }
+
+        return SlowRequest.builder()
+                .finished(Instant.now())
+                .route(route)
+                .uri(uriInfo.getRequestUri().toString())
+                .status(status)
+                .tookMillis(tookMillis)
+                .q(queryParameters.getFirst(SwaggerConstants.QUERY_QUERY_PARAM))
+                .sort(queryParameters.getFirst(SwaggerConstants.SORTING_QUERY_PARAM))
+                .pageIndex(queryParameters.getFirst(SwaggerConstants.PAGE_INDEX_QUERY_PARAM))
+                .pageSize(queryParameters.getFirst(SwaggerConstants.PAGE_SIZE_QUERY_PARAM))
+                .statements(statements)
+                .requestContext(MDCUtils.getRequestContext().orElse(null))
+                .build();
+    }
+
     private String getUserPrincipalName(ContainerRequestContext context) {
         SecurityContext securityContext = context.getSecurityContext();
         if (securityContext != null) {
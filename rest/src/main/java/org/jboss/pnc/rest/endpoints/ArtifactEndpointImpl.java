@@ -30,7 +30,12 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.Request;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.jboss.pnc.dto.Build;
 import org.jboss.pnc.dto.response.MilestoneInfo;
@@ -54,6 +59,15 @@ public class ArtifactEndpointImpl implements ArtifactEndpoint {
     @Inject
     private ProductMilestoneProvider productMilestoneProvider;
 
+    @Inject
+    private ConditionalRequests conditionalRequests;
+
+    @Context
+    private Request request;
+
+    @Context
+    private HttpServletResponse servletResponse;
+
     @PostConstruct
     public void init() {
         endpointHelper = new EndpointHelper<>(Artifact.class, artifactProvider);
@@ -72,7 +86,9 @@ public class ArtifactEndpointImpl implements ArtifactEndpoint {
                 pageParams.getQ(),
                 Optional.ofNullable(sha256),
                 Optional.ofNullable(md5),
-                Optional.ofNullable(sha1));
+                Optional.ofNullable(sha1),
+                pageParams.getTotals(),
+                pageParams.getFields());
     }
 
     @Override
@@ -112,6 +128,11 @@ public class ArtifactEndpointImpl implements ArtifactEndpoint {
                 .getMilestonesOfArtifact(id, pageParams.getPageIndex(), pageParams.getPageSize());
     }
 
+    @Override
+    public Map<String, List<MilestoneInfo>> getMilestonesInfoOfArtifacts(List<String> ids) {
+        return productMilestoneProvider.getMilestonesOfArtifacts(ids);
+    }
+
     @Override
     public Page<ArtifactRevision> getRevisions(String id, @Valid PageParameters pageParams) {
         return artifactProvider.getRevisions(pageParams.getPageIndex(), pageParams.getPageSize(), id);
@@ -119,6 +140,10 @@ public class ArtifactEndpointImpl implements ArtifactEndpoint {
 
     @Override
     public ArtifactRevision getRevision(String id, int rev) {
-        return artifactProvider.getRevision(id, rev);
+        return conditionalRequests.getRevision(
+                request,
+                servletResponse,
+                "artifact-" + id + "-" + rev,
+                () -> artifactProvider.getRevision(id, rev));
     }
 }
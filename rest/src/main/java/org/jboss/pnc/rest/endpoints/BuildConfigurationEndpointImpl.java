@@ -54,6 +54,7 @@ import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.NotFoundException;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import java.util.OptionalInt;
 import java.util.Set;
@@ -81,6 +82,12 @@ public class BuildConfigurationEndpointImpl implements BuildConfigurationEndpoin
     @Context
     private HttpServletResponse servletResponse;
 
+    @Context
+    private Request request;
+
+    @Inject
+    private ConditionalRequests conditionalRequests;
+
     @Inject
     private AlignmentConfig alignmentConfig;
 
@@ -185,7 +192,11 @@ public class BuildConfigurationEndpointImpl implements BuildConfigurationEndpoin
 
     @Override
     public BuildConfigurationRevision getRevision(String id, int rev) {
-        return buildConfigurationProvider.getRevision(id, rev);
+        return conditionalRequests.getRevision(
+                request,
+                servletResponse,
+                "build-config-" + id + "-" + rev,
+                () -> buildConfigurationProvider.getRevision(id, rev));
     }
 
     @Override
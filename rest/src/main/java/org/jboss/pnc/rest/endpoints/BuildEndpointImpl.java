@@ -32,6 +32,7 @@ import org.jboss.pnc.dto.response.RunningBuildCount;
 import org.jboss.pnc.dto.response.SSHCredentials;
 import org.jboss.pnc.enums.ArtifactQuality;
 import org.jboss.pnc.enums.BuildStatus;
+import org.jboss.pnc.enums.PageTotals;
 import org.jboss.pnc.facade.BrewPusher;
 import org.jboss.pnc.facade.BuildTriggerer;
 import org.jboss.pnc.facade.providers.api.ArtifactProvider;
@@ -48,8 +49,11 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
+import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.BadRequestException;
 import javax.ws.rs.NotFoundException;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.StreamingOutput;
 import java.io.BufferedWriter;
@@ -74,7 +78,7 @@ public class BuildEndpointImpl implements BuildEndpoint {
     private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
     public static BuildPageInfo toBuildPageInfo(PageParameters page, BuildsFilterParameters builds) {
-        return new BuildPageInfo(
+        BuildPageInfo pageInfo = new BuildPageInfo(
                 page.getPageIndex(),
                 page.getPageSize(),
                 page.getSort(),
@@ -82,6 +86,9 @@ public class BuildEndpointImpl implements BuildEndpoint {
                 builds.isLatest(),
                 builds.isRunning(),
                 builds.getBuildConfigName());
+        pageInfo.setTotals(page.getTotals());
+        pageInfo.setFields(page.getFields());
+        return pageInfo;
     }
 
     @Inject
@@ -96,6 +103,15 @@ public class BuildEndpointImpl implements BuildEndpoint {
     @Inject
     private BrewPusher brewPusher;
 
+    @Inject
+    private ConditionalRequests conditionalRequests;
+
+    @Context
+    private Request request;
+
+    @Context
+    private HttpServletResponse servletResponse;
+
     private EndpointHelper<Integer, Build, BuildRef> endpointHelper;
 
     @PostConstruct
@@ -119,7 +135,12 @@ public class BuildEndpointImpl implements BuildEndpoint {
 
     @Override
     public Build getSpecific(String id) {
-        return endpointHelper.getSpecific(id);
+        return conditionalRequests.getFinishedBuild(
+                request,
+                servletResponse,
+                "build-" + id,
+                provider.getFinishedBuildVersion(id),
+                () -> endpointHelper.getSpecific(id));
     }
 
     @Override
@@ -137,6 +158,9 @@ public class BuildEndpointImpl implements BuildEndpoint {
     @Override
     public Page<Build> getAll(PageParameters pageParams, BuildsFilterParameters filterParams, List<String> attributes) {
         if (attributes != null && !attributes.isEmpty()) {
+            if (pageParams.getTotals() != null && pageParams.getTotals() != PageTotals.EXACT) {
+                throw new BadRequestException("Only EXACT 'totals' are supported when querying by 'attributes'.");
+            }
             Map<String, String> attributeConstraints = parseAttributes(attributes);
             return provider.getByAttribute(toBuildPageInfo(pageParams, filterParams), attributeConstraints);
         } else {
@@ -288,28 +312,32 @@ public class BuildEndpointImpl implements BuildEndpoint {
 
     @Override
     public StreamingOutput getAlignLogs(String id) {
-        String repourLog = provider.getRepourLog(id);
-        if (repourLog == null || repourLog.isEmpty()) {
-            return null;
-        }
-
-        return outputStream -> {
-            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream));
-            writer.write(repourLog);
-            writer.flush();
-        };
+        return conditionalRequests.getFinishedBuildLog(
+                request,
+                servletResponse,
+                "align-log-" + id,
+                provider.getFinishedBuildVersion(id),
+                () -> toStreamingOutput(provider.getRepourLog(id)));
     }
 
     @Override
     public StreamingOutput getBuildLogs(String id) {
-        String buildLog = provider.getBuildLog(id);
-        if (buildLog == null || buildLog.isEmpty()) {
+        return conditionalRequests.getFinishedBuildLog(
+                request,
+                servletResponse,
+                "build-log-" + id,
+                provider.getFinishedBuildVersion(id),
+                () -> toStreamingOutput(provider.getBuildLog(id)));
+    }
+
+    private static StreamingOutput toStreamingOutput(String log) {
+        if (log == null || log.isEmpty()) {
             return null;
         }
 
         return outputStream -> {
             Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream));
-            writer.write(buildLog);
+            writer.write(log);
             writer.flush();
         };
     }
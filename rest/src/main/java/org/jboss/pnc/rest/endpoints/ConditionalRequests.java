@@ -0,0 +1,192 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.endpoints;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.jboss.pnc.common.security.MultiDigest;
+import org.jboss.pnc.common.util.ReadEnvProperty;
+import org.jboss.pnc.facade.providers.api.BuildVersion;
+import org.jboss.pnc.rest.jackson.JacksonProvider;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.security.NoSuchAlgorithmException;
+import java.util.function.Supplier;
+
+/**
+ * Answers conditional GET requests of resources that change rarely (revisions, finished builds and their logs).
+ *
+ * The resource is identified by a strong entity tag. The logs of finished builds are tagged by the build id and
+ * version, so that a request carrying a matching If-None-Match ends with 304 Not Modified before the log is loaded.
+ * Revisions and finished builds embed other entities (project, SCM repository, environment, users...) that can change
+ * on their own, so they are tagged by a hash of their whole mapped representation and only their body is skipped. The
+ * entity tag and a public Cache-Control are added to the response, so that clients and reverse proxies can keep and
+ * revalidate their copies. No Last-Modified is sent, as no single modification time covers the embedded entities.
+ */
+@ApplicationScoped
+public class ConditionalRequests {
+
+    static final String REVISION_MAX_AGE_KEY = "rest_revision_max_age_seconds";
+    private static final int DEFAULT_REVISION_MAX_AGE_SECONDS = 60;
+
+    static final String FINISHED_BUILD_MAX_AGE_KEY = "rest_finished_build_max_age_seconds";
+    private static final int DEFAULT_FINISHED_BUILD_MAX_AGE_SECONDS = 60;
+
+    private final String revisionCacheControl;
+
+    private final String finishedBuildCacheControl;
+
+    private final ObjectMapper objectMapper = new JacksonProvider().getMapper()
+            .copy()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    public ConditionalRequests() {
+        ReadEnvProperty readEnvProperty = new ReadEnvProperty();
+        // the embedded entities of revisions can change, so the copies are revalidated
+        revisionCacheControl = cacheControl(
+                readEnvProperty
+                        .getIntValueFromPropertyOrDefault(REVISION_MAX_AGE_KEY, DEFAULT_REVISION_MAX_AGE_SECONDS));
+        // finished builds can still get new attributes or be deleted as well
+        finishedBuildCacheControl = cacheControl(
+                readEnvProperty.getIntValueFromPropertyOrDefault(
+                        FINISHED_BUILD_MAX_AGE_KEY,
+                        DEFAULT_FINISHED_BUILD_MAX_AGE_SECONDS));
+    }
+
+    /**
+     * Gets a revision. The audited entity doesn't change, but the revision is always loaded and mapped, as its
+     * representation embeds current entities that can change, and the entity tag is a hash of the whole
+     * representation.
+     *
+     * @param tag value of the entity tag, unique for the resource and its revision, the hash of the representation is
+     *        appended to it
+     * @param loader loads and maps the revision
+     * @return the loaded revision
+     * @throws WebApplicationException with 304 Not Modified when the client has a copy of the same representation
+     */
+    public <T> T getRevision(Request request, HttpServletResponse response, String tag, Supplier<T> loader) {
+        return getHashed(request, response, tag, revisionCacheControl, loader.get());
+    }
+
+    /**
+     * Gets a log of a finished build, which doesn't change once the build is finished.
+     *
+     * @param tag value of the entity tag, unique for the log of the build, the build version is appended to it
+     * @param version version of the build, null when the build is not finished yet and the log changes
+     * @param loader loads the log, called only when the client doesn't have a valid copy
+     * @return the loaded log
+     * @throws WebApplicationException with 304 Not Modified when the client has a valid copy
+     */
+    public <T> T getFinishedBuildLog(
+            Request request,
+            HttpServletResponse response,
+            String tag,
+            BuildVersion version,
+            Supplier<T> loader) {
+        if (version == null) {
+            return loader.get();
+        }
+        return get(
+                request,
+                response,
+                new EntityTag(tag + "-" + version.getVersion()),
+                finishedBuildCacheControl,
+                loader);
+    }
+
+    /**
+     * Gets a finished build. The build is always loaded and mapped, as its representation embeds other entities
+     * (project, SCM repository, environment, user, group build...) that can change without the build changing, and
+     * the entity tag is a hash of the whole representation.
+     *
+     * @param tag value of the entity tag, unique for the build, the hash of the representation is appended to it
+     * @param version version of the build, null when the build is not finished yet and it changes
+     * @param loader loads and maps the build
+     * @return the loaded build
+     * @throws WebApplicationException with 304 Not Modified when the client has a copy of the same representation
+     */
+    public <T> T getFinishedBuild(
+            Request request,
+            HttpServletResponse response,
+            String tag,
+            BuildVersion version,
+            Supplier<T> loader) {
+        T resource = loader.get();
+        if (version == null) {
+            return resource;
+        }
+        return getHashed(request, response, tag, finishedBuildCacheControl, resource);
+    }
+
+    private <T> T getHashed(
+            Request request,
+            HttpServletResponse response,
+            String tag,
+            String cacheControl,
+            T resource) {
+        if (resource == null) {
+            return null;
+        }
+        EntityTag entityTag = new EntityTag(tag + "-" + representationHash(resource));
+        return get(request, response, entityTag, cacheControl, () -> resource);
+    }
+
+    private <T> T get(
+            Request request,
+            HttpServletResponse response,
+            EntityTag entityTag,
+            String cacheControl,
+            Supplier<T> loader) {
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(entityTag);
+        if (notModified != null) {
+            throw new WebApplicationException(notModified.header(HttpHeaders.CACHE_CONTROL, cacheControl).build());
+        }
+
+        T resource = loader.get();
+        if (resource != null) {
+            response.setHeader(HttpHeaders.ETAG, entityTag.toString());
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        }
+        return resource;
+    }
+
+    /**
+     * Hashes the JSON representation of the resource. Map entries are ordered by their keys, so that equal
+     * representations have equal hashes. The JSON is streamed into the digest, it is never held as a whole.
+     */
+    private String representationHash(Object resource) {
+        try {
+            MultiDigest digest = new MultiDigest(MultiDigest.SHA256);
+            objectMapper.writeValue(digest.asOutputStream(), resource);
+            return digest.getDigest(MultiDigest.SHA256);
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Can't hash the representation of " + resource, e);
+        }
+    }
+
+    private static String cacheControl(int maxAgeSeconds) {
+        return "public, max-age=" + maxAgeSeconds;
+    }
+}
@@ -53,7 +53,8 @@ public class ProductEndpointImpl implements ProductEndpoint {
                 pageParameters.getPageIndex(),
                 pageParameters.getPageSize(),
                 pageParameters.getSort(),
-                pageParameters.getQ());
+                pageParameters.getQ(),
+                pageParameters.getTotals());
     }
 
     @Override
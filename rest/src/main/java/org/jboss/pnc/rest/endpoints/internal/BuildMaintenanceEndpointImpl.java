@@ -17,6 +17,8 @@
  */
 package org.jboss.pnc.rest.endpoints.internal;
 
+import org.jboss.pnc.coordinator.maintenance.TemporaryBuildsGarbageCollector;
+import org.jboss.pnc.facade.providers.api.BuildProvider;
 import org.jboss.pnc.rest.endpoints.internal.api.BuildMaintenanceEndpoint;
 import org.jboss.pnc.spi.repositorymanager.RepositoryManager;
 import org.jboss.pnc.spi.repositorymanager.RepositoryManagerException;
@@ -27,6 +29,7 @@ import org.slf4j.LoggerFactory;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.ws.rs.core.Response;
+import java.util.Date;
 
 @ApplicationScoped
 public class BuildMaintenanceEndpointImpl implements BuildMaintenanceEndpoint {
@@ -36,6 +39,9 @@ public class BuildMaintenanceEndpointImpl implements BuildMaintenanceEndpoint {
     @Inject
     private RepositoryManager repositoryManager;
 
+    @Inject
+    private BuildProvider buildProvider;
+
     @Override
     public Response collectRepoManagerResult(Integer id) {
         logger.info("Getting repository manager result for build record id {}.", id);
@@ -51,4 +57,22 @@ public class BuildMaintenanceEndpointImpl implements BuildMaintenanceEndpoint {
         }
         return Response.ok(result).build();
     }
+
+    @Override
+    public Response collectTemporaryBuilds(long expiredBefore) {
+        logger.info("Starting deletion of temporary builds finished before {}.", expiredBefore);
+        if (!buildProvider.collectTemporaryBuilds(new Date(expiredBefore))) {
+            return Response.status(Response.Status.CONFLICT).entity("Deletion is already running.").build();
+        }
+        return Response.accepted().build();
+    }
+
+    @Override
+    public Response getTemporaryBuildsCollectionProgress() {
+        TemporaryBuildsGarbageCollector.Progress progress = buildProvider.getTemporaryBuildsCollectionProgress();
+        if (progress == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        return Response.ok(progress).build();
+    }
 }
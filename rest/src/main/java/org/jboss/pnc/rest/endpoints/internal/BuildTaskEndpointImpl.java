@@ -96,7 +96,7 @@ public class BuildTaskEndpointImpl implements BuildTaskEndpoint {
         }
 
         // check if task is already completed
-        // required workaround as we don't remove the BpmTasks immediately after the completion
+        // BpmManager removes the task once notified about the completion, this covers concurrent notifications
         Optional<BpmTask> taskOptional = bpmManager.getTaskById(taskId);
         if (taskOptional.isPresent()) {
             BpmBuildTask bpmBuildTask = (BpmBuildTask) taskOptional.get();
@@ -126,7 +126,6 @@ public class BuildTaskEndpointImpl implements BuildTaskEndpoint {
                 logger.debug("Will notify for bpmTaskId[{}] linked to buildTaskId [{}].", taskId, buildId);
                 bpmManager.notify(taskId, buildResult);
                 logger.debug("Notified for bpmTaskId[{}] linked to buildTaskId [{}].", taskId, buildId);
-                bpmManager.remove(taskId);
                 return Response.ok().build();
             } finally {
                 MDCUtils.removeBuildContext();
@@ -0,0 +1,44 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.endpoints.internal;
+
+import org.jboss.pnc.rest.endpoints.internal.api.RequestMetricsEndpoint;
+import org.jboss.pnc.rest.endpoints.internal.dto.RouteMetrics;
+import org.jboss.pnc.rest.endpoints.internal.dto.SlowRequest;
+import org.jboss.pnc.rest.metrics.RequestMetrics;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.util.List;
+
+@ApplicationScoped
+public class RequestMetricsEndpointImpl implements RequestMetricsEndpoint {
+
+    @Inject
+    private RequestMetrics requestMetrics;
+
+    @Override
+    public List<RouteMetrics> getRouteMetrics() {
+        return requestMetrics.getRouteMetrics();
+    }
+
+    @Override
+    public List<SlowRequest> getSlowRequests() {
+        return requestMetrics.getSlowRequests();
+    }
+}
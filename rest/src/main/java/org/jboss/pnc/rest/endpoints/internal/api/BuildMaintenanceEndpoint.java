@@ -24,12 +24,18 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
+import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.ACCEPTED_CODE;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.ACCEPTED_DESCRIPTION;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.CONFLICTED_CODE;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.CONFLICTED_DESCRIPTION;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.NOT_FOUND_CODE;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.NOT_FOUND_DESCRIPTION;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.SERVER_ERROR_CODE;
@@ -57,4 +63,24 @@ public interface BuildMaintenanceEndpoint {
     @Path("/{id}/repository-manager-result")
     public Response collectRepoManagerResult(@Parameter(description = "Build record ID.") @PathParam("id") Integer id);
 
+    @Operation(
+            summary = "Starts deletion of all the independent temporary builds finished before given time. "
+                    + "Returns 409 if a deletion is already running.",
+            responses = { @ApiResponse(responseCode = ACCEPTED_CODE, description = ACCEPTED_DESCRIPTION),
+                    @ApiResponse(responseCode = CONFLICTED_CODE, description = CONFLICTED_DESCRIPTION),
+                    @ApiResponse(responseCode = SERVER_ERROR_CODE, description = SERVER_ERROR_DESCRIPTION) })
+    @POST
+    @Path("/temporary-builds/gc")
+    public Response collectTemporaryBuilds(
+            @Parameter(description = "Milliseconds since epoch.") @QueryParam("expiredBefore") long expiredBefore);
+
+    @Operation(
+            summary = "Gets progress of the running or the last deletion of temporary builds.",
+            responses = { @ApiResponse(responseCode = SUCCESS_CODE, description = SUCCESS_DESCRIPTION),
+                    @ApiResponse(responseCode = NOT_FOUND_CODE, description = NOT_FOUND_DESCRIPTION),
+                    @ApiResponse(responseCode = SERVER_ERROR_CODE, description = SERVER_ERROR_DESCRIPTION) })
+    @GET
+    @Path("/temporary-builds/gc")
+    public Response getTemporaryBuildsCollectionProgress();
+
 }
@@ -0,0 +1,49 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.endpoints.internal.api;
+
+import io.swagger.v3.oas.annotations.Hidden;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.jboss.pnc.rest.endpoints.internal.dto.RouteMetrics;
+import org.jboss.pnc.rest.endpoints.internal.dto.SlowRequest;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import java.util.List;
+
+@Hidden
+@Tag(name = "Internal")
+@Path("/request-metrics")
+@Produces(MediaType.APPLICATION_JSON)
+public interface RequestMetricsEndpoint {
+
+    /**
+     * Latency percentiles and error counts per REST route, the slowest routes first.
+     */
+    @GET
+    List<RouteMetrics> getRouteMetrics();
+
+    /**
+     * The latest requests that took longer than the slow request threshold, the newest first.
+     */
+    @GET
+    @Path("/slow-requests")
+    List<SlowRequest> getSlowRequests();
+}
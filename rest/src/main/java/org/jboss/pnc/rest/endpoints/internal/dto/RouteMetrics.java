@@ -0,0 +1,68 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.endpoints.internal.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Latency percentiles and error counts of a REST route since the server start.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@JsonDeserialize(builder = RouteMetrics.RouteMetricsBuilder.class)
+public class RouteMetrics {
+
+    /**
+     * Http method and templated path, eg. GET /builds/{id}
+     */
+    private final String route;
+
+    private final long count;
+
+    /**
+     * Number of responses with 4xx status.
+     */
+    private final long clientErrors;
+
+    /**
+     * Number of responses with 5xx status.
+     */
+    private final long serverErrors;
+
+    private final double meanMillis;
+
+    private final long p50Millis;
+
+    private final long p90Millis;
+
+    private final long p95Millis;
+
+    private final long p99Millis;
+
+    private final long maxMillis;
+
+    @JsonPOJOBuilder(withPrefix = "")
+    public static final class RouteMetricsBuilder {
+    }
+
+}
@@ -0,0 +1,74 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.endpoints.internal.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Sample of a request that took longer than the slow request threshold.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@JsonDeserialize(builder = SlowRequest.SlowRequestBuilder.class)
+public class SlowRequest {
+
+    private final Instant finished;
+
+    /**
+     * Http method and templated path, eg. GET /builds/{id}
+     */
+    private final String route;
+
+    private final String uri;
+
+    private final int status;
+
+    private final long tookMillis;
+
+    /**
+     * RSQL query.
+     */
+    private final String q;
+
+    private final String sort;
+
+    private final String pageIndex;
+
+    private final String pageSize;
+
+    /**
+     * Approximate number of prepared statements acquired while the request was running. The Hibernate counter is global
+     * and sampled periodically, so statements of concurrent requests are included too; -1 when the Hibernate statistics
+     * are disabled.
+     */
+    private final long statements;
+
+    private final String requestContext;
+
+    @JsonPOJOBuilder(withPrefix = "")
+    public static final class SlowRequestBuilder {
+    }
+
+}
@@ -0,0 +1,280 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.metrics;
+
+import org.jboss.pnc.common.metrics.LatencyHistogram;
+import org.jboss.pnc.common.util.ReadEnvProperty;
+import org.jboss.pnc.facade.providers.api.CacheProvider;
+import org.jboss.pnc.rest.endpoints.internal.dto.RouteMetrics;
+import org.jboss.pnc.rest.endpoints.internal.dto.SlowRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.ws.rs.Path;
+import javax.ws.rs.container.ResourceInfo;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Per route latency histograms, error counters and samples of slow requests, recorded by
+ * {@link org.jboss.pnc.rest.RequestLoggingFilter}.
+ *
+ * A route is the http method and the templated path of the matched resource method (eg. GET /builds/{id}), so the
+ * number of tracked routes is bounded by the number of resource methods.
+ */
+@ApplicationScoped
+public class RequestMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestMetrics.class);
+
+    static final String SLOW_REQUEST_THRESHOLD_KEY = "rest_slow_request_threshold_millis";
+    private static final int DEFAULT_SLOW_REQUEST_THRESHOLD_MILLIS = 2000;
+
+    static final String SLOW_REQUEST_SAMPLES_KEY = "rest_slow_request_samples";
+    private static final int DEFAULT_SLOW_REQUEST_SAMPLES = 100;
+
+    static final String STATEMENT_COUNT_INTERVAL_KEY = "rest_statement_count_interval_millis";
+    private static final int DEFAULT_STATEMENT_COUNT_INTERVAL_MILLIS = 200;
+
+    private static final long NEVER = Long.MIN_VALUE;
+
+    public static final String UNMATCHED_ROUTE = "UNMATCHED";
+
+    private final ConcurrentMap<String, RouteStats> routes = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Method, String> templates = new ConcurrentHashMap<>();
+
+    private final Deque<SlowRequest> slowRequests = new ArrayDeque<>();
+
+    private long slowRequestThresholdMillis;
+
+    private int slowRequestSamples;
+
+    private long statementCountIntervalMillis;
+
+    private final AtomicLong statementCount = new AtomicLong(-1);
+
+    private final AtomicLong statementCountReadAt = new AtomicLong(NEVER);
+
+    private LongSupplier clock;
+
+    private CacheProvider cacheProvider;
+
+    @Deprecated // CDI workaround
+    public RequestMetrics() {
+    }
+
+    @Inject
+    public RequestMetrics(CacheProvider cacheProvider) {
+        this(
+                cacheProvider,
+                new ReadEnvProperty().getIntValueFromPropertyOrDefault(
+                        SLOW_REQUEST_THRESHOLD_KEY,
+                        DEFAULT_SLOW_REQUEST_THRESHOLD_MILLIS),
+                new ReadEnvProperty()
+                        .getIntValueFromPropertyOrDefault(SLOW_REQUEST_SAMPLES_KEY, DEFAULT_SLOW_REQUEST_SAMPLES),
+                new ReadEnvProperty().getIntValueFromPropertyOrDefault(
+                        STATEMENT_COUNT_INTERVAL_KEY,
+                        DEFAULT_STATEMENT_COUNT_INTERVAL_MILLIS),
+                System::currentTimeMillis);
+    }
+
+    RequestMetrics(
+            CacheProvider cacheProvider,
+            long slowRequestThresholdMillis,
+            int slowRequestSamples,
+            long statementCountIntervalMillis,
+            LongSupplier clock) {
+        this.cacheProvider = cacheProvider;
+        this.slowRequestThresholdMillis = slowRequestThresholdMillis;
+        this.slowRequestSamples = slowRequestSamples;
+        this.statementCountIntervalMillis = statementCountIntervalMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * The Hibernate statistics are read at most once per rest_statement_count_interval_millis, all the requests in
+     * between get the last read value. The number of statements of a request is therefore approximate.
+     *
+     * @return global number of prepared statements acquired so far, -1 when unknown
+     */
+    public long getStatementCount() {
+        long now = clock.getAsLong();
+        long readAt = statementCountReadAt.get();
+        if ((readAt == NEVER || now - readAt >= statementCountIntervalMillis)
+                && statementCountReadAt.compareAndSet(readAt, now)) {
+            statementCount.set(readStatementCount());
+        }
+        return statementCount.get();
+    }
+
+    private long readStatementCount() {
+        try {
+            return cacheProvider.getPrepareStatementCount();
+        } catch (RuntimeException e) {
+            logger.debug("Cannot read the number of prepared statements.", e);
+            return -1;
+        }
+    }
+
+    /**
+     * @return http method and templated path of the matched resource method or {@link #UNMATCHED_ROUTE}
+     */
+    public String getRoute(String httpMethod, ResourceInfo resourceInfo) {
+        Method method = resourceInfo == null ? null : resourceInfo.getResourceMethod();
+        if (method == null) {
+            return UNMATCHED_ROUTE;
+        }
+        String template = templates.computeIfAbsent(method, m -> template(resourceInfo.getResourceClass(), m));
+        return httpMethod + " " + template;
+    }
+
+    public void record(String route, long tookMillis, int status) {
+        RouteStats stats = routes.computeIfAbsent(route, r -> new RouteStats());
+        stats.latency.record(tookMillis);
+        if (status >= 500) {
+            stats.serverErrors.increment();
+        } else if (status >= 400) {
+            stats.clientErrors.increment();
+        }
+    }
+
+    public boolean isSlow(long tookMillis) {
+        return tookMillis >= slowRequestThresholdMillis;
+    }
+
+    public void sample(SlowRequest slowRequest) {
+        logger.info("Slow request {} took {} ms.", slowRequest.getUri(), slowRequest.getTookMillis());
+        synchronized (slowRequests) {
+            slowRequests.addFirst(slowRequest);
+            while (slowRequests.size() > slowRequestSamples) {
+                slowRequests.removeLast();
+            }
+        }
+    }
+
+    /**
+     * @return metrics of all the routes, the slowest (by 99th percentile) first
+     */
+    public List<RouteMetrics> getRouteMetrics() {
+        return routes.entrySet()
+                .stream()
+                .map(RequestMetrics::toRouteMetrics)
+                .sorted(Comparator.comparingLong(RouteMetrics::getP99Millis).reversed())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the latest slow requests, the newest first
+     */
+    public List<SlowRequest> getSlowRequests() {
+        synchronized (slowRequests) {
+            return new ArrayList<>(slowRequests);
+        }
+    }
+
+    private static RouteMetrics toRouteMetrics(Map.Entry<String, RouteStats> entry) {
+        LatencyHistogram latency = entry.getValue().latency;
+        return RouteMetrics.builder()
+                .route(entry.getKey())
+                .count(latency.getCount())
+                .clientErrors(entry.getValue().clientErrors.sum())
+                .serverErrors(entry.getValue().serverErrors.sum())
+                .meanMillis(latency.getMean())
+                .p50Millis(latency.getPercentile(50))
+                .p90Millis(latency.getPercentile(90))
+                .p95Millis(latency.getPercentile(95))
+                .p99Millis(latency.getPercentile(99))
+                .maxMillis(latency.getMax())
+                .build();
+    }
+
+    /**
+     * Resource methods are annotated in the endpoint interfaces, so the {@link Path} annotations are looked up in the
+     * whole type hierarchy.
+     */
+    private static String template(Class<?> resourceClass, Method method) {
+        String classPath = null;
+        String methodPath = null;
+        for (Class<?> type : hierarchy(resourceClass)) {
+            Path path = type.getAnnotation(Path.class);
+            if (classPath == null && path != null) {
+                classPath = path.value();
+            }
+            if (methodPath == null) {
+                try {
+                    Path declared = type.getMethod(method.getName(), method.getParameterTypes())
+                            .getAnnotation(Path.class);
+                    if (declared != null) {
+                        methodPath = declared.value();
+                    }
+                } catch (NoSuchMethodException e) {
+                    // not declared in this type
+                }
+            }
+        }
+        String template = "/" + (classPath == null ? "" : classPath) + "/" + (methodPath == null ? "" : methodPath);
+        template = template.replaceAll("/+", "/");
+        if (template.length() > 1 && template.endsWith("/")) {
+            template = template.substring(0, template.length() - 1);
+        }
+        return template;
+    }
+
+    private static List<Class<?>> hierarchy(Class<?> type) {
+        List<Class<?>> hierarchy = new ArrayList<>();
+        Deque<Class<?>> toVisit = new ArrayDeque<>();
+        toVisit.add(type);
+        while (!toVisit.isEmpty()) {
+            Class<?> current = toVisit.poll();
+            if (current == Object.class || hierarchy.contains(current)) {
+                continue;
+            }
+            hierarchy.add(current);
+            if (current.getSuperclass() != null) {
+                toVisit.add(current.getSuperclass());
+            }
+            for (Class<?> anInterface : current.getInterfaces()) {
+                toVisit.add(anInterface);
+            }
+        }
+        return hierarchy;
+    }
+
+    private static class RouteStats {
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private final LongAdder clientErrors = new LongAdder();
+
+        private final LongAdder serverErrors = new LongAdder();
+    }
+}
@@ -51,8 +51,9 @@ public class AllOtherExceptionsMapper implements ExceptionMapper<Exception> {
 
         if (e instanceof WebApplicationException) {
             response = ((WebApplicationException) e).getResponse();
-            if (e instanceof NotFoundException) {
-                return response; // In case of 404 we want to return the empty body.
+            if (e instanceof NotFoundException
+                    || response.getStatus() == Response.Status.NOT_MODIFIED.getStatusCode()) {
+                return response; // In case of 404 and 304 we want to return the empty body.
             }
             logger.debug("An exception occurred when processing REST response", e);
         } else if (e instanceof Failure) { // Resteasy support
@@ -0,0 +1,90 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.provider;
+
+import org.jboss.pnc.enums.PageTotals;
+import org.jboss.pnc.rest.annotation.PageTotalsSupported;
+import org.jboss.pnc.rest.annotation.SparseFieldsSupported;
+import org.jboss.pnc.rest.configuration.SwaggerConstants;
+
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.Provider;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Rejects the 'totals' and 'fields' page parameters on the endpoints that don't implement them, so that they are not
+ * silently ignored. The endpoints implementing them are annotated with {@link PageTotalsSupported} and
+ * {@link SparseFieldsSupported} in their interfaces.
+ */
+@Provider
+public class PageParametersFilter implements ContainerRequestFilter {
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        Method method = resourceInfo.getResourceMethod();
+        if (method == null) {
+            return;
+        }
+        MultivaluedMap<String, String> query = requestContext.getUriInfo().getQueryParameters();
+
+        List<String> totals = query.get(SwaggerConstants.PAGE_TOTALS_QUERY_PARAM);
+        if (totals != null && totals.stream().anyMatch(t -> !PageTotals.EXACT.name().equals(t))
+                && !isAnnotated(method, PageTotalsSupported.class)) {
+            throw new BadRequestException(
+                    "Query parameter '" + SwaggerConstants.PAGE_TOTALS_QUERY_PARAM
+                            + "' other than EXACT is not supported by this endpoint.");
+        }
+
+        List<String> fields = query.get(SwaggerConstants.FIELDS_QUERY_PARAM);
+        if (fields != null && fields.stream().anyMatch(f -> !f.trim().isEmpty())
+                && !isAnnotated(method, SparseFieldsSupported.class)) {
+            throw new BadRequestException(
+                    "Query parameter '" + SwaggerConstants.FIELDS_QUERY_PARAM
+                            + "' is not supported by this endpoint.");
+        }
+    }
+
+    /**
+     * The JAX-RS annotations are declared on the endpoint interfaces, which the resource methods don't inherit.
+     */
+    private boolean isAnnotated(Method method, Class<? extends Annotation> annotation) {
+        if (method.isAnnotationPresent(annotation)) {
+            return true;
+        }
+        for (Class<?> iface : resourceInfo.getResourceClass().getInterfaces()) {
+            try {
+                if (iface.getMethod(method.getName(), method.getParameterTypes()).isAnnotationPresent(annotation)) {
+                    return true;
+                }
+            } catch (NoSuchMethodException e) {
+                // not declared by this interface
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.metrics;
+
+import org.jboss.pnc.facade.providers.api.CacheProvider;
+import org.jboss.pnc.rest.endpoints.BuildEndpointImpl;
+import org.jboss.pnc.rest.endpoints.internal.dto.RouteMetrics;
+import org.junit.Test;
+
+import javax.ws.rs.container.ResourceInfo;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RequestMetricsTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final CacheProvider cacheProvider = mock(CacheProvider.class);
+
+    private final RequestMetrics metrics = new RequestMetrics(cacheProvider, 1000, 10, 100, now::get);
+
+    @Test
+    public void shouldUseTemplatedRouteOfResourceMethod() throws Exception {
+        ResourceInfo getSpecific = resourceInfo(BuildEndpointImpl.class.getMethod("getSpecific", String.class));
+        ResourceInfo getAll = resourceInfo(method(BuildEndpointImpl.class, "getAll"));
+
+        assertThat(metrics.getRoute("GET", getSpecific)).isEqualTo("GET /builds/{id}");
+        assertThat(metrics.getRoute("GET", getAll)).isEqualTo("GET /builds");
+        assertThat(metrics.getRoute("GET", resourceInfo(null))).isEqualTo(RequestMetrics.UNMATCHED_ROUTE);
+    }
+
+    @Test
+    public void shouldNotPutParameterValuesToRouteNames() throws Exception {
+        ResourceInfo getSpecific = resourceInfo(BuildEndpointImpl.class.getMethod("getSpecific", String.class));
+
+        // requests of /builds/123 and /builds/456
+        metrics.record(metrics.getRoute("GET", getSpecific), 10, 200);
+        metrics.record(metrics.getRoute("GET", getSpecific), 20, 404);
+
+        assertThat(metrics.getRouteMetrics()).hasSize(1);
+        RouteMetrics routeMetrics = metrics.getRouteMetrics().get(0);
+        assertThat(routeMetrics.getRoute()).isEqualTo("GET /builds/{id}").doesNotContain("123", "456");
+        assertThat(routeMetrics.getCount()).isEqualTo(2);
+        assertThat(routeMetrics.getClientErrors()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldReadStatementCountOncePerInterval() {
+        when(cacheProvider.getPrepareStatementCount()).thenReturn(5L, 8L);
+
+        assertThat(metrics.getStatementCount()).isEqualTo(5);
+        now.set(99);
+        assertThat(metrics.getStatementCount()).isEqualTo(5);
+        now.set(100);
+        assertThat(metrics.getStatementCount()).isEqualTo(8);
+        verify(cacheProvider, times(2)).getPrepareStatementCount();
+    }
+
+    private static Method method(Class<?> type, String name) {
+        return Arrays.stream(type.getMethods()).filter(m -> m.getName().equals(name)).findFirst().get();
+    }
+
+    private static ResourceInfo resourceInfo(Method method) {
+        return new ResourceInfo() {
+            @Override
+            public Method getResourceMethod() {
+                return method;
+            }
+
+            @Override
+            public Class<?> getResourceClass() {
+                return BuildEndpointImpl.class;
+            }
+        };
+    }
+}
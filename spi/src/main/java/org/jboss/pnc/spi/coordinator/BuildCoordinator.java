@@ -51,6 +51,14 @@ public interface BuildCoordinator {
 
     List<BuildTask> getSubmittedBuildTasks();
 
+    /**
+     * Gets the numbers of unfinished build tasks. Unlike {@link #getSubmittedBuildTasks()} it doesn't need to go
+     * through the build queue, the numbers are kept up to date on each task status update.
+     *
+     * @return snapshot of the numbers of unfinished build tasks
+     */
+    BuildTaskCounts getBuildTaskCounts();
+
     /**
      * @deprecated will become private
      */
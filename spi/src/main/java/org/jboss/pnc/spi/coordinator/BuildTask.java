@@ -170,7 +170,7 @@ public class BuildTask {
         }
 
         BuildConfiguration buildConfiguration = buildConfigurationAudited.getBuildConfiguration();
-        if (buildConfiguration == null || buildConfiguration.getAllDependencies() == null) {
+        if (buildConfiguration == null || buildConfiguration.getDependencies() == null) {
             return false;
         }
 
@@ -0,0 +1,114 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.spi.coordinator;
+
+import org.jboss.pnc.enums.BuildCoordinationStatus;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Numbers of the unfinished build tasks by their status, by the user who submitted them and by their group build.
+ * Tasks that are {@link BuildCoordinationStatus#NEW} or completed are not counted.
+ */
+public class BuildTaskCounts {
+
+    private final Map<BuildCoordinationStatus, Integer> statuses;
+
+    private final Map<Integer, Integer> users;
+
+    private final Map<Integer, Integer> groupBuilds;
+
+    public BuildTaskCounts(
+            Map<BuildCoordinationStatus, Integer> statuses,
+            Map<Integer, Integer> users,
+            Map<Integer, Integer> groupBuilds) {
+        this.statuses = Collections.unmodifiableMap(statuses);
+        this.users = Collections.unmodifiableMap(users);
+        this.groupBuilds = Collections.unmodifiableMap(groupBuilds);
+    }
+
+    /**
+     * Counts the given tasks.
+     */
+    public static BuildTaskCounts of(Collection<BuildTask> tasks) {
+        Map<BuildCoordinationStatus, Integer> statuses = new EnumMap<>(BuildCoordinationStatus.class);
+        Map<Integer, Integer> users = new HashMap<>();
+        Map<Integer, Integer> groupBuilds = new HashMap<>();
+        for (BuildTask task : tasks) {
+            if (!isCounted(task.getStatus())) {
+                continue;
+            }
+            statuses.merge(task.getStatus(), 1, Integer::sum);
+            if (task.getUser() != null) {
+                users.merge(task.getUser().getId(), 1, Integer::sum);
+            }
+            if (task.getBuildConfigSetRecordId() != null) {
+                groupBuilds.merge(task.getBuildConfigSetRecordId(), 1, Integer::sum);
+            }
+        }
+        return new BuildTaskCounts(statuses, users, groupBuilds);
+    }
+
+    /**
+     * @return true if the tasks with given status are counted
+     */
+    public static boolean isCounted(BuildCoordinationStatus status) {
+        return status != BuildCoordinationStatus.NEW && !status.isCompleted();
+    }
+
+    public int getCount(BuildCoordinationStatus status) {
+        return statuses.getOrDefault(status, 0);
+    }
+
+    /**
+     * @return number of unfinished tasks submitted by the user
+     */
+    public int getUserCount(Integer userId) {
+        return users.getOrDefault(userId, 0);
+    }
+
+    /**
+     * @return number of unfinished tasks of the group build
+     */
+    public int getGroupBuildCount(Integer groupBuildId) {
+        return groupBuilds.getOrDefault(groupBuildId, 0);
+    }
+
+    /**
+     * @return numbers of unfinished tasks by the ids of users who submitted them
+     */
+    public Map<Integer, Integer> getUserCounts() {
+        return users;
+    }
+
+    /**
+     * @return numbers of unfinished tasks by the ids of their group builds
+     */
+    public Map<Integer, Integer> getGroupBuildCounts() {
+        return groupBuilds;
+    }
+
+    @Override
+    public String toString() {
+        return "BuildTaskCounts{statuses=" + statuses + ", users=" + users + ", groupBuilds=" + groupBuilds + '}';
+    }
+}
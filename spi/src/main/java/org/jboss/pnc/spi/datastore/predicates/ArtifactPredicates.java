@@ -28,6 +28,7 @@ import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
 
 import javax.persistence.criteria.Join;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
 
@@ -40,6 +41,10 @@ public class ArtifactPredicates {
         return (root, query, cb) -> cb.equal(root.join(Artifact_.buildRecord).get(BuildRecord_.id), buildRecordId);
     }
 
+    public static Predicate<Artifact> withBuildRecordIds(Collection<Integer> buildRecordIds) {
+        return (root, query, cb) -> root.join(Artifact_.buildRecord).get(BuildRecord_.id).in(buildRecordIds);
+    }
+
     public static Predicate<Artifact> withDependantBuildRecordId(Integer buildRecordId) {
         return (root, query, cb) -> {
             Join<Artifact, BuildRecord> buildRecords = root.join(Artifact_.dependantBuildRecords);
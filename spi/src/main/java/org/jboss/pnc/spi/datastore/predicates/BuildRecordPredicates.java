@@ -59,6 +59,14 @@ public class BuildRecordPredicates {
         return (root, query, cb) -> cb.equal(root.get(org.jboss.pnc.model.BuildRecord_.id), buildRecordId);
     }
 
+    public static Predicate<BuildRecord> withIds(Collection<Integer> ids) {
+        return (root, query, cb) -> root.get(BuildRecord_.id).in(ids);
+    }
+
+    public static Predicate<BuildRecord> withIdGreaterThan(Integer id) {
+        return (root, query, cb) -> cb.greaterThan(root.get(BuildRecord_.id), id);
+    }
+
     public static Predicate<BuildRecord> withBuildConfigurationId(Integer configurationId) {
         return (root, query, cb) -> cb.equal(root.get(BuildRecord_.buildConfigurationId), configurationId);
     }
@@ -269,6 +277,13 @@ public class BuildRecordPredicates {
         };
     }
 
+    public static Predicate<BuildRecord> withCausingBuildRecordIds(Collection<Integer> buildRecordIds) {
+        return (root, query, cb) -> {
+            Join<BuildRecord, BuildRecord> join = root.join(BuildRecord_.noRebuildCause);
+            return join.get(BuildRecord_.id).in(buildRecordIds);
+        };
+    }
+
     public static Predicate<BuildRecord> withoutLinkedNRRRecordOlderThanTimestamp(Date date) {
         return (root, query, cb) -> {
             // subquery returns amount of records older than date
@@ -17,7 +17,6 @@
  */
 package org.jboss.pnc.spi.datastore.predicates;
 
-import org.jboss.pnc.common.util.StringUtils;
 import org.jboss.pnc.common.util.UrlUtils;
 import org.jboss.pnc.model.RepositoryConfiguration;
 import org.jboss.pnc.model.RepositoryConfiguration_;
@@ -34,24 +33,23 @@ public class RepositoryConfigurationPredicates {
     }
 
     /**
-     * Queries against normalized version with stripped protocol and .git extension
+     * Queries against normalized version, see {@link UrlUtils#normalizeScmUrl(String)}
      */
     public static Predicate<RepositoryConfiguration> withInternalScmRepoUrl(String internalUrl) {
-        String urlStripped = StringUtils.stripSuffix(UrlUtils.keepHostAndPathOnly(internalUrl), ".git");
+        String urlStripped = UrlUtils.normalizeScmUrl(internalUrl);
         return (root, query, cb) -> cb.equal(root.get(RepositoryConfiguration_.internalUrlNormalized), urlStripped);
     }
 
     /**
-     * Queries against normalized version with stripped protocol and .git extension
+     * Queries against normalized version, see {@link UrlUtils#normalizeScmUrl(String)}
      */
     public static Predicate<RepositoryConfiguration> withExternalScmRepoUrl(String externalScmRepoUrl) {
-        String urlStripped = StringUtils.stripSuffix(UrlUtils.keepHostAndPathOnly(externalScmRepoUrl), ".git");
+        String urlStripped = UrlUtils.normalizeScmUrl(externalScmRepoUrl);
         return (root, query, cb) -> cb.equal(root.get(RepositoryConfiguration_.externalUrlNormalized), urlStripped);
     }
 
     public static Predicate<RepositoryConfiguration> searchByScmUrl(String scmUrl) {
-        String urlStripped = UrlUtils.keepHostAndPathOnly(scmUrl);
-        urlStripped = StringUtils.stripSuffix(urlStripped, ".git");
+        String urlStripped = UrlUtils.normalizeScmUrl(scmUrl);
 
         String pattern = "%" + urlStripped + "%";
         logger.trace("Searching for pattern: {}.", pattern);
@@ -62,7 +60,7 @@ public class RepositoryConfigurationPredicates {
     }
 
     public static Predicate<RepositoryConfiguration> matchByScmUrl(String scmUrl) {
-        final String urlStripped = StringUtils.stripSuffix(UrlUtils.keepHostAndPathOnly(scmUrl), ".git");
+        final String urlStripped = UrlUtils.normalizeScmUrl(scmUrl);
 
         logger.trace("Searching for pattern: {}.", urlStripped);
 
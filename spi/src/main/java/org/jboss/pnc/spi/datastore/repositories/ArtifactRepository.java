@@ -20,6 +20,8 @@ package org.jboss.pnc.spi.datastore.repositories;
 import org.jboss.pnc.model.Artifact;
 import org.jboss.pnc.spi.datastore.repositories.api.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -28,4 +30,15 @@ import java.util.Set;
 public interface ArtifactRepository extends Repository<Artifact, Integer> {
 
     Set<Artifact> withIdentifierAndSha256s(Set<Artifact.IdentifierSha256> identifierSha256s);
+
+    /**
+     * @return built artifacts with any of the identifiers
+     */
+    List<Artifact> withIdentifierInAndBuilt(Set<String> identifiers);
+
+    /**
+     * Gets the artifacts built by the builds with the builds depending on them and the milestones distributing them
+     * already loaded, so they can be checked without a query per artifact.
+     */
+    List<Artifact> withBuildRecordIdsFetchUsages(Collection<Integer> buildRecordIds);
 }
@@ -20,8 +20,19 @@ package org.jboss.pnc.spi.datastore.repositories;
 import org.jboss.pnc.model.BuildConfiguration;
 import org.jboss.pnc.spi.datastore.repositories.api.Repository;
 
+import java.util.Set;
+
 /**
  * Interface for manipulating {@link org.jboss.pnc.model.BuildConfiguration} entity.
  */
 public interface BuildConfigurationRepository extends Repository<BuildConfiguration, Integer> {
+
+    /**
+     * Finds ids of all direct and indirect dependencies of a Build Config without loading the dependency graph into
+     * memory when the database supports it.
+     *
+     * @param buildConfigurationId ID of the Build Config.
+     * @return Ids of the dependencies or empty set if the Build Config doesn't exist.
+     */
+    Set<Integer> getDependencyIds(Integer buildConfigurationId);
 }
@@ -27,6 +27,7 @@ import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
 
 import java.util.Comparator;
 import java.util.Date;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -42,6 +43,13 @@ public interface BuildRecordRepository extends Repository<BuildRecord, Integer>
      */
     BuildRecord findByIdFetchProperties(Integer id);
 
+    /**
+     * Bulk variant of {@link #findByIdFetchProperties(Integer)}.
+     *
+     * @return found records, ids without a record are skipped
+     */
+    List<BuildRecord> findByIdsFetchProperties(Collection<Integer> ids);
+
     List<BuildRecord> queryWithPredicatesUsingCursor(
             PageInfo pageInfo,
             SortInfo sortInfo,
@@ -79,9 +87,31 @@ public interface BuildRecordRepository extends Repository<BuildRecord, Integer>
 
     List<BuildRecord> findIndependentTemporaryBuildsOlderThan(Date date);
 
+    /**
+     * Batched variant of {@link #findIndependentTemporaryBuildsOlderThan(Date)}, the records are ordered by id.
+     *
+     * @param afterId only records with greater id are returned, null to start with the first record
+     * @param limit maximal number of returned records
+     */
+    List<BuildRecord> findIndependentTemporaryBuildsOlderThan(Date date, Integer afterId, int limit);
+
     BuildRecord getLatestSuccessfulBuildRecord(IdRev buildConfigurationAuditedIdRev, boolean temporaryBuild);
 
     Set<BuildRecord> findByBuiltArtifacts(Set<Integer> artifactsId);
 
     List<BuildRecord> getBuildByCausingRecord(Integer causingRecordId);
+
+    /**
+     * Transitive closure of the dependencies of the build, as they were stored with the builds.
+     *
+     * @return ids of the builds the build depends on directly or indirectly, empty if the build doesn't exist
+     */
+    Set<Integer> getDependencyIds(Integer buildRecordId);
+
+    /**
+     * Transitive closure of the dependents of the build, as they were stored with the builds.
+     *
+     * @return ids of the builds that depend on the build directly or indirectly, empty if the build doesn't exist
+     */
+    Set<Integer> getDependentIds(Integer buildRecordId);
 }
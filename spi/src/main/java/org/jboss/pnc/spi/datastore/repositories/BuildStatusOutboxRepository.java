@@ -0,0 +1,66 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.spi.datastore.repositories;
+
+import org.jboss.pnc.model.BuildStatusOutboxMessage;
+import org.jboss.pnc.spi.datastore.repositories.api.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Interface for manipulating {@link org.jboss.pnc.model.BuildStatusOutboxMessage} entity.
+ */
+public interface BuildStatusOutboxRepository extends Repository<BuildStatusOutboxMessage, Long> {
+
+    /**
+     * Gets the oldest pending messages that can be sent now. A message waiting for its retry and the later messages of
+     * its build are left out, so they don't fill the batches and hold back the other builds.
+     *
+     * @return the pending messages, in the order of their ids
+     */
+    List<BuildStatusOutboxMessage> queryPending(int maxResults, Date now);
+
+    /**
+     * @return number of the pending messages
+     */
+    long countPending();
+
+    /**
+     * @return creation time of the oldest pending message, null if there is none
+     */
+    Date queryOldestPendingCreatedAt();
+
+    /**
+     * @return the last message of the same build written before the message, null if there is none
+     */
+    BuildStatusOutboxMessage queryPrevious(BuildStatusOutboxMessage message);
+
+    /**
+     * @return true if the status of the build was written with its build record
+     */
+    boolean isStoredWithBuildRecord(Integer buildId);
+
+    /**
+     * Deletes the sent and parked messages created before the date.
+     *
+     * @param pending delete the pending messages too, f.e. when there is no broker to send them to
+     * @return number of deleted messages
+     */
+    int deleteCreatedBefore(Date createdBefore, boolean pending);
+}
@@ -32,6 +32,11 @@ public interface CacheHandlerRepository {
 
     SortedMap<String, HibernateMetric> getGenericStats();
 
+    /**
+     * @return global number of prepared statements acquired so far, -1 when the statistics are disabled
+     */
+    long getPrepareStatementCount();
+
     void clearCache();
 
 }
@@ -0,0 +1,50 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.spi.datastore.repositories;
+
+import org.jboss.pnc.model.Artifact;
+import org.jboss.pnc.model.BuildRecord;
+import org.jboss.pnc.model.ProductMilestone;
+import org.jboss.pnc.model.ProductMilestoneArtifact;
+import org.jboss.pnc.spi.datastore.repositories.api.Repository;
+
+import java.util.Collection;
+
+/**
+ * Interface for manipulating {@link org.jboss.pnc.model.ProductMilestoneArtifact} entity.
+ */
+public interface ProductMilestoneArtifactRepository extends Repository<ProductMilestoneArtifact, Long> {
+
+    /**
+     * Indexes the artifacts built and consumed by the build in its milestone. Builds outside of a milestone and
+     * temporary builds are left out.
+     *
+     * @param builtArtifacts artifacts built by the build
+     */
+    void indexBuildRecord(BuildRecord buildRecord, Collection<Artifact> builtArtifacts);
+
+    /**
+     * Indexes the artifacts delivered in the milestone, they are to be added to its distributed artifacts too.
+     */
+    void indexDeliveredArtifacts(ProductMilestone productMilestone, Collection<Artifact> deliveredArtifacts);
+
+    /**
+     * Removes all the links of the artifacts, to be called before the artifacts are deleted.
+     */
+    void removeArtifacts(Collection<Artifact> artifacts);
+}
@@ -19,6 +19,7 @@ package org.jboss.pnc.spi.datastore.repositories.api;
 
 import org.jboss.pnc.model.GenericEntity;
 
+import javax.persistence.Tuple;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.List;
@@ -39,4 +40,24 @@ public interface ReadOnlyRepository<T extends GenericEntity<ID>, ID extends Seri
     List<T> queryWithPredicates(Predicate<T>... predicates);
 
     List<T> queryWithPredicates(PageInfo pageInfo, SortInfo sortInfo, Predicate<T>... predicates);
+
+    /**
+     * Returns the page of matching entities followed by the first entity of the next page, if there is one, so that
+     * the caller can tell whether a next page exists. Unlike {@link #queryWithPredicates(PageInfo, SortInfo,
+     * Predicate[])} it never counts all the matching entities.
+     */
+    List<T> queryWithPredicatesAndLookahead(PageInfo pageInfo, SortInfo sortInfo, Predicate<T>... predicates);
+
+    /**
+     * Same as {@link #queryWithPredicatesAndLookahead(PageInfo, SortInfo, Predicate[])}, but selects only the given
+     * attributes of the entities as tuples, each element aliased by its attribute name. Relations to other entities are
+     * loaded with an outer join, collections can't be selected.
+     *
+     * @param attributes names of the attributes to select, the id is always selected
+     */
+    List<Tuple> queryAttributesWithPredicatesAndLookahead(
+            PageInfo pageInfo,
+            SortInfo sortInfo,
+            Collection<String> attributes,
+            Predicate<T>... predicates);
 }
@@ -19,8 +19,9 @@ package org.jboss.pnc.test.category;
 
 /**
  * Marker interface for Remote test (currently only
- * org.jboss.pnc.environment.openshift.OpenshiftEnvironmentDriverRemoteTest). Use this annotation in conjunction with
- * {@link org.junit.experimental.categories.Category}.
+ * org.jboss.pnc.environment.openshift.OpenshiftEnvironmentDriverRemoteTest) and for the benchmarks, see
+ * {@link org.jboss.pnc.test.util.Benchmark}. Use this annotation in conjunction with
+ * {@link org.junit.experimental.categories.Category}. The tests run only with {@code -Pdebug-tests}.
  */
 public interface DebugTest {
 }
@@ -0,0 +1,126 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2020 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.test.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timing harness of the benchmarks. Benchmarks are marked with {@link org.jboss.pnc.test.category.DebugTest} and run
+ * only with {@code -Pdebug-tests}.
+ */
+public class Benchmark {
+
+    @FunctionalInterface
+    public interface Operation {
+        void run() throws Exception;
+    }
+
+    /**
+     * Runs the operation once to warm up and times the average of the following runs.
+     *
+     * @return nanoseconds per run
+     */
+    public static long time(int runs, Operation operation) throws Exception {
+        operation.run();
+        return timeOnce(() -> {
+            for (int i = 0; i < runs; i++) {
+                operation.run();
+            }
+        }) / runs;
+    }
+
+    /**
+     * Times a single run of the operation, without warm up.
+     *
+     * @return nanoseconds, at least 1
+     */
+    public static long timeOnce(Operation operation) throws Exception {
+        long start = System.nanoTime();
+        operation.run();
+        return Math.max(1, System.nanoTime() - start);
+    }
+
+    /**
+     * Runs the operation repeatedly in each of the threads for the duration.
+     *
+     * @return number of runs of all the threads
+     */
+    public static long throughput(int threads, long durationMillis, Operation operation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Long>> counts = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                counts.add(executor.submit(() -> {
+                    start.await();
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+                    long count = 0;
+                    while (System.nanoTime() < deadline) {
+                        operation.run();
+                        count++;
+                    }
+                    return count;
+                }));
+            }
+            start.countDown();
+            long total = 0;
+            for (Future<Long> count : counts) {
+                total += count.get();
+            }
+            return total;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return bytes allocated by the current thread during a single run of the operation, -1 if the JVM doesn't
+     *         measure it
+     */
+    public static long allocatedBytes(Operation operation) throws Exception {
+        long before = threadAllocatedBytes();
+        operation.run();
+        return before < 0 ? -1 : threadAllocatedBytes() - before;
+    }
+
+    /**
+     * Simulates a database round trip. It spins, as sleeping is too coarse for short round trips.
+     */
+    public static void roundTrip(long micros) {
+        long end = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(micros);
+        while (System.nanoTime() < end) {
+            // spin
+        }
+    }
+
+    private static long threadAllocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}